@@ -19,11 +19,12 @@
  */
 package buri.ddmsence;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 import nu.xom.Element;
 import buri.ddmsence.ddms.IBuilder;
@@ -119,29 +120,27 @@ public abstract class AbstractAccessEntity extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		if (getSystemName() != null)
-			addJson(object, "systemName", getSystemName().getJSONObject());
-		addJson(object, getOutputName() + "Value", getOutputValues());
-		addJson(object, getSecurityAttributes());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		if (getSystemName() != null) {
+			writer.name("systemName");
+			getSystemName().writeJSON(writer);
+		}
+		addJson(writer, getOutputName() + "Value", getOutputValues());
+		addJson(writer, getSecurityAttributes());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getOutputName(), suffix) + ".";
-		StringBuffer text = new StringBuffer();
 		if (getSystemName() != null)
-			text.append(getSystemName().getHTMLTextOutput(format, localPrefix, ""));
-		text.append(buildHTMLTextOutput(format, localPrefix, getOutputValues()));
-		text.append(getSecurityAttributes().getHTMLTextOutput(format, localPrefix));
-		return (text.toString());
+			getSystemName().writeHTMLText(text, format, localPrefix, "");
+		addHTMLText(text, format, localPrefix, getOutputValues());
+		getSecurityAttributes().writeHTMLText(text, format, localPrefix);
 	}
 	
 	/**
@@ -19,6 +19,7 @@
  */
 package buri.ddmsence;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -28,9 +29,11 @@ import buri.ddmsence.ddms.OutputFormat;
 import buri.ddmsence.ddms.ValidationMessage;
 import buri.ddmsence.ddms.security.ism.SecurityAttributes;
 import buri.ddmsence.util.DDMSVersion;
+import buri.ddmsence.util.JsonTreeBuilder;
 import buri.ddmsence.util.Util;
 
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * Top-level base class for attribute groups, such as {@link SecurityAttributes}.
@@ -116,7 +119,44 @@ public abstract class AbstractAttributeGroup {
 	 * <p>I consider this to be an internal method, that unfortunately must be marked as public to allow cross-package
 	 * access when generating output. Use toJSON() as the formal, public method to generate output.</p>
 	 */
-	public abstract JsonObject getJSONObject();
+	public JsonObject getJSONObject() {
+		JsonTreeBuilder writer = new JsonTreeBuilder();
+		try {
+			writeJSON(writer);
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return (writer.get().getAsJsonObject());
+	}
+
+	/**
+	 * Writes this attribute group as a JSON object to a JSON stream.
+	 * 
+	 * @param writer the JSON stream
+	 * @throws IOException if the JSON could not be written
+	 * @since 2.5.0
+	 */
+	public void writeJSON(JsonWriter writer) throws IOException {
+		writer.beginObject();
+		writeJSONProperties(writer);
+		writer.endObject();
+	}
+
+	/**
+	 * Writes the name-value pairs of this attribute group to a JSON stream, inside a JSON object which the caller has
+	 * already begun. This is either the attribute group's own object, or the parent's object when attributes are
+	 * inlined.
+	 * 
+	 * <p>I consider this to be an internal method, that unfortunately must be marked as public to allow cross-package
+	 * access when generating output. Use toJSON() on the enclosing component as the formal, public method to generate
+	 * output.</p>
+	 * 
+	 * @param writer the JSON stream
+	 * @throws IOException if the JSON could not be written
+	 * @since 2.5.0
+	 */
+	public abstract void writeJSONProperties(JsonWriter writer) throws IOException;
 	
 	/**
 	 * Returns a name that describes this attribute group. The format of the name is the class name with a lower-case
@@ -134,31 +174,73 @@ public abstract class AbstractAttributeGroup {
 	 * @param prefix the prefix to add
 	 * @return the output
 	 */
-	public abstract String getHTMLTextOutput(OutputFormat format, String prefix);
+	public String getHTMLTextOutput(OutputFormat format, String prefix) {
+		StringBuilder output = new StringBuilder();
+		try {
+			writeHTMLText(output, format, prefix);
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return (output.toString());
+	}
+
+	/**
+	 * Writes to HTML or Text with a prefix at the beginning of each meta tag or line, straight into the destination of
+	 * the enclosing component.
+	 * 
+	 * <p>I consider this to be an internal method, that unfortunately must be marked as public to allow cross-package
+	 * access when generating output. Use writeHTML() and writeText() on the enclosing component as the formal, public
+	 * methods to stream output.</p>
+	 * 
+	 * @param text the destination
+	 * @param format the desired format of this output
+	 * @param prefix the prefix to add
+	 * @throws IOException if the output could not be written
+	 * @since 2.5.0
+	 */
+	public abstract void writeHTMLText(Appendable text, OutputFormat format, String prefix) throws IOException;
+
+	/**
+	 * Writes a meta tag for HTML output or a text line for Text output, but only if the content is not empty. This
+	 * method delegates to Util, so the individual HTML/Text implementations are cleaner.
+	 * 
+	 * @param text the destination
+	 * @param format the desired format of this output
+	 * @param prefix the first part of the name (will be escaped in HTML)
+	 * @param name the second part of the name (will be escaped in HTML)
+	 * @param content the value of the name-value pairing (will be escaped in HTML)
+	 * @throws IOException if the output could not be written
+	 */
+	protected static void addHTMLText(Appendable text, OutputFormat format, String prefix, String name,
+		String content) throws IOException {
+		Util.writeHTMLTextProperty(text, format, prefix, name, content);
+	}
 	
 	/**
-	 * Adds a value to a JSON object, but only if it is not empty and not null. This method delegates to Util, so the
+	 * Writes a value to a JSON stream, but only if it is not empty and not null. This method delegates to Util, so the
 	 * individual JSON implementations are cleaner.
 	 * 
-	 * @param object the object to add to
-	 * @param name the name of the array, if added
-	 * @param value the value to add
+	 * @param writer the JSON stream
+	 * @param name the name of the property, if written
+	 * @param value the value to write
+	 * @throws IOException if the JSON could not be written
 	 */
-	protected static void addJson(JsonObject object, String name, Object value) {
-		Util.addNonEmptyJsonProperty(object, name, value);
+	protected static void addJson(JsonWriter writer, String name, Object value) throws IOException {
+		Util.writeNonEmptyJsonProperty(writer, name, value);
 	}
 	
 	/**
-	 * Adds a list of values to a JSON object, but only if it is not empty and not null. This method delegates to Util,
-	 * so the
-	 * individual JSON implementations are cleaner.
+	 * Writes a list of values to a JSON stream, but only if it is not empty and not null. This method delegates to
+	 * Util, so the individual JSON implementations are cleaner.
 	 * 
-	 * @param object the object to add to
-	 * @param name the name of the array, if added
-	 * @param value the value to add, converted into a JSON array
+	 * @param writer the JSON stream
+	 * @param name the name of the array, if written
+	 * @param value the value to write, as a JSON array
+	 * @throws IOException if the JSON could not be written
 	 */
-	protected static void addJson(JsonObject object, String name, List<?> value) {
-		Util.addNonEmptyJsonProperty(object, name, Util.getJSONArray(value));
+	protected static void addJson(JsonWriter writer, String name, List<?> value) throws IOException {
+		Util.writeNonEmptyJsonProperty(writer, name, value);
 	}
 	
 	/**
@@ -19,11 +19,16 @@
  */
 package buri.ddmsence;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import nu.xom.Element;
 import buri.ddmsence.ddms.IDDMSComponent;
@@ -33,13 +38,17 @@ import buri.ddmsence.ddms.Resource;
 import buri.ddmsence.ddms.UnsupportedVersionException;
 import buri.ddmsence.ddms.ValidationMessage;
 import buri.ddmsence.ddms.extensible.ExtensibleElement;
+import buri.ddmsence.ddms.security.ClearanceFilter;
 import buri.ddmsence.ddms.security.ism.SecurityAttributes;
+import buri.ddmsence.util.ComponentSerializer;
 import buri.ddmsence.util.DDMSVersion;
-import buri.ddmsence.util.PropertyReader;
+import buri.ddmsence.util.JsonTreeBuilder;
+import buri.ddmsence.util.OutputOptions;
 import buri.ddmsence.util.Util;
+import buri.ddmsence.util.XMLStyle;
 
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * Top-level base class for all DDMS elements and attributes modeled as Java objects.
@@ -73,6 +82,7 @@ public abstract class AbstractBaseComponent implements IDDMSComponent {
 
 	private List<ValidationMessage> _warnings = null;
 	private Element _element = null;
+	private volatile RenderCache.Rendering[] _renderings = null;
 
 	public static final Map<OutputFormat, String> OUTPUT_TEMPLATES = new HashMap<OutputFormat, String>();
 	static {
@@ -144,6 +154,67 @@ public abstract class AbstractBaseComponent implements IDDMSComponent {
 		return (null);
 	}
 
+	/**
+	 * Accessor for the security attributes of this component and of every component nested inside it, in document
+	 * order. Components without security attributes, or with empty ones, are skipped. While a ClearanceFilter is
+	 * writing on this thread, the components it hides are skipped, along with everything nested inside them.
+	 * 
+	 * @return an unmodifiable list of attributes
+	 * @since 2.5.0
+	 */
+	public List<SecurityAttributes> getAllSecurityAttributes() {
+		List<SecurityAttributes> attributes = new ArrayList<SecurityAttributes>();
+		addSecurityAttributes(attributes);
+		return (Collections.unmodifiableList(attributes));
+	}
+
+	/**
+	 * Adds the non-empty security attributes of this component and its nested components to a list.
+	 * 
+	 * @param attributes the list to add to
+	 */
+	private void addSecurityAttributes(List<SecurityAttributes> attributes) {
+		SecurityAttributes securityAttributes = getSecurityAttributes();
+		if (securityAttributes != null && !securityAttributes.isEmpty())
+			attributes.add(securityAttributes);
+		for (IDDMSComponent nested : getNestedComponents()) {
+			if (nested instanceof AbstractBaseComponent && ClearanceFilter.isWritable(nested))
+				((AbstractBaseComponent) nested).addSecurityAttributes(attributes);
+		}
+	}
+
+	/**
+	 * Sorts the components nested inside this one into those which are visible to a ClearanceFilter and those which
+	 * are hidden. A component without a classification of its own has the classification of the component which
+	 * encloses it. The components inside a hidden component are not visited.
+	 * 
+	 * <p>I consider this to be an internal method, that unfortunately must be marked as public to allow cross-package
+	 * access when generating output.</p>
+	 * 
+	 * @param filter the filter
+	 * @param classification the classification of this component, which may be inherited or empty
+	 * @param visible the set to add visible components to
+	 * @param hidden the set to add hidden components to
+	 * @since 2.5.0
+	 */
+	public void addNestedVisibility(ClearanceFilter filter, String classification, Set<Object> visible,
+		Set<Object> hidden) {
+		for (IDDMSComponent nested : getNestedComponents()) {
+			if (!(nested instanceof AbstractBaseComponent))
+				continue;
+			AbstractBaseComponent component = (AbstractBaseComponent) nested;
+			SecurityAttributes attributes = component.getSecurityAttributes();
+			String nestedClassification = (attributes == null || Util.isEmpty(attributes.getClassification())
+				? classification : attributes.getClassification());
+			if (filter.isVisible(nestedClassification)) {
+				visible.add(component);
+				component.addNestedVisibility(filter, nestedClassification, visible, hidden);
+			}
+			else
+				hidden.add(component);
+		}
+	}
+
 	/**
 	 * @see IDDMSComponent#getValidationWarnings()
 	 */
@@ -199,25 +270,140 @@ public abstract class AbstractBaseComponent implements IDDMSComponent {
 	 * @see IDDMSComponent#toHTML()
 	 */
 	public String toHTML() {
-		return (getHTMLTextOutput(OutputFormat.HTML, "", ""));
+		return (toHTML(OutputOptions.getCurrent()));
+	}
+
+	/**
+	 * Renders this component as HTML with the given output settings, rather than the configurable properties.
+	 * 
+	 * @param options the output settings
+	 * @return the HTML
+	 * @since 2.5.0
+	 */
+	public String toHTML(OutputOptions options) {
+		Util.requireValue("options", options);
+		return (getOutput(OutputFormat.HTML, options));
 	}
 
 	/**
 	 * @see IDDMSComponent#toJSON()
 	 */
 	public String toJSON() {
-		GsonBuilder builder = new GsonBuilder();
-		if (Boolean.valueOf(PropertyReader.getProperty("output.json.prettyPrint"))) {
-			builder.setPrettyPrinting();
+		return (toJSON(OutputOptions.getCurrent()));
+	}
+
+	/**
+	 * Renders this component as JSON with the given output settings, rather than the configurable properties.
+	 * 
+	 * @param options the output settings
+	 * @return the JSON
+	 * @since 2.5.0
+	 */
+	public String toJSON(OutputOptions options) {
+		Util.requireValue("options", options);
+		return (getOutput(OutputFormat.JSON, options));
+	}
+
+	/**
+	 * Writes the JSON of this component straight to a writer, without building it as a String or a JSON object
+	 * first. The output is identical to toJSON(), so the <code>output.json.prettyPrint</code> property controls
+	 * pretty printing. The writer is flushed, but not closed.
+	 * 
+	 * @param writer the writer to write to
+	 * @throws IOException if the JSON could not be written
+	 * @since 2.5.0
+	 */
+	public void writeJSON(Writer writer) throws IOException {
+		writeJSON(writer, OutputOptions.getCurrent());
+	}
+
+	/**
+	 * Writes the JSON of this component straight to a writer, with the given output settings. The writer is flushed,
+	 * but not closed.
+	 * 
+	 * @param writer the writer to write to
+	 * @param options the output settings
+	 * @throws IOException if the JSON could not be written
+	 * @since 2.5.0
+	 */
+	public void writeJSON(Writer writer, OutputOptions options) throws IOException {
+		Util.requireValue("options", options);
+		JsonWriter jsonWriter = new JsonWriter(writer);
+		if (options.isPrettyPrint())
+			jsonWriter.setIndent("  ");
+		jsonWriter.setHtmlSafe(true);
+		jsonWriter.setLenient(true);
+		OutputOptions previous = OutputOptions.bind(options);
+		try {
+			writeJSON(jsonWriter);
 		}
-		return (builder.create().toJson(getJSONObject()));
+		finally {
+			OutputOptions.bind(previous);
+		}
+		jsonWriter.flush();
 	}
 	
 	/**
 	 * @see IDDMSComponent#toText()
 	 */
 	public String toText() {
-		return (getHTMLTextOutput(OutputFormat.TEXT, "", ""));
+		return (toText(OutputOptions.getCurrent()));
+	}
+
+	/**
+	 * Renders this component as Text with the given output settings, rather than the configurable properties.
+	 * 
+	 * @param options the output settings
+	 * @return the Text
+	 * @since 2.5.0
+	 */
+	public String toText(OutputOptions options) {
+		Util.requireValue("options", options);
+		return (getOutput(OutputFormat.TEXT, options));
+	}
+
+	/**
+	 * Returns the output of this component in some format, from the {@link RenderCache} if it is enabled and has
+	 * already seen this component in the same format and with the same output settings.
+	 * 
+	 * @param format the output format, or null for XML
+	 * @param options the output settings, or null for XML
+	 * @return the output
+	 */
+	private String getOutput(OutputFormat format, OutputOptions options) {
+		if (!RenderCache.isEnabled())
+			return (render(format, options));
+		String output = RenderCache.get(this, format, options);
+		if (output == null) {
+			output = render(format, options);
+			RenderCache.put(this, format, options, output);
+		}
+		return (output);
+	}
+
+	/**
+	 * Renders this component in some format, without consulting the {@link RenderCache}.
+	 * 
+	 * @param format the output format, or null for XML
+	 * @param options the output settings, or null for XML
+	 * @return the output
+	 */
+	private String render(OutputFormat format, OutputOptions options) {
+		if (format == null)
+			return (getXOMElement() == null ? "" : getXOMElement().toXML());
+		try {
+			if (format == OutputFormat.JSON) {
+				StringWriter writer = new StringWriter();
+				writeJSON(writer, options);
+				return (writer.toString());
+			}
+			StringBuilder output = new StringBuilder();
+			writeHTMLText(output, format, options);
+			return (output.toString());
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
 	}
 
 	/**
@@ -225,53 +411,107 @@ public abstract class AbstractBaseComponent implements IDDMSComponent {
 	 * parent JSON object. Although this method is marked a public, it is only intended to be used internally, and
 	 * is not part of the IDDMSComponent interface. Use the toJSON() method as the public way to get JSON output.
 	 */
-	public abstract JsonObject getJSONObject();
+	public JsonObject getJSONObject() {
+		JsonTreeBuilder writer = new JsonTreeBuilder();
+		OutputOptions previous = OutputOptions.bind(OutputOptions.getCurrent());
+		try {
+			writeJSON(writer);
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		finally {
+			OutputOptions.bind(previous);
+		}
+		return (writer.get().getAsJsonObject());
+	}
+
+	/**
+	 * Writes this component as a JSON object to a JSON stream, which can either be the whole output or a value
+	 * inside the parent's JSON object. The caller is responsible for the layout of the stream, such as its indent.
+	 * If no output settings are bound to this thread yet, the current settings are bound while the component tree is
+	 * written.
+	 * 
+	 * @param writer the JSON stream
+	 * @throws IOException if the JSON could not be written
+	 * @since 2.5.0
+	 */
+	public void writeJSON(JsonWriter writer) throws IOException {
+		boolean unbound = (OutputOptions.getBound() == null);
+		if (unbound)
+			OutputOptions.bind(OutputOptions.getCurrent());
+		try {
+			writer.beginObject();
+			writeJSONProperties(writer);
+			writer.endObject();
+		}
+		finally {
+			if (unbound)
+				OutputOptions.bind(null);
+		}
+	}
+
+	/**
+	 * Writes the name-value pairs of this component to a JSON stream, inside a JSON object which the caller has
+	 * already begun. Although this method is marked a public, it is only intended to be used internally, and
+	 * is not part of the IDDMSComponent interface. Use writeJSON() as the public way to stream JSON output.
+	 * 
+	 * @param writer the JSON stream
+	 * @throws IOException if the JSON could not be written
+	 * @since 2.5.0
+	 */
+	public abstract void writeJSONProperties(JsonWriter writer) throws IOException;
 	
 	/**
-	 * Adds a value to a JSON object, but only if it is not empty and not null. This method delegates to Util, so the
+	 * Writes a value to a JSON stream, but only if it is not empty and not null. This method delegates to Util, so the
 	 * individual JSON implementations are cleaner.
 	 * 
-	 * @param object the object to add to
-	 * @param name the name of the array, if added
-	 * @param value the value to add
+	 * @param writer the JSON stream
+	 * @param name the name of the property, if written
+	 * @param value the value to write
+	 * @throws IOException if the JSON could not be written
 	 */
-	protected static void addJson(JsonObject object, String name, Object value) {
-		Util.addNonEmptyJsonProperty(object, Util.decapitalize(name), value);
+	protected static void addJson(JsonWriter writer, String name, Object value) throws IOException {
+		Util.writeNonEmptyJsonProperty(writer, Util.decapitalize(name), value);
 	}
 	
 	/**
-	 * Adds a list of values to a JSON object, but only if it is not empty and not null. This method delegates to Util,
-	 * so the individual JSON implementations are cleaner.
+	 * Writes a list of values to a JSON stream, but only if it is not empty and not null. This method delegates to
+	 * Util, so the individual JSON implementations are cleaner.
 	 * 
-	 * @param object the object to add to
-	 * @param name the name of the array, if added
-	 * @param value the value to add, converted into a JSON array
+	 * @param writer the JSON stream
+	 * @param name the name of the array, if written
+	 * @param value the value to write, as a JSON array
+	 * @throws IOException if the JSON could not be written
 	 */
-	protected static void addJson(JsonObject object, String name, List<?> value) {
-		Util.addNonEmptyJsonProperty(object, Util.decapitalize(name), Util.getJSONArray(value));
+	protected static void addJson(JsonWriter writer, String name, List<?> value) throws IOException {
+		Util.writeNonEmptyJsonProperty(writer, Util.decapitalize(name), value);
 	}
 	
 	/**
-	 * Adds an attribute group's JSON object to a JSON object, but only if it is not empty. This method delegates to Util, so the
+	 * Writes an attribute group to a JSON stream, but only if it is not empty. This method delegates to Util, so the
 	 * individual JSON implementations are cleaner.
 	 * 
-	 * @param object the object to add to
-	 * @param value the value to add
+	 * @param writer the JSON stream
+	 * @param value the value to write
+	 * @throws IOException if the JSON could not be written
 	 */
-	protected static void addJson(JsonObject object, AbstractAttributeGroup value) {
-		addJson(object, value.getName(), value);
+	protected static void addJson(JsonWriter writer, AbstractAttributeGroup value) throws IOException {
+		addJson(writer, value.getName(), value);
 	}
 	
 	/**
-	 * Adds a DMMS component's JSON object to a JSON object. This method delegates to Util, so the individual JSON
-	 * implementations are cleaner.
+	 * Writes a DMMS component to a JSON stream as a JSON object.
 	 * 
-	 * @param object the object to add to
-	 * @param value the value to add
+	 * @param writer the JSON stream
+	 * @param value the value to write
+	 * @throws IOException if the JSON could not be written
 	 */
-	protected static void addJson(JsonObject object, AbstractBaseComponent value) {
-		if (value != null)
-			addJson(object, value.getName(), value.getJSONObject());
+	protected static void addJson(JsonWriter writer, AbstractBaseComponent value) throws IOException {
+		if (value != null && ClearanceFilter.isWritable(value)) {
+			writer.name(Util.decapitalize(value.getName()));
+			value.writeJSON(writer);
+		}
 	}
 	
 	/**
@@ -286,7 +526,107 @@ public abstract class AbstractBaseComponent implements IDDMSComponent {
 	 * 
 	 * @return the representation of this component in the specified format
 	 */
-	public abstract String getHTMLTextOutput(OutputFormat format, String prefix, String suffix);
+	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+		StringBuilder output = new StringBuilder();
+		OutputOptions previous = OutputOptions.bind(OutputOptions.getCurrent());
+		try {
+			writeHTMLText(output, format, prefix, suffix);
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		finally {
+			OutputOptions.bind(previous);
+		}
+		return (output.toString());
+	}
+
+	/**
+	 * Writes the HTML of this component straight to a destination, such as a Writer or a StringBuilder, without
+	 * building it as a String first. The output is identical to toHTML().
+	 * 
+	 * @param out the destination
+	 * @throws IOException if the HTML could not be written
+	 * @since 2.5.0
+	 */
+	public void writeHTML(Appendable out) throws IOException {
+		writeHTML(out, OutputOptions.getCurrent());
+	}
+
+	/**
+	 * Writes the HTML of this component straight to a destination, with the given output settings.
+	 * 
+	 * @param out the destination
+	 * @param options the output settings
+	 * @throws IOException if the HTML could not be written
+	 * @since 2.5.0
+	 */
+	public void writeHTML(Appendable out, OutputOptions options) throws IOException {
+		writeHTMLText(out, OutputFormat.HTML, options);
+	}
+
+	/**
+	 * Writes the Text of this component straight to a destination, such as a Writer or a StringBuilder, without
+	 * building it as a String first. The output is identical to toText().
+	 * 
+	 * @param out the destination
+	 * @throws IOException if the Text could not be written
+	 * @since 2.5.0
+	 */
+	public void writeText(Appendable out) throws IOException {
+		writeText(out, OutputOptions.getCurrent());
+	}
+
+	/**
+	 * Writes the Text of this component straight to a destination, with the given output settings.
+	 * 
+	 * @param out the destination
+	 * @param options the output settings
+	 * @throws IOException if the Text could not be written
+	 * @since 2.5.0
+	 */
+	public void writeText(Appendable out, OutputOptions options) throws IOException {
+		writeHTMLText(out, OutputFormat.TEXT, options);
+	}
+
+	/**
+	 * Writes this component as HTML or Text, with the output settings bound to the current thread while the
+	 * component tree is written.
+	 * 
+	 * @param out the destination
+	 * @param format the desired format of this output
+	 * @param options the output settings
+	 * @throws IOException if the output could not be written
+	 */
+	private void writeHTMLText(Appendable out, OutputFormat format, OutputOptions options) throws IOException {
+		Util.requireValue("out", out);
+		Util.requireValue("options", options);
+		OutputOptions previous = OutputOptions.bind(options);
+		try {
+			writeHTMLText(out, format, "", "");
+		}
+		finally {
+			OutputOptions.bind(previous);
+		}
+	}
+
+	/**
+	 * Writes this component as HTML or Text to a destination, with an optional prefix to nest it. Nested components
+	 * write into the same destination, so a whole Resource is rendered in one pass.
+	 * 
+	 * <p>I consider this to be an internal method, that unfortunately must be marked as public to allow cross-package
+	 * access when generating output. Use writeHTML() and writeText() as the formal, public methods to stream
+	 * output.</p>
+	 * 
+	 * @param text the destination
+	 * @param format the desired format of this output
+	 * @param prefix an optional prefix to put on each name.
+	 * @param suffix an optional suffix to append to each name, such as an index.
+	 * @throws IOException if the output could not be written
+	 * @since 2.5.0
+	 */
+	public abstract void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix)
+		throws IOException;
 
 	/**
 	 * Accessor for a collection of nested components. A list such as this is useful for bulk actions, such as checking
@@ -309,12 +649,14 @@ public abstract class AbstractBaseComponent implements IDDMSComponent {
 		Util.requireHTMLText(format);
 		if (Util.isEmpty(content))
 			return ("");
-		boolean isHTML = (format == OutputFormat.HTML);
-		if (isHTML) {
-			name = Util.xmlEscape(name);
-			content = Util.xmlEscape(content);
+		StringBuilder output = new StringBuilder();
+		try {
+			addHTMLText(output, format, name, content);
 		}
-		return (String.format(Resource.OUTPUT_TEMPLATES.get(format), name, content));
+		catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return (output.toString());
 	}
 
 	/**
@@ -329,19 +671,85 @@ public abstract class AbstractBaseComponent implements IDDMSComponent {
 	 */
 	protected String buildHTMLTextOutput(OutputFormat format, String prefix, List<?> contents) {
 		Util.requireHTMLText(format);
-		StringBuffer values = new StringBuffer();
+		StringBuilder output = new StringBuilder();
+		try {
+			addHTMLText(output, format, prefix, contents);
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return (output.toString());
+	}
+
+	/**
+	 * Writes a meta tag for HTML output or a text line for Text output, but only if the content is not empty. This
+	 * method delegates to Util, so the individual HTML/Text implementations are cleaner.
+	 * 
+	 * @param text the destination
+	 * @param format the desired format of this output
+	 * @param name the name of the name-value pairing (will be escaped in HTML)
+	 * @param content the value of the name-value pairing (will be escaped in HTML)
+	 * @throws IOException if the output could not be written
+	 */
+	protected static void addHTMLText(Appendable text, OutputFormat format, String name, String content)
+		throws IOException {
+		Util.writeHTMLTextProperty(text, format, "", name, content);
+	}
+
+	/**
+	 * Writes a meta tag for HTML output or a text line for Text output, but only if the content is not empty. The name
+	 * is written in two parts, so the prefix of a component does not need to be concatenated onto each of its names.
+	 * 
+	 * @param text the destination
+	 * @param format the desired format of this output
+	 * @param prefix the first part of the name (will be escaped in HTML)
+	 * @param name the second part of the name (will be escaped in HTML)
+	 * @param content the value of the name-value pairing (will be escaped in HTML)
+	 * @throws IOException if the output could not be written
+	 */
+	protected static void addHTMLText(Appendable text, OutputFormat format, String prefix, String name,
+		String content) throws IOException {
+		Util.writeHTMLTextProperty(text, format, prefix, name, content);
+	}
+
+	/**
+	 * Writes meta tags for HTML output or text lines for Text output for a list of multiple DDMS components or
+	 * values. Each item is given an index, according to the <code>output.indexLevel</code> property.
+	 * 
+	 * @param text the destination
+	 * @param format the desired format of this output
+	 * @param prefix the first part of the name in the name-value pairing (will be escaped in HTML)
+	 * @param contents a list of the values (will be escaped in HTML)
+	 * @throws IOException if the output could not be written
+	 */
+	protected void addHTMLText(Appendable text, OutputFormat format, String prefix, List<?> contents)
+		throws IOException {
+		Util.requireHTMLText(format);
 		for (int i = 0; i < contents.size(); i++) {
 			Object object = contents.get(i);
-			if (object instanceof AbstractBaseComponent) {
-				AbstractBaseComponent component = (AbstractBaseComponent) object;
-				values.append(component.getHTMLTextOutput(format, prefix, buildIndex(i, contents.size())));
-			}
-			else if (object instanceof String)
-				values.append(buildHTMLTextOutput(format, prefix + buildIndex(i, contents.size()), (String) object));
+			String index = buildIndex(i, contents.size());
+			if (object instanceof AbstractBaseComponent)
+				((AbstractBaseComponent) object).writeHTMLText(text, format, prefix, index);
 			else
-				values.append(buildHTMLTextOutput(format, prefix + buildIndex(i, contents.size()), String.valueOf(object)));
+				Util.writeHTMLTextProperty(text, format, prefix, index, String.valueOf(object));
 		}
-		return (values.toString());
+	}
+
+	/**
+	 * Writes meta tags for HTML output or text lines for Text output for a list of multiple DDMS components or
+	 * values, whose names are built from two parts.
+	 * 
+	 * @param text the destination
+	 * @param format the desired format of this output
+	 * @param prefix the first part of the name in the name-value pairing (will be escaped in HTML)
+	 * @param name the second part of the name in the name-value pairing (will be escaped in HTML)
+	 * @param contents a list of the values (will be escaped in HTML)
+	 * @throws IOException if the output could not be written
+	 */
+	protected void addHTMLText(Appendable text, OutputFormat format, String prefix, String name, List<?> contents)
+		throws IOException {
+		if (!contents.isEmpty())
+			addHTMLText(text, format, Util.getNonNullString(prefix) + Util.getNonNullString(name), contents);
 	}
 
 	/**
@@ -358,9 +766,10 @@ public abstract class AbstractBaseComponent implements IDDMSComponent {
 
 	/**
 	 * Constructs a braced 1-based index to differentiate multiples in HTML/Text output, based on the 0-based list index
-	 * of the item, and the <code>output.indexLevel</code> configurable property. When this property is 0, indices are
-	 * never shown. At 1, indices are shown when needed, but hidden when there is only 1 item to display. At 2, indices
-	 * are always shown. If the property is set to something else, it defaults to 0.
+	 * of the item, and the index level of the current {@link OutputOptions}, which follows the
+	 * <code>output.indexLevel</code> configurable property unless other settings were given. When the level is 0,
+	 * indices are never shown. At 1, indices are shown when needed, but hidden when there is only 1 item to display. At
+	 * 2, indices are always shown. If the property is set to something else, it defaults to 0.
 	 * 
 	 * @param index the 0-based index of an item in a list
 	 * @param total the total number of items in that list
@@ -372,12 +781,7 @@ public abstract class AbstractBaseComponent implements IDDMSComponent {
 		if (index < 0 || index >= total)
 			throw new IllegalArgumentException("The index is not properly bounded between 0 and " + (total - 1));
 
-		String indexLevel = PropertyReader.getProperty("output.indexLevel");
-		if ("2".equals(indexLevel))
-			return ("[" + (index + 1) + "]");
-		if ("1".equals(indexLevel) && (total > 1))
-			return ("[" + (index + 1) + "]");
-		return ("");
+		return (OutputOptions.getCurrent().getIndex(index, total));
 	}
 
 	/**
@@ -386,7 +790,48 @@ public abstract class AbstractBaseComponent implements IDDMSComponent {
 	 * @see IDDMSComponent#toXML()
 	 */
 	public String toXML() {
-		return (getXOMElement() == null ? "" : getXOMElement().toXML());
+		return (getOutput(null, null));
+	}
+
+	/**
+	 * Writes the XML of this component through a serializer, without building it as a String first. The serializer
+	 * is flushed, but its stream is not closed.
+	 * 
+	 * @param serializer the serializer to write with
+	 * @throws IOException if the XML could not be written
+	 * @since 2.5.0
+	 */
+	public void writeXML(ComponentSerializer serializer) throws IOException {
+		Util.requireValue("serializer", serializer);
+		if (getXOMElement() != null)
+			serializer.write(getXOMElement());
+		serializer.flush();
+	}
+
+	/**
+	 * Writes the XML of this component straight to a stream, as UTF-8, without building it as a String first. The
+	 * stream is flushed, but not closed.
+	 * 
+	 * @param out the stream to write to
+	 * @param style the layout of the XML
+	 * @throws IOException if the XML could not be written
+	 * @since 2.5.0
+	 */
+	public void writeXML(OutputStream out, XMLStyle style) throws IOException {
+		writeXML(new ComponentSerializer(out, style));
+	}
+
+	/**
+	 * Writes the XML of this component straight to a writer, without building it as a String first. The writer is
+	 * flushed, but not closed.
+	 * 
+	 * @param writer the writer to write to
+	 * @param style the layout of the XML
+	 * @throws IOException if the XML could not be written
+	 * @since 2.5.0
+	 */
+	public void writeXML(Writer writer, XMLStyle style) throws IOException {
+		writeXML(new ComponentSerializer(writer, style));
 	}
 
 	/**
@@ -459,7 +904,7 @@ public abstract class AbstractBaseComponent implements IDDMSComponent {
 	 */
 	protected void requireAtMostVersion(String version) throws InvalidDDMSException {
 		DDMSVersion ceiling = DDMSVersion.getVersionFor(version);
-		if (!ceiling.isAtLeast(getDDMSVersion().getVersion()))
+		if (!ceiling.isAtLeast(getDDMSVersion()))
 			throw new InvalidDDMSException("The " + getName() + " element must not be used after DDMS " + version
 				+ ".");
 	}
@@ -580,6 +1025,21 @@ public abstract class AbstractBaseComponent implements IDDMSComponent {
 		return (_warnings);
 	}
 
+	/**
+	 * Accessor for the renderings of this component held by the {@link RenderCache}, or null if there are none
+	 */
+	RenderCache.Rendering[] getRenderings() {
+		return (_renderings);
+	}
+
+	/**
+	 * Accessor for the renderings of this component held by the {@link RenderCache}. Only the cache sets them, while
+	 * holding the lock on this component.
+	 */
+	void setRenderings(RenderCache.Rendering[] renderings) {
+		_renderings = renderings;
+	}
+
 	/**
 	 * Accessor for the XOM element representing this component
 	 */
@@ -19,6 +19,7 @@
  */
 package buri.ddmsence;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -41,7 +42,7 @@ import buri.ddmsence.util.LazyList;
 import buri.ddmsence.util.PropertyReader;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * Base class for DDMS producer elements, such as ddms:creator and ddms:contributor.
@@ -183,27 +184,23 @@ public abstract class AbstractProducerRole extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, (AbstractBaseComponent) getEntity());
-		addJson(object, POC_TYPE_NAME, getPocTypes());
-		addJson(object, getSecurityAttributes());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, (AbstractBaseComponent) getEntity());
+		addJson(writer, POC_TYPE_NAME, getPocTypes());
+		addJson(writer, getSecurityAttributes());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
-		text.append(((AbstractBaseComponent) getEntity()).getHTMLTextOutput(format, localPrefix, ""));
-		text.append(buildHTMLTextOutput(format, localPrefix + POC_TYPE_NAME, Util.getXsList(getPocTypes())));
-		text.append(getSecurityAttributes().getHTMLTextOutput(format, localPrefix));
-		return (text.toString());
+		((AbstractBaseComponent) getEntity()).writeHTMLText(text, format, localPrefix, "");
+		addHTMLText(text, format, localPrefix, POC_TYPE_NAME, Util.getXsList(getPocTypes()));
+		getSecurityAttributes().writeHTMLText(text, format, localPrefix);
 	}
 
 	/**
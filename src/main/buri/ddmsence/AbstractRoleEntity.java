@@ -19,6 +19,7 @@
  */
 package buri.ddmsence;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.List;
@@ -32,7 +33,7 @@ import buri.ddmsence.ddms.extensible.ExtensibleAttributes;
 import buri.ddmsence.util.LazyList;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * Base class for entities which fulfill some role, such as ddms:person and ddms:organization.
@@ -162,31 +163,27 @@ public abstract class AbstractRoleEntity extends AbstractBaseComponent implement
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, "entityType", Util.decapitalize(getName()));
-		addJson(object, NAME_NAME, getNames());
-		addJson(object, PHONE_NAME, getPhones());
-		addJson(object, EMAIL_NAME, getEmails());
-		addJson(object, getExtensibleAttributes());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, "entityType", Util.decapitalize(getName()));
+		addJson(writer, NAME_NAME, getNames());
+		addJson(writer, PHONE_NAME, getPhones());
+		addJson(writer, EMAIL_NAME, getEmails());
+		addJson(writer, getExtensibleAttributes());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, "", suffix);
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix + "entityType", getName()));
-		text.append(buildHTMLTextOutput(format, localPrefix + NAME_NAME, getNames()));
-		text.append(buildHTMLTextOutput(format, localPrefix + PHONE_NAME, getPhones()));
-		text.append(buildHTMLTextOutput(format, localPrefix + EMAIL_NAME, getEmails()));
-		text.append(getExtensibleAttributes().getHTMLTextOutput(format, prefix));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, "entityType", getName());
+		addHTMLText(text, format, localPrefix, NAME_NAME, getNames());
+		addHTMLText(text, format, localPrefix, PHONE_NAME, getPhones());
+		addHTMLText(text, format, localPrefix, EMAIL_NAME, getEmails());
+		getExtensibleAttributes().writeHTMLText(text, format, prefix);
 	}
 
 	/**
@@ -19,6 +19,7 @@
  */
 package buri.ddmsence;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -37,7 +38,7 @@ import buri.ddmsence.ddms.security.ism.SecurityAttributes;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * Base class for DDMS tasking role elements, including {@link RequesterInfo} and {@link Addressee}.
@@ -150,25 +151,21 @@ public abstract class AbstractTaskingRole extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, (AbstractBaseComponent) getEntity());
-		addJson(object, getSecurityAttributes());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, (AbstractBaseComponent) getEntity());
+		addJson(writer, getSecurityAttributes());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
-		text.append(((AbstractBaseComponent) getEntity()).getHTMLTextOutput(format, localPrefix, ""));
-		text.append(getSecurityAttributes().getHTMLTextOutput(format, localPrefix));
-		return (text.toString());
+		((AbstractBaseComponent) getEntity()).writeHTMLText(text, format, localPrefix, "");
+		getSecurityAttributes().writeHTMLText(text, format, localPrefix);
 	}
 
 	/**
@@ -19,11 +19,12 @@
 */
 package buri.ddmsence;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 import nu.xom.Element;
 import buri.ddmsence.ddms.IBuilder;
@@ -106,25 +107,21 @@ public abstract class AbstractTspiAddress extends AbstractBaseComponent implemen
 	
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
 		String name = getName().replaceAll("USPS", "usps");
-		addJson(object, "addressType", Util.decapitalize(name));
-		return (object);
+		addJson(writer, "addressType", Util.decapitalize(name));
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, "", suffix);
-		StringBuffer text = new StringBuffer();
 		String name = getName().replaceAll("USPS", "usps");
-		text.append(buildHTMLTextOutput(format, localPrefix + "addressType", Util.decapitalize(name)));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, "addressType", Util.decapitalize(name));
 	}
 	
 	/**
@@ -19,9 +19,10 @@
 */
 package buri.ddmsence;
 
+import java.io.IOException;
 import java.io.Serializable;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 import nu.xom.Element;
 import buri.ddmsence.ddms.IBuilder;
@@ -103,23 +104,19 @@ public abstract class AbstractTspiShape extends AbstractBaseComponent implements
 	
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, "shapeType", Util.decapitalize(getName()));
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, "shapeType", Util.decapitalize(getName()));
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, "", suffix);
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix + "shapeType", Util.decapitalize(getName())));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, "shapeType", Util.decapitalize(getName()));
 	}
 	
 	/**
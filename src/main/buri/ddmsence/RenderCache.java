@@ -0,0 +1,373 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence;
+
+import java.lang.ref.WeakReference;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import buri.ddmsence.ddms.OutputFormat;
+import buri.ddmsence.util.OutputOptions;
+import buri.ddmsence.util.Util;
+
+/**
+ * Remembers the rendered output of components, so that popular components are only rendered once.
+ *
+ * <p>
+ * Components cannot change after they are built, so <code>toXML()</code>, <code>toJSON()</code>,
+ * <code>toHTML()</code> and <code>toText()</code> always return the same output for the same settings. When this
+ * cache is enabled, each of those methods first looks for an earlier rendering of the same component instance in the
+ * same format. Each rendering is keyed by the {@link OutputOptions} it was rendered with, so changing
+ * <code>output.indexLevel</code>, <code>output.json.inlineAttributes</code> or
+ * <code>output.json.prettyPrint</code>, whether process-wide or in a {@link buri.ddmsence.util.DDMSContext}, never
+ * returns output built with the old values. XML output does not depend on any output settings.
+ * </p>
+ *
+ * <p>
+ * The cache is disabled by default. It is enabled by giving it a budget with {@link #setMaxBytes(long)}, which
+ * bounds the estimated memory retained by the renderings it holds: two bytes per character of output, plus a fixed
+ * overhead for each rendering. When a new rendering would exceed the budget, renderings which have not been used
+ * recently are discarded, using the "second chance" approximation of least recently used. A rendering larger than
+ * the whole budget is never cached.
+ * </p>
+ *
+ * <p>
+ * Each rendering is stored on the component it belongs to, so looking one up takes no lock and the cache never keeps
+ * a component alive: once a component is unreachable, its renderings are discarded along with it. The shared
+ * eviction queue only refers to components weakly. Renderings of components which have been garbage collected still
+ * count against the budget until the queue reaches them. The counters are updated without a global lock, so while
+ * other threads are rendering they are approximate.
+ * </p>
+ *
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public final class RenderCache {
+
+	/** The estimated bytes retained by each rendering, aside from its characters */
+	static final long RENDERING_OVERHEAD = 96;
+
+	private static final Queue<Rendering> QUEUE = new ConcurrentLinkedQueue<Rendering>();
+	private static final ReentrantLock EVICTION = new ReentrantLock();
+	private static final AtomicLong HITS = new AtomicLong();
+	private static final AtomicLong MISSES = new AtomicLong();
+	private static final AtomicLong BYTES = new AtomicLong();
+	private static final AtomicInteger SIZE = new AtomicInteger();
+	private static volatile long _maxBytes = 0;
+
+	/**
+	 * Private to prevent instantiation
+	 */
+	private RenderCache() {}
+
+	/**
+	 * Returns an earlier rendering of a component, if there is one.
+	 *
+	 * @param component the component
+	 * @param format the output format, or null for XML
+	 * @param options the output settings, or null for XML
+	 * @return the rendering, or null if the component must be rendered
+	 */
+	static String get(AbstractBaseComponent component, OutputFormat format, OutputOptions options) {
+		Rendering rendering = find(component.getRenderings(), format, options);
+		if (rendering == null) {
+			MISSES.incrementAndGet();
+			return (null);
+		}
+		rendering.markUsed();
+		HITS.incrementAndGet();
+		return (rendering.getOutput());
+	}
+
+	/**
+	 * Records the rendering of a component, discarding renderings which have not been used recently to stay within
+	 * the budget.
+	 *
+	 * @param component the component
+	 * @param format the output format, or null for XML
+	 * @param options the output settings, or null for XML
+	 * @param output the rendering
+	 */
+	static void put(AbstractBaseComponent component, OutputFormat format, OutputOptions options, String output) {
+		long bytes = estimateBytes(output);
+		if (bytes > getMaxBytes())
+			return;
+		Rendering rendering = new Rendering(component, format, options, output, bytes);
+		synchronized (component) {
+			Rendering[] renderings = component.getRenderings();
+			if (find(renderings, format, options) != null)
+				return;
+			int count = (renderings == null ? 0 : renderings.length);
+			Rendering[] added = new Rendering[count + 1];
+			if (renderings != null)
+				System.arraycopy(renderings, 0, added, 0, count);
+			added[count] = rendering;
+			component.setRenderings(added);
+		}
+		BYTES.addAndGet(bytes);
+		SIZE.incrementAndGet();
+		QUEUE.offer(rendering);
+		if (BYTES.get() > getMaxBytes() && EVICTION.tryLock()) {
+			try {
+				trim();
+			}
+			finally {
+				EVICTION.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Finds the rendering in some format among the renderings of a component.
+	 *
+	 * @param renderings the renderings of the component, or null if it has none
+	 * @param format the output format, or null for XML
+	 * @param options the output settings, or null for XML
+	 * @return the rendering, or null if there is none
+	 */
+	private static Rendering find(Rendering[] renderings, OutputFormat format, OutputOptions options) {
+		if (renderings != null) {
+			for (Rendering rendering : renderings) {
+				if (rendering.matches(format, options))
+					return (rendering);
+			}
+		}
+		return (null);
+	}
+
+	/**
+	 * Discards renderings until the cache is within its budget. Each rendering which has been used since the queue last
+	 * reached it is given a second chance. Callers must hold the eviction lock.
+	 */
+	private static void trim() {
+		int chances = SIZE.get();
+		while (BYTES.get() > getMaxBytes()) {
+			Rendering rendering = QUEUE.poll();
+			if (rendering == null)
+				break;
+			if (chances-- > 0 && rendering.clearUsed())
+				QUEUE.offer(rendering);
+			else
+				discard(rendering);
+		}
+	}
+
+	/**
+	 * Removes a rendering from its component, if the component is still reachable, and from the counters.
+	 *
+	 * @param rendering the rendering
+	 */
+	private static void discard(Rendering rendering) {
+		AbstractBaseComponent component = rendering.getComponent();
+		if (component != null) {
+			synchronized (component) {
+				Rendering[] renderings = component.getRenderings();
+				int count = (renderings == null ? 0 : renderings.length);
+				for (int i = 0; i < count; i++) {
+					if (renderings[i] == rendering) {
+						Rendering[] removed = null;
+						if (count > 1) {
+							removed = new Rendering[count - 1];
+							System.arraycopy(renderings, 0, removed, 0, i);
+							System.arraycopy(renderings, i + 1, removed, i, count - i - 1);
+						}
+						component.setRenderings(removed);
+						break;
+					}
+				}
+			}
+		}
+		BYTES.addAndGet(-rendering.getBytes());
+		SIZE.decrementAndGet();
+	}
+
+	/**
+	 * Estimates the memory retained by one rendering.
+	 *
+	 * @param output the rendering
+	 * @return the estimated bytes
+	 */
+	static long estimateBytes(String output) {
+		return (RENDERING_OVERHEAD + 2L * output.length());
+	}
+
+	/**
+	 * Empties the cache and resets the counters. The budget is unchanged.
+	 */
+	public static void clear() {
+		EVICTION.lock();
+		try {
+			for (Rendering rendering = QUEUE.poll(); rendering != null; rendering = QUEUE.poll())
+				discard(rendering);
+			HITS.set(0);
+			MISSES.set(0);
+		}
+		finally {
+			EVICTION.unlock();
+		}
+	}
+
+	/**
+	 * Checks whether renderings are being cached.
+	 */
+	public static boolean isEnabled() {
+		return (getMaxBytes() > 0);
+	}
+
+	/**
+	 * Accessor for the budget, which is the most estimated bytes of output the cache may hold. A budget of 0 disables
+	 * the cache.
+	 */
+	public static long getMaxBytes() {
+		return (_maxBytes);
+	}
+
+	/**
+	 * Sets the budget, which is the most estimated bytes of output the cache may hold, and discards renderings if the
+	 * cache is now over it. A budget of 0 disables the cache and empties it.
+	 *
+	 * @param maxBytes the budget
+	 * @throws IllegalArgumentException if the budget is negative
+	 */
+	public static void setMaxBytes(long maxBytes) {
+		if (maxBytes < 0)
+			throw new IllegalArgumentException("The budget must not be negative.");
+		EVICTION.lock();
+		try {
+			_maxBytes = maxBytes;
+			trim();
+		}
+		finally {
+			EVICTION.unlock();
+		}
+	}
+
+	/**
+	 * Accessor for the number of renderings answered from the cache
+	 */
+	public static long getHitCount() {
+		return (HITS.get());
+	}
+
+	/**
+	 * Accessor for the number of renderings which were not in the cache
+	 */
+	public static long getMissCount() {
+		return (MISSES.get());
+	}
+
+	/**
+	 * Accessor for the number of renderings currently cached
+	 */
+	public static int getSize() {
+		return (SIZE.get());
+	}
+
+	/**
+	 * Accessor for the estimated bytes retained by the renderings currently cached
+	 */
+	public static long getByteCount() {
+		return (BYTES.get());
+	}
+
+	/**
+	 * One cached rendering of a component. Components are matched by identity rather than equality, because equal
+	 * components may still differ in their output, such as their namespace prefixes.
+	 */
+	static final class Rendering {
+		private final WeakReference<AbstractBaseComponent> _component;
+		private final OutputFormat _format;
+		private final OutputOptions _options;
+		private final String _output;
+		private final long _bytes;
+		private volatile boolean _used = false;
+
+		/**
+		 * Constructor
+		 *
+		 * @param component the component
+		 * @param format the output format, or null for XML
+		 * @param options the output settings, or null for XML
+		 * @param output the rendering
+		 * @param bytes the estimated bytes retained by the rendering
+		 */
+		private Rendering(AbstractBaseComponent component, OutputFormat format, OutputOptions options, String output,
+			long bytes) {
+			_component = new WeakReference<AbstractBaseComponent>(component);
+			_format = format;
+			_options = options;
+			_output = output;
+			_bytes = bytes;
+		}
+
+		/**
+		 * Checks whether this is the rendering in some format.
+		 *
+		 * @param format the output format, or null for XML
+		 * @param options the output settings, or null for XML
+		 */
+		private boolean matches(OutputFormat format, OutputOptions options) {
+			return (_format == format && Util.nullEquals(_options, options));
+		}
+
+		/**
+		 * Notes that this rendering has been used since the eviction queue last reached it.
+		 */
+		private void markUsed() {
+			if (!_used)
+				_used = true;
+		}
+
+		/**
+		 * Clears the note that this rendering has been used.
+		 *
+		 * @return true if it had been used
+		 */
+		private boolean clearUsed() {
+			boolean used = _used;
+			_used = false;
+			return (used);
+		}
+
+		/**
+		 * Accessor for the component, or null if it has been garbage collected
+		 */
+		private AbstractBaseComponent getComponent() {
+			return (_component.get());
+		}
+
+		/**
+		 * Accessor for the rendering
+		 */
+		private String getOutput() {
+			return (_output);
+		}
+
+		/**
+		 * Accessor for the estimated bytes retained by the rendering
+		 */
+		private long getBytes() {
+			return (_bytes);
+		}
+	}
+}
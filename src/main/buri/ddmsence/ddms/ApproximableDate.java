@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
@@ -27,7 +28,7 @@ import nu.xom.Element;
 import buri.ddmsence.AbstractBaseComponent;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * Base class for DDMS elements which are an approximable date, such as ddms:dates/ddms:acquiredOn.
@@ -206,34 +207,29 @@ public final class ApproximableDate extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, DESCRIPTION_NAME, getDescription());
-		addJson(object, APPROXIMABLE_DATE_NAME, getApproximableDateString());
-		addJson(object, APPROXIMABLE_DATE_NAME + "." + APPROXIMATION_NAME, getApproximation());
-		addJson(object, SEARCHABLE_DATE_NAME + "." + START_NAME, getSearchableStartString());
-		addJson(object, SEARCHABLE_DATE_NAME + "." + END_NAME, getSearchableEndString());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, DESCRIPTION_NAME, getDescription());
+		addJson(writer, APPROXIMABLE_DATE_NAME, getApproximableDateString());
+		addJson(writer, APPROXIMABLE_DATE_NAME + "." + APPROXIMATION_NAME, getApproximation());
+		addJson(writer, SEARCHABLE_DATE_NAME + "." + START_NAME, getSearchableStartString());
+		addJson(writer, SEARCHABLE_DATE_NAME + "." + END_NAME, getSearchableEndString());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix);
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix + "." + DESCRIPTION_NAME, getDescription()));
-		text.append(buildHTMLTextOutput(format, localPrefix + "." + APPROXIMABLE_DATE_NAME, getApproximableDateString()));
-		text.append(buildHTMLTextOutput(format, localPrefix + "." + APPROXIMABLE_DATE_NAME + "." + APPROXIMATION_NAME,
-			getApproximation()));
-		text.append(buildHTMLTextOutput(format, localPrefix + "." + SEARCHABLE_DATE_NAME + "." + START_NAME,
-			getSearchableStartString()));
-		text.append(buildHTMLTextOutput(format, localPrefix + "." + SEARCHABLE_DATE_NAME + "." + END_NAME,
-			getSearchableEndString()));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, "." + DESCRIPTION_NAME, getDescription());
+		addHTMLText(text, format, localPrefix, "." + APPROXIMABLE_DATE_NAME, getApproximableDateString());
+		addHTMLText(text, format, localPrefix, "." + APPROXIMABLE_DATE_NAME + "." + APPROXIMATION_NAME,
+			getApproximation());
+		addHTMLText(text, format, localPrefix, "." + SEARCHABLE_DATE_NAME + "." + START_NAME,
+			getSearchableStartString());
+		addHTMLText(text, format, localPrefix, "." + SEARCHABLE_DATE_NAME + "." + END_NAME, getSearchableEndString());
 	}
 
 	/**
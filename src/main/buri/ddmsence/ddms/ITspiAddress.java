@@ -19,6 +19,8 @@
  */
 package buri.ddmsence.ddms;
 
+import java.io.IOException;
+
 import buri.ddmsence.AbstractBaseComponent;
 
 /**
@@ -36,4 +38,13 @@ public interface ITspiAddress extends IDDMSComponent {
 	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
 	 */
 	public abstract String getHTMLTextOutput(OutputFormat format, String prefix, String suffix);
+
+	/**
+	 * I consider this to be an internal method, that unfortunately must be marked as public to allow cross-package
+	 * access when generating output. Use writeHTML() and writeText() as the formal, public methods to stream output.
+	 * 
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
+	 */
+	public abstract void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix)
+		throws IOException;
 }
@@ -61,6 +61,7 @@ import buri.ddmsence.ddms.security.Security;
 import buri.ddmsence.ddms.security.ism.ISMVocabulary;
 import buri.ddmsence.ddms.security.ism.NoticeAttributes;
 import buri.ddmsence.ddms.security.ism.SecurityAttributes;
+import buri.ddmsence.ddms.security.ism.SecurityRollup;
 import buri.ddmsence.ddms.summary.Description;
 import buri.ddmsence.ddms.summary.GeospatialCoverage;
 import buri.ddmsence.ddms.summary.NonStateActor;
@@ -68,13 +69,14 @@ import buri.ddmsence.ddms.summary.RelatedResource;
 import buri.ddmsence.ddms.summary.SubjectCoverage;
 import buri.ddmsence.ddms.summary.TemporalCoverage;
 import buri.ddmsence.ddms.summary.VirtualCoverage;
+import buri.ddmsence.util.DDMSContext;
 import buri.ddmsence.util.DDMSReader;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.LazyList;
 import buri.ddmsence.util.PropertyReader;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:resource (the top-level element of a DDMS metacard or assertion).
@@ -191,6 +193,10 @@ public final class Resource extends AbstractBaseComponent {
 	private Security _security = null;
 	private List<ExtensibleElement> _extensibleElements = new ArrayList<ExtensibleElement>();
 	private List<IDDMSComponent> _orderedList = new ArrayList<IDDMSComponent>();
+	private volatile Set<String> _loadedChildren = null;
+	private DDMSContext _context = null;
+	private boolean _validated = true;
+	private volatile SecurityRollup _securityRollup = null;
 
 	private XMLGregorianCalendar _createDate = null;
 	List<String> _compliesWiths = null;
@@ -222,6 +228,9 @@ public final class Resource extends AbstractBaseComponent {
 	/** A set of all Resource attribute names which should not be converted into ExtensibleAttributes */
 	public static final Set<String> NON_EXTENSIBLE_NAMES = Collections.unmodifiableSet(ALL_IC_ATTRIBUTES);
 
+	/** The key under which the extensible layer is loaded in a lazy Resource */
+	private static final String EXTENSIBLE_ELEMENTS_KEY = "extensibleElements";
+
 	/**
 	 * Constructor for creating a component from a XOM Element
 	 * 
@@ -232,9 +241,35 @@ public final class Resource extends AbstractBaseComponent {
 	 * @throws InvalidDDMSException if any required information is missing or malformed
 	 */
 	public Resource(Element element) throws InvalidDDMSException {
+		this(element, false);
+	}
+
+	/**
+	 * Constructor for creating a component from a XOM Element, optionally deferring the work of building its child
+	 * components.
+	 * 
+	 * <p>A lazy Resource only reads its own attributes when it is constructed. Each group of child components (the
+	 * identifiers, the geospatialCoverages, the security component, etc.) is built the first time its accessor is
+	 * called, so a consumer that only reads a few components never pays for the rest. Traversing the whole Resource,
+	 * through getTopLevelComponents(), equals(), hashCode(), or the HTML, Text and JSON output methods, builds all of
+	 * the child components.</p>
+	 * 
+	 * <p>Validation of the Resource as a whole is also deferred, and happens once, when {@link #materialize()} is
+	 * called. Until then, the only guarantees are the ones provided by the caller (for example, that the element has
+	 * already passed schema validation in a DDMSReader). If a child component turns out to be invalid when it is
+	 * built, its accessor throws an IllegalStateException whose cause is the InvalidDDMSException. Child components
+	 * are always built in the {@link DDMSContext} which was current when this Resource was constructed, for the
+	 * version of this Resource, so a lazy Resource can be read safely while the caller is working with another DDMS
+	 * version or other settings.</p>
+	 * 
+	 * @param element the XOM element representing this
+	 * @param lazy true to defer building child components and validation, false to build and validate immediately
+	 * @throws InvalidDDMSException if any required information is missing or malformed
+	 * @since 2.5.0
+	 */
+	public Resource(Element element, boolean lazy) throws InvalidDDMSException {
 		try {
 			setXOMElement(element, false);
-			String namespace = element.getNamespaceURI();
 			String ismNamespace = getDDMSVersion().getIsmNamespace();
 
 			String createDate = getAttributeValue(CREATE_DATE_NAME, ismNamespace);
@@ -256,106 +291,294 @@ public final class Resource extends AbstractBaseComponent {
 			_securityAttributes = new SecurityAttributes(element);
 			_extensibleAttributes = new ExtensibleAttributes(element);
 
-			DDMSVersion version = getDDMSVersion();
+			_loadedChildren = new HashSet<String>();
+			if (lazy) {
+				_context = DDMSContext.getCurrent().withVersion(getDDMSVersion());
+				_validated = false;
+			}
+			else {
+				loadAllChildren();
+				validate();
+			}
+		}
+		catch (InvalidDDMSException e) {
+			e.setLocator(getQualifiedName());
+			throw (e);
+		}
+	}
 
-			// Metacard Set
-			Element component = getChild(MetacardInfo.getName(version));
-			if (component != null) {
-				_metacardInfo = new MetacardInfo(component);
+	/**
+	 * Builds every child component which has not already been built, and creates the ordered list of top-level
+	 * components. After this method has run once, the child components are never reloaded. The context of this
+	 * Resource is bound once for all of the child components.
+	 * 
+	 * @throws InvalidDDMSException if any child component is invalid
+	 */
+	private synchronized void loadAllChildren() throws InvalidDDMSException {
+		if (_loadedChildren == null)
+			return;
+		DDMSContext previous = bindVersion();
+		try {
+			for (String name : getChildNames(getDDMSVersion())) {
+				if (!_loadedChildren.contains(name))
+					buildChildren(name);
 			}
-			// Resource Set
-			Elements components = element.getChildElements(Identifier.getName(version), namespace);
+		}
+		finally {
+			DDMSContext.bind(previous);
+		}
+		populatedOrderedList();
+		_loadedChildren = null;
+	}
+
+	/**
+	 * Ensures that the child components with some element name have been built. Used by the accessors of a lazy
+	 * Resource.
+	 * 
+	 * @param name the element name of the child components, or EXTENSIBLE_ELEMENTS_KEY for the extensible layer
+	 * @throws IllegalStateException if the child components are invalid. The cause will be an InvalidDDMSException.
+	 */
+	private void load(String name) {
+		if (_loadedChildren == null)
+			return;
+		try {
+			loadChildren(name);
+		}
+		catch (InvalidDDMSException e) {
+			e.setLocator(getQualifiedName());
+			throw new IllegalStateException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Binds the DDMSContext of a lazy Resource to the current thread, so that child components built after
+	 * construction are validated against the right controlled vocabularies, whatever version the caller is currently
+	 * using. A Resource which is not lazy builds its child components in the caller's context, which only needs to be
+	 * replaced if it is for another version.
+	 * 
+	 * @return the context which was previously bound, to be restored afterwards
+	 */
+	private DDMSContext bindVersion() {
+		if (_context != null)
+			return (DDMSContext.bind(_context));
+		if (DDMSVersion.getCurrentVersion() == getDDMSVersion())
+			return (DDMSContext.getBound());
+		return (DDMSContext.bind(DDMSContext.getCurrent().withVersion(getDDMSVersion())));
+	}
+
+	/**
+	 * Builds the child components with some element name, unless they have already been built. The context of this
+	 * Resource is only bound when there is something to build.
+	 * 
+	 * @param name the element name of the child components, or EXTENSIBLE_ELEMENTS_KEY for the extensible layer
+	 * @throws InvalidDDMSException if any of the child components is invalid
+	 */
+	private synchronized void loadChildren(String name) throws InvalidDDMSException {
+		if (_loadedChildren == null || _loadedChildren.contains(name))
+			return;
+		DDMSContext previous = bindVersion();
+		try {
+			buildChildren(name);
+		}
+		finally {
+			DDMSContext.bind(previous);
+		}
+	}
+
+	/**
+	 * Builds the child components with some element name, in the context which is currently bound.
+	 * 
+	 * @param name the element name of the child components, or EXTENSIBLE_ELEMENTS_KEY for the extensible layer
+	 * @throws InvalidDDMSException if any of the child components is invalid
+	 */
+	private void buildChildren(String name) throws InvalidDDMSException {
+		DDMSVersion version = getDDMSVersion();
+		Element element = getXOMElement();
+		String namespace = getNamespace();
+		Elements components = element.getChildElements(name, namespace);
+		Element component = getChild(name);
+
+		// Metacard Set
+		if (name.equals(MetacardInfo.getName(version))) {
+			if (component != null)
+				_metacardInfo = new MetacardInfo(component);
+		}
+		// Resource Set
+		else if (name.equals(Identifier.getName(version))) {
 			for (int i = 0; i < components.size(); i++)
 				_identifiers.add(new Identifier(components.get(i)));
-			components = element.getChildElements(Title.getName(version), namespace);
+		}
+		else if (name.equals(Title.getName(version))) {
 			for (int i = 0; i < components.size(); i++)
 				_titles.add(new Title(components.get(i)));
-			components = element.getChildElements(Subtitle.getName(version), namespace);
+		}
+		else if (name.equals(Subtitle.getName(version))) {
 			for (int i = 0; i < components.size(); i++)
 				_subtitles.add(new Subtitle(components.get(i)));
-			component = getChild(Description.getName(version));
+		}
+		else if (name.equals(Description.getName(version))) {
 			if (component != null)
 				_description = new Description(component);
-			components = element.getChildElements(Language.getName(version), namespace);
+		}
+		else if (name.equals(Language.getName(version))) {
 			for (int i = 0; i < components.size(); i++)
 				_languages.add(new Language(components.get(i)));
-			component = getChild(Dates.getName(version));
+		}
+		else if (name.equals(Dates.getName(version))) {
 			if (component != null)
 				_dates = new Dates(component);
-			component = getChild(Rights.getName(version));
+		}
+		else if (name.equals(Rights.getName(version))) {
 			if (component != null)
 				_rights = new Rights(component);
-			components = element.getChildElements(Source.getName(version), namespace);
+		}
+		else if (name.equals(Source.getName(version))) {
 			for (int i = 0; i < components.size(); i++)
 				_sources.add(new Source(components.get(i)));
-			components = element.getChildElements(Type.getName(version), namespace);
+		}
+		else if (name.equals(Type.getName(version))) {
 			for (int i = 0; i < components.size(); i++)
 				_types.add(new Type(components.get(i)));
-			components = element.getChildElements(Creator.getName(version), namespace);
+		}
+		else if (name.equals(Creator.getName(version))) {
 			for (int i = 0; i < components.size(); i++)
 				_creators.add(new Creator(components.get(i)));
-			components = element.getChildElements(Publisher.getName(version), namespace);
+		}
+		else if (name.equals(Publisher.getName(version))) {
 			for (int i = 0; i < components.size(); i++)
 				_publishers.add(new Publisher(components.get(i)));
-			components = element.getChildElements(Contributor.getName(version), namespace);
+		}
+		else if (name.equals(Contributor.getName(version))) {
 			for (int i = 0; i < components.size(); i++)
 				_contributors.add(new Contributor(components.get(i)));
-			components = element.getChildElements(PointOfContact.getName(version), namespace);
+		}
+		else if (name.equals(PointOfContact.getName(version))) {
 			for (int i = 0; i < components.size(); i++)
 				_pointOfContacts.add(new PointOfContact(components.get(i)));
-
-			// Format Set
-			component = getChild(Format.getName(version));
+		}
+		// Format Set
+		else if (name.equals(Format.getName(version))) {
 			if (component != null)
 				_format = new Format(component);
-
-			// Summary Set
-			components = element.getChildElements(SubjectCoverage.getName(version), namespace);
+		}
+		// Summary Set
+		else if (name.equals(SubjectCoverage.getName(version))) {
 			for (int i = 0; i < components.size(); i++)
 				_subjectCoverages.add(new SubjectCoverage(components.get(i)));
-			components = element.getChildElements(VirtualCoverage.getName(version), namespace);
+		}
+		else if (name.equals(VirtualCoverage.getName(version))) {
 			for (int i = 0; i < components.size(); i++)
 				_virtualCoverages.add(new VirtualCoverage(components.get(i)));
-			components = element.getChildElements(TemporalCoverage.getName(version), namespace);
+		}
+		else if (name.equals(TemporalCoverage.getName(version))) {
 			for (int i = 0; i < components.size(); i++)
 				_temporalCoverages.add(new TemporalCoverage(components.get(i)));
-			components = element.getChildElements(GeospatialCoverage.getName(version), namespace);
+		}
+		else if (name.equals(GeospatialCoverage.getName(version))) {
 			for (int i = 0; i < components.size(); i++)
 				geospatialCoverages.add(new GeospatialCoverage(components.get(i)));
-			components = element.getChildElements(RelatedResource.getName(version), namespace);
+		}
+		else if (name.equals(RelatedResource.getName(version))) {
 			for (int i = 0; i < components.size(); i++)
 				loadRelatedResource(components.get(i));
-
-			// Resource Set again
-			component = getChild(ResourceManagement.getName(version));
+		}
+		// Resource Set again
+		else if (name.equals(ResourceManagement.getName(version))) {
 			if (component != null)
 				_resourceManagement = new ResourceManagement(component);
-
-			// Security Set
-			component = getChild(Security.getName(version));
-			if (component != null) {
+		}
+		// Security Set
+		else if (name.equals(Security.getName(version))) {
+			if (component != null)
 				_security = new Security(component);
-
-				// Extensible Layer
-
-				// We use the security component to locate the extensible layer. If it is null, this resource is going
-				// to fail validation anyhow (or we're in DDMS 5.0, which doesn't have an extensible layer, so we skip 
-				// the extensible layer.
+		}
+		// Extensible Layer
+		else if (name.equals(EXTENSIBLE_ELEMENTS_KEY)) {
+			// We use the security element to locate the extensible layer. If it is null, this resource is going
+			// to fail validation anyhow (or we're in DDMS 5.0, which doesn't have an extensible layer, so we skip 
+			// the extensible layer.
+			Element security = getChild(Security.getName(version));
+			if (security != null) {
 				int index = 0;
 				Elements allElements = element.getChildElements();
-				while (allElements.get(index) != component) {
+				while (allElements.get(index) != security) {
 					index++;
 				}
 				for (int i = index + 1; i < allElements.size(); i++)
 					_extensibleElements.add(new ExtensibleElement(allElements.get(i)));
 			}
-			populatedOrderedList();
+		}
+		_loadedChildren.add(name);
+	}
+
+	/**
+	 * Returns the element names of every group of child components, in the order they appear in a Resource.
+	 * 
+	 * @param version the DDMS version of this Resource
+	 * @return a list of element names, ending with EXTENSIBLE_ELEMENTS_KEY
+	 */
+	private static List<String> getChildNames(DDMSVersion version) {
+		List<String> names = new ArrayList<String>();
+		names.add(MetacardInfo.getName(version));
+		names.add(Identifier.getName(version));
+		names.add(Title.getName(version));
+		names.add(Subtitle.getName(version));
+		names.add(Description.getName(version));
+		names.add(Language.getName(version));
+		names.add(Dates.getName(version));
+		names.add(Rights.getName(version));
+		names.add(Source.getName(version));
+		names.add(Type.getName(version));
+		names.add(Creator.getName(version));
+		names.add(Publisher.getName(version));
+		names.add(Contributor.getName(version));
+		names.add(PointOfContact.getName(version));
+		names.add(Format.getName(version));
+		names.add(SubjectCoverage.getName(version));
+		names.add(VirtualCoverage.getName(version));
+		names.add(TemporalCoverage.getName(version));
+		names.add(GeospatialCoverage.getName(version));
+		names.add(RelatedResource.getName(version));
+		names.add(ResourceManagement.getName(version));
+		names.add(Security.getName(version));
+		names.add(EXTENSIBLE_ELEMENTS_KEY);
+		return (names);
+	}
+
+	/**
+	 * Builds any child components of a lazy Resource which have not yet been built, and then validates the Resource
+	 * as a whole. Validation only happens once: later calls, and calls on a Resource which was not created lazily,
+	 * do nothing.
+	 * 
+	 * @throws InvalidDDMSException if any required information is missing or malformed
+	 * @since 2.5.0
+	 */
+	public synchronized void materialize() throws InvalidDDMSException {
+		if (_validated)
+			return;
+		DDMSContext previous = bindVersion();
+		try {
+			loadAllChildren();
 			validate();
+			_validated = true;
 		}
 		catch (InvalidDDMSException e) {
 			e.setLocator(getQualifiedName());
 			throw (e);
 		}
+		finally {
+			DDMSContext.bind(previous);
+		}
+	}
+
+	/**
+	 * Returns true if every child component has been built and the Resource has been validated as a whole. This is
+	 * always true for Resources which were not created lazily.
+	 * 
+	 * @since 2.5.0
+	 */
+	public synchronized boolean isMaterialized() {
+		return (_validated && _loadedChildren == null);
 	}
 
 	/**
@@ -473,6 +696,31 @@ public final class Resource extends AbstractBaseComponent {
 		List<String> compliesWiths, Integer ismDESVersion, Integer ntkDESVersion,
 		SecurityAttributes securityAttributes, NoticeAttributes noticeAttributes,
 		ExtensibleAttributes extensibleAttributes) throws InvalidDDMSException {
+		this(topLevelComponents, resourceElement, createDate, compliesWiths, ismDESVersion, ntkDESVersion,
+			securityAttributes, noticeAttributes, extensibleAttributes, true);
+	}
+
+	/**
+	 * Constructor for creating a DDMS resource of any version from raw data, optionally skipping the final check
+	 * against the DDMS schemas. The components and the Resource itself are always validated against their own rules.
+	 * 
+	 * @param topLevelComponents a list of top level components
+	 * @param resourceElement value of the resourceElement attribute
+	 * @param createDate the create date as an xs:date (YYYY-MM-DD)
+	 * @param compliesWiths shows what rule sets this resource complies with
+	 * @param ismDESVersion the DES Version as an Integer
+	 * @param ntkDESVersion the DES Version as an Integer
+	 * @param securityAttributes any security attributes
+	 * @param noticeAttributes any notice attributes
+	 * @param extensibleAttributes any extensible attributes
+	 * @param validateWithSchema false to skip validation against the DDMS schemas
+	 * @throws InvalidDDMSException if any required information is missing or malformed, or if one of the components
+	 *         does not belong at the top-level of the Resource.
+	 */
+	private Resource(List<IDDMSComponent> topLevelComponents, Boolean resourceElement, String createDate,
+		List<String> compliesWiths, Integer ismDESVersion, Integer ntkDESVersion,
+		SecurityAttributes securityAttributes, NoticeAttributes noticeAttributes,
+		ExtensibleAttributes extensibleAttributes, boolean validateWithSchema) throws InvalidDDMSException {
 		try {
 			if (topLevelComponents == null)
 				topLevelComponents = Collections.emptyList();
@@ -595,7 +843,8 @@ public final class Resource extends AbstractBaseComponent {
 				element.appendChild(component.getXOMElementCopy());
 			}
 			setXOMElement(element, true);
-			DDMSReader.validateWithSchema(version, toXML());
+			if (validateWithSchema)
+				DDMSReader.validateWithSchema(version, getXOMElement());
 		}
 		catch (InvalidDDMSException e) {
 			e.setLocator(getQualifiedName());
@@ -790,103 +1039,99 @@ public final class Resource extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, RESOURCE_ELEMENT_NAME, isResourceElement());
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, RESOURCE_ELEMENT_NAME, isResourceElement());
 		if (getCreateDate() != null)
-			addJson(object, CREATE_DATE_NAME, getCreateDate().toXMLFormat());
-		addJson(object, COMPLIES_WITH_NAME, getCompliesWiths());
-		addJson(object, "ism." + DES_VERSION_NAME, getIsmDESVersion());
-		addJson(object, "ntk." + DES_VERSION_NAME, getNtkDESVersion());
-		addJson(object, getSecurityAttributes());
-		addJson(object, getNoticeAttributes());
-		addJson(object, getExtensibleAttributes());
-		addJson(object, getMetacardInfo());
-		addJson(object, "identifier", getIdentifiers());
-		addJson(object, "title", getTitles());
-		addJson(object, "subtitle", getSubtitles());
-		addJson(object, getDescription());
-		addJson(object, "language", getLanguages());
-		addJson(object, getDates());
-		addJson(object, getRights());
-		addJson(object, "source", getSources());
-		addJson(object, "type", getTypes());
-		addJson(object, "creator", getCreators());
-		addJson(object, "publisher", getPublishers());
-		addJson(object, "contributor", getContributors());
-		addJson(object, "pointOfContact", getPointOfContacts());
-		addJson(object, getFormat());
-		addJson(object, "subjectCoverage", getSubjectCoverages());
-		addJson(object, "virtualCoverage", getVirtualCoverages());
-		addJson(object, "temporalCoverage", getTemporalCoverages());
-		addJson(object, "geospatialCoverage", getGeospatialCoverages());
-		addJson(object, "relatedResource", getRelatedResources());
-		addJson(object, getResourceManagement());
-		addJson(object, getSecurity());
-		addJson(object, "extensible.layer", !getExtensibleElements().isEmpty());
-		addJson(object, "ddms.generator", "DDMSence " + PropertyReader.getProperty("version"));
-		addJson(object, "ddms.version", getDDMSVersion().getVersion());
-		return (object);
+			addJson(writer, CREATE_DATE_NAME, getCreateDate().toXMLFormat());
+		addJson(writer, COMPLIES_WITH_NAME, getCompliesWiths());
+		addJson(writer, "ism." + DES_VERSION_NAME, getIsmDESVersion());
+		addJson(writer, "ntk." + DES_VERSION_NAME, getNtkDESVersion());
+		addJson(writer, getSecurityAttributes());
+		addJson(writer, getNoticeAttributes());
+		addJson(writer, getExtensibleAttributes());
+		addJson(writer, getMetacardInfo());
+		addJson(writer, "identifier", getIdentifiers());
+		addJson(writer, "title", getTitles());
+		addJson(writer, "subtitle", getSubtitles());
+		addJson(writer, getDescription());
+		addJson(writer, "language", getLanguages());
+		addJson(writer, getDates());
+		addJson(writer, getRights());
+		addJson(writer, "source", getSources());
+		addJson(writer, "type", getTypes());
+		addJson(writer, "creator", getCreators());
+		addJson(writer, "publisher", getPublishers());
+		addJson(writer, "contributor", getContributors());
+		addJson(writer, "pointOfContact", getPointOfContacts());
+		addJson(writer, getFormat());
+		addJson(writer, "subjectCoverage", getSubjectCoverages());
+		addJson(writer, "virtualCoverage", getVirtualCoverages());
+		addJson(writer, "temporalCoverage", getTemporalCoverages());
+		addJson(writer, "geospatialCoverage", getGeospatialCoverages());
+		addJson(writer, "relatedResource", getRelatedResources());
+		addJson(writer, getResourceManagement());
+		addJson(writer, getSecurity());
+		addJson(writer, "extensible.layer", !getExtensibleElements().isEmpty());
+		addJson(writer, "ddms.generator", "DDMSence " + PropertyReader.getProperty("version"));
+		addJson(writer, "ddms.version", getDDMSVersion().getVersion());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
 		if (isResourceElement() != null)
-			text.append(buildHTMLTextOutput(format, localPrefix + RESOURCE_ELEMENT_NAME, String.valueOf(isResourceElement())));
+			addHTMLText(text, format, localPrefix, RESOURCE_ELEMENT_NAME, String.valueOf(isResourceElement()));
 		if (getCreateDate() != null)
-			text.append(buildHTMLTextOutput(format, localPrefix + CREATE_DATE_NAME, getCreateDate().toXMLFormat()));
-		text.append(buildHTMLTextOutput(format, localPrefix + COMPLIES_WITH_NAME, Util.getXsList(getCompliesWiths())));
+			addHTMLText(text, format, localPrefix, CREATE_DATE_NAME, getCreateDate().toXMLFormat());
+		addHTMLText(text, format, localPrefix, COMPLIES_WITH_NAME, Util.getXsList(getCompliesWiths()));
 		if (getIsmDESVersion() != null)
-			text.append(buildHTMLTextOutput(format, localPrefix + "ism." + DES_VERSION_NAME, String.valueOf(getIsmDESVersion())));
+			addHTMLText(text, format, localPrefix, "ism." + DES_VERSION_NAME, String.valueOf(getIsmDESVersion()));
 		if (getNtkDESVersion() != null)
-			text.append(buildHTMLTextOutput(format, localPrefix + "ntk." + DES_VERSION_NAME, String.valueOf(getNtkDESVersion())));
-		text.append(getSecurityAttributes().getHTMLTextOutput(format, localPrefix));
-		text.append(getNoticeAttributes().getHTMLTextOutput(format, localPrefix));
-		text.append(getExtensibleAttributes().getHTMLTextOutput(format, localPrefix));
+			addHTMLText(text, format, localPrefix, "ntk." + DES_VERSION_NAME, String.valueOf(getNtkDESVersion()));
+		getSecurityAttributes().writeHTMLText(text, format, localPrefix);
+		getNoticeAttributes().writeHTMLText(text, format, localPrefix);
+		getExtensibleAttributes().writeHTMLText(text, format, localPrefix);
 
 		// Traverse top-level components, suppressing the resource prefix
 		if (getMetacardInfo() != null)
-			text.append(getMetacardInfo().getHTMLTextOutput(format, "", ""));
-		text.append(buildHTMLTextOutput(format, "", getIdentifiers()));
-		text.append(buildHTMLTextOutput(format, "", getTitles()));
-		text.append(buildHTMLTextOutput(format, "", getSubtitles()));
+			getMetacardInfo().writeHTMLText(text, format, "", "");
+		addHTMLText(text, format, "", getIdentifiers());
+		addHTMLText(text, format, "", getTitles());
+		addHTMLText(text, format, "", getSubtitles());
 		if (getDescription() != null)
-			text.append(getDescription().getHTMLTextOutput(format, "", ""));
-		text.append(buildHTMLTextOutput(format, "", getLanguages()));
+			getDescription().writeHTMLText(text, format, "", "");
+		addHTMLText(text, format, "", getLanguages());
 		if (getDates() != null)
-			text.append(getDates().getHTMLTextOutput(format, "", ""));
+			getDates().writeHTMLText(text, format, "", "");
 		if (getRights() != null)
-			text.append(getRights().getHTMLTextOutput(format, "", ""));
-		text.append(buildHTMLTextOutput(format, "", getSources()));
-		text.append(buildHTMLTextOutput(format, "", getTypes()));
-		text.append(buildHTMLTextOutput(format, "", getCreators()));
-		text.append(buildHTMLTextOutput(format, "", getPublishers()));
-		text.append(buildHTMLTextOutput(format, "", getContributors()));
-		text.append(buildHTMLTextOutput(format, "", getPointOfContacts()));
+			getRights().writeHTMLText(text, format, "", "");
+		addHTMLText(text, format, "", getSources());
+		addHTMLText(text, format, "", getTypes());
+		addHTMLText(text, format, "", getCreators());
+		addHTMLText(text, format, "", getPublishers());
+		addHTMLText(text, format, "", getContributors());
+		addHTMLText(text, format, "", getPointOfContacts());
 		if (getFormat() != null)
-			text.append(getFormat().getHTMLTextOutput(format, "", ""));
-		text.append(buildHTMLTextOutput(format, "", getSubjectCoverages()));
-		text.append(buildHTMLTextOutput(format, "", getVirtualCoverages()));
-		text.append(buildHTMLTextOutput(format, "", getTemporalCoverages()));
-		text.append(buildHTMLTextOutput(format, "", getGeospatialCoverages()));
-		text.append(buildHTMLTextOutput(format, "", getRelatedResources()));
+			getFormat().writeHTMLText(text, format, "", "");
+		addHTMLText(text, format, "", getSubjectCoverages());
+		addHTMLText(text, format, "", getVirtualCoverages());
+		addHTMLText(text, format, "", getTemporalCoverages());
+		addHTMLText(text, format, "", getGeospatialCoverages());
+		addHTMLText(text, format, "", getRelatedResources());
 		if (getResourceManagement() != null)
-			text.append(getResourceManagement().getHTMLTextOutput(format, "", ""));
+			getResourceManagement().writeHTMLText(text, format, "", "");
 		if (getSecurity() != null)
-			text.append(getSecurity().getHTMLTextOutput(format, "", ""));
-		text.append(buildHTMLTextOutput(format, "", getExtensibleElements()));
+			getSecurity().writeHTMLText(text, format, "", "");
+		addHTMLText(text, format, "", getExtensibleElements());
 
-		text.append(buildHTMLTextOutput(format, "extensible.layer", String.valueOf(!getExtensibleElements().isEmpty())));
-		text.append(buildHTMLTextOutput(format, "ddms.generator", "DDMSence " + PropertyReader.getProperty("version")));
-		text.append(buildHTMLTextOutput(format, "ddms.version", getDDMSVersion().getVersion()));
-		return (text.toString());
+		addHTMLText(text, format, "extensible.layer", String.valueOf(!getExtensibleElements().isEmpty()));
+		addHTMLText(text, format, "ddms.generator", "DDMSence " + PropertyReader.getProperty("version"));
+		addHTMLText(text, format, "ddms.version", getDDMSVersion().getVersion());
 	}
 
 	/**
@@ -939,6 +1184,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for the MetacardInfo component
 	 */
 	public MetacardInfo getMetacardInfo() {
+		load(MetacardInfo.getName(getDDMSVersion()));
 		return (_metacardInfo);
 	}
 
@@ -946,6 +1192,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for the identifier components. There will always be at least one.
 	 */
 	public List<Identifier> getIdentifiers() {
+		load(Identifier.getName(getDDMSVersion()));
 		return (Collections.unmodifiableList(_identifiers));
 	}
 
@@ -953,6 +1200,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for the title components. There will always be at least one.
 	 */
 	public List<Title> getTitles() {
+		load(Title.getName(getDDMSVersion()));
 		return (Collections.unmodifiableList(_titles));
 	}
 
@@ -960,6 +1208,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for the subtitle components
 	 */
 	public List<Subtitle> getSubtitles() {
+		load(Subtitle.getName(getDDMSVersion()));
 		return (Collections.unmodifiableList(_subtitles));
 	}
 
@@ -967,6 +1216,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for the description component
 	 */
 	public Description getDescription() {
+		load(Description.getName(getDDMSVersion()));
 		return (_description);
 	}
 
@@ -974,6 +1224,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for the language components
 	 */
 	public List<Language> getLanguages() {
+		load(Language.getName(getDDMSVersion()));
 		return (Collections.unmodifiableList(_languages));
 	}
 
@@ -981,6 +1232,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for the dates component. May return null.
 	 */
 	public Dates getDates() {
+		load(Dates.getName(getDDMSVersion()));
 		return _dates;
 	}
 
@@ -988,6 +1240,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for the rights component. May return null.
 	 */
 	public Rights getRights() {
+		load(Rights.getName(getDDMSVersion()));
 		return _rights;
 	}
 
@@ -995,6 +1248,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for the source components
 	 */
 	public List<Source> getSources() {
+		load(Source.getName(getDDMSVersion()));
 		return (Collections.unmodifiableList(_sources));
 	}
 
@@ -1002,6 +1256,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for the type components
 	 */
 	public List<Type> getTypes() {
+		load(Type.getName(getDDMSVersion()));
 		return (Collections.unmodifiableList(_types));
 	}
 
@@ -1009,6 +1264,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for a list of all Creator entities
 	 */
 	public List<Creator> getCreators() {
+		load(Creator.getName(getDDMSVersion()));
 		return (Collections.unmodifiableList(_creators));
 	}
 
@@ -1016,6 +1272,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for a list of all Publisher entities
 	 */
 	public List<Publisher> getPublishers() {
+		load(Publisher.getName(getDDMSVersion()));
 		return (Collections.unmodifiableList(_publishers));
 	}
 
@@ -1023,6 +1280,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for a list of all Contributor entities
 	 */
 	public List<Contributor> getContributors() {
+		load(Contributor.getName(getDDMSVersion()));
 		return (Collections.unmodifiableList(_contributors));
 	}
 
@@ -1030,6 +1288,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for a list of all PointOfContact entities
 	 */
 	public List<PointOfContact> getPointOfContacts() {
+		load(PointOfContact.getName(getDDMSVersion()));
 		return (Collections.unmodifiableList(_pointOfContacts));
 	}
 
@@ -1037,6 +1296,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for the Format component. May return null.
 	 */
 	public Format getFormat() {
+		load(Format.getName(getDDMSVersion()));
 		return (_format);
 	}
 
@@ -1044,6 +1304,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for the subjectCoverage component
 	 */
 	public List<SubjectCoverage> getSubjectCoverages() {
+		load(SubjectCoverage.getName(getDDMSVersion()));
 		return _subjectCoverages;
 	}
 
@@ -1051,6 +1312,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for the virtualCoverage components
 	 */
 	public List<VirtualCoverage> getVirtualCoverages() {
+		load(VirtualCoverage.getName(getDDMSVersion()));
 		return (Collections.unmodifiableList(_virtualCoverages));
 	}
 
@@ -1058,6 +1320,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for the temporalCoverage components
 	 */
 	public List<TemporalCoverage> getTemporalCoverages() {
+		load(TemporalCoverage.getName(getDDMSVersion()));
 		return (Collections.unmodifiableList(_temporalCoverages));
 	}
 
@@ -1065,6 +1328,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for the geospatialCoverage components
 	 */
 	public List<GeospatialCoverage> getGeospatialCoverages() {
+		load(GeospatialCoverage.getName(getDDMSVersion()));
 		return (Collections.unmodifiableList(geospatialCoverages));
 	}
 
@@ -1072,6 +1336,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for the RelatedResource components 
 	 */
 	public List<RelatedResource> getRelatedResources() {
+		load(RelatedResource.getName(getDDMSVersion()));
 		return (Collections.unmodifiableList(_relatedResources));
 	}
 
@@ -1079,6 +1344,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for the ResourceManagement component. May return null.
 	 */
 	public ResourceManagement getResourceManagement() {
+		load(ResourceManagement.getName(getDDMSVersion()));
 		return (_resourceManagement);
 	}
 
@@ -1086,6 +1352,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for the security component. May return null.
 	 */
 	public Security getSecurity() {
+		load(Security.getName(getDDMSVersion()));
 		return (_security);
 	}
 
@@ -1093,6 +1360,7 @@ public final class Resource extends AbstractBaseComponent {
 	 * Accessor for the extensible layer elements.
 	 */
 	public List<ExtensibleElement> getExtensibleElements() {
+		load(EXTENSIBLE_ELEMENTS_KEY);
 		return (Collections.unmodifiableList(_extensibleElements));
 	}
 
@@ -1142,6 +1410,15 @@ public final class Resource extends AbstractBaseComponent {
 	 * in this list (no null entries).
 	 */
 	public List<IDDMSComponent> getTopLevelComponents() {
+		if (_loadedChildren != null) {
+			try {
+				loadAllChildren();
+			}
+			catch (InvalidDDMSException e) {
+				e.setLocator(getQualifiedName());
+				throw new IllegalStateException(e.getMessage(), e);
+			}
+		}
 		return (Collections.unmodifiableList(_orderedList));
 	}
 
@@ -1159,6 +1436,24 @@ public final class Resource extends AbstractBaseComponent {
 		return (_securityAttributes);
 	}
 
+	/**
+	 * Accessor for the roll-up of the security markings on this resource and all of its components. The roll-up is
+	 * computed the first time it is requested, and then reused, since a Resource does not change. Inconsistent
+	 * markings are recorded in the roll-up, rather than thrown.
+	 * 
+	 * @return the roll-up
+	 * @see SecurityRollup
+	 * @since 2.5.0
+	 */
+	public SecurityRollup getSecurityRollup() {
+		SecurityRollup rollup = _securityRollup;
+		if (rollup == null) {
+			rollup = SecurityRollup.rollUp(this);
+			_securityRollup = rollup;
+		}
+		return (rollup);
+	}
+
 	/**
 	 * Accessor for the Notice Attributes. Will always be non-null even if the attributes are not set.
 	 */
@@ -1303,6 +1598,30 @@ public final class Resource extends AbstractBaseComponent {
 		 * @see IBuilder#commit()
 		 */
 		public Resource commit() throws InvalidDDMSException {
+			return (commit(true));
+		}
+
+		/**
+		 * Commits this Builder without validating the Resource against the DDMS schemas. Every component, and the
+		 * Resource itself, is still validated against its own rules. This is only safe when the Builder was filled
+		 * from a source which is already known to hold a valid Resource, such as the JSON form of one.
+		 * 
+		 * @return the Resource, or null if the Builder is empty
+		 * @throws InvalidDDMSException if any required information is missing or malformed
+		 * @since 2.5.0
+		 */
+		public Resource commitTrusted() throws InvalidDDMSException {
+			return (commit(false));
+		}
+
+		/**
+		 * Commits this Builder, optionally skipping the final check against the DDMS schemas.
+		 * 
+		 * @param validateWithSchema false to skip validation against the DDMS schemas
+		 * @return the Resource, or null if the Builder is empty
+		 * @throws InvalidDDMSException if any required information is missing or malformed
+		 */
+		private Resource commit(boolean validateWithSchema) throws InvalidDDMSException {
 			if (isEmpty())
 				return (null);
 			List<IDDMSComponent> topLevelComponents = new ArrayList<IDDMSComponent>();
@@ -1313,7 +1632,7 @@ public final class Resource extends AbstractBaseComponent {
 			}
 			return (new Resource(topLevelComponents, getResourceElement(), getCreateDate(), getCompliesWiths(),
 				getIsmDESVersion(), getNtkDESVersion(), getSecurityAttributes().commit(),
-				getNoticeAttributes().commit(), getExtensibleAttributes().commit()));
+				getNoticeAttributes().commit(), getExtensibleAttributes().commit(), validateWithSchema));
 		}
 
 		/**
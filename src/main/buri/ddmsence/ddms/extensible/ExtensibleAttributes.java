@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.extensible;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -44,7 +45,7 @@ import buri.ddmsence.util.LazyList;
 import buri.ddmsence.util.PropertyReader;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * Attribute group representing the xs:anyAttribute tag which appears on various DDMS components.
@@ -235,14 +236,12 @@ public final class ExtensibleAttributes extends AbstractAttributeGroup {
 	}
 
 	/**
-	 * @see AbstractAttributeGroup#getJSONObject()
+	 * @see AbstractAttributeGroup#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
 		for (Attribute attribute : getAttributes()) {
-			addJson(object, attribute.getNamespacePrefix() + "." + attribute.getLocalName(), attribute.getValue());
+			addJson(writer, attribute.getNamespacePrefix() + "." + attribute.getLocalName(), attribute.getValue());
 		}
-		return (object);
 	}
 	
 	/**
@@ -253,17 +252,15 @@ public final class ExtensibleAttributes extends AbstractAttributeGroup {
 	}
 	
 	/**
-	 * @see AbstractAttributeGroup#getHTMLTextOutput(OutputFormat, String)
+	 * @see AbstractAttributeGroup#writeHTMLText(Appendable, OutputFormat, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = Util.getNonNullString(prefix);
-		StringBuffer text = new StringBuffer();
 		for (Attribute attribute : getAttributes()) {
-			text.append(Resource.buildHTMLTextOutput(format, localPrefix + attribute.getNamespacePrefix() + "."
-				+ attribute.getLocalName(), attribute.getValue()));
+			addHTMLText(text, format, localPrefix, attribute.getNamespacePrefix() + "." + attribute.getLocalName(),
+				attribute.getValue());
 		}
-		return (text.toString());
 	}
 
 	/**
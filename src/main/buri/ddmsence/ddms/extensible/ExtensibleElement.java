@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.extensible;
 
+import java.io.IOException;
 import java.io.Serializable;
 
 import nu.xom.Element;
@@ -29,7 +30,7 @@ import buri.ddmsence.ddms.OutputFormat;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of an element which might fulfill the xs:any space in the Extensible Layer.
@@ -101,18 +102,16 @@ public final class ExtensibleElement extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		return (new JsonObject());
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
-		return ("");
 	}
 
 	/**
@@ -19,6 +19,8 @@
  */
 package buri.ddmsence.ddms.format;
 
+import java.io.IOException;
+
 import nu.xom.Element;
 import buri.ddmsence.AbstractBaseComponent;
 import buri.ddmsence.AbstractQualifierValue;
@@ -28,7 +30,7 @@ import buri.ddmsence.ddms.OutputFormat;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:extent.
@@ -111,25 +113,21 @@ public final class Extent extends AbstractQualifierValue {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, getQualifierName(), getQualifier());
-		addJson(object, getValueName(), getValue());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, getQualifierName(), getQualifier());
+		addJson(writer, getValueName(), getValue());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix + getQualifierName(), getQualifier()));
-		text.append(buildHTMLTextOutput(format, localPrefix + getValueName(), getValue()));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, getQualifierName(), getQualifier());
+		addHTMLText(text, format, localPrefix, getValueName(), getValue());
 	}
 
 	/**
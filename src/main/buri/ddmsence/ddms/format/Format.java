@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.format;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -33,7 +34,7 @@ import buri.ddmsence.ddms.ValidationMessage;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:format.
@@ -156,30 +157,26 @@ public final class Format extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, MIME_TYPE_NAME, getMimeType());
-		addJson(object, getExtent());
-		addJson(object, MEDIUM_NAME, getMedium());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, MIME_TYPE_NAME, getMimeType());
+		addJson(writer, getExtent());
+		addJson(writer, MEDIUM_NAME, getMedium());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
 		if (!getDDMSVersion().isAtLeast("4.0.1"))
 			localPrefix += MEDIA_NAME + ".";
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix + MIME_TYPE_NAME, getMimeType()));
+		addHTMLText(text, format, localPrefix, MIME_TYPE_NAME, getMimeType());
 		if (getExtent() != null)
-			text.append(getExtent().getHTMLTextOutput(format, localPrefix, ""));
-		text.append(buildHTMLTextOutput(format, localPrefix + MEDIUM_NAME, getMedium()));
-		return (text.toString());
+			getExtent().writeHTMLText(text, format, localPrefix, "");
+		addHTMLText(text, format, localPrefix, MEDIUM_NAME, getMedium());
 	}
 
 	/**
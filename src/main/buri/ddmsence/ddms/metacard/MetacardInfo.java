@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.metacard;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -48,7 +49,7 @@ import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.LazyList;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:metacardInfo.
@@ -302,56 +303,52 @@ public final class MetacardInfo extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, "identifier", getIdentifiers());
-		addJson(object, getDates());		
-		addJson(object, "publisher", getPublishers());
-		addJson(object, "contributor", getContributors());
-		addJson(object, "creator", getCreators());
-		addJson(object, "pointOfContact", getPointOfContacts());
-		addJson(object, getDescription());
-		addJson(object, "processingInfo", getProcessingInfos());
-		addJson(object, getRevisionRecall());
-		addJson(object, getRecordsManagementInfo());
-		addJson(object, getNoticeList());
-		addJson(object, getAccess());
-		addJson(object, getSecurityAttributes());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, "identifier", getIdentifiers());
+		addJson(writer, getDates());		
+		addJson(writer, "publisher", getPublishers());
+		addJson(writer, "contributor", getContributors());
+		addJson(writer, "creator", getCreators());
+		addJson(writer, "pointOfContact", getPointOfContacts());
+		addJson(writer, getDescription());
+		addJson(writer, "processingInfo", getProcessingInfos());
+		addJson(writer, getRevisionRecall());
+		addJson(writer, getRecordsManagementInfo());
+		addJson(writer, getNoticeList());
+		addJson(writer, getAccess());
+		addJson(writer, getSecurityAttributes());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
 
 		// Traverse child components, suppressing the resource prefix
-		text.append(buildHTMLTextOutput(format, localPrefix, getIdentifiers()));
+		addHTMLText(text, format, localPrefix, getIdentifiers());
 		if (getDates() != null)
-			text.append(getDates().getHTMLTextOutput(format, localPrefix, ""));
-		text.append(buildHTMLTextOutput(format, localPrefix, getPublishers()));
-		text.append(buildHTMLTextOutput(format, localPrefix, getContributors()));
-		text.append(buildHTMLTextOutput(format, localPrefix, getCreators()));
-		text.append(buildHTMLTextOutput(format, localPrefix, getPointOfContacts()));
+			getDates().writeHTMLText(text, format, localPrefix, "");
+		addHTMLText(text, format, localPrefix, getPublishers());
+		addHTMLText(text, format, localPrefix, getContributors());
+		addHTMLText(text, format, localPrefix, getCreators());
+		addHTMLText(text, format, localPrefix, getPointOfContacts());
 		if (getDescription() != null)
-			text.append(getDescription().getHTMLTextOutput(format, localPrefix, ""));
-		text.append(buildHTMLTextOutput(format, localPrefix, getProcessingInfos()));
+			getDescription().writeHTMLText(text, format, localPrefix, "");
+		addHTMLText(text, format, localPrefix, getProcessingInfos());
 		if (getRevisionRecall() != null)
-			text.append(getRevisionRecall().getHTMLTextOutput(format, localPrefix, ""));
+			getRevisionRecall().writeHTMLText(text, format, localPrefix, "");
 		if (getRecordsManagementInfo() != null)
-			text.append(getRecordsManagementInfo().getHTMLTextOutput(format, localPrefix, ""));
+			getRecordsManagementInfo().writeHTMLText(text, format, localPrefix, "");
 		if (getNoticeList() != null)
-			text.append(getNoticeList().getHTMLTextOutput(format, localPrefix, ""));
+			getNoticeList().writeHTMLText(text, format, localPrefix, "");
 		if (getAccess() != null)
-			text.append(getAccess().getHTMLTextOutput(format, localPrefix, ""));
+			getAccess().writeHTMLText(text, format, localPrefix, "");
 
-		text.append(getSecurityAttributes().getHTMLTextOutput(format, localPrefix));
-		return (text.toString());
+		getSecurityAttributes().writeHTMLText(text, format, localPrefix);
 	}
 
 	/**
@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.resource;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -38,7 +39,7 @@ import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.LazyList;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:dates.
@@ -211,35 +212,31 @@ public final class Dates extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, ACQUIRED_ON_NAME, getAcquiredOns());
-		addJson(object, CREATED_NAME, getCreatedString());
-		addJson(object, POSTED_NAME, getPostedString());
-		addJson(object, VALID_TIL_NAME, getValidTilString());
-		addJson(object, INFO_CUT_OFF_NAME, getInfoCutOffString());
-		addJson(object, APPROVED_ON_NAME, getApprovedOnString());
-		addJson(object, RECEIVED_ON_NAME, getReceivedOnString());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, ACQUIRED_ON_NAME, getAcquiredOns());
+		addJson(writer, CREATED_NAME, getCreatedString());
+		addJson(writer, POSTED_NAME, getPostedString());
+		addJson(writer, VALID_TIL_NAME, getValidTilString());
+		addJson(writer, INFO_CUT_OFF_NAME, getInfoCutOffString());
+		addJson(writer, APPROVED_ON_NAME, getApprovedOnString());
+		addJson(writer, RECEIVED_ON_NAME, getReceivedOnString());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix, getAcquiredOns()));
-		text.append(buildHTMLTextOutput(format, localPrefix + CREATED_NAME, getCreatedString()));
-		text.append(buildHTMLTextOutput(format, localPrefix + POSTED_NAME, getPostedString()));
-		text.append(buildHTMLTextOutput(format, localPrefix + VALID_TIL_NAME, getValidTilString()));
-		text.append(buildHTMLTextOutput(format, localPrefix + INFO_CUT_OFF_NAME, getInfoCutOffString()));
-		text.append(buildHTMLTextOutput(format, localPrefix + APPROVED_ON_NAME, getApprovedOnString()));
-		text.append(buildHTMLTextOutput(format, localPrefix + RECEIVED_ON_NAME, getReceivedOnString()));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, getAcquiredOns());
+		addHTMLText(text, format, localPrefix, CREATED_NAME, getCreatedString());
+		addHTMLText(text, format, localPrefix, POSTED_NAME, getPostedString());
+		addHTMLText(text, format, localPrefix, VALID_TIL_NAME, getValidTilString());
+		addHTMLText(text, format, localPrefix, INFO_CUT_OFF_NAME, getInfoCutOffString());
+		addHTMLText(text, format, localPrefix, APPROVED_ON_NAME, getApprovedOnString());
+		addHTMLText(text, format, localPrefix, RECEIVED_ON_NAME, getReceivedOnString());
 	}
 
 	/**
@@ -19,11 +19,12 @@
  */
 package buri.ddmsence.ddms.resource;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 import nu.xom.Element;
 import nu.xom.Elements;
@@ -152,25 +153,23 @@ public final class Organization extends AbstractRoleEntity {
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = super.getJSONObject();
-		addJson(object, "subOrganization", getSubOrganizations());
-		addJson(object, ACRONYM_NAME, getAcronym());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		super.writeJSONProperties(writer);
+		addJson(writer, "subOrganization", getSubOrganizations());
+		addJson(writer, ACRONYM_NAME, getAcronym());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, "", suffix);
-		StringBuffer text = new StringBuffer(super.getHTMLTextOutput(format, localPrefix, ""));
-		text.append(buildHTMLTextOutput(format, localPrefix, getSubOrganizations()));
-		text.append(buildHTMLTextOutput(format, localPrefix + ACRONYM_NAME, getAcronym()));
-		return (text.toString());
+		super.writeHTMLText(text, format, localPrefix, "");
+		addHTMLText(text, format, localPrefix, getSubOrganizations());
+		addHTMLText(text, format, localPrefix, ACRONYM_NAME, getAcronym());
 	}
 
 	/**
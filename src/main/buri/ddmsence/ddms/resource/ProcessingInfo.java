@@ -19,6 +19,8 @@
  */
 package buri.ddmsence.ddms.resource;
 
+import java.io.IOException;
+
 import javax.xml.datatype.XMLGregorianCalendar;
 
 import nu.xom.Element;
@@ -31,7 +33,7 @@ import buri.ddmsence.ddms.security.ism.SecurityAttributes;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:processingInfo.
@@ -117,27 +119,23 @@ public final class ProcessingInfo extends AbstractSimpleString {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, getName(), getValue());
-		addJson(object, DATE_PROCESSED_NAME, getDateProcessedString());
-		addJson(object, getSecurityAttributes());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, getName(), getValue());
+		addJson(writer, DATE_PROCESSED_NAME, getDateProcessedString());
+		addJson(writer, getSecurityAttributes());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix);
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix, getValue()));
-		text.append(buildHTMLTextOutput(format, localPrefix + "." + DATE_PROCESSED_NAME, getDateProcessedString()));
-		text.append(getSecurityAttributes().getHTMLTextOutput(format, localPrefix + "."));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, getValue());
+		addHTMLText(text, format, localPrefix, "." + DATE_PROCESSED_NAME, getDateProcessedString());
+		getSecurityAttributes().writeHTMLText(text, format, localPrefix + ".");
 	}
 
 	/**
@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.resource;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -33,7 +34,7 @@ import buri.ddmsence.ddms.OutputFormat;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:recordKeeper.
@@ -143,25 +144,21 @@ public class RecordKeeper extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, RECORD_KEEPER_ID_NAME, getRecordKeeperID());
-		addJson(object, getOrganization());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, RECORD_KEEPER_ID_NAME, getRecordKeeperID());
+		addJson(writer, getOrganization());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix + RECORD_KEEPER_ID_NAME, getRecordKeeperID()));
-		text.append(getOrganization().getHTMLTextOutput(format, localPrefix, ""));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, RECORD_KEEPER_ID_NAME, getRecordKeeperID());
+		getOrganization().writeHTMLText(text, format, localPrefix, "");
 	}
 
 	/**
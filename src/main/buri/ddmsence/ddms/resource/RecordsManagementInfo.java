@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.resource;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -32,7 +33,7 @@ import buri.ddmsence.ddms.OutputFormat;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:recordsManagementInfo.
@@ -129,30 +130,25 @@ public final class RecordsManagementInfo extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, getRecordKeeper());
-		addJson(object, getApplicationSoftware());
-		addJson(object, VITAL_RECORD_INDICATOR_NAME, getVitalRecordIndicator());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, getRecordKeeper());
+		addJson(writer, getApplicationSoftware());
+		addJson(writer, VITAL_RECORD_INDICATOR_NAME, getVitalRecordIndicator());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
 		if (getRecordKeeper() != null)
-			text.append(getRecordKeeper().getHTMLTextOutput(format, localPrefix, ""));
+			getRecordKeeper().writeHTMLText(text, format, localPrefix, "");
 		if (getApplicationSoftware() != null)
-			text.append(getApplicationSoftware().getHTMLTextOutput(format, localPrefix, ""));
-		text.append(buildHTMLTextOutput(format, localPrefix + VITAL_RECORD_INDICATOR_NAME,
-			String.valueOf(getVitalRecordIndicator())));
-		return (text.toString());
+			getApplicationSoftware().writeHTMLText(text, format, localPrefix, "");
+		addHTMLText(text, format, localPrefix, VITAL_RECORD_INDICATOR_NAME, String.valueOf(getVitalRecordIndicator()));
 	}
 
 	/**
@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.resource;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -36,7 +37,7 @@ import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.LazyList;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:resourceManagement.
@@ -164,33 +165,29 @@ public final class ResourceManagement extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, getRecordsManagementInfo());
-		addJson(object, getRevisionRecall());
-		addJson(object, "taskingInfo", getTaskingInfos());
-		addJson(object, "processingInfo", getProcessingInfos());
-		addJson(object, getSecurityAttributes());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, getRecordsManagementInfo());
+		addJson(writer, getRevisionRecall());
+		addJson(writer, "taskingInfo", getTaskingInfos());
+		addJson(writer, "processingInfo", getProcessingInfos());
+		addJson(writer, getSecurityAttributes());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
 		if (getRecordsManagementInfo() != null)
-			text.append(getRecordsManagementInfo().getHTMLTextOutput(format, localPrefix, ""));
+			getRecordsManagementInfo().writeHTMLText(text, format, localPrefix, "");
 		if (getRevisionRecall() != null)
-			text.append(getRevisionRecall().getHTMLTextOutput(format, localPrefix, ""));
-		text.append(buildHTMLTextOutput(format, localPrefix, getTaskingInfos()));
-		text.append(buildHTMLTextOutput(format, localPrefix, getProcessingInfos()));
-		text.append(getSecurityAttributes().getHTMLTextOutput(format, localPrefix));
-		return (text.toString());
+			getRevisionRecall().writeHTMLText(text, format, localPrefix, "");
+		addHTMLText(text, format, localPrefix, getTaskingInfos());
+		addHTMLText(text, format, localPrefix, getProcessingInfos());
+		getSecurityAttributes().writeHTMLText(text, format, localPrefix);
 	}
 
 	/**
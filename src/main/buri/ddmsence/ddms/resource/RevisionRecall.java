@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.resource;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -44,7 +45,7 @@ import buri.ddmsence.util.LazyList;
 import buri.ddmsence.util.PropertyReader;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:revisionRecall.
@@ -296,43 +297,39 @@ public final class RevisionRecall extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
 		boolean hasNestedElements = (!getLinks().isEmpty() || !getDetails().isEmpty());
-		JsonObject object = new JsonObject();
 		if (!hasNestedElements)
-			addJson(object, getName(), getValue());
-		addJson(object, REVISION_ID_NAME, getRevisionID());
-		addJson(object, REVISION_TYPE_NAME, getRevisionType());
-		addJson(object, NETWORK_NAME, getNetwork());
-		addJson(object, OTHER_NETWORK_NAME, getOtherNetwork());
-		addJson(object, "link", getLinks());
-		addJson(object, "detail", getDetails());
-		addJson(object, getXLinkAttributes());
-		addJson(object, getSecurityAttributes());
-		return (object);
+			addJson(writer, getName(), getValue());
+		addJson(writer, REVISION_ID_NAME, getRevisionID());
+		addJson(writer, REVISION_TYPE_NAME, getRevisionType());
+		addJson(writer, NETWORK_NAME, getNetwork());
+		addJson(writer, OTHER_NETWORK_NAME, getOtherNetwork());
+		addJson(writer, "link", getLinks());
+		addJson(writer, "detail", getDetails());
+		addJson(writer, getXLinkAttributes());
+		addJson(writer, getSecurityAttributes());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		boolean hasNestedElements = (!getLinks().isEmpty() || !getDetails().isEmpty());
 		String localPrefix = buildPrefix(prefix, getName(), suffix);
-		StringBuffer text = new StringBuffer();
 		if (!hasNestedElements)
-			text.append(buildHTMLTextOutput(format, localPrefix, getValue()));
-		text.append(buildHTMLTextOutput(format, localPrefix + "." + REVISION_ID_NAME, String.valueOf(getRevisionID())));
-		text.append(buildHTMLTextOutput(format, localPrefix + "." + REVISION_TYPE_NAME, getRevisionType()));
-		text.append(buildHTMLTextOutput(format, localPrefix + "." + NETWORK_NAME, getNetwork()));
-		text.append(buildHTMLTextOutput(format, localPrefix + "." + OTHER_NETWORK_NAME, getOtherNetwork()));
-		text.append(buildHTMLTextOutput(format, localPrefix + ".", getLinks()));
-		text.append(buildHTMLTextOutput(format, localPrefix + ".", getDetails()));
-		text.append(getXLinkAttributes().getHTMLTextOutput(format, localPrefix + "."));
-		text.append(getSecurityAttributes().getHTMLTextOutput(format, localPrefix + "."));
-		return (text.toString());
+			addHTMLText(text, format, localPrefix, getValue());
+		addHTMLText(text, format, localPrefix, "." + REVISION_ID_NAME, String.valueOf(getRevisionID()));
+		addHTMLText(text, format, localPrefix, "." + REVISION_TYPE_NAME, getRevisionType());
+		addHTMLText(text, format, localPrefix, "." + NETWORK_NAME, getNetwork());
+		addHTMLText(text, format, localPrefix, "." + OTHER_NETWORK_NAME, getOtherNetwork());
+		addHTMLText(text, format, localPrefix, ".", getLinks());
+		addHTMLText(text, format, localPrefix, ".", getDetails());
+		getXLinkAttributes().writeHTMLText(text, format, localPrefix + ".");
+		getSecurityAttributes().writeHTMLText(text, format, localPrefix + ".");
 	}
 
 	/**
@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.resource;
 
+import java.io.IOException;
 import java.io.Serializable;
 
 import nu.xom.Element;
@@ -29,7 +30,7 @@ import buri.ddmsence.ddms.OutputFormat;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:rights.
@@ -98,28 +99,23 @@ public final class Rights extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, PRIVACY_ACT_NAME, getPrivacyAct());
-		addJson(object, INTELLECTUAL_PROPERY_NAME, getIntellectualProperty());
-		addJson(object, COPYRIGHT_NAME, getCopyright());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, PRIVACY_ACT_NAME, getPrivacyAct());
+		addJson(writer, INTELLECTUAL_PROPERY_NAME, getIntellectualProperty());
+		addJson(writer, COPYRIGHT_NAME, getCopyright());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix + PRIVACY_ACT_NAME, String.valueOf(getPrivacyAct())));
-		text.append(buildHTMLTextOutput(format, localPrefix + INTELLECTUAL_PROPERY_NAME,
-			String.valueOf(getIntellectualProperty())));
-		text.append(buildHTMLTextOutput(format, localPrefix + COPYRIGHT_NAME, String.valueOf(getCopyright())));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, PRIVACY_ACT_NAME, String.valueOf(getPrivacyAct()));
+		addHTMLText(text, format, localPrefix, INTELLECTUAL_PROPERY_NAME, String.valueOf(getIntellectualProperty()));
+		addHTMLText(text, format, localPrefix, COPYRIGHT_NAME, String.valueOf(getCopyright()));
 	}
 
 	/**
@@ -19,6 +19,8 @@
  */
 package buri.ddmsence.ddms.resource;
 
+import java.io.IOException;
+
 import nu.xom.Element;
 import buri.ddmsence.AbstractBaseComponent;
 import buri.ddmsence.AbstractQualifierValue;
@@ -29,7 +31,7 @@ import buri.ddmsence.ddms.security.ism.SecurityAttributes;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:source.
@@ -142,31 +144,27 @@ public final class Source extends AbstractQualifierValue {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, getQualifierName(), getQualifier());
-		addJson(object, getValueName(), getValue());
-		addJson(object, SCHEMA_QUALIFIER_NAME, getSchemaQualifier());
-		addJson(object, SCHEMA_HREF_NAME, getSchemaHref());
-		addJson(object, getSecurityAttributes());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, getQualifierName(), getQualifier());
+		addJson(writer, getValueName(), getValue());
+		addJson(writer, SCHEMA_QUALIFIER_NAME, getSchemaQualifier());
+		addJson(writer, SCHEMA_HREF_NAME, getSchemaHref());
+		addJson(writer, getSecurityAttributes());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix + getQualifierName(), getQualifier()));
-		text.append(buildHTMLTextOutput(format, localPrefix + getValueName(), getValue()));
-		text.append(buildHTMLTextOutput(format, localPrefix + SCHEMA_QUALIFIER_NAME, getSchemaQualifier()));
-		text.append(buildHTMLTextOutput(format, localPrefix + SCHEMA_HREF_NAME, getSchemaHref()));
-		text.append(getSecurityAttributes().getHTMLTextOutput(format, localPrefix));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, getQualifierName(), getQualifier());
+		addHTMLText(text, format, localPrefix, getValueName(), getValue());
+		addHTMLText(text, format, localPrefix, SCHEMA_QUALIFIER_NAME, getSchemaQualifier());
+		addHTMLText(text, format, localPrefix, SCHEMA_HREF_NAME, getSchemaHref());
+		getSecurityAttributes().writeHTMLText(text, format, localPrefix);
 	}
 
 	/**
@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.resource;
 
+import java.io.IOException;
 import java.io.Serializable;
 
 import nu.xom.Element;
@@ -32,7 +33,7 @@ import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.PropertyReader;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:taskID.
@@ -164,31 +165,27 @@ public final class TaskID extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, getName(), getValue());
-		addJson(object, TASKING_SYSTEM_NAME, getTaskingSystem());
-		addJson(object, NETWORK_NAME, getNetwork());
-		addJson(object, OTHER_NETWORK_NAME, getOtherNetwork());
-		addJson(object, getXLinkAttributes());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, getName(), getValue());
+		addJson(writer, TASKING_SYSTEM_NAME, getTaskingSystem());
+		addJson(writer, NETWORK_NAME, getNetwork());
+		addJson(writer, OTHER_NETWORK_NAME, getOtherNetwork());
+		addJson(writer, getXLinkAttributes());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix);
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix, getValue()));
-		text.append(buildHTMLTextOutput(format, localPrefix + "." + TASKING_SYSTEM_NAME, getTaskingSystem()));
-		text.append(buildHTMLTextOutput(format, localPrefix + "." + NETWORK_NAME, getNetwork()));
-		text.append(buildHTMLTextOutput(format, localPrefix + "." + OTHER_NETWORK_NAME, getOtherNetwork()));
-		text.append(getXLinkAttributes().getHTMLTextOutput(format, localPrefix + "."));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, getValue());
+		addHTMLText(text, format, localPrefix, "." + TASKING_SYSTEM_NAME, getTaskingSystem());
+		addHTMLText(text, format, localPrefix, "." + NETWORK_NAME, getNetwork());
+		addHTMLText(text, format, localPrefix, "." + OTHER_NETWORK_NAME, getOtherNetwork());
+		getXLinkAttributes().writeHTMLText(text, format, localPrefix + ".");
 	}
 
 	/**
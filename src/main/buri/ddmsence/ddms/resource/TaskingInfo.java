@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.resource;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -37,7 +38,7 @@ import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.LazyList;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:taskingInfo.
@@ -170,30 +171,26 @@ public final class TaskingInfo extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, "requesterInfo", getRequesterInfos());
-		addJson(object, "addressee", getAddressees());
-		addJson(object, getDescription());
-		addJson(object, getTaskID());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, "requesterInfo", getRequesterInfos());
+		addJson(writer, "addressee", getAddressees());
+		addJson(writer, getDescription());
+		addJson(writer, getTaskID());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix, getRequesterInfos()));
-		text.append(buildHTMLTextOutput(format, localPrefix, getAddressees()));
+		addHTMLText(text, format, localPrefix, getRequesterInfos());
+		addHTMLText(text, format, localPrefix, getAddressees());
 		if (getDescription() != null)
-			text.append(getDescription().getHTMLTextOutput(format, localPrefix, ""));
-		text.append(getTaskID().getHTMLTextOutput(format, localPrefix, ""));
-		return (text.toString());
+			getDescription().writeHTMLText(text, format, localPrefix, "");
+		getTaskID().writeHTMLText(text, format, localPrefix, "");
 	}
 
 	/**
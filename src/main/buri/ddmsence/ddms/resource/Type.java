@@ -19,6 +19,8 @@
  */
 package buri.ddmsence.ddms.resource;
 
+import java.io.IOException;
+
 import nu.xom.Element;
 import buri.ddmsence.AbstractBaseComponent;
 import buri.ddmsence.AbstractQualifierValue;
@@ -29,7 +31,7 @@ import buri.ddmsence.ddms.security.ism.SecurityAttributes;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:type.
@@ -141,29 +143,25 @@ public final class Type extends AbstractQualifierValue {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, "description", getDescription());
-		addJson(object, getQualifierName(), getQualifier());
-		addJson(object, getValueName(), getValue());
-		addJson(object, getSecurityAttributes());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, "description", getDescription());
+		addJson(writer, getQualifierName(), getQualifier());
+		addJson(writer, getValueName(), getValue());
+		addJson(writer, getSecurityAttributes());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix + "description", getDescription()));
-		text.append(buildHTMLTextOutput(format, localPrefix + getQualifierName(), getQualifier()));
-		text.append(buildHTMLTextOutput(format, localPrefix + getValueName(), getValue()));
-		text.append(getSecurityAttributes().getHTMLTextOutput(format, localPrefix));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, "description", getDescription());
+		addHTMLText(text, format, localPrefix, getQualifierName(), getQualifier());
+		addHTMLText(text, format, localPrefix, getValueName(), getValue());
+		getSecurityAttributes().writeHTMLText(text, format, localPrefix);
 	}
 
 	/**
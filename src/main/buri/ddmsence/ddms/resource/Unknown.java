@@ -19,10 +19,11 @@
  */
 package buri.ddmsence.ddms.resource;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 import nu.xom.Element;
 import buri.ddmsence.AbstractBaseComponent;
@@ -131,23 +132,21 @@ public final class Unknown extends AbstractRoleEntity {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = super.getJSONObject();
-		addJson(object, AFFILIATION_NAME, getAffiliations());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		super.writeJSONProperties(writer);
+		addJson(writer, AFFILIATION_NAME, getAffiliations());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, "", suffix);
-		StringBuffer text = new StringBuffer(super.getHTMLTextOutput(format, localPrefix, ""));
-		text.append(buildHTMLTextOutput(format, localPrefix + AFFILIATION_NAME, getAffiliations()));
-		return (text.toString());
+		super.writeHTMLText(text, format, localPrefix, "");
+		addHTMLText(text, format, localPrefix, AFFILIATION_NAME, getAffiliations());
 	}
 
 	/**
@@ -0,0 +1,506 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.ddms.security;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import nu.xom.Attribute;
+import nu.xom.Element;
+import nu.xom.Node;
+import nu.xom.Serializer;
+import buri.ddmsence.AbstractBaseComponent;
+import buri.ddmsence.ddms.Resource;
+import buri.ddmsence.ddms.security.ism.EncodedMarkings;
+import buri.ddmsence.ddms.security.ism.ISMVocabulary;
+import buri.ddmsence.ddms.security.ism.SecurityAttributes;
+import buri.ddmsence.ddms.security.ism.SecurityRollup;
+import buri.ddmsence.ddms.security.ntk.NtkSubject;
+import buri.ddmsence.util.ComponentSerializer;
+import buri.ddmsence.util.DDMSVersion;
+import buri.ddmsence.util.OutputOptions;
+import buri.ddmsence.util.Util;
+
+/**
+ * Writes the view of a Resource which is visible to a user with a given clearance and, optionally, need-to-know
+ * attributes.
+ *
+ * <p>
+ * The view is written as XML or JSON straight from the existing Resource, without building a filtered copy through
+ * the Builder framework. The banner markings of the Resource (on the resource itself and on its ddms:security
+ * element) must be no higher than the clearance, or nothing is written at all. Inside the Resource, a component
+ * without a classification of its own has the classification of the component which encloses it, or of the banner.
+ * Any component classified higher than the clearance is skipped, along with everything nested inside it. Content
+ * which has no classification of its own and nothing to inherit one from, such as the unmarked components of a DDMS
+ * 5.0 Resource without banner markings, is never visible.
+ * </p>
+ *
+ * <p>
+ * The classification and encoded markings of the banner are replaced with the roll-up of the banner and the visible
+ * portions. The attributes which explain the classification of the banner, such as its classification reason and
+ * declassification date, are only written if the rolled-up classification is the same as the original. If
+ * need-to-know attributes are set, and the Resource has an ntk:Access element which does not grant them access,
+ * nothing is written either.
+ * </p>
+ *
+ * <p>
+ * Filtered output is not validated, and may not be valid DDMS if a required component, such as the only title, was
+ * skipped. Filters are immutable, and can be shared across threads.
+ * </p>
+ *
+ * @see SecurityRollup
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public final class ClearanceFilter {
+
+	private final String _clearance;
+	private final int _rank;
+	private final NtkSubject _subject;
+
+	private static final ThreadLocal<View> WRITING_VIEW = new ThreadLocal<View>();
+
+	private static final List<String> EXPLANATION_NAMES = Collections.unmodifiableList(Arrays.asList(
+		SecurityAttributes.CLASSIFICATION_REASON_NAME, SecurityAttributes.CLASSIFIED_BY_NAME,
+		SecurityAttributes.COMPILATION_REASON_NAME, SecurityAttributes.DATE_OF_EXEMPTED_SOURCE_NAME,
+		SecurityAttributes.DECLASS_DATE_NAME, SecurityAttributes.DECLASS_EVENT_NAME,
+		SecurityAttributes.DECLASS_EXCEPTION_NAME, SecurityAttributes.DECLASS_MANUAL_REVIEW_NAME,
+		SecurityAttributes.DERIVATIVELY_CLASSIFIED_BY_NAME, SecurityAttributes.DERIVED_FROM_NAME,
+		SecurityAttributes.TYPE_OF_EXEMPTED_SOURCE_NAME));
+
+	/**
+	 * Constructor for a filter on classification alone
+	 *
+	 * @param clearance the highest classification the user may see, such as "S"
+	 * @throws IllegalArgumentException if the clearance is not a recognized classification
+	 */
+	public ClearanceFilter(String clearance) {
+		this(clearance, null);
+	}
+
+	/**
+	 * Constructor for a filter on classification and need-to-know
+	 *
+	 * @param clearance the highest classification the user may see, such as "S"
+	 * @param subject the need-to-know attributes of the user, or null to ignore ntk:Access elements
+	 * @throws IllegalArgumentException if the clearance is not a recognized classification
+	 */
+	public ClearanceFilter(String clearance, NtkSubject subject) {
+		Util.requireValue("clearance", clearance);
+		_rank = ISMVocabulary.getClassificationRank(clearance);
+		if (_rank < 0)
+			throw new IllegalArgumentException(clearance + " is not a recognized classification.");
+		_clearance = clearance;
+		_subject = subject;
+	}
+
+	/**
+	 * Checks if a component is visible in the view which is currently being written on this thread. Components are
+	 * always visible when no view is being written.
+	 *
+	 * <p>I consider this to be an internal method, that unfortunately must be marked as public to allow cross-package
+	 * access when generating output.</p>
+	 *
+	 * @param component the component
+	 * @return true if the component should be written
+	 */
+	public static boolean isWritable(Object component) {
+		View view = WRITING_VIEW.get();
+		if (view == null || !(component instanceof AbstractBaseComponent))
+			return (true);
+		return (view.isVisible(component));
+	}
+
+	/**
+	 * Returns the roll-up to write in place of a set of security attributes, if they are the banner markings of the
+	 * Resource whose view is currently being written on this thread.
+	 *
+	 * <p>I consider this to be an internal method, that unfortunately must be marked as public to allow cross-package
+	 * access when generating output.</p>
+	 *
+	 * @param attributes the security attributes
+	 * @return the roll-up, or null if the attributes should be written as they are
+	 */
+	public static SecurityRollup getBannerRollup(SecurityAttributes attributes) {
+		View view = WRITING_VIEW.get();
+		return (view == null ? null : view.getBannerRollup(attributes));
+	}
+
+	/**
+	 * Checks if the banner markings of a Resource are visible at this clearance. A Resource without any banner
+	 * markings can be written, although only the components which are marked themselves will be visible.
+	 *
+	 * @param resource the Resource
+	 * @return true if the Resource can be written
+	 */
+	public boolean isVisible(Resource resource) {
+		for (SecurityAttributes banner : getBanners(resource)) {
+			if (!isVisible(banner.getClassification()))
+				return (false);
+		}
+		return (true);
+	}
+
+	/**
+	 * Checks if a classification is visible at this clearance. Empty and unrecognized classifications are never
+	 * visible.
+	 *
+	 * @param classification the classification, which may be empty
+	 * @return true if the classification is no higher than the clearance
+	 */
+	public boolean isVisible(String classification) {
+		if (Util.isEmpty(classification))
+			return (false);
+		int rank = ISMVocabulary.getClassificationRank(classification);
+		return (rank >= 0 && rank <= _rank);
+	}
+
+	/**
+	 * Checks if the need-to-know attributes of this filter are granted access to a Resource. Access is always granted
+	 * if this filter has no need-to-know attributes, or the Resource has no ntk:Access element.
+	 *
+	 * @param resource the Resource
+	 * @return true if the Resource can be written
+	 */
+	public boolean isGranted(Resource resource) {
+		if (getSubject() == null || resource.getSecurity() == null || resource.getSecurity().getAccess() == null)
+			return (true);
+		return (resource.getSecurity().getAccess().getCompiledAccess().isGranted(getSubject()));
+	}
+
+	/**
+	 * Computes the roll-up of the banner markings of a Resource and the portions which are visible at this
+	 * clearance. This is written in place of the banner markings.
+	 *
+	 * @param resource the Resource
+	 * @return the roll-up
+	 */
+	public SecurityRollup getRollup(Resource resource) {
+		Util.requireValue("resource", resource);
+		return (new View(resource).getRollup());
+	}
+
+	/**
+	 * Returns the non-empty banner markings of a Resource: those on the resource itself, and on its ddms:security
+	 * component.
+	 *
+	 * @param resource the Resource
+	 * @return the banner markings
+	 */
+	private static List<SecurityAttributes> getBanners(Resource resource) {
+		List<SecurityAttributes> banners = new ArrayList<SecurityAttributes>(2);
+		addBanner(banners, resource.getSecurityAttributes());
+		if (resource.getSecurity() != null)
+			addBanner(banners, resource.getSecurity().getSecurityAttributes());
+		return (banners);
+	}
+
+	/**
+	 * Adds a set of security attributes to a list, if they have a classification.
+	 *
+	 * @param banners the list
+	 * @param attributes the attributes, which may be null
+	 */
+	private static void addBanner(List<SecurityAttributes> banners, SecurityAttributes attributes) {
+		if (attributes != null && !Util.isEmpty(attributes.getClassification()))
+			banners.add(attributes);
+	}
+
+	/**
+	 * Returns the classification which unmarked portions of a Resource inherit: the classification on the resource
+	 * itself or, if there is none (as in DDMS 2.0), the classification on its ddms:security component.
+	 *
+	 * @param resource the Resource
+	 * @return the classification, or an empty string if the Resource has no banner markings
+	 */
+	private static String getBannerClassification(Resource resource) {
+		List<SecurityAttributes> banners = getBanners(resource);
+		return (banners.isEmpty() ? "" : banners.get(0).getClassification());
+	}
+
+	/**
+	 * Writes the visible view of a Resource as UTF-8 XML.
+	 *
+	 * @param resource the Resource
+	 * @param out the stream to write to, which is flushed but not closed
+	 * @return true if the Resource was written, false if its banner is classified higher than the clearance or
+	 *         need-to-know access was denied
+	 * @throws IOException if the view could not be written
+	 */
+	public boolean writeXML(Resource resource, OutputStream out) throws IOException {
+		Util.requireValue("resource", resource);
+		if (!isVisible(resource) || !isGranted(resource))
+			return (false);
+		resource.writeXML(new FilteringSerializer(out, resource, getRollup(resource)));
+		return (true);
+	}
+
+	/**
+	 * Writes the visible view of a Resource as JSON. The JSON is streamed from the component tree, skipping the
+	 * components which are not visible, and follows the same configurable properties as
+	 * {@link AbstractBaseComponent#toJSON()}.
+	 *
+	 * @param resource the Resource
+	 * @param writer the writer to write to, which is flushed but not closed
+	 * @return true if the Resource was written, false if its banner is classified higher than the clearance or
+	 *         need-to-know access was denied
+	 * @throws IOException if the view could not be written
+	 */
+	public boolean writeJSON(Resource resource, Writer writer) throws IOException {
+		Util.requireValue("resource", resource);
+		if (!isVisible(resource) || !isGranted(resource))
+			return (false);
+		View previous = WRITING_VIEW.get();
+		WRITING_VIEW.set(new View(resource));
+		try {
+			resource.writeJSON(writer, OutputOptions.getCurrent());
+		}
+		finally {
+			if (previous == null)
+				WRITING_VIEW.remove();
+			else
+				WRITING_VIEW.set(previous);
+		}
+		return (true);
+	}
+
+	/**
+	 * Returns the DDMS version of a Resource.
+	 *
+	 * @param resource the Resource
+	 * @return the version
+	 */
+	private static DDMSVersion getVersion(Resource resource) {
+		return (DDMSVersion.getVersionForNamespace(resource.getNamespace()));
+	}
+
+	/**
+	 * Accessor for the clearance
+	 */
+	public String getClearance() {
+		return (_clearance);
+	}
+
+	/**
+	 * Accessor for the need-to-know attributes, which may be null
+	 */
+	public NtkSubject getSubject() {
+		return (_subject);
+	}
+
+	/**
+	 * The view of one Resource at this clearance: the components which are visible, and the roll-up which replaces
+	 * the banner markings.
+	 */
+	private final class View {
+		private final Set<Object> _visible = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+		private final List<SecurityAttributes> _banners;
+		private final SecurityRollup _rollup;
+
+		/**
+		 * Constructor
+		 *
+		 * @param resource the Resource
+		 */
+		private View(Resource resource) {
+			Set<Object> hidden = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+			_visible.add(resource);
+			resource.addNestedVisibility(ClearanceFilter.this, getBannerClassification(resource), _visible, hidden);
+			// A component which appears more than once is hidden if it is hidden anywhere.
+			_visible.removeAll(hidden);
+			_banners = getBanners(resource);
+
+			List<SecurityAttributes> attributes;
+			View previous = WRITING_VIEW.get();
+			WRITING_VIEW.set(this);
+			try {
+				attributes = resource.getAllSecurityAttributes();
+			}
+			finally {
+				if (previous == null)
+					WRITING_VIEW.remove();
+				else
+					WRITING_VIEW.set(previous);
+			}
+			_rollup = SecurityRollup.rollUp(getVersion(resource), attributes);
+		}
+
+		/**
+		 * Checks if a component is visible.
+		 *
+		 * @param component the component
+		 * @return true if the component should be written
+		 */
+		private boolean isVisible(Object component) {
+			return (_visible.contains(component));
+		}
+
+		/**
+		 * Returns the roll-up to write in place of a set of security attributes, if they are banner markings.
+		 *
+		 * @param attributes the security attributes
+		 * @return the roll-up, or null if the attributes are not banner markings
+		 */
+		private SecurityRollup getBannerRollup(SecurityAttributes attributes) {
+			for (SecurityAttributes banner : _banners) {
+				if (banner == attributes)
+					return (getRollup());
+			}
+			return (null);
+		}
+
+		/**
+		 * Accessor for the roll-up of the banner markings and the visible portions
+		 */
+		private SecurityRollup getRollup() {
+			return (_rollup);
+		}
+	}
+
+	/**
+	 * A serializer which skips elements classified above the clearance, and writes the roll-up of the banner and the
+	 * visible portions in place of the banner markings on the resource and its ddms:security element. An element
+	 * without a classification of its own has the classification of its parent, and the resource element has the
+	 * classification of the banner.
+	 */
+	private final class FilteringSerializer extends ComponentSerializer {
+		private final String _ismNamespace;
+		private final String _securityName;
+		private final String _bannerClassification;
+		private final SecurityRollup _rollup;
+		private Element _root = null;
+
+		/**
+		 * Constructor
+		 *
+		 * @param out the stream to write to
+		 * @param resource the Resource being written
+		 * @param rollup the roll-up of the banner and the visible portions
+		 */
+		private FilteringSerializer(OutputStream out, Resource resource, SecurityRollup rollup) {
+			super(out);
+			_ismNamespace = getVersion(resource).getIsmNamespace();
+			_securityName = Security.getName(getVersion(resource));
+			_bannerClassification = getBannerClassification(resource);
+			_rollup = rollup;
+		}
+
+		/**
+		 * Checks if an element carries the banner markings, which is true of the resource and its ddms:security
+		 * element.
+		 *
+		 * @param element the element
+		 * @return true if the element is part of the banner
+		 */
+		private boolean isBanner(Element element) {
+			if (element == _root)
+				return (true);
+			return (element.getParent() == _root && _securityName.equals(element.getLocalName())
+				&& _root.getNamespaceURI().equals(element.getNamespaceURI()));
+		}
+
+		/**
+		 * Writes the resource element and its visible children.
+		 *
+		 * @see ComponentSerializer#write(Element)
+		 */
+		public void write(Element element) throws IOException {
+			if (_root == null)
+				_root = element;
+			write(element, _bannerClassification);
+		}
+
+		/**
+		 * Writes an element and its children, unless it is classified above the clearance. The resource element is
+		 * always written, since its banner has already been checked.
+		 *
+		 * @param element the element
+		 * @param inherited the classification of the element's parent
+		 */
+		private void write(Element element, String inherited) throws IOException {
+			String classification = element.getAttributeValue(SecurityAttributes.CLASSIFICATION_NAME,
+				_ismNamespace);
+			if (Util.isEmpty(classification))
+				classification = inherited;
+			if (element != _root && !isVisible(classification))
+				return;
+			writeStartTag(element);
+			for (int i = 0; i < element.getChildCount(); i++) {
+				Node child = element.getChild(i);
+				if (child instanceof Element)
+					write((Element) child, classification);
+				else
+					writeChild(child);
+			}
+			writeEndTag(element);
+		}
+
+		/**
+		 * Writes the attributes of an element, replacing the banner markings with the roll-up.
+		 *
+		 * @see Serializer#writeAttributes(Element)
+		 */
+		protected void writeAttributes(Element element) throws IOException {
+			Attribute classification = element.getAttribute(SecurityAttributes.CLASSIFICATION_NAME, _ismNamespace);
+			if (!isBanner(element) || classification == null) {
+				super.writeAttributes(element);
+				return;
+			}
+			boolean explained = classification.getValue().equals(_rollup.getClassification());
+			List<String> rolledUp = EncodedMarkings.getAttributeNames();
+			for (int i = 0; i < element.getAttributeCount(); i++) {
+				Attribute attribute = element.getAttribute(i);
+				String name = attribute.getLocalName();
+				if (!_ismNamespace.equals(attribute.getNamespaceURI())
+					|| (attribute != classification && !rolledUp.contains(name)
+					&& (explained || !EXPLANATION_NAMES.contains(name)))) {
+					writeRaw(" ");
+					write(attribute);
+				}
+			}
+			String prefix = classification.getNamespacePrefix();
+			writeRolledUpAttribute(prefix, SecurityAttributes.CLASSIFICATION_NAME, _rollup.getClassification());
+			for (String name : rolledUp)
+				writeRolledUpAttribute(prefix, name, Util.getXsList(_rollup.getTokens(name)));
+		}
+
+		/**
+		 * Writes an ISM attribute, if it has a value.
+		 *
+		 * @param prefix the ISM namespace prefix
+		 * @param name the local name of the attribute
+		 * @param value the value
+		 */
+		private void writeRolledUpAttribute(String prefix, String name, String value) throws IOException {
+			if (Util.isEmpty(value))
+				return;
+			writeRaw(" " + prefix + ":" + name + "=\"");
+			writeAttributeValue(value);
+			writeRaw("\"");
+		}
+	}
+}
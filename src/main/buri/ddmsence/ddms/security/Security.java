@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.security;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -35,7 +36,7 @@ import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.PropertyReader;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:security.
@@ -159,33 +160,28 @@ public final class Security extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, EXCLUDE_FROM_ROLLUP_NAME, getExcludeFromRollup());
-		addJson(object, getNoticeList());
-		addJson(object, getAccess());
-		addJson(object, getSecurityAttributes());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, EXCLUDE_FROM_ROLLUP_NAME, getExcludeFromRollup());
+		addJson(writer, getNoticeList());
+		addJson(writer, getAccess());
+		addJson(writer, getSecurityAttributes());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
 		if (getExcludeFromRollup() != null)
-			text.append(buildHTMLTextOutput(format, localPrefix + EXCLUDE_FROM_ROLLUP_NAME,
-				String.valueOf(getExcludeFromRollup())));
+			addHTMLText(text, format, localPrefix, EXCLUDE_FROM_ROLLUP_NAME, String.valueOf(getExcludeFromRollup()));
 		if (getNoticeList() != null)
-			text.append(getNoticeList().getHTMLTextOutput(format, localPrefix, ""));
+			getNoticeList().writeHTMLText(text, format, localPrefix, "");
 		if (getAccess() != null)
-			text.append(getAccess().getHTMLTextOutput(format, localPrefix, ""));
-		text.append(getSecurityAttributes().getHTMLTextOutput(format, localPrefix));
-		return (text.toString());
+			getAccess().writeHTMLText(text, format, localPrefix, "");
+		getSecurityAttributes().writeHTMLText(text, format, localPrefix);
 	}
 
 	/**
@@ -0,0 +1,322 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.ddms.security.ism;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+
+import buri.ddmsence.ddms.InvalidDDMSException;
+import buri.ddmsence.ddms.ValidationMessage;
+import buri.ddmsence.util.DDMSVersion;
+
+/**
+ * Remembers the outcome of validating ISM attribute groups, so that identical groups are only validated once.
+ *
+ * <p>
+ * Validating SecurityAttributes checks every token of every attribute against the {@link ISMVocabulary}, but most
+ * documents reuse a small number of marking combinations. Each outcome is keyed by the kind of attribute group, the
+ * DDMS version it is validated against, the controlled vocabularies in use, and every attribute value. A repeated
+ * group either throws a new InvalidDDMSException with the same message as the first, or receives the same warnings,
+ * without consulting the vocabularies again. Each caller gets its own exception, so setting its locator cannot
+ * affect any other caller. Because the vocabularies are part of the key, reloading a CVE directory never replays an
+ * outcome from the old vocabularies.
+ * </p>
+ *
+ * <p>
+ * Lookups are keyed on the attribute group's own values, with the hash code computed once, so a hit copies nothing.
+ * The values are only copied when a new outcome is recorded. The cache is shared by every thread, and lookups do not
+ * lock. It holds about {@link #MAX_ENTRIES} outcomes: when it is full, outcomes are discarded in the order they were
+ * recorded, except that an outcome which has been replayed since it was last considered is given a second chance.
+ * Only one thread discards outcomes at a time, and other threads never wait for it.
+ * </p>
+ *
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public final class AttributeValidationCache {
+
+	/**
+	 * The maximum number of outcomes held at once
+	 */
+	public static final int MAX_ENTRIES = 4096;
+
+	private static final ConcurrentHashMap<Key, Outcome> OUTCOMES = new ConcurrentHashMap<Key, Outcome>();
+	private static final ConcurrentLinkedQueue<Key> QUEUE = new ConcurrentLinkedQueue<Key>();
+	private static final ReentrantLock EVICTION = new ReentrantLock();
+	private static final AtomicLong HITS = new AtomicLong();
+	private static final AtomicLong MISSES = new AtomicLong();
+
+	/**
+	 * Private to prevent instantiation
+	 */
+	private AttributeValidationCache() {}
+
+	/**
+	 * Builds the lookup key for an attribute group. The values are not copied, so the key must only be used while the
+	 * attribute group is being validated.
+	 *
+	 * @param groupClass the class of the attribute group
+	 * @param version the DDMS version the group is validated against
+	 * @param values the attribute values, in a fixed order
+	 * @return the key
+	 */
+	static Key getKey(Class<?> groupClass, DDMSVersion version, Object... values) {
+		return (new Key(groupClass, version, ISMVocabulary.getCurrentVocabulary(), values));
+	}
+
+	/**
+	 * Replays the outcome of an earlier validation of an identical attribute group, if there was one.
+	 *
+	 * @param key the key of the attribute group
+	 * @param warnings the warnings of the attribute group, which any cached warnings are added to
+	 * @return true if the outcome was replayed, false if the group must be validated
+	 * @throws InvalidDDMSException a new exception like the one from the earlier validation, if it failed
+	 */
+	static boolean replay(Key key, List<ValidationMessage> warnings) throws InvalidDDMSException {
+		Outcome outcome = OUTCOMES.get(key);
+		if (outcome == null) {
+			MISSES.incrementAndGet();
+			return (false);
+		}
+		HITS.incrementAndGet();
+		outcome.markUsed();
+		outcome.throwError();
+		warnings.addAll(outcome.getWarnings());
+		return (true);
+	}
+
+	/**
+	 * Records the outcome of validating an attribute group.
+	 *
+	 * @param key the key of the attribute group
+	 * @param error the validation error, or null if the group is valid
+	 * @param warnings the warnings from validation, or null if there are none
+	 */
+	static void record(Key key, InvalidDDMSException error, List<ValidationMessage> warnings) {
+		Key copy = key.copy();
+		if (OUTCOMES.putIfAbsent(copy, new Outcome(error, warnings)) == null) {
+			QUEUE.offer(copy);
+			if (OUTCOMES.size() > MAX_ENTRIES && EVICTION.tryLock()) {
+				try {
+					trim();
+				}
+				finally {
+					EVICTION.unlock();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Discards outcomes until the cache is no larger than its limit. Outcomes are considered in the order they were
+	 * recorded, and one which has been replayed since it was last considered is moved to the back of the queue
+	 * instead. The caller must hold the eviction lock.
+	 */
+	private static void trim() {
+		int remaining = QUEUE.size() * 2;
+		while (OUTCOMES.size() > MAX_ENTRIES && remaining-- > 0) {
+			Key key = QUEUE.poll();
+			if (key == null)
+				return;
+			Outcome outcome = OUTCOMES.get(key);
+			if (outcome == null)
+				continue;
+			if (outcome.clearUsed())
+				QUEUE.offer(key);
+			else
+				OUTCOMES.remove(key, outcome);
+		}
+	}
+
+	/**
+	 * Empties the cache and resets the counters.
+	 */
+	public static void clear() {
+		EVICTION.lock();
+		try {
+			OUTCOMES.clear();
+			QUEUE.clear();
+		}
+		finally {
+			EVICTION.unlock();
+		}
+		HITS.set(0);
+		MISSES.set(0);
+	}
+
+	/**
+	 * Accessor for the number of validations answered from the cache
+	 */
+	public static long getHitCount() {
+		return (HITS.get());
+	}
+
+	/**
+	 * Accessor for the number of validations which were not in the cache
+	 */
+	public static long getMissCount() {
+		return (MISSES.get());
+	}
+
+	/**
+	 * Accessor for the number of outcomes currently cached
+	 */
+	public static int getSize() {
+		return (OUTCOMES.size());
+	}
+
+	/**
+	 * The identity of an attribute group: its class, the DDMS version and vocabularies it is validated against, and
+	 * its attribute values in a fixed order. The hash code is computed once.
+	 */
+	static final class Key {
+		private final Class<?> _groupClass;
+		private final DDMSVersion _version;
+		private final ControlledVocabulary _vocabulary;
+		private final Object[] _values;
+		private final int _hashCode;
+
+		/**
+		 * Constructor
+		 *
+		 * @param groupClass the class of the attribute group
+		 * @param version the DDMS version the group is validated against
+		 * @param vocabulary the vocabularies the group is validated against
+		 * @param values the attribute values, which are not copied
+		 */
+		private Key(Class<?> groupClass, DDMSVersion version, ControlledVocabulary vocabulary, Object[] values) {
+			_groupClass = groupClass;
+			_version = version;
+			_vocabulary = vocabulary;
+			_values = values;
+			int hashCode = groupClass.hashCode();
+			hashCode = 7 * hashCode + version.hashCode();
+			hashCode = 7 * hashCode + vocabulary.hashCode();
+			_hashCode = 7 * hashCode + Arrays.hashCode(values);
+		}
+
+		/**
+		 * Copies the mutable values of this key, so that later changes to a caller's list or date cannot change a
+		 * recorded key.
+		 *
+		 * @return the copy
+		 */
+		private Key copy() {
+			Object[] values = new Object[_values.length];
+			for (int i = 0; i < values.length; i++) {
+				Object value = _values[i];
+				if (value instanceof List)
+					values[i] = new ArrayList<Object>((List<?>) value);
+				else if (value instanceof XMLGregorianCalendar)
+					values[i] = ((XMLGregorianCalendar) value).clone();
+				else
+					values[i] = value;
+			}
+			return (new Key(_groupClass, _version, _vocabulary, values));
+		}
+
+		/**
+		 * @see Object#equals(Object)
+		 */
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return (false);
+			Key test = (Key) obj;
+			return (_hashCode == test._hashCode && _groupClass == test._groupClass && _version == test._version
+				&& _vocabulary == test._vocabulary && Arrays.equals(_values, test._values));
+		}
+
+		/**
+		 * @see Object#hashCode()
+		 */
+		public int hashCode() {
+			return (_hashCode);
+		}
+	}
+
+	/**
+	 * The outcome of validating one attribute group. A failure is kept as the message of the error, not the error
+	 * itself, since exceptions are mutable and carry the stack of the thread which threw them. The locator is not kept,
+	 * because it is always empty when an attribute group is validated, and is set later by the enclosing component.
+	 */
+	private static final class Outcome {
+		private final String _errorMessage;
+		private final List<ValidationMessage> _warnings;
+		private volatile boolean _used = false;
+
+		/**
+		 * Constructor
+		 *
+		 * @param error the validation error, or null if the group is valid
+		 * @param warnings the warnings
+		 */
+		private Outcome(InvalidDDMSException error, List<ValidationMessage> warnings) {
+			_errorMessage = (error == null ? null : error.getMessage());
+			_warnings = (warnings == null ? Collections.<ValidationMessage> emptyList()
+				: Collections.unmodifiableList(new ArrayList<ValidationMessage>(warnings)));
+		}
+
+		/**
+		 * Throws a new exception like the original validation error, if the group was invalid.
+		 *
+		 * @throws InvalidDDMSException if the group was invalid
+		 */
+		public void throwError() throws InvalidDDMSException {
+			if (_errorMessage == null)
+				return;
+			throw new InvalidDDMSException(_errorMessage);
+		}
+
+		/**
+		 * Records that this outcome has been replayed.
+		 */
+		public void markUsed() {
+			if (!_used)
+				_used = true;
+		}
+
+		/**
+		 * Clears the record that this outcome has been replayed.
+		 *
+		 * @return true if it had been replayed
+		 */
+		public boolean clearUsed() {
+			boolean used = _used;
+			if (used)
+				_used = false;
+			return (used);
+		}
+
+		/**
+		 * Accessor for the warnings
+		 */
+		public List<ValidationMessage> getWarnings() {
+			return (_warnings);
+		}
+	}
+}
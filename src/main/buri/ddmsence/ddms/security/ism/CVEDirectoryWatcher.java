@@ -0,0 +1,196 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.ddms.security.ism;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import buri.ddmsence.util.DDMSVersion;
+import buri.ddmsence.util.PropertyReader;
+import buri.ddmsence.util.Util;
+
+/**
+ * Watches a directory of CVE files on the file system, and reloads the ISM controlled vocabularies of one DDMS
+ * version whenever the files change.
+ * 
+ * <p>
+ * Watchers are created with {@link ISMVocabulary#watchDirectory(DDMSVersion, File, long)}. From then on, the
+ * vocabularies of that version come from the directory instead of the classpath. A background daemon thread checks
+ * the modification times and sizes of the CVE files at a fixed interval. When they change, the new files are parsed on
+ * that thread into a new immutable vocabulary, which then replaces the old one in a single atomic step. Validation
+ * on other threads never waits for a reload, and always sees either the old vocabulary or the new one, never a
+ * mixture. The token indexes used by {@link EncodedMarkings} belong to each vocabulary, so they are rebuilt along with
+ * it, and markings encoded before a reload keep decoding against the vocabulary they were made from.
+ * </p>
+ * 
+ * <p>
+ * If the changed files cannot be read (for example, they are still being copied into place), the old vocabulary
+ * stays in use, the error is available from {@link #getLastError()}, and the files are tried again once they change
+ * again.
+ * </p>
+ * 
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public final class CVEDirectoryWatcher {
+
+	private final DDMSVersion _version;
+	private final File _directory;
+	private final String _cveNamespace;
+	private final AtomicReference<ControlledVocabulary> _vocabulary = new AtomicReference<ControlledVocabulary>();
+	private final ScheduledExecutorService _executor;
+	private volatile String _fingerprint;
+	private volatile IOException _lastError = null;
+
+	/**
+	 * Constructor. Loads the directory immediately, so a watcher is never created without a vocabulary.
+	 * 
+	 * @param version the DDMS version whose vocabularies are in the directory
+	 * @param directory the directory containing the CVE files
+	 * @param intervalMillis how often to check the directory for changes, in milliseconds, or 0 to only check when
+	 *        {@link #checkForChanges()} is called
+	 * @throws IOException if the directory does not contain any readable CVE files
+	 */
+	CVEDirectoryWatcher(DDMSVersion version, File directory, long intervalMillis) throws IOException {
+		Util.requireValue("version", version);
+		Util.requireValue("directory", directory);
+		if (intervalMillis < 0)
+			throw new IllegalArgumentException("The interval must not be negative.");
+		_version = version;
+		_directory = directory;
+		_cveNamespace = PropertyReader.getProperty(version.getVersion() + ".ism.cve.xmlNamespace");
+		_fingerprint = getCurrentFingerprint();
+		_vocabulary.set(ControlledVocabulary.load(_cveNamespace, directory, ISMVocabulary.getEnumerationKeys()));
+		if (intervalMillis > 0) {
+			_executor = Executors.newSingleThreadScheduledExecutor(new WatcherThreadFactory());
+			_executor.scheduleWithFixedDelay(new Runnable() {
+				public void run() {
+					try {
+						checkForChanges();
+					}
+					catch (IOException e) {
+						// Recorded in lastError, and the previous vocabulary remains in use.
+					}
+				}
+			}, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+		}
+		else
+			_executor = null;
+	}
+
+	/**
+	 * Checks the directory now, and reloads the vocabularies if any CVE file has been added, removed or changed
+	 * since the last check.
+	 * 
+	 * @return true if a new vocabulary was swapped in, false if nothing had changed
+	 * @throws IOException if the files changed but could not be read. The previous vocabulary remains in use.
+	 */
+	public synchronized boolean checkForChanges() throws IOException {
+		String fingerprint = getCurrentFingerprint();
+		if (fingerprint.equals(_fingerprint))
+			return (false);
+		_fingerprint = fingerprint;
+		try {
+			ControlledVocabulary vocabulary = ControlledVocabulary.load(_cveNamespace, getDirectory(),
+				ISMVocabulary.getEnumerationKeys());
+			_vocabulary.set(vocabulary);
+			_lastError = null;
+			return (true);
+		}
+		catch (IOException e) {
+			_lastError = e;
+			throw e;
+		}
+	}
+
+	/**
+	 * Stops watching the directory. The vocabularies of this watcher's DDMS version are read from the classpath
+	 * again, unless another watcher has since replaced this one.
+	 */
+	public void stop() {
+		if (_executor != null)
+			_executor.shutdownNow();
+		ISMVocabulary.removeWatcher(this);
+	}
+
+	/**
+	 * Builds a summary of the names, sizes and modification times of the CVE files in the directory.
+	 * 
+	 * @return a string which changes whenever any of the files do
+	 */
+	private String getCurrentFingerprint() {
+		StringBuffer fingerprint = new StringBuffer();
+		for (String key : ISMVocabulary.getEnumerationKeys()) {
+			File file = new File(getDirectory(), key);
+			if (file.isFile())
+				fingerprint.append(key).append(":").append(file.length()).append(":").append(file.lastModified())
+					.append(";");
+		}
+		return (fingerprint.toString());
+	}
+
+	/**
+	 * Accessor for the current vocabulary. This is a single volatile read.
+	 */
+	ControlledVocabulary getVocabulary() {
+		return (_vocabulary.get());
+	}
+
+	/**
+	 * Accessor for the DDMS version whose vocabularies are watched
+	 */
+	public DDMSVersion getVersion() {
+		return (_version);
+	}
+
+	/**
+	 * Accessor for the watched directory
+	 */
+	public File getDirectory() {
+		return (_directory);
+	}
+
+	/**
+	 * Accessor for the error from the most recent reload, which is null if the most recent reload succeeded.
+	 */
+	public IOException getLastError() {
+		return (_lastError);
+	}
+
+	/**
+	 * Creates a daemon thread for polling, so a watcher which is never stopped does not prevent the JVM from exiting.
+	 */
+	private static class WatcherThreadFactory implements ThreadFactory {
+
+		/**
+		 * @see ThreadFactory#newThread(Runnable)
+		 */
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "CVEDirectoryWatcher");
+			thread.setDaemon(true);
+			return (thread);
+		}
+	}
+}
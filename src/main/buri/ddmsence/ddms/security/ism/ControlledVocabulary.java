@@ -0,0 +1,448 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.ddms.security.ism;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import nu.xom.Builder;
+import nu.xom.Document;
+import nu.xom.Element;
+import nu.xom.Elements;
+import nu.xom.ParsingException;
+
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.XMLReaderFactory;
+
+import buri.ddmsence.util.DDMSVersion;
+import buri.ddmsence.util.PropertyReader;
+
+/**
+ * Immutable set of the ISM controlled vocabularies found at one CVE location.
+ * 
+ * <p>
+ * The tokens of each enumeration are held in an unmodifiable set, and are also numbered in alphabetical order for
+ * {@link EncodedMarkings}. The regular expression terms of each enumeration are merged into a single alternation and
+ * compiled once, when the location is loaded. Because nothing changes after construction, an instance can be read by
+ * any number of threads without locking.
+ * </p>
+ * 
+ * <p>
+ * Parsing the CVE files is the slowest part of starting up. The build therefore runs {@link #main(String[])} to
+ * compile the CVEs of every supported version into a binary snapshot, which is stored next to the CVE files as
+ * <code>cve.snapshot</code>. At runtime, a snapshot is only trusted if it sits in the same directory as the CVE files
+ * the classpath would otherwise provide, so a location that has been overridden, or a custom CVE file placed earlier on
+ * the classpath, is still read from its XML.
+ * </p>
+ * 
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+final class ControlledVocabulary {
+
+	private final Map<String, Set<String>> _tokens;
+	private final Map<String, String[]> _orderedTokens;
+	private final Map<String, Map<String, Integer>> _indexes;
+	private final Map<String, Pattern> _patterns;
+
+	private static final String ENUMERATION_NAME = "Enumeration";
+	private static final String TERM_NAME = "Term";
+	private static final String VALUE_NAME = "Value";
+	private static final String REG_EXP_NAME = "regularExpression";
+
+	/** Filename of the compiled snapshot of the CVE files in a location */
+	static final String SNAPSHOT_FILENAME = "cve.snapshot";
+
+	private static final int SNAPSHOT_MAGIC = 0x44435645;
+	private static final int SNAPSHOT_FORMAT = 1;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param tokens a map of enumeration keys to tokens
+	 * @param patterns a map of enumeration keys to the merged regular expression of each enumeration
+	 */
+	private ControlledVocabulary(Map<String, Set<String>> tokens, Map<String, Pattern> patterns) {
+		Map<String, Set<String>> allTokens = new HashMap<String, Set<String>>();
+		Map<String, String[]> orderedTokens = new HashMap<String, String[]>();
+		Map<String, Map<String, Integer>> indexes = new HashMap<String, Map<String, Integer>>();
+		for (Map.Entry<String, Set<String>> entry : tokens.entrySet()) {
+			Set<String> sorted = new TreeSet<String>(entry.getValue());
+			String[] ordered = sorted.toArray(new String[sorted.size()]);
+			Map<String, Integer> index = new HashMap<String, Integer>();
+			for (int i = 0; i < ordered.length; i++)
+				index.put(ordered[i], Integer.valueOf(i));
+			allTokens.put(entry.getKey(), Collections.unmodifiableSet(sorted));
+			orderedTokens.put(entry.getKey(), ordered);
+			indexes.put(entry.getKey(), index);
+		}
+		_tokens = Collections.unmodifiableMap(allTokens);
+		_orderedTokens = orderedTokens;
+		_indexes = indexes;
+		_patterns = Collections.unmodifiableMap(new HashMap<String, Pattern>(patterns));
+	}
+
+	/**
+	 * Entry point used by the build to compile the CVE files of every supported DDMS version into snapshots. The CVE
+	 * files are read from the classpath, and each snapshot is written to the matching location under the output
+	 * directory.
+	 * 
+	 * @param args the output directory, normally the directory of compiled classes
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 1)
+			throw new IllegalArgumentException("Usage: ControlledVocabulary <outputDirectory>");
+		Set<String> locations = new HashSet<String>();
+		for (String version : DDMSVersion.getSupportedVersions()) {
+			String enumLocation = PropertyReader.getProperty(version + ".ism.cveLocation");
+			if (!locations.add(enumLocation))
+				continue;
+			String cveNamespace = PropertyReader.getProperty(version + ".ism.cve.xmlNamespace");
+			ControlledVocabulary vocabulary = load(cveNamespace, enumLocation, ISMVocabulary.getEnumerationKeys());
+			File file = new File(args[0], enumLocation + SNAPSHOT_FILENAME);
+			file.getParentFile().mkdirs();
+			OutputStream stream = new FileOutputStream(file);
+			try {
+				vocabulary.write(stream);
+			}
+			finally {
+				stream.close();
+			}
+		}
+	}
+
+	/**
+	 * Reads every CVE file in a location. CVE files which are missing from the location are skipped, because older
+	 * versions of ISM do not define all of them.
+	 * 
+	 * @param cveNamespace the XML namespace of the CVE files
+	 * @param enumLocation the classpath resource location for the enumeration files
+	 * @param enumerationKeys the keys of the enumerations to read, which double as the filenames
+	 * @return the vocabulary
+	 * @throws RuntimeException if no XML parser is available
+	 */
+	static ControlledVocabulary load(String cveNamespace, String enumLocation, List<String> enumerationKeys) {
+		Map<String, Set<String>> tokens = new HashMap<String, Set<String>>();
+		Map<String, Set<String>> patterns = new HashMap<String, Set<String>>();
+		Builder builder = newBuilder();
+		for (String key : enumerationKeys) {
+			try {
+				InputStream stream = ControlledVocabulary.class.getResourceAsStream(enumLocation + key);
+				if (stream == null)
+					continue;
+				try {
+					loadEnumeration(builder, cveNamespace, stream, key, tokens, patterns);
+				}
+				finally {
+					stream.close();
+				}
+			}
+			catch (Exception e) {
+				continue;
+			}
+		}
+		return (new ControlledVocabulary(tokens, compile(patterns)));
+	}
+
+	/**
+	 * Reads every CVE file in a directory on the file system. CVE files which are missing from the directory are
+	 * skipped, but unlike the classpath locations, a file which is present and cannot be read is an error, so that a
+	 * half-written update is never mistaken for a complete vocabulary.
+	 * 
+	 * @param cveNamespace the XML namespace of the CVE files
+	 * @param directory the directory containing the enumeration files
+	 * @param enumerationKeys the keys of the enumerations to read, which double as the filenames
+	 * @return the vocabulary
+	 * @throws IOException if no CVE files are present, or one of them cannot be read
+	 */
+	static ControlledVocabulary load(String cveNamespace, File directory, List<String> enumerationKeys)
+		throws IOException {
+		Map<String, Set<String>> tokens = new HashMap<String, Set<String>>();
+		Map<String, Set<String>> patterns = new HashMap<String, Set<String>>();
+		Builder builder = newBuilder();
+		for (String key : enumerationKeys) {
+			File file = new File(directory, key);
+			if (!file.isFile())
+				continue;
+			InputStream stream = new FileInputStream(file);
+			try {
+				loadEnumeration(builder, cveNamespace, stream, key, tokens, patterns);
+			}
+			catch (Exception e) {
+				throw new IOException("Could not load " + file + ": " + e.getMessage());
+			}
+			finally {
+				stream.close();
+			}
+		}
+		if (tokens.isEmpty())
+			throw new IOException("No controlled vocabularies could be found in " + directory + ".");
+		return (new ControlledVocabulary(tokens, compile(patterns)));
+	}
+
+	/**
+	 * Creates a non-validating XOM Builder for reading CVE files.
+	 * 
+	 * @return the builder
+	 * @throws RuntimeException if no XML parser is available
+	 */
+	private static Builder newBuilder() {
+		try {
+			XMLReader reader = XMLReaderFactory.createXMLReader(PropertyReader.getProperty("xml.reader.class"));
+			return (new Builder(reader, false));
+		}
+		catch (SAXException e) {
+			throw new RuntimeException("Could not load controlled vocabularies: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Reads the compiled snapshot of a location, if the build produced one and it still describes the CVE files on
+	 * the classpath.
+	 * 
+	 * @param enumLocation the classpath resource location for the enumeration files
+	 * @param enumerationKeys the keys of the enumerations, which double as the filenames
+	 * @return the vocabulary, or null if there is no usable snapshot, and the CVE files must be parsed instead
+	 */
+	static ControlledVocabulary loadSnapshot(String enumLocation, List<String> enumerationKeys) {
+		URL snapshot = ControlledVocabulary.class.getResource(enumLocation + SNAPSHOT_FILENAME);
+		if (snapshot == null)
+			return (null);
+		String base = snapshot.toString();
+		base = base.substring(0, base.length() - SNAPSHOT_FILENAME.length());
+		for (String key : enumerationKeys) {
+			URL cve = ControlledVocabulary.class.getResource(enumLocation + key);
+			if (cve != null && !cve.toString().equals(base + key))
+				return (null);
+		}
+		try {
+			InputStream stream = snapshot.openStream();
+			try {
+				return (read(stream));
+			}
+			finally {
+				stream.close();
+			}
+		}
+		catch (IOException e) {
+			return (null);
+		}
+	}
+
+	/**
+	 * Reads a vocabulary from a snapshot.
+	 * 
+	 * @param stream the stream to read from. The stream is not closed by this method.
+	 * @return the vocabulary
+	 * @throws IOException if the stream cannot be read or is not a snapshot in the current format
+	 */
+	static ControlledVocabulary read(InputStream stream) throws IOException {
+		DataInputStream input = new DataInputStream(new BufferedInputStream(stream));
+		if (input.readInt() != SNAPSHOT_MAGIC || input.readInt() != SNAPSHOT_FORMAT)
+			throw new IOException("The stream is not a controlled vocabulary snapshot.");
+		Map<String, Set<String>> tokens = new HashMap<String, Set<String>>();
+		Map<String, Pattern> patterns = new HashMap<String, Pattern>();
+		int enumerationCount = input.readInt();
+		for (int i = 0; i < enumerationCount; i++) {
+			String key = input.readUTF();
+			int tokenCount = input.readInt();
+			List<String> values = new ArrayList<String>(tokenCount);
+			for (int j = 0; j < tokenCount; j++)
+				values.add(input.readUTF());
+			tokens.put(key, new TreeSet<String>(values));
+			if (input.readBoolean())
+				patterns.put(key, Pattern.compile(input.readUTF()));
+		}
+		return (new ControlledVocabulary(tokens, patterns));
+	}
+
+	/**
+	 * Writes this vocabulary as a snapshot.
+	 * 
+	 * @param stream the stream to write to. The stream is flushed, but not closed, by this method.
+	 */
+	void write(OutputStream stream) throws IOException {
+		DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream));
+		output.writeInt(SNAPSHOT_MAGIC);
+		output.writeInt(SNAPSHOT_FORMAT);
+		output.writeInt(_tokens.size());
+		for (String key : new TreeSet<String>(_tokens.keySet())) {
+			output.writeUTF(key);
+			Set<String> tokens = _tokens.get(key);
+			output.writeInt(tokens.size());
+			for (String token : tokens)
+				output.writeUTF(token);
+			Pattern pattern = getPattern(key);
+			output.writeBoolean(pattern != null);
+			if (pattern != null)
+				output.writeUTF(pattern.pattern());
+		}
+		output.flush();
+	}
+
+	/**
+	 * Opens the enumeration file and extracts a Set of String token values based on the Term elements in the file.
+	 * Stores them in the token map with the key. If a pattern is discovered, it is stored in a separate mapping.
+	 * 
+	 * @param builder the XOM Builder to read the file with
+	 * @param cveNamespace the XML namespace of the CVE files
+	 * @param stream the contents of the enumeration file
+	 * @param enumerationKey the key for the enumeration, which doubles as the filename.
+	 * @param allTokens the map of enumeration keys to tokens to add to
+	 * @param allPatterns the map of enumeration keys to patterns to add to
+	 */
+	private static void loadEnumeration(Builder builder, String cveNamespace, InputStream stream,
+		String enumerationKey, Map<String, Set<String>> allTokens, Map<String, Set<String>> allPatterns)
+		throws ParsingException, IOException {
+		Document doc = builder.build(stream);
+		Set<String> tokens = new TreeSet<String>();
+		Set<String> patterns = new HashSet<String>();
+		Element enumerationElement = doc.getRootElement().getFirstChildElement(ENUMERATION_NAME, cveNamespace);
+		Elements terms = enumerationElement.getChildElements(TERM_NAME, cveNamespace);
+		for (int i = 0; i < terms.size(); i++) {
+			Element value = terms.get(i).getFirstChildElement(VALUE_NAME, cveNamespace);
+			if (value != null) {
+				if (Boolean.valueOf(value.getAttributeValue(REG_EXP_NAME)).booleanValue())
+					patterns.add(value.getValue());
+				else
+					tokens.add(value.getValue());
+			}
+		}
+		allTokens.put(enumerationKey, tokens);
+		allPatterns.put(enumerationKey, patterns);
+	}
+
+	/**
+	 * Merges the regular expressions of each enumeration into one pattern.
+	 * 
+	 * @param patterns a map of enumeration keys to regular expressions
+	 * @return a map of enumeration keys to compiled patterns, omitting enumerations with no expressions
+	 */
+	private static Map<String, Pattern> compile(Map<String, Set<String>> patterns) {
+		Map<String, Pattern> compiled = new HashMap<String, Pattern>();
+		for (Map.Entry<String, Set<String>> entry : patterns.entrySet()) {
+			Pattern pattern = compile(entry.getValue());
+			if (pattern != null)
+				compiled.put(entry.getKey(), pattern);
+		}
+		return (compiled);
+	}
+
+	/**
+	 * Merges a set of regular expressions into one pattern which matches a value if any of them do.
+	 * 
+	 * @param patterns the regular expressions
+	 * @return the compiled pattern, or null if there are no expressions
+	 */
+	private static Pattern compile(Set<String> patterns) {
+		if (patterns.isEmpty())
+			return (null);
+		StringBuffer expression = new StringBuffer();
+		for (String pattern : new TreeSet<String>(patterns)) {
+			if (expression.length() > 0)
+				expression.append("|");
+			expression.append("(?:").append(pattern).append(")");
+		}
+		return (Pattern.compile(expression.toString()));
+	}
+
+	/**
+	 * Returns the tokens of an enumeration.
+	 * 
+	 * @param enumerationKey the key of the enumeration
+	 * @return an unmodifiable set of tokens, or null if this vocabulary has no such enumeration
+	 */
+	Set<String> getTokens(String enumerationKey) {
+		return (_tokens.get(enumerationKey));
+	}
+
+	/**
+	 * Returns the merged regular expression of an enumeration.
+	 * 
+	 * @param enumerationKey the key of the enumeration
+	 * @return the pattern, or null if the enumeration has no regular expression terms
+	 */
+	Pattern getPattern(String enumerationKey) {
+		return (_patterns.get(enumerationKey));
+	}
+
+	/**
+	 * Returns the position of a token in the alphabetical order of the tokens of an enumeration.
+	 * 
+	 * @param enumerationKey the key of the enumeration
+	 * @param token the token
+	 * @return the position, or -1 if the token is not one of the tokens of the enumeration
+	 */
+	int indexOf(String enumerationKey, String token) {
+		Map<String, Integer> index = _indexes.get(enumerationKey);
+		Integer position = (index == null || token == null ? null : index.get(token));
+		return (position == null ? -1 : position.intValue());
+	}
+
+	/**
+	 * Returns the token at a position in the alphabetical order of the tokens of an enumeration.
+	 * 
+	 * @param enumerationKey the key of the enumeration
+	 * @param index the position, which must have come from {@link #indexOf(String, String)} on this vocabulary
+	 * @return the token
+	 */
+	String getToken(String enumerationKey, int index) {
+		return (_orderedTokens.get(enumerationKey)[index]);
+	}
+
+	/**
+	 * Checks if a value is one of the tokens of an enumeration, or matches one of its regular expressions.
+	 * 
+	 * @param enumerationKey the key of the enumeration
+	 * @param value the test value
+	 * @return true if the value exists in the enumeration, false otherwise
+	 * @throws IllegalArgumentException if this vocabulary has no such enumeration
+	 */
+	boolean contains(String enumerationKey, String value) {
+		Set<String> tokens = getTokens(enumerationKey);
+		if (tokens == null) {
+			throw new IllegalArgumentException("No controlled vocabulary could be found for this key: "
+				+ enumerationKey);
+		}
+		if (tokens.contains(value))
+			return (true);
+		Pattern pattern = getPattern(enumerationKey);
+		return (pattern != null && value != null && pattern.matcher(value).matches());
+	}
+}
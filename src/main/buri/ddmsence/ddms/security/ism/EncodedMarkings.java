@@ -0,0 +1,618 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.ddms.security.ism;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import buri.ddmsence.util.DDMSVersion;
+import buri.ddmsence.util.Util;
+
+/**
+ * Compact, immutable encoding of the token-based markings of a set of {@link SecurityAttributes}.
+ * 
+ * <p>
+ * Each controlled vocabulary token is mapped to a dense index in the loaded vocabulary of its DDMS version, and the
+ * tokens of each attribute are stored as a bitset of those indexes. Equality, hashing, union, intersection and subset tests are therefore
+ * word operations instead of string comparisons, and the encoding is much smaller than the lists of strings it
+ * replaces. This is useful when very large numbers of portion-marked components need to be held in memory or
+ * compared.
+ * </p>
+ * 
+ * <p>
+ * The encoding covers the classification and the list-valued markings: atomicEnergyMarkings, displayOnlyTo,
+ * disseminationControls, FGIsourceOpen, FGIsourceProtected, nonICmarkings, nonUSControls, ownerProducer,
+ * releasableTo, SARIdentifier, and SCIcontrols. The list attributes are treated as sets, so the order and any
+ * repetition of tokens in the original attributes are not kept. The shared indexes only hold the tokens listed in
+ * the controlled vocabulary. Any other tokens (such as SAR identifiers, which only have to match a regular expression)
+ * are kept in a small sorted overflow list on the encoding itself, so the indexes never grow past the size of the
+ * vocabulary, no matter how many distinct markings are encoded.
+ * </p>
+ * 
+ * <p>
+ * The indexes belong to the vocabulary that was loaded when the markings were encoded, and each encoding keeps a
+ * reference to it. When a {@link CVEDirectoryWatcher} reloads the vocabularies, new encodings use the indexes of the
+ * new vocabulary, while older encodings still decode against the vocabulary they were made from. Combining or
+ * comparing an older encoding with a newer one re-encodes the other encoding first, but the two are never equal.
+ * </p>
+ * 
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public final class EncodedMarkings {
+
+	private final DDMSVersion _version;
+	private final ControlledVocabulary _vocabulary;
+	private final String _classification;
+	private final int _rank;
+	private final long[][] _bits;
+	private final String[][] _overflow;
+	private final int _restricted;
+	private final int _hashCode;
+
+	private static final String[] ATTRIBUTE_NAMES = new String[] { SecurityAttributes.ATOMIC_ENERGY_MARKINGS_NAME,
+		SecurityAttributes.DISPLAY_ONLY_TO_NAME, SecurityAttributes.DISSEMINATION_CONTROLS_NAME,
+		SecurityAttributes.FGI_SOURCE_OPEN_NAME, SecurityAttributes.FGI_SOURCE_PROTECTED_NAME,
+		SecurityAttributes.NON_IC_MARKINGS_NAME, SecurityAttributes.NON_US_CONTROLS_NAME,
+		SecurityAttributes.OWNER_PRODUCER_NAME, SecurityAttributes.RELEASABLE_TO_NAME,
+		SecurityAttributes.SAR_IDENTIFIER_NAME, SecurityAttributes.SCI_CONTROLS_NAME };
+
+	private static final String[] ENUMERATION_KEYS = new String[] { ISMVocabulary.CVE_ATOMIC_ENERGY_MARKINGS,
+		ISMVocabulary.CVE_DISPLAY_ONLY_TO, ISMVocabulary.CVE_DISSEMINATION_CONTROLS, ISMVocabulary.CVE_FGI_SOURCE_OPEN,
+		ISMVocabulary.CVE_FGI_SOURCE_PROTECTED, ISMVocabulary.CVE_NON_IC_MARKINGS, ISMVocabulary.CVE_NON_US_CONTROLS,
+		ISMVocabulary.CVE_OWNER_PRODUCERS, ISMVocabulary.CVE_RELEASABLE_TO, ISMVocabulary.CVE_SAR_IDENTIFIER,
+		ISMVocabulary.CVE_SCI_CONTROLS };
+
+	private static final int DISPLAY_ONLY_TO_SLOT = 1;
+	private static final int RELEASABLE_TO_SLOT = 8;
+	private static final int[] RELEASABILITY_SLOTS = new int[] { DISPLAY_ONLY_TO_SLOT, RELEASABLE_TO_SLOT };
+
+	/**
+	 * Constructor
+	 * 
+	 * @param version the DDMS version of the markings
+	 * @param vocabulary the vocabulary whose indexes are used
+	 * @param classification the classification, or an empty string if there is none
+	 * @param rank the rank of the classification
+	 * @param bits the bitset of each attribute, which will be normalized and not copied
+	 * @param overflow the sorted tokens of each attribute which are not in the controlled vocabulary, or null
+	 * @param restricted a mask of the releasability slots which restrict a roll-up, or -1 to derive it from the
+	 *        markings
+	 */
+	private EncodedMarkings(DDMSVersion version, ControlledVocabulary vocabulary, String classification, int rank,
+		long[][] bits, String[][] overflow, int restricted) {
+		_version = version;
+		_vocabulary = vocabulary;
+		_classification = classification;
+		_rank = rank;
+		for (int i = 0; i < bits.length; i++)
+			bits[i] = trim(bits[i]);
+		_bits = bits;
+		_overflow = trim(overflow);
+		if (restricted < 0) {
+			restricted = 0;
+			for (int slot : RELEASABILITY_SLOTS) {
+				if (rank != 0 || !isEmpty(slot))
+					restricted |= 1 << slot;
+			}
+		}
+		_restricted = restricted;
+		int hashCode = version.hashCode();
+		hashCode = 7 * hashCode + classification.hashCode();
+		for (long[] words : bits)
+			hashCode = 7 * hashCode + Arrays.hashCode(words);
+		hashCode = 7 * hashCode + restricted;
+		_hashCode = 7 * hashCode + Arrays.deepHashCode(_overflow);
+	}
+
+	/**
+	 * Encodes a set of security attributes. Use {@link SecurityAttributes#getEncodedMarkings(DDMSVersion)} to call
+	 * this.
+	 * 
+	 * @param version the DDMS version of the attributes
+	 * @param attributes the attributes
+	 * @return the encoded markings
+	 */
+	static EncodedMarkings encode(DDMSVersion version, SecurityAttributes attributes) {
+		List<List<String>> tokens = new ArrayList<List<String>>(ATTRIBUTE_NAMES.length);
+		for (String name : ATTRIBUTE_NAMES)
+			tokens.add(getTokens(attributes, name));
+		return (encode(version, ISMVocabulary.getVocabulary(version), attributes.getClassification(), tokens));
+	}
+
+	/**
+	 * Encodes a classification and the tokens of each list-valued attribute against the indexes of a vocabulary.
+	 * 
+	 * @param version the DDMS version of the markings
+	 * @param vocabulary the vocabulary whose indexes are used
+	 * @param classification the classification, which may be null
+	 * @param tokens the tokens of each attribute, in the order of the encoded attribute names
+	 * @return the encoded markings
+	 */
+	private static EncodedMarkings encode(DDMSVersion version, ControlledVocabulary vocabulary, String classification,
+		List<List<String>> tokens) {
+		classification = Util.getNonNullString(classification);
+		long[][] bits = new long[ATTRIBUTE_NAMES.length][];
+		String[][] overflow = null;
+		for (int i = 0; i < ATTRIBUTE_NAMES.length; i++) {
+			long[] words = null;
+			Set<String> others = null;
+			for (String token : tokens.get(i)) {
+				int bit = vocabulary.indexOf(ENUMERATION_KEYS[i], token);
+				if (bit < 0) {
+					if (others == null)
+						others = new TreeSet<String>();
+					others.add(token);
+					continue;
+				}
+				words = ensureCapacity(words, bit);
+				words[bit >> 6] |= 1L << bit;
+			}
+			bits[i] = words;
+			if (others != null) {
+				if (overflow == null)
+					overflow = new String[ATTRIBUTE_NAMES.length][];
+				overflow[i] = toArray(others);
+			}
+		}
+		return (new EncodedMarkings(version, vocabulary, classification, ISMVocabulary
+			.getClassificationRank(classification), bits, overflow, -1));
+	}
+
+	/**
+	 * Returns the tokens of one list-valued attribute.
+	 * 
+	 * @param attributes the attributes
+	 * @param name the local name of the attribute
+	 * @return the tokens
+	 */
+	private static List<String> getTokens(SecurityAttributes attributes, String name) {
+		if (SecurityAttributes.ATOMIC_ENERGY_MARKINGS_NAME.equals(name))
+			return (attributes.getAtomicEnergyMarkings());
+		if (SecurityAttributes.DISPLAY_ONLY_TO_NAME.equals(name))
+			return (attributes.getDisplayOnlyTo());
+		if (SecurityAttributes.DISSEMINATION_CONTROLS_NAME.equals(name))
+			return (attributes.getDisseminationControls());
+		if (SecurityAttributes.FGI_SOURCE_OPEN_NAME.equals(name))
+			return (attributes.getFGIsourceOpen());
+		if (SecurityAttributes.FGI_SOURCE_PROTECTED_NAME.equals(name))
+			return (attributes.getFGIsourceProtected());
+		if (SecurityAttributes.NON_IC_MARKINGS_NAME.equals(name))
+			return (attributes.getNonICmarkings());
+		if (SecurityAttributes.NON_US_CONTROLS_NAME.equals(name))
+			return (attributes.getNonUSControls());
+		if (SecurityAttributes.OWNER_PRODUCER_NAME.equals(name))
+			return (attributes.getOwnerProducers());
+		if (SecurityAttributes.RELEASABLE_TO_NAME.equals(name))
+			return (attributes.getReleasableTo());
+		if (SecurityAttributes.SAR_IDENTIFIER_NAME.equals(name))
+			return (attributes.getSARIdentifier());
+		return (attributes.getSCIcontrols());
+	}
+
+	/**
+	 * Returns the position of an attribute in the encoding.
+	 * 
+	 * @param name the local name of the attribute
+	 * @return the position
+	 * @throws IllegalArgumentException if the attribute is not encoded
+	 */
+	private static int getSlot(String name) {
+		for (int i = 0; i < ATTRIBUTE_NAMES.length; i++) {
+			if (ATTRIBUTE_NAMES[i].equals(name))
+				return (i);
+		}
+		throw new IllegalArgumentException(name + " is not an encoded attribute.");
+	}
+
+	/**
+	 * Grows a bitset so that it can hold a bit.
+	 * 
+	 * @param words the bitset, which may be null
+	 * @param bit the bit
+	 * @return the original bitset, or a larger copy of it
+	 */
+	private static long[] ensureCapacity(long[] words, int bit) {
+		int length = (bit >> 6) + 1;
+		if (words == null)
+			return (new long[length]);
+		if (words.length < length)
+			return (Arrays.copyOf(words, length));
+		return (words);
+	}
+
+	/**
+	 * Removes trailing empty words from a bitset, so that equal sets always have equal arrays.
+	 * 
+	 * @param words the bitset, which may be null
+	 * @return the trimmed bitset, or null if it is empty
+	 */
+	private static long[] trim(long[] words) {
+		if (words == null)
+			return (null);
+		int length = words.length;
+		while (length > 0 && words[length - 1] == 0L)
+			length--;
+		if (length == 0)
+			return (null);
+		return (length == words.length ? words : Arrays.copyOf(words, length));
+	}
+
+	/**
+	 * Removes empty overflow lists, so that equal sets always have equal arrays.
+	 * 
+	 * @param overflow the overflow lists of each attribute, which may be null
+	 * @return the overflow lists, or null if they are all empty
+	 */
+	private static String[][] trim(String[][] overflow) {
+		if (overflow == null)
+			return (null);
+		for (String[] tokens : overflow) {
+			if (tokens != null)
+				return (overflow);
+		}
+		return (null);
+	}
+
+	/**
+	 * Converts a collection of tokens into an array, in iteration order.
+	 * 
+	 * @param tokens the tokens
+	 * @return the array, or null if there are no tokens
+	 */
+	private static String[] toArray(Collection<String> tokens) {
+		return (tokens.isEmpty() ? null : tokens.toArray(new String[tokens.size()]));
+	}
+
+	/**
+	 * Returns the union of two sorted overflow lists.
+	 * 
+	 * @param first the first list, which may be null
+	 * @param second the second list, which may be null
+	 * @return the union, which may be one of the arguments
+	 */
+	private static String[] or(String[] first, String[] second) {
+		if (first == null || second == null)
+			return (first == null ? second : first);
+		Set<String> tokens = new TreeSet<String>(Arrays.asList(first));
+		tokens.addAll(Arrays.asList(second));
+		return (toArray(tokens));
+	}
+
+	/**
+	 * Returns the intersection of two sorted overflow lists.
+	 * 
+	 * @param first the first list, which may be null
+	 * @param second the second list, which may be null
+	 * @return the intersection, or null if it is empty
+	 */
+	private static String[] and(String[] first, String[] second) {
+		if (first == null || second == null)
+			return (null);
+		List<String> tokens = new ArrayList<String>();
+		for (String token : first) {
+			if (Arrays.binarySearch(second, token) >= 0)
+				tokens.add(token);
+		}
+		return (toArray(tokens));
+	}
+
+	/**
+	 * Returns the overflow list of one attribute.
+	 * 
+	 * @param slot the position of the attribute
+	 * @return the sorted tokens, or null if there are none
+	 */
+	private String[] getOverflow(int slot) {
+		return (_overflow == null ? null : _overflow[slot]);
+	}
+
+	/**
+	 * Checks if an attribute of this encoding has no tokens at all.
+	 * 
+	 * @param slot the position of the attribute
+	 * @return true if the attribute is empty
+	 */
+	private boolean isEmpty(int slot) {
+		return (_bits[slot] == null && getOverflow(slot) == null);
+	}
+
+	/**
+	 * Checks if a releasability attribute of this encoding restricts a roll-up. Only unclassified markings without
+	 * the attribute leave it unrestricted. Classified markings without it, including markings whose classification
+	 * is missing or unknown, are releasable to no one.
+	 * 
+	 * @param slot the position of the attribute
+	 * @return true if the attribute restricts a roll-up
+	 */
+	private boolean isRestricted(int slot) {
+		return ((_restricted & (1 << slot)) != 0);
+	}
+
+	/**
+	 * Returns another encoding of the same DDMS version against the indexes of this encoding's vocabulary. An
+	 * encoding made before the vocabularies were reloaded is re-encoded from its tokens.
+	 * 
+	 * @param other the other encoding
+	 * @return the other encoding, or a re-encoded copy of it
+	 * @throws IllegalArgumentException if the encodings are for different DDMS versions
+	 */
+	private EncodedMarkings align(EncodedMarkings other) {
+		Util.requireValue("markings", other);
+		if (!getVersion().equals(other.getVersion()))
+			throw new IllegalArgumentException("Encoded markings from different DDMS versions cannot be combined.");
+		if (other._vocabulary == _vocabulary)
+			return (other);
+		List<List<String>> tokens = new ArrayList<List<String>>(ATTRIBUTE_NAMES.length);
+		for (String name : ATTRIBUTE_NAMES)
+			tokens.add(other.getTokens(name));
+		EncodedMarkings aligned = encode(getVersion(), _vocabulary, other.getClassification(), tokens);
+		return (new EncodedMarkings(getVersion(), _vocabulary, aligned._classification, aligned._rank, aligned._bits,
+			aligned._overflow, other._restricted));
+	}
+
+	/**
+	 * Returns the union of the list-valued markings of this encoding and another. The classification of the result
+	 * is the classification of this encoding.
+	 * 
+	 * @param other the other encoding, which must be from the same DDMS version
+	 * @return a new encoding
+	 */
+	public EncodedMarkings union(EncodedMarkings other) {
+		other = align(other);
+		long[][] bits = new long[_bits.length][];
+		String[][] overflow = new String[_bits.length][];
+		for (int i = 0; i < _bits.length; i++) {
+			bits[i] = or(_bits[i], other._bits[i]);
+			overflow[i] = or(getOverflow(i), other.getOverflow(i));
+		}
+		return (new EncodedMarkings(getVersion(), _vocabulary, _classification, _rank, bits, overflow, -1));
+	}
+
+	/**
+	 * Returns the intersection of the list-valued markings of this encoding and another. The classification of the
+	 * result is the classification of this encoding.
+	 * 
+	 * @param other the other encoding, which must be from the same DDMS version
+	 * @return a new encoding
+	 */
+	public EncodedMarkings intersect(EncodedMarkings other) {
+		other = align(other);
+		long[][] bits = new long[_bits.length][];
+		String[][] overflow = new String[_bits.length][];
+		for (int i = 0; i < _bits.length; i++) {
+			bits[i] = and(_bits[i], other._bits[i]);
+			overflow[i] = and(getOverflow(i), other.getOverflow(i));
+		}
+		return (new EncodedMarkings(getVersion(), _vocabulary, _classification, _rank, bits, overflow, -1));
+	}
+
+	/**
+	 * Combines this encoding with another as a security roll-up: the higher of the two classifications, the union of
+	 * the controls, and the intersection of the releasability markings (displayOnlyTo and releasableTo). Classified
+	 * markings without a releasability attribute are releasable to no one, so they empty that attribute in the
+	 * result. Only unclassified markings without it leave the other side unrestricted.
+	 * 
+	 * @param other the other encoding, which must be from the same DDMS version
+	 * @return a new encoding
+	 */
+	EncodedMarkings rollUp(EncodedMarkings other) {
+		other = align(other);
+		long[][] bits = new long[_bits.length][];
+		String[][] overflow = new String[_bits.length][];
+		int restricted = _restricted | other._restricted;
+		for (int i = 0; i < _bits.length; i++) {
+			boolean releasability = (i == DISPLAY_ONLY_TO_SLOT || i == RELEASABLE_TO_SLOT);
+			if (releasability && (!isRestricted(i) || !other.isRestricted(i))) {
+				EncodedMarkings source = (isRestricted(i) ? this : other);
+				bits[i] = source._bits[i];
+				overflow[i] = source.getOverflow(i);
+			}
+			else if (releasability) {
+				bits[i] = and(_bits[i], other._bits[i]);
+				overflow[i] = and(getOverflow(i), other.getOverflow(i));
+			}
+			else {
+				bits[i] = or(_bits[i], other._bits[i]);
+				overflow[i] = or(getOverflow(i), other.getOverflow(i));
+			}
+		}
+		EncodedMarkings higher = (other._rank > _rank ? other : this);
+		return (new EncodedMarkings(getVersion(), _vocabulary, higher._classification, higher._rank, bits, overflow,
+			restricted));
+	}
+
+	/**
+	 * Returns the union of two bitsets.
+	 * 
+	 * @param first the first bitset, which may be null
+	 * @param second the second bitset, which may be null
+	 * @return the union, which may be one of the arguments
+	 */
+	private static long[] or(long[] first, long[] second) {
+		if (first == null || second == null)
+			return (first == null ? second : first);
+		long[] words = Arrays.copyOf(first, Math.max(first.length, second.length));
+		for (int i = 0; i < second.length; i++)
+			words[i] |= second[i];
+		return (words);
+	}
+
+	/**
+	 * Returns the intersection of two bitsets.
+	 * 
+	 * @param first the first bitset, which may be null
+	 * @param second the second bitset, which may be null
+	 * @return the intersection, or null if either bitset is null
+	 */
+	private static long[] and(long[] first, long[] second) {
+		if (first == null || second == null)
+			return (null);
+		long[] words = new long[Math.min(first.length, second.length)];
+		for (int i = 0; i < words.length; i++)
+			words[i] = first[i] & second[i];
+		return (words);
+	}
+
+	/**
+	 * Checks if every token in every list-valued marking of another encoding is also present in this one.
+	 * Classifications are not compared.
+	 * 
+	 * @param other the other encoding, which must be from the same DDMS version
+	 * @return true if the other encoding's tokens are a subset of this encoding's tokens
+	 */
+	public boolean containsAll(EncodedMarkings other) {
+		other = align(other);
+		for (int i = 0; i < _bits.length; i++) {
+			long[] mine = _bits[i];
+			long[] theirs = other._bits[i];
+			if (theirs != null) {
+				if (mine == null || mine.length < theirs.length)
+					return (false);
+				for (int j = 0; j < theirs.length; j++) {
+					if ((theirs[j] & ~mine[j]) != 0L)
+						return (false);
+				}
+			}
+			String[] theirOverflow = other.getOverflow(i);
+			if (theirOverflow != null) {
+				String[] myOverflow = getOverflow(i);
+				for (String token : theirOverflow) {
+					if (myOverflow == null || Arrays.binarySearch(myOverflow, token) < 0)
+						return (false);
+				}
+			}
+		}
+		return (true);
+	}
+
+	/**
+	 * Checks if a list-valued marking contains a token.
+	 * 
+	 * @param name the local name of the attribute, such as "disseminationControls"
+	 * @param token the token
+	 * @return true if the token is present
+	 * @throws IllegalArgumentException if the attribute is not encoded
+	 */
+	public boolean contains(String name, String token) {
+		int slot = getSlot(name);
+		int bit = _vocabulary.indexOf(ENUMERATION_KEYS[slot], token);
+		if (bit < 0) {
+			String[] overflow = getOverflow(slot);
+			return (token != null && overflow != null && Arrays.binarySearch(overflow, token) >= 0);
+		}
+		long[] words = _bits[slot];
+		return (words != null && (bit >> 6) < words.length && (words[bit >> 6] & (1L << bit)) != 0L);
+	}
+
+	/**
+	 * Decodes the tokens of a list-valued marking. Tokens are returned in the order of their indexes, which is the
+	 * alphabetical order of the controlled vocabulary, followed by any tokens which are not in the controlled
+	 * vocabulary, in alphabetical order.
+	 * 
+	 * @param name the local name of the attribute, such as "disseminationControls"
+	 * @return an unmodifiable list of tokens
+	 * @throws IllegalArgumentException if the attribute is not encoded
+	 */
+	public List<String> getTokens(String name) {
+		int slot = getSlot(name);
+		if (isEmpty(slot))
+			return (Collections.<String> emptyList());
+		List<String> tokens = new ArrayList<String>();
+		long[] words = _bits[slot];
+		if (words != null) {
+			for (int i = 0; i < words.length; i++) {
+				long word = words[i];
+				while (word != 0L) {
+					int bit = Long.numberOfTrailingZeros(word);
+					tokens.add(_vocabulary.getToken(ENUMERATION_KEYS[slot], (i << 6) + bit));
+					word &= word - 1;
+				}
+			}
+		}
+		if (getOverflow(slot) != null)
+			tokens.addAll(Arrays.asList(getOverflow(slot)));
+		return (Collections.unmodifiableList(tokens));
+	}
+
+	/**
+	 * Returns the local names of the list-valued attributes which are encoded, such as "disseminationControls".
+	 * 
+	 * @return an unmodifiable list of attribute names
+	 */
+	public static List<String> getAttributeNames() {
+		return (Collections.unmodifiableList(Arrays.asList(ATTRIBUTE_NAMES)));
+	}
+
+	/**
+	 * @see Object#equals(Object)
+	 */
+	public boolean equals(Object obj) {
+		if (!(obj instanceof EncodedMarkings))
+			return (false);
+		EncodedMarkings test = (EncodedMarkings) obj;
+		if (hashCode() != test.hashCode() || _vocabulary != test._vocabulary || _restricted != test._restricted
+			|| !_classification.equals(test._classification) || !getVersion().equals(test.getVersion()))
+			return (false);
+		for (int i = 0; i < _bits.length; i++) {
+			if (!Arrays.equals(_bits[i], test._bits[i]))
+				return (false);
+		}
+		return (Arrays.deepEquals(_overflow, test._overflow));
+	}
+
+	/**
+	 * @see Object#hashCode()
+	 */
+	public int hashCode() {
+		return (_hashCode);
+	}
+
+	/**
+	 * Accessor for the DDMS version whose token indexes are used
+	 */
+	public DDMSVersion getVersion() {
+		return (_version);
+	}
+
+	/**
+	 * Accessor for the classification
+	 * 
+	 * @return the classification, or an empty string if there is none
+	 */
+	public String getClassification() {
+		return (_classification);
+	}
+
+	/**
+	 * Accessor for the rank of the classification, which is computed once when the markings are encoded.
+	 * 
+	 * @return the rank, or -1 if there is no classification or it is not recognized
+	 * @see ISMVocabulary#getClassificationRank(String)
+	 */
+	public int getClassificationRank() {
+		return (_rank);
+	}
+}
\ No newline at end of file
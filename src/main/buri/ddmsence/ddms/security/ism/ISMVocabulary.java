@@ -19,8 +19,8 @@
  */
 package buri.ddmsence.ddms.security.ism;
 
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -28,21 +28,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-import nu.xom.Builder;
-import nu.xom.Document;
-import nu.xom.Element;
-import nu.xom.Elements;
-import nu.xom.ParsingException;
-
-import org.xml.sax.SAXException;
-import org.xml.sax.XMLReader;
-import org.xml.sax.helpers.XMLReaderFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import buri.ddmsence.ddms.InvalidDDMSException;
+import buri.ddmsence.util.DDMSContext;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.PropertyReader;
 import buri.ddmsence.util.Util;
@@ -83,6 +73,10 @@ import buri.ddmsence.util.Util;
  * 
  * <p>Some of these vocabularies include regular expression patterns.</p>
  * 
+ * <p>The CVE files are normally read from the classpath. To pick up updated CVE files without redeploying, the
+ * vocabularies of a DDMS version can instead be read from a directory which is watched for changes, with
+ * {@link #watchDirectory(DDMSVersion, File, long)}.</p>
+ * 
  * @author Brian Uri!
  * @since 0.9.d
  */
@@ -154,6 +148,16 @@ public class ISMVocabulary {
 		COMMON_NETWORK_TYPES.add("other");
 	}
 
+	private static final Map<String, Integer> CLASSIFICATION_RANKS = new HashMap<String, Integer>();
+	static {
+		String[][] ranks = new String[][] { { "U", "NU" }, { "R", "NR" }, { "C", "NC", "NCA" },
+			{ "S", "NS", "NSAT", "NS-S", "NS-A" }, { "TS", "CTS", "CTS-B", "CTS-BALK", "CTSA" } };
+		for (int i = 0; i < ranks.length; i++) {
+			for (String classification : ranks[i])
+				CLASSIFICATION_RANKS.put(classification, Integer.valueOf(i));
+		}
+	}
+
 	private static final List<String> ALL_ENUMS = new ArrayList<String>();
 	static {
 		ALL_ENUMS.add(CVE_DECLASS_EXCEPTION);
@@ -176,16 +180,10 @@ public class ISMVocabulary {
 		ALL_ENUMS.add(CVE_TYPE_EXEMPTED_SOURCE);
 	}
 
-	private static final Map<String, Map<String, Set<String>>> LOCATION_TO_ENUM_TOKENS = new HashMap<String, Map<String, Set<String>>>();
-	private static final Map<String, Map<String, Set<String>>> LOCATION_TO_ENUM_PATTERNS = new HashMap<String, Map<String, Set<String>>>();
+	private static final Map<String, ControlledVocabulary> LOCATION_TO_VOCABULARY = new ConcurrentHashMap<String, ControlledVocabulary>();
+	private static final ConcurrentMap<String, CVEDirectoryWatcher> VERSION_TO_WATCHER = new ConcurrentHashMap<String, CVEDirectoryWatcher>();
 
-	private static final String ENUMERATION_NAME = "Enumeration";
-	private static final String TERM_NAME = "Term";
-	private static final String VALUE_NAME = "Value";
-	private static final String REG_EXP_NAME = "regularExpression";
-
-	private static String _lastEnumLocation = null;
-	private static DDMSVersion _ddmsVersion;
+	private static volatile DDMSVersion _ddmsVersion;
 	static {
 		setDDMSVersion(DDMSVersion.getCurrentVersion());
 	}
@@ -200,68 +198,99 @@ public class ISMVocabulary {
 	 * 
 	 * @param version the DDMS version
 	 */
-	public static synchronized void setDDMSVersion(DDMSVersion version) {
+	public static void setDDMSVersion(DDMSVersion version) {
 		_ddmsVersion = version;
 	}
 
 	/**
-	 * Reloads CVEs if necessary.
+	 * Returns the controlled vocabularies for a DDMS version, from a watched directory if there is one, or else from
+	 * the classpath, loading them if they have not been loaded yet. Once
+	 * loaded, the vocabularies are shared by every thread and never change, so lookups do not lock.
+	 * 
+	 * @param version the DDMS version
+	 * @return the vocabularies
 	 */
-	private static synchronized void updateEnumLocation() {
-		String enumLocation = PropertyReader.getProperty(getDDMSVersion().getVersion() + ".ism.cveLocation");
-		if (getLastEnumLocation() == null || !getLastEnumLocation().equals(enumLocation)) {
-			_lastEnumLocation = enumLocation;
-			if (LOCATION_TO_ENUM_TOKENS.get(getLastEnumLocation()) == null) {
-				try {
-					LOCATION_TO_ENUM_TOKENS.put(getLastEnumLocation(), new HashMap<String, Set<String>>());
-					LOCATION_TO_ENUM_PATTERNS.put(getLastEnumLocation(), new HashMap<String, Set<String>>());
-					XMLReader reader = XMLReaderFactory.createXMLReader(PropertyReader.getProperty("xml.reader.class"));
-					Builder builder = new Builder(reader, false);
-					for (String cve : ALL_ENUMS) {
-						try {
-							loadEnumeration(enumLocation, builder, cve);
-						}
-						catch (Exception e) {
-							continue;
-						}
-					}
-				}
-				catch (SAXException e) {
-					throw new RuntimeException("Could not load controlled vocabularies: " + e.getMessage());
-				}
-			}
-		}
+	static ControlledVocabulary getVocabulary(DDMSVersion version) {
+		CVEDirectoryWatcher watcher = VERSION_TO_WATCHER.get(version.getVersion());
+		if (watcher != null)
+			return (watcher.getVocabulary());
+		String enumLocation = PropertyReader.getProperty(version.getVersion() + ".ism.cveLocation");
+		ControlledVocabulary vocabulary = LOCATION_TO_VOCABULARY.get(enumLocation);
+		if (vocabulary == null)
+			vocabulary = loadVocabulary(version, enumLocation);
+		return (vocabulary);
+	}
+
+	/**
+	 * Returns the controlled vocabularies which enumerations are currently validated against.
+	 * 
+	 * @return the vocabularies
+	 */
+	static ControlledVocabulary getCurrentVocabulary() {
+		return (getVocabulary(getDDMSVersion()));
 	}
 
 	/**
-	 * Opens the enumeration file and extracts a Set of String token values based on the Term elements in the file.
-	 * Stores them in the ENUM_TOKENS map with the key. If a pattern is discovered, it is stored in a separate mapping.
+	 * Loads every CVE from a location, from the snapshot compiled by the build if there is one, or else by parsing the
+	 * CVE files. The location is only published once all of its CVEs have been read, so other 
+	 * threads never see a partially loaded set, and no location is read more than once.
 	 * 
+	 * @param version the DDMS version whose CVEs are being loaded
 	 * @param enumLocation the classpath resource location for the enumeration files
-	 * @param builder the XOM Builder to read the file with
-	 * @param enumerationKey the key for the enumeration, which doubles as the filename.
+	 * @return the vocabularies
 	 */
-	private static void loadEnumeration(String enumLocation, Builder builder, String enumerationKey)
-		throws ParsingException, IOException {
-		InputStream stream = new ISMVocabulary().getClass().getResourceAsStream(enumLocation + enumerationKey);
-		Document doc = builder.build(stream);
-		Set<String> tokens = new TreeSet<String>();
-		Set<String> patterns = new HashSet<String>();
-		String cveNamespace = PropertyReader.getProperty(getDDMSVersion().getVersion() + ".ism.cve.xmlNamespace");
-		Element enumerationElement = doc.getRootElement().getFirstChildElement(ENUMERATION_NAME, cveNamespace);
-		Elements terms = enumerationElement.getChildElements(TERM_NAME, cveNamespace);
-		for (int i = 0; i < terms.size(); i++) {
-			Element value = terms.get(i).getFirstChildElement(VALUE_NAME, cveNamespace);
-			boolean isPattern = Boolean.valueOf(value.getAttributeValue(REG_EXP_NAME)).booleanValue();
-			if (value != null) {
-				if (isPattern)
-					patterns.add(value.getValue());
-				else
-					tokens.add(value.getValue());
+	private static synchronized ControlledVocabulary loadVocabulary(DDMSVersion version, String enumLocation) {
+		ControlledVocabulary vocabulary = LOCATION_TO_VOCABULARY.get(enumLocation);
+		if (vocabulary == null) {
+			vocabulary = ControlledVocabulary.loadSnapshot(enumLocation, ALL_ENUMS);
+			if (vocabulary == null) {
+				String cveNamespace = PropertyReader.getProperty(version.getVersion() + ".ism.cve.xmlNamespace");
+				vocabulary = ControlledVocabulary.load(cveNamespace, enumLocation, ALL_ENUMS);
 			}
+			LOCATION_TO_VOCABULARY.put(enumLocation, vocabulary);
 		}
-		LOCATION_TO_ENUM_TOKENS.get(getLastEnumLocation()).put(enumerationKey, tokens);
-		LOCATION_TO_ENUM_PATTERNS.get(getLastEnumLocation()).put(enumerationKey, patterns);
+		return (vocabulary);
+	}
+
+	/**
+	 * Reads the controlled vocabularies of a DDMS version from a directory on the file system instead of the
+	 * classpath, and keeps reloading them as the files in the directory change. Any directory already being watched
+	 * for the version is replaced. The directory uses the same filenames as the CVE files bundled with DDMSence. A
+	 * vocabulary whose CVE file is missing from the directory is unavailable while the directory is watched.
+	 * 
+	 * @param version the DDMS version whose vocabularies are in the directory
+	 * @param directory the directory containing the CVE files
+	 * @param intervalMillis how often to check the directory for changes, in milliseconds, or 0 to only check when
+	 *        <code>checkForChanges()</code> is called on the returned watcher
+	 * @return the watcher, which should be stopped when the directory is no longer needed
+	 * @throws IOException if the directory does not contain any readable CVE files
+	 * @since 2.5.0
+	 */
+	public static CVEDirectoryWatcher watchDirectory(DDMSVersion version, File directory, long intervalMillis)
+		throws IOException {
+		CVEDirectoryWatcher watcher = new CVEDirectoryWatcher(version, directory, intervalMillis);
+		CVEDirectoryWatcher previous = VERSION_TO_WATCHER.put(version.getVersion(), watcher);
+		if (previous != null)
+			previous.stop();
+		return (watcher);
+	}
+
+	/**
+	 * Stops using a watched directory, if it is still the one in use for its version.
+	 * 
+	 * @param watcher the watcher to remove
+	 */
+	static void removeWatcher(CVEDirectoryWatcher watcher) {
+		VERSION_TO_WATCHER.remove(watcher.getVersion().getVersion(), watcher);
+	}
+
+	/**
+	 * Returns the keys of every controlled vocabulary, which double as the CVE filenames.
+	 * 
+	 * @return an unmodifiable list of keys
+	 */
+	static List<String> getEnumerationKeys() {
+		return (Collections.unmodifiableList(ALL_ENUMS));
 	}
 
 	/**
@@ -280,25 +309,12 @@ public class ISMVocabulary {
 	 * @throws IllegalArgumentException if the key does not match a controlled vocabulary
 	 */
 	public static Set<String> getEnumerationTokens(String enumerationKey) {
-		updateEnumLocation();
-		Set<String> vocabulary = LOCATION_TO_ENUM_TOKENS.get(getLastEnumLocation()).get(enumerationKey);
+		Set<String> vocabulary = getVocabulary(getDDMSVersion()).getTokens(enumerationKey);
 		if (vocabulary == null) {
 			throw new IllegalArgumentException("No controlled vocabulary could be found for this key: "
 				+ enumerationKey);
 		}
-		return (Collections.unmodifiableSet(vocabulary));
-	}
-
-	/**
-	 * Returns an unmodifiable set of controlled vocabulary regular expression patterns.
-	 * 
-	 * @param enumerationKey the key of the enumeration
-	 * @return an unmodifiable set of Strings
-	 */
-	private static Set<String> getEnumerationPatterns(String enumerationKey) {
-		updateEnumLocation();
-		Set<String> vocabulary = LOCATION_TO_ENUM_PATTERNS.get(getLastEnumLocation()).get(enumerationKey);
-		return (Collections.unmodifiableSet(vocabulary));
+		return (vocabulary);
 	}
 
 	/**
@@ -309,7 +325,6 @@ public class ISMVocabulary {
 	 * @throws InvalidDDMSException if the value is not and validation should result in errors
 	 */
 	public static void validateEnumeration(String enumerationKey, String value) throws InvalidDDMSException {
-		setDDMSVersion(getDDMSVersion());
 		if (!enumContains(enumerationKey, value)) {
 			String message = getInvalidMessage(enumerationKey, value);
 			throw new InvalidDDMSException(message);
@@ -319,7 +334,7 @@ public class ISMVocabulary {
 	/**
 	 * Checks if a value exists in the controlled vocabulary identified by the key. If the value does not match the
 	 * tokens, but the CVE also contains patterns, the regular expression pattern is checked next. If neither tokens or
-	 * patterns returns a match, return false.
+	 * patterns returns a match, return false. The patterns of each CVE are compiled once, when it is loaded.
 	 * 
 	 * @param enumerationKey the key of the enumeration
 	 * @param value the test value
@@ -328,18 +343,21 @@ public class ISMVocabulary {
 	 */
 	protected static boolean enumContains(String enumerationKey, String value) {
 		Util.requireValue("key", enumerationKey);
-		boolean isValidToken = getEnumerationTokens(enumerationKey).contains(value);
-		if (!isValidToken) {
-			for (String patternString : getEnumerationPatterns(enumerationKey)) {
-				Pattern pattern = Pattern.compile(patternString);
-				Matcher matcher = pattern.matcher(value);
-				if (matcher.matches()) {
-					isValidToken = true;
-					break;
-				}
-			}
-		}
-		return (isValidToken);
+		return (getVocabulary(getDDMSVersion()).contains(enumerationKey, value));
+	}
+
+	/**
+	 * Returns the rank of a classification, for comparing the sensitivity of two classifications. US classifications
+	 * are ranked from U (0) up to TS (4), and each non-US classification shares the rank of its US equivalent, so
+	 * NC has the same rank as C.
+	 * 
+	 * @param classification the classification token
+	 * @return the rank, or -1 if the classification is empty or not recognized
+	 * @since 2.5.0
+	 */
+	public static int getClassificationRank(String classification) {
+		Integer rank = (classification == null ? null : CLASSIFICATION_RANKS.get(classification));
+		return (rank == null ? -1 : rank.intValue());
 	}
 
 	/**
@@ -377,16 +395,11 @@ public class ISMVocabulary {
 	}
 
 	/**
-	 * Accessor for the last enum location.
-	 */
-	private static String getLastEnumLocation() {
-		return (_lastEnumLocation);
-	}
-
-	/**
-	 * Accessor for the currently set DDMS Version
+	 * Accessor for the currently set DDMS Version. If a DDMSContext is bound to the current thread, its version is 
+	 * used instead.
 	 */
 	private static DDMSVersion getDDMSVersion() {
-		return (_ddmsVersion);
+		DDMSContext context = DDMSContext.getBound();
+		return (context == null ? _ddmsVersion : context.getVersion());
 	}
 }
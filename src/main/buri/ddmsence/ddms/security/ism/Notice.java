@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.security.ism;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -36,7 +37,7 @@ import buri.ddmsence.util.LazyList;
 import buri.ddmsence.util.PropertyReader;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ism:Notice.
@@ -154,27 +155,23 @@ public final class Notice extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, "noticeText", getNoticeTexts());
-		addJson(object, getSecurityAttributes());
-		addJson(object, getNoticeAttributes());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, "noticeText", getNoticeTexts());
+		addJson(writer, getSecurityAttributes());
+		addJson(writer, getNoticeAttributes());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, "notice", suffix + ".");
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix, getNoticeTexts()));
-		text.append(getSecurityAttributes().getHTMLTextOutput(format, localPrefix));
-		text.append(getNoticeAttributes().getHTMLTextOutput(format, localPrefix));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, getNoticeTexts());
+		getSecurityAttributes().writeHTMLText(text, format, localPrefix);
+		getNoticeAttributes().writeHTMLText(text, format, localPrefix);
 	}
 
 	/**
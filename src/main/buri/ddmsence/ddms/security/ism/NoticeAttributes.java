@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.security.ism;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.HashMap;
@@ -40,7 +41,7 @@ import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.PropertyReader;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * Attribute group for the ISM notice markings used on a {@link Resource} and {@link Notice}.
@@ -233,13 +234,40 @@ public final class NoticeAttributes extends AbstractAttributeGroup {
 	}
 
 	/**
-	 * Validates the attribute group. Where appropriate the {@link ISMVocabulary} enumerations are validated.
+	 * Validates the attribute group. Where appropriate the {@link ISMVocabulary} enumerations are validated. The
+	 * outcome is remembered, so identical attribute groups are only validated once.
 	 * 
 	 * @param version the DDMS version to validate against. This cannot be stored in the attribute group because some
 	 *        DDMSVersions have the same attribute XML namespace (e.g. XLink, ISM, NTK, GML after DDMS 2.0).
 	 * @throws InvalidDDMSException if any required information is missing or malformed
+	 * @see AttributeValidationCache
 	 */
 	protected void validate(DDMSVersion version) throws InvalidDDMSException {
+		if (isEmpty()) {
+			validateValues(version);
+			return;
+		}
+		AttributeValidationCache.Key key = AttributeValidationCache.getKey(getClass(), version, getNoticeType(), getNoticeReason(),
+			getNoticeDate(), getUnregisteredNoticeType(), isExternalReference());
+		if (AttributeValidationCache.replay(key, getWarnings()))
+			return;
+		try {
+			validateValues(version);
+		}
+		catch (InvalidDDMSException e) {
+			AttributeValidationCache.record(key, e, null);
+			throw (e);
+		}
+		AttributeValidationCache.record(key, null, getWarnings());
+	}
+
+	/**
+	 * Validates the attribute values against the rules of a DDMS version and the {@link ISMVocabulary} enumerations.
+	 * 
+	 * @param version the DDMS version to validate against
+	 * @throws InvalidDDMSException if any required information is missing or malformed
+	 */
+	private void validateValues(DDMSVersion version) throws InvalidDDMSException {
 		if (!version.isAtLeast("4.0.1") && !isEmpty())
 			throw new InvalidDDMSException("Notice attributes must not be used until DDMS 4.0.1 or later.");
 		if (!Util.isEmpty(getNoticeType()))
@@ -256,18 +284,16 @@ public final class NoticeAttributes extends AbstractAttributeGroup {
 	}
 
 	/**
-	 * @see AbstractAttributeGroup#getJSONObject()
+	 * @see AbstractAttributeGroup#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, NOTICE_TYPE_NAME, getNoticeType());
-		addJson(object, NOTICE_REASON_NAME, getNoticeReason());
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, NOTICE_TYPE_NAME, getNoticeType());
+		addJson(writer, NOTICE_REASON_NAME, getNoticeReason());
 		if (getNoticeDate() != null) {
-			addJson(object, NOTICE_DATE_NAME, getNoticeDate().toXMLFormat());
+			addJson(writer, NOTICE_DATE_NAME, getNoticeDate().toXMLFormat());
 		}
-		addJson(object, UNREGISTERED_NOTICE_TYPE_NAME, getUnregisteredNoticeType());
-		addJson(object, EXTERNAL_NOTICE_NAME, isExternalReference());
-		return (object);
+		addJson(writer, UNREGISTERED_NOTICE_TYPE_NAME, getUnregisteredNoticeType());
+		addJson(writer, EXTERNAL_NOTICE_NAME, isExternalReference());
 	}
 	
 	/**
@@ -278,25 +304,20 @@ public final class NoticeAttributes extends AbstractAttributeGroup {
 	}
 	
 	/**
-	 * @see AbstractAttributeGroup#getHTMLTextOutput(OutputFormat, String)
+	 * @see AbstractAttributeGroup#writeHTMLText(Appendable, OutputFormat, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = Util.getNonNullString(prefix);
-		StringBuffer text = new StringBuffer();
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + NOTICE_TYPE_NAME, getNoticeType()));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + NOTICE_REASON_NAME, getNoticeReason()));
+		addHTMLText(text, format, localPrefix, NOTICE_TYPE_NAME, getNoticeType());
+		addHTMLText(text, format, localPrefix, NOTICE_REASON_NAME, getNoticeReason());
 		if (getNoticeDate() != null) {
-			text.append(Resource.buildHTMLTextOutput(format, localPrefix + NOTICE_DATE_NAME, getNoticeDate().toXMLFormat()));
+			addHTMLText(text, format, localPrefix, NOTICE_DATE_NAME, getNoticeDate().toXMLFormat());
 		}
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + UNREGISTERED_NOTICE_TYPE_NAME,
-			getUnregisteredNoticeType()));
+		addHTMLText(text, format, localPrefix, UNREGISTERED_NOTICE_TYPE_NAME, getUnregisteredNoticeType());
 		if (isExternalReference() != null) {
-			text.append(Resource.buildHTMLTextOutput(format, localPrefix + EXTERNAL_NOTICE_NAME,
-				String.valueOf(isExternalReference())));
+			addHTMLText(text, format, localPrefix, EXTERNAL_NOTICE_NAME, String.valueOf(isExternalReference()));
 		}
-
-		return (text.toString());
 	}
 
 	/**
@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.security.ism;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.HashMap;
@@ -36,13 +37,13 @@ import buri.ddmsence.AbstractAttributeGroup;
 import buri.ddmsence.ddms.IBuilder;
 import buri.ddmsence.ddms.InvalidDDMSException;
 import buri.ddmsence.ddms.OutputFormat;
-import buri.ddmsence.ddms.Resource;
+import buri.ddmsence.ddms.security.ClearanceFilter;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.LazyList;
 import buri.ddmsence.util.PropertyReader;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * Attribute group for the ISM markings used throughout DDMS.
@@ -442,13 +443,43 @@ public final class SecurityAttributes extends AbstractAttributeGroup {
 	}
 
 	/**
-	 * Validates the attribute group. Where appropriate the {@link ISMVocabulary} enumerations are validated.
+	 * Validates the attribute group. Where appropriate the {@link ISMVocabulary} enumerations are validated. The
+	 * outcome is remembered, so identical attribute groups are only validated once.
 	 * 
 	 * @param version the DDMS version to validate against. This cannot be stored in the attribute group because some
 	 *        DDMSVersions have the same attribute XML namespace (e.g. XLink, ISM, NTK, GML after DDMS 2.0).
 	 * @throws InvalidDDMSException if any required information is missing or malformed
+	 * @see AttributeValidationCache
 	 */
 	protected void validate(DDMSVersion version) throws InvalidDDMSException {
+		if (isEmpty()) {
+			validateValues(version);
+			return;
+		}
+		AttributeValidationCache.Key key = AttributeValidationCache.getKey(getClass(), version, _atomicEnergyMarkings,
+			_classification, _classificationReason, _classifiedBy, _compilationReason, _dateOfExemptedSource,
+			_declassDate, _declassEvent, _declassException, _declassManualReview, _derivativelyClassifiedBy,
+			_derivedFrom, _displayOnlyTo, _disseminationControls, _FGIsourceOpen, _FGIsourceProtected, _nonICmarkings,
+			_nonUSControls, _ownerProducers, _releasableTo, _SARIdentifier, _SCIcontrols, _typeOfExemptedSource);
+		if (AttributeValidationCache.replay(key, getWarnings()))
+			return;
+		try {
+			validateValues(version);
+		}
+		catch (InvalidDDMSException e) {
+			AttributeValidationCache.record(key, e, null);
+			throw (e);
+		}
+		AttributeValidationCache.record(key, null, getWarnings());
+	}
+
+	/**
+	 * Validates the attribute values against the rules of a DDMS version and the {@link ISMVocabulary} enumerations.
+	 * 
+	 * @param version the DDMS version to validate against
+	 * @throws InvalidDDMSException if any required information is missing or malformed
+	 */
+	private void validateValues(DDMSVersion version) throws InvalidDDMSException {
 		boolean isDDMS20 = "2.0".equals(version.getVersion());
 		boolean isAtLeast30 = version.isAtLeast("3.0");
 		boolean isAtLeast31 = version.isAtLeast("3.1");
@@ -536,39 +567,80 @@ public final class SecurityAttributes extends AbstractAttributeGroup {
 		if (getOwnerProducers().size() == 0)
 			throw new InvalidDDMSException("At least 1 ownerProducer must exist.");
 	}
+
+	/**
+	 * Encodes the classification and list-valued markings of these attributes as bitsets, for fast comparison and
+	 * compact storage.
+	 * 
+	 * @param version the DDMS version of the component which owns these attributes. This cannot be taken from the
+	 *        attribute group because some DDMSVersions have the same ISM namespace.
+	 * @return the encoded markings
+	 * @throws IllegalArgumentException if the version does not use the ISM namespace of these attributes
+	 * @see EncodedMarkings
+	 * @since 2.5.0
+	 */
+	public EncodedMarkings getEncodedMarkings(DDMSVersion version) {
+		Util.requireValue("version", version);
+		if (!version.getIsmNamespace().equals(getNamespace()))
+			throw new IllegalArgumentException(INCOMPATIBLE_VERSION_MESSAGE);
+		return (EncodedMarkings.encode(version, this));
+	}
 	
 	/**
-	 * @see AbstractAttributeGroup#getJSONObject()
+	 * While a ClearanceFilter is writing these attributes as the banner of a Resource, the classification and the
+	 * encoded markings are replaced with the roll-up of the visible portions. The attributes which only explain the
+	 * classification of the banner, such as the classification reason and declassification date, are left out if the
+	 * rolled-up classification is different.
+	 * 
+	 * @see AbstractAttributeGroup#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, ATOMIC_ENERGY_MARKINGS_NAME, getAtomicEnergyMarkings());
-		addJson(object, CLASSIFICATION_NAME, getClassification());
-		addJson(object, CLASSIFICATION_REASON_NAME, getClassificationReason());
-		addJson(object, CLASSIFIED_BY_NAME, getClassifiedBy());
-		addJson(object, COMPILATION_REASON_NAME, getCompilationReason());
-		if (getDateOfExemptedSource() != null) {
-			addJson(object, DATE_OF_EXEMPTED_SOURCE_NAME, getDateOfExemptedSource().toXMLFormat());
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		SecurityRollup rollup = ClearanceFilter.getBannerRollup(this);
+		boolean explained = (rollup == null || getClassification().equals(rollup.getClassification()));
+		addJson(writer, ATOMIC_ENERGY_MARKINGS_NAME, getTokens(rollup, ATOMIC_ENERGY_MARKINGS_NAME,
+			getAtomicEnergyMarkings()));
+		addJson(writer, CLASSIFICATION_NAME, rollup == null ? getClassification() : rollup.getClassification());
+		if (explained) {
+			addJson(writer, CLASSIFICATION_REASON_NAME, getClassificationReason());
+			addJson(writer, CLASSIFIED_BY_NAME, getClassifiedBy());
+			addJson(writer, COMPILATION_REASON_NAME, getCompilationReason());
+			if (getDateOfExemptedSource() != null) {
+				addJson(writer, DATE_OF_EXEMPTED_SOURCE_NAME, getDateOfExemptedSource().toXMLFormat());
+			}
+			if (getDeclassDate() != null)
+				addJson(writer, DECLASS_DATE_NAME, getDeclassDate().toXMLFormat());
+			addJson(writer, DECLASS_EVENT_NAME, getDeclassEvent());
+			addJson(writer, DECLASS_EXCEPTION_NAME, getDeclassException());
+			addJson(writer, DECLASS_MANUAL_REVIEW_NAME, getDeclassManualReview());
+			addJson(writer, DERIVATIVELY_CLASSIFIED_BY_NAME, getDerivativelyClassifiedBy());
+			addJson(writer, DERIVED_FROM_NAME, getDerivedFrom());
 		}
-		if (getDeclassDate() != null)
-			addJson(object, DECLASS_DATE_NAME, getDeclassDate().toXMLFormat());
-		addJson(object, DECLASS_EVENT_NAME, getDeclassEvent());
-		addJson(object, DECLASS_EXCEPTION_NAME, getDeclassException());
-		addJson(object, DECLASS_MANUAL_REVIEW_NAME, getDeclassManualReview());
-		addJson(object, DERIVATIVELY_CLASSIFIED_BY_NAME, getDerivativelyClassifiedBy());
-		addJson(object, DERIVED_FROM_NAME, getDerivedFrom());
-		addJson(object, DISPLAY_ONLY_TO_NAME, getDisplayOnlyTo());
-		addJson(object, DISSEMINATION_CONTROLS_NAME, getDisseminationControls());
-		addJson(object, FGI_SOURCE_OPEN_NAME, getFGIsourceOpen());
-		addJson(object, FGI_SOURCE_PROTECTED_NAME, getFGIsourceProtected());
-		addJson(object, NON_IC_MARKINGS_NAME, getNonICmarkings());
-		addJson(object, NON_US_CONTROLS_NAME, getNonUSControls());
-		addJson(object, OWNER_PRODUCER_NAME, getOwnerProducers());
-		addJson(object, RELEASABLE_TO_NAME, getReleasableTo());
-		addJson(object, SAR_IDENTIFIER_NAME, getSARIdentifier());
-		addJson(object, SCI_CONTROLS_NAME, getSCIcontrols());
-		addJson(object, TYPE_OF_EXEMPTED_SOURCE_NAME, getTypeOfExemptedSource());
-		return (object);
+		addJson(writer, DISPLAY_ONLY_TO_NAME, getTokens(rollup, DISPLAY_ONLY_TO_NAME, getDisplayOnlyTo()));
+		addJson(writer, DISSEMINATION_CONTROLS_NAME, getTokens(rollup, DISSEMINATION_CONTROLS_NAME,
+			getDisseminationControls()));
+		addJson(writer, FGI_SOURCE_OPEN_NAME, getTokens(rollup, FGI_SOURCE_OPEN_NAME, getFGIsourceOpen()));
+		addJson(writer, FGI_SOURCE_PROTECTED_NAME, getTokens(rollup, FGI_SOURCE_PROTECTED_NAME,
+			getFGIsourceProtected()));
+		addJson(writer, NON_IC_MARKINGS_NAME, getTokens(rollup, NON_IC_MARKINGS_NAME, getNonICmarkings()));
+		addJson(writer, NON_US_CONTROLS_NAME, getTokens(rollup, NON_US_CONTROLS_NAME, getNonUSControls()));
+		addJson(writer, OWNER_PRODUCER_NAME, getTokens(rollup, OWNER_PRODUCER_NAME, getOwnerProducers()));
+		addJson(writer, RELEASABLE_TO_NAME, getTokens(rollup, RELEASABLE_TO_NAME, getReleasableTo()));
+		addJson(writer, SAR_IDENTIFIER_NAME, getTokens(rollup, SAR_IDENTIFIER_NAME, getSARIdentifier()));
+		addJson(writer, SCI_CONTROLS_NAME, getTokens(rollup, SCI_CONTROLS_NAME, getSCIcontrols()));
+		if (explained)
+			addJson(writer, TYPE_OF_EXEMPTED_SOURCE_NAME, getTypeOfExemptedSource());
+	}
+
+	/**
+	 * Returns the tokens of one encoded marking to write, from a roll-up if there is one.
+	 * 
+	 * @param rollup the roll-up which replaces these attributes, or null
+	 * @param name the local name of the attribute
+	 * @param tokens the tokens of these attributes
+	 * @return the tokens to write
+	 */
+	private static List<String> getTokens(SecurityRollup rollup, String name, List<String> tokens) {
+		return (rollup == null ? tokens : rollup.getTokens(name));
 	}
 	
 	/**
@@ -579,47 +651,40 @@ public final class SecurityAttributes extends AbstractAttributeGroup {
 	}
 	
 	/**
-	 * @see AbstractAttributeGroup#getHTMLTextOutput(OutputFormat, String)
+	 * @see AbstractAttributeGroup#writeHTMLText(Appendable, OutputFormat, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = Util.getNonNullString(prefix);
-		StringBuffer text = new StringBuffer();
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + ATOMIC_ENERGY_MARKINGS_NAME,
-			Util.getXsList(getAtomicEnergyMarkings())));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + CLASSIFICATION_NAME, getClassification()));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + CLASSIFICATION_REASON_NAME, getClassificationReason()));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + CLASSIFIED_BY_NAME, getClassifiedBy()));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + COMPILATION_REASON_NAME, getCompilationReason()));
+		addHTMLText(text, format, localPrefix, ATOMIC_ENERGY_MARKINGS_NAME, Util.getXsList(getAtomicEnergyMarkings()));
+		addHTMLText(text, format, localPrefix, CLASSIFICATION_NAME, getClassification());
+		addHTMLText(text, format, localPrefix, CLASSIFICATION_REASON_NAME, getClassificationReason());
+		addHTMLText(text, format, localPrefix, CLASSIFIED_BY_NAME, getClassifiedBy());
+		addHTMLText(text, format, localPrefix, COMPILATION_REASON_NAME, getCompilationReason());
 		if (getDateOfExemptedSource() != null) {
-			text.append(Resource.buildHTMLTextOutput(format, localPrefix + DATE_OF_EXEMPTED_SOURCE_NAME,
-				getDateOfExemptedSource().toXMLFormat()));
+			addHTMLText(text, format, localPrefix, DATE_OF_EXEMPTED_SOURCE_NAME,
+				getDateOfExemptedSource().toXMLFormat());
 		}
 		if (getDeclassDate() != null)
-			text.append(Resource.buildHTMLTextOutput(format, localPrefix + DECLASS_DATE_NAME, getDeclassDate().toXMLFormat()));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + DECLASS_EVENT_NAME, getDeclassEvent()));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + DECLASS_EXCEPTION_NAME, getDeclassException()));
+			addHTMLText(text, format, localPrefix, DECLASS_DATE_NAME, getDeclassDate().toXMLFormat());
+		addHTMLText(text, format, localPrefix, DECLASS_EVENT_NAME, getDeclassEvent());
+		addHTMLText(text, format, localPrefix, DECLASS_EXCEPTION_NAME, getDeclassException());
 		if (getDeclassManualReview() != null) {
-			text.append(Resource.buildHTMLTextOutput(format, localPrefix + DECLASS_MANUAL_REVIEW_NAME,
-				getDeclassManualReview().toString()));
-		}
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + DERIVATIVELY_CLASSIFIED_BY_NAME,
-			getDerivativelyClassifiedBy()));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + DERIVED_FROM_NAME, getDerivedFrom()));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + DISPLAY_ONLY_TO_NAME, Util.getXsList(getDisplayOnlyTo())));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + DISSEMINATION_CONTROLS_NAME,
-			Util.getXsList(getDisseminationControls())));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + FGI_SOURCE_OPEN_NAME, Util.getXsList(getFGIsourceOpen())));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + FGI_SOURCE_PROTECTED_NAME,
-			Util.getXsList(getFGIsourceProtected())));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + NON_IC_MARKINGS_NAME, Util.getXsList(getNonICmarkings())));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + NON_US_CONTROLS_NAME, Util.getXsList(getNonUSControls())));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + OWNER_PRODUCER_NAME, Util.getXsList(getOwnerProducers())));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + RELEASABLE_TO_NAME, Util.getXsList(getReleasableTo())));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + SAR_IDENTIFIER_NAME, Util.getXsList(getSARIdentifier())));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + SCI_CONTROLS_NAME, Util.getXsList(getSCIcontrols())));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + TYPE_OF_EXEMPTED_SOURCE_NAME, getTypeOfExemptedSource()));
-		return (text.toString());
+			addHTMLText(text, format, localPrefix, DECLASS_MANUAL_REVIEW_NAME, getDeclassManualReview().toString());
+		}
+		addHTMLText(text, format, localPrefix, DERIVATIVELY_CLASSIFIED_BY_NAME, getDerivativelyClassifiedBy());
+		addHTMLText(text, format, localPrefix, DERIVED_FROM_NAME, getDerivedFrom());
+		addHTMLText(text, format, localPrefix, DISPLAY_ONLY_TO_NAME, Util.getXsList(getDisplayOnlyTo()));
+		addHTMLText(text, format, localPrefix, DISSEMINATION_CONTROLS_NAME, Util.getXsList(getDisseminationControls()));
+		addHTMLText(text, format, localPrefix, FGI_SOURCE_OPEN_NAME, Util.getXsList(getFGIsourceOpen()));
+		addHTMLText(text, format, localPrefix, FGI_SOURCE_PROTECTED_NAME, Util.getXsList(getFGIsourceProtected()));
+		addHTMLText(text, format, localPrefix, NON_IC_MARKINGS_NAME, Util.getXsList(getNonICmarkings()));
+		addHTMLText(text, format, localPrefix, NON_US_CONTROLS_NAME, Util.getXsList(getNonUSControls()));
+		addHTMLText(text, format, localPrefix, OWNER_PRODUCER_NAME, Util.getXsList(getOwnerProducers()));
+		addHTMLText(text, format, localPrefix, RELEASABLE_TO_NAME, Util.getXsList(getReleasableTo()));
+		addHTMLText(text, format, localPrefix, SAR_IDENTIFIER_NAME, Util.getXsList(getSARIdentifier()));
+		addHTMLText(text, format, localPrefix, SCI_CONTROLS_NAME, Util.getXsList(getSCIcontrols()));
+		addHTMLText(text, format, localPrefix, TYPE_OF_EXEMPTED_SOURCE_NAME, getTypeOfExemptedSource());
 	}
 
 	/**
@@ -0,0 +1,216 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.ddms.security.ism;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import buri.ddmsence.AbstractBaseComponent;
+import buri.ddmsence.ddms.InvalidDDMSException;
+import buri.ddmsence.util.DDMSVersion;
+
+/**
+ * The aggregate security markings (the "high-water mark") of a component and everything nested inside it.
+ * 
+ * <p>
+ * The roll-up is computed in a single pass over the security attributes of the component tree, using the
+ * {@link EncodedMarkings} of each set of attributes:
+ * </p>
+ * <ul>
+ * <li>The classification is the highest classification found, as ranked by
+ * {@link ISMVocabulary#getClassificationRank(String)}.</li>
+ * <li>The controls (atomicEnergyMarkings, disseminationControls, FGIsourceOpen, FGIsourceProtected, nonICmarkings,
+ * nonUSControls, ownerProducer, SARIdentifier, and SCIcontrols) are the union of every set of attributes.</li>
+ * <li>The releasability markings (displayOnlyTo and releasableTo) are the intersection of every set of attributes.
+ * Classified attributes without one of them are releasable to no one, so the result has none. Only unclassified
+ * attributes without releasability markings do not restrict the result.</li>
+ * </ul>
+ * 
+ * <p>
+ * The roll-up also records inconsistent markings: any portion classified higher than the component's own
+ * classification, and a roll-up which is both NOFORN and releasable to other countries. These are only reported by
+ * default, but a strict roll-up fails with an InvalidDDMSException instead. The roll-up of a Resource is cached on the
+ * Resource, and is available from {@link buri.ddmsence.ddms.Resource#getSecurityRollup()}.
+ * </p>
+ * 
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public final class SecurityRollup {
+
+	private final EncodedMarkings _markings;
+	private final List<String> _inconsistencies;
+
+	private static final String NOFORN = "NF";
+
+	/**
+	 * Constructor
+	 * 
+	 * @param markings the rolled-up markings, or null if there were no security attributes
+	 * @param inconsistencies descriptions of any inconsistent markings
+	 */
+	private SecurityRollup(EncodedMarkings markings, List<String> inconsistencies) {
+		_markings = markings;
+		_inconsistencies = Collections.unmodifiableList(inconsistencies);
+	}
+
+	/**
+	 * Computes the roll-up of a component and all of the components nested inside it.
+	 * 
+	 * @param component the component
+	 * @param strict true to fail if the markings are inconsistent, false to only record the inconsistencies
+	 * @return the roll-up
+	 * @throws InvalidDDMSException if strict is true and the markings are inconsistent
+	 */
+	public static SecurityRollup rollUp(AbstractBaseComponent component, boolean strict) throws InvalidDDMSException {
+		SecurityRollup rollup = rollUp(component);
+		if (strict)
+			rollup.requireConsistent();
+		return (rollup);
+	}
+
+	/**
+	 * Computes the roll-up of a component, recording rather than rejecting inconsistent markings.
+	 * 
+	 * @param component the component
+	 * @return the roll-up
+	 */
+	public static SecurityRollup rollUp(AbstractBaseComponent component) {
+		return (rollUp(DDMSVersion.getVersionForNamespace(component.getNamespace()),
+			component.getAllSecurityAttributes(), component));
+	}
+
+	/**
+	 * Computes the roll-up of a list of security attributes, such as the portions of a component which remain visible
+	 * to a user. Since there is no enclosing component, portions are not compared against its classification.
+	 * 
+	 * @param version the DDMS version of the components which own the attributes
+	 * @param attributes the security attributes, which must all be from that DDMS version
+	 * @return the roll-up
+	 */
+	public static SecurityRollup rollUp(DDMSVersion version, List<SecurityAttributes> attributes) {
+		return (rollUp(version, attributes, null));
+	}
+
+	/**
+	 * Combines the encoded markings of a list of security attributes. Each set of attributes is encoded once, and the
+	 * classifications are compared by their precomputed ranks. Portions classified higher than the enclosing
+	 * component are recorded, and the result is checked for NOFORN markings which are also releasable to other
+	 * countries.
+	 * 
+	 * @param version the DDMS version of the components which own the attributes
+	 * @param attributes the security attributes
+	 * @param component the enclosing component, or null if there is none
+	 * @return the roll-up
+	 */
+	private static SecurityRollup rollUp(DDMSVersion version, List<SecurityAttributes> attributes,
+		AbstractBaseComponent component) {
+		SecurityAttributes own = (component == null ? null : component.getSecurityAttributes());
+		EncodedMarkings ownMarkings = null;
+		List<EncodedMarkings> portions = new ArrayList<EncodedMarkings>(attributes.size());
+		EncodedMarkings markings = null;
+		for (SecurityAttributes portion : attributes) {
+			if (portion == null || portion.isEmpty())
+				continue;
+			EncodedMarkings encoded = portion.getEncodedMarkings(version);
+			if (portion == own)
+				ownMarkings = encoded;
+			else
+				portions.add(encoded);
+			markings = (markings == null ? encoded : markings.rollUp(encoded));
+		}
+		List<String> inconsistencies = new ArrayList<String>();
+		int ceiling = (ownMarkings == null ? -1 : ownMarkings.getClassificationRank());
+		if (ceiling >= 0) {
+			for (EncodedMarkings portion : portions) {
+				if (portion.getClassificationRank() > ceiling) {
+					inconsistencies.add("A portion is classified " + portion.getClassification()
+						+ ", which is higher than the " + component.getName() + " classification of "
+						+ ownMarkings.getClassification() + ".");
+				}
+			}
+		}
+		if (markings != null && markings.contains(SecurityAttributes.DISSEMINATION_CONTROLS_NAME, NOFORN)
+			&& !markings.getTokens(SecurityAttributes.RELEASABLE_TO_NAME).isEmpty()) {
+			inconsistencies.add("The rolled-up markings are NOFORN, but are also releasable to "
+				+ markings.getTokens(SecurityAttributes.RELEASABLE_TO_NAME) + ".");
+		}
+		return (new SecurityRollup(markings, inconsistencies));
+	}
+
+	/**
+	 * Fails if the rolled-up markings are inconsistent.
+	 * 
+	 * @throws InvalidDDMSException describing the first inconsistency
+	 */
+	public void requireConsistent() throws InvalidDDMSException {
+		if (!isConsistent())
+			throw new InvalidDDMSException(getInconsistencies().get(0));
+	}
+
+	/**
+	 * Checks if the rolled-up markings are consistent.
+	 * 
+	 * @return true if no inconsistencies were found
+	 */
+	public boolean isConsistent() {
+		return (getInconsistencies().isEmpty());
+	}
+
+	/**
+	 * Returns the tokens of one list-valued marking of the roll-up.
+	 * 
+	 * @param name the local name of the attribute, such as "disseminationControls"
+	 * @return an unmodifiable list of tokens
+	 * @throws IllegalArgumentException if the attribute is not one of the encoded attributes
+	 * @see EncodedMarkings#getTokens(String)
+	 */
+	public List<String> getTokens(String name) {
+		if (getMarkings() == null)
+			return (Collections.<String> emptyList());
+		return (getMarkings().getTokens(name));
+	}
+
+	/**
+	 * Accessor for the highest classification
+	 * 
+	 * @return the classification, or an empty string if there is none
+	 */
+	public String getClassification() {
+		return (getMarkings() == null ? "" : getMarkings().getClassification());
+	}
+
+	/**
+	 * Accessor for the rolled-up markings
+	 * 
+	 * @return the markings, or null if there were no security attributes in the component tree
+	 */
+	public EncodedMarkings getMarkings() {
+		return (_markings);
+	}
+
+	/**
+	 * Accessor for the descriptions of any inconsistent markings. Returns an unmodifiable list.
+	 */
+	public List<String> getInconsistencies() {
+		return (_inconsistencies);
+	}
+}
@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.security.ntk;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -37,7 +38,7 @@ import buri.ddmsence.util.LazyList;
 import buri.ddmsence.util.PropertyReader;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ntk:Access.
@@ -79,6 +80,7 @@ public final class Access extends AbstractBaseComponent {
 	private List<Group> _groups = null;
 	private ProfileList _profileList = null;
 	private SecurityAttributes _securityAttributes = null;
+	private volatile CompiledAccess _compiledAccess = null;
 
 	private static final String INDIVIDUAL_LIST_NAME = "AccessIndividualList";
 	private static final String GROUP_LIST_NAME = "AccessGroupList";
@@ -220,46 +222,42 @@ public final class Access extends AbstractBaseComponent {
 	/**
 	 * An extra layer is added around the individualList and groupList, to make the output consistent with the profileList.
 	 * 
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
 		if (!getIndividuals().isEmpty()) {
-			JsonObject individualList = new JsonObject();
-			individualList.add("individual", Util.getJSONArray(getIndividuals()));		
-			addJson(object, "individualList", individualList);
+			writer.name("individualList").beginObject().name("individual");
+			Util.writeJSONArray(writer, getIndividuals());
+			writer.endObject();
 		}
 		
 		if (!getGroups().isEmpty()) {
-			JsonObject groupList = new JsonObject();
-			groupList.add("group", Util.getJSONArray(getGroups()));
-			addJson(object, "groupList", groupList);
+			writer.name("groupList").beginObject().name("group");
+			Util.writeJSONArray(writer, getGroups());
+			writer.endObject();
 		}
 		
-		if (getProfileList() != null)
-			addJson(object, "profileList", getProfileList().getJSONObject());
-		addJson(object, EXTERNAL_REFERENCE_NAME, isExternalReference());
-		addJson(object, getSecurityAttributes());
-		return (object);
+		if (getProfileList() != null) {
+			writer.name("profileList");
+			getProfileList().writeJSON(writer);
+		}
+		addJson(writer, EXTERNAL_REFERENCE_NAME, isExternalReference());
+		addJson(writer, getSecurityAttributes());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, "access", suffix) + ".";
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix + "individualList.", getIndividuals()));
-		text.append(buildHTMLTextOutput(format, localPrefix + "groupList.", getGroups()));
+		addHTMLText(text, format, localPrefix, "individualList.", getIndividuals());
+		addHTMLText(text, format, localPrefix, "groupList.", getGroups());
 		if (getProfileList() != null)
-			text.append(getProfileList().getHTMLTextOutput(format, localPrefix, ""));
+			getProfileList().writeHTMLText(text, format, localPrefix, "");
 		if (isExternalReference() != null)
-			text.append(buildHTMLTextOutput(format, localPrefix + EXTERNAL_REFERENCE_NAME,
-				String.valueOf(isExternalReference())));
-		text.append(getSecurityAttributes().getHTMLTextOutput(format, localPrefix));
-		return (text.toString());
+			addHTMLText(text, format, localPrefix, EXTERNAL_REFERENCE_NAME, String.valueOf(isExternalReference()));
+		getSecurityAttributes().writeHTMLText(text, format, localPrefix);
 	}
 
 	/**
@@ -334,6 +332,23 @@ public final class Access extends AbstractBaseComponent {
 		return (_securityAttributes);
 	}
 
+	/**
+	 * Accessor for the compiled form of this Access, for making need-to-know decisions. The Access is compiled the
+	 * first time this is called, and then reused, since an Access does not change.
+	 * 
+	 * @return the compiled Access
+	 * @see CompiledAccess
+	 * @since 2.5.0
+	 */
+	public CompiledAccess getCompiledAccess() {
+		CompiledAccess compiledAccess = _compiledAccess;
+		if (compiledAccess == null) {
+			compiledAccess = CompiledAccess.compile(this);
+			_compiledAccess = compiledAccess;
+		}
+		return (compiledAccess);
+	}
+
 	/**
 	 * Builder for this DDMS component.
 	 * 
@@ -0,0 +1,164 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.ddms.security.ntk;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import buri.ddmsence.AbstractNtkString;
+import buri.ddmsence.util.Util;
+
+/**
+ * An ntk:Access element compiled into hash lookups, for making many access decisions against it.
+ *
+ * <p>
+ * Compiling reads the individuals, groups and profiles of the Access once, indexing their values by system name (and
+ * by vocabulary, for profiles). A subject is granted access if it holds any individual identity, group or profile
+ * listed in the Access for the same system. An Access which lists no one grants access to no one.
+ * </p>
+ *
+ * <p>
+ * A compiled Access is immutable and can be shared across threads. Decisions do not touch the underlying XOM
+ * elements and do not allocate, so they can be made for every record returned by a search. The compiled form of an
+ * Access is cached on the Access, and is available from {@link Access#getCompiledAccess()}.
+ * </p>
+ *
+ * @see NtkSubject
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public final class CompiledAccess {
+
+	private final Map<String, Set<String>> _individuals = new HashMap<String, Set<String>>();
+	private final Map<String, Set<String>> _groups = new HashMap<String, Set<String>>();
+	private final Map<String, Map<String, Set<String>>> _profiles = new HashMap<String, Map<String, Set<String>>>();
+
+	/**
+	 * Constructor
+	 *
+	 * @param access the Access to compile
+	 */
+	private CompiledAccess(Access access) {
+		for (Individual individual : access.getIndividuals()) {
+			for (IndividualValue value : individual.getIndividualValues())
+				index(_individuals, getSystem(individual.getSystemName()), value);
+		}
+		for (Group group : access.getGroups()) {
+			for (GroupValue value : group.getGroupValues())
+				index(_groups, getSystem(group.getSystemName()), value);
+		}
+		if (access.getProfileList() != null) {
+			for (Profile profile : access.getProfileList().getProfiles()) {
+				String system = getSystem(profile.getSystemName());
+				Map<String, Set<String>> vocabularies = _profiles.get(system);
+				if (vocabularies == null) {
+					vocabularies = new HashMap<String, Set<String>>();
+					_profiles.put(system, vocabularies);
+				}
+				for (ProfileValue value : profile.getProfileValues())
+					index(vocabularies, Util.getNonNullString(value.getVocabulary()), value);
+			}
+		}
+	}
+
+	/**
+	 * Compiles an Access. Callers which evaluate the same Access repeatedly should use
+	 * {@link Access#getCompiledAccess()} instead, which compiles it only once.
+	 *
+	 * @param access the Access
+	 * @return the compiled Access
+	 */
+	public static CompiledAccess compile(Access access) {
+		Util.requireValue("access", access);
+		return (new CompiledAccess(access));
+	}
+
+	/**
+	 * Adds a value to the set of values for a key.
+	 *
+	 * @param index the index to add to
+	 * @param key the key
+	 * @param value the component holding the value
+	 */
+	private static void index(Map<String, Set<String>> index, String key, AbstractNtkString value) {
+		Set<String> values = index.get(key);
+		if (values == null) {
+			values = new HashSet<String>();
+			index.put(key, values);
+		}
+		values.add(value.getValue());
+	}
+
+	/**
+	 * Returns the value of a system name, or an empty string if there is none.
+	 *
+	 * @param systemName the system name
+	 * @return the value
+	 */
+	private static String getSystem(SystemName systemName) {
+		return (systemName == null ? "" : Util.getNonNullString(systemName.getValue()));
+	}
+
+	/**
+	 * Checks if a subject has the need-to-know to access this resource.
+	 *
+	 * @param subject the subject
+	 * @return true if the subject holds an individual identity, group or profile listed in the Access
+	 */
+	public boolean isGranted(NtkSubject subject) {
+		Util.requireValue("subject", subject);
+		if (!_individuals.isEmpty()) {
+			for (int i = 0; i < subject.getIndividualCount(); i++) {
+				Set<String> values = _individuals.get(subject.getIndividualSystem(i));
+				if (values != null && values.contains(subject.getIndividualValue(i)))
+					return (true);
+			}
+		}
+		if (!_groups.isEmpty()) {
+			for (int i = 0; i < subject.getGroupCount(); i++) {
+				Set<String> values = _groups.get(subject.getGroupSystem(i));
+				if (values != null && values.contains(subject.getGroupValue(i)))
+					return (true);
+			}
+		}
+		if (!_profiles.isEmpty()) {
+			for (int i = 0; i < subject.getProfileCount(); i++) {
+				Map<String, Set<String>> vocabularies = _profiles.get(subject.getProfileSystem(i));
+				if (vocabularies == null)
+					continue;
+				Set<String> values = vocabularies.get(subject.getProfileVocabulary(i));
+				if (values != null && values.contains(subject.getProfileValue(i)))
+					return (true);
+			}
+		}
+		return (false);
+	}
+
+	/**
+	 * Checks if this Access lists no individuals, groups or profiles, and so grants access to no one.
+	 *
+	 * @return true if the Access is empty
+	 */
+	public boolean isEmpty() {
+		return (_individuals.isEmpty() && _groups.isEmpty() && _profiles.isEmpty());
+	}
+}
@@ -0,0 +1,198 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.ddms.security.ntk;
+
+import java.util.Arrays;
+
+import buri.ddmsence.util.Util;
+
+/**
+ * The need-to-know attributes of a user, for evaluating against compiled ntk:Access elements.
+ *
+ * <p>
+ * A subject has the individual identities, groups and profiles which the user holds, each scoped to a system name.
+ * Subjects are immutable: each with- method returns a new subject, so a subject can be built once per user and then
+ * shared across threads. The attributes are held in flat arrays, so that {@link CompiledAccess#isGranted(NtkSubject)}
+ * can walk them without allocating.
+ * </p>
+ *
+ * @see CompiledAccess
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public final class NtkSubject {
+
+	private final String[] _individualSystems;
+	private final String[] _individualValues;
+	private final String[] _groupSystems;
+	private final String[] _groupValues;
+	private final String[] _profileSystems;
+	private final String[] _profileVocabularies;
+	private final String[] _profileValues;
+
+	private static final String[] NO_VALUES = new String[0];
+
+	/**
+	 * A subject with no need-to-know attributes
+	 */
+	public static final NtkSubject EMPTY = new NtkSubject(NO_VALUES, NO_VALUES, NO_VALUES, NO_VALUES, NO_VALUES,
+		NO_VALUES, NO_VALUES);
+
+	/**
+	 * Constructor
+	 */
+	private NtkSubject(String[] individualSystems, String[] individualValues, String[] groupSystems,
+		String[] groupValues, String[] profileSystems, String[] profileVocabularies, String[] profileValues) {
+		_individualSystems = individualSystems;
+		_individualValues = individualValues;
+		_groupSystems = groupSystems;
+		_groupValues = groupValues;
+		_profileSystems = profileSystems;
+		_profileVocabularies = profileVocabularies;
+		_profileValues = profileValues;
+	}
+
+	/**
+	 * Returns a copy of this subject which also holds an individual identity.
+	 *
+	 * @param systemName the system which the identity belongs to
+	 * @param value the identity, such as a user ID
+	 * @return a new subject
+	 */
+	public NtkSubject withIndividual(String systemName, String value) {
+		Util.requireValue("system name", systemName);
+		Util.requireValue("individual value", value);
+		return (new NtkSubject(append(_individualSystems, systemName), append(_individualValues, value),
+			_groupSystems, _groupValues, _profileSystems, _profileVocabularies, _profileValues));
+	}
+
+	/**
+	 * Returns a copy of this subject which is also a member of a group.
+	 *
+	 * @param systemName the system which the group belongs to
+	 * @param value the group
+	 * @return a new subject
+	 */
+	public NtkSubject withGroup(String systemName, String value) {
+		Util.requireValue("system name", systemName);
+		Util.requireValue("group value", value);
+		return (new NtkSubject(_individualSystems, _individualValues, append(_groupSystems, systemName), append(
+			_groupValues, value), _profileSystems, _profileVocabularies, _profileValues));
+	}
+
+	/**
+	 * Returns a copy of this subject which also holds a profile.
+	 *
+	 * @param systemName the system which the profile belongs to
+	 * @param vocabulary the vocabulary of the profile value, which may be null
+	 * @param value the profile value
+	 * @return a new subject
+	 */
+	public NtkSubject withProfile(String systemName, String vocabulary, String value) {
+		Util.requireValue("system name", systemName);
+		Util.requireValue("profile value", value);
+		return (new NtkSubject(_individualSystems, _individualValues, _groupSystems, _groupValues, append(
+			_profileSystems, systemName), append(_profileVocabularies, Util.getNonNullString(vocabulary)), append(
+			_profileValues, value)));
+	}
+
+	/**
+	 * Returns a copy of an array with one more value at the end.
+	 *
+	 * @param values the array
+	 * @param value the value to add
+	 * @return a new array
+	 */
+	private static String[] append(String[] values, String value) {
+		String[] copy = Arrays.copyOf(values, values.length + 1);
+		copy[values.length] = value;
+		return (copy);
+	}
+
+	/**
+	 * Accessor for the number of individual identities
+	 */
+	int getIndividualCount() {
+		return (_individualSystems.length);
+	}
+
+	/**
+	 * Accessor for the system name of an individual identity
+	 */
+	String getIndividualSystem(int index) {
+		return (_individualSystems[index]);
+	}
+
+	/**
+	 * Accessor for the value of an individual identity
+	 */
+	String getIndividualValue(int index) {
+		return (_individualValues[index]);
+	}
+
+	/**
+	 * Accessor for the number of groups
+	 */
+	int getGroupCount() {
+		return (_groupSystems.length);
+	}
+
+	/**
+	 * Accessor for the system name of a group
+	 */
+	String getGroupSystem(int index) {
+		return (_groupSystems[index]);
+	}
+
+	/**
+	 * Accessor for the value of a group
+	 */
+	String getGroupValue(int index) {
+		return (_groupValues[index]);
+	}
+
+	/**
+	 * Accessor for the number of profiles
+	 */
+	int getProfileCount() {
+		return (_profileSystems.length);
+	}
+
+	/**
+	 * Accessor for the system name of a profile
+	 */
+	String getProfileSystem(int index) {
+		return (_profileSystems[index]);
+	}
+
+	/**
+	 * Accessor for the vocabulary of a profile, which is an empty string if the profile has none
+	 */
+	String getProfileVocabulary(int index) {
+		return (_profileVocabularies[index]);
+	}
+
+	/**
+	 * Accessor for the value of a profile
+	 */
+	String getProfileValue(int index) {
+		return (_profileValues[index]);
+	}
+}
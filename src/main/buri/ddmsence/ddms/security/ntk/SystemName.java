@@ -19,6 +19,8 @@
  */
 package buri.ddmsence.ddms.security.ntk;
 
+import java.io.IOException;
+
 import nu.xom.Element;
 import buri.ddmsence.AbstractBaseComponent;
 import buri.ddmsence.AbstractNtkString;
@@ -29,7 +31,7 @@ import buri.ddmsence.ddms.security.ism.SecurityAttributes;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ntk:AccessSystemName.
@@ -99,31 +101,27 @@ public final class SystemName extends AbstractNtkString {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, "systemName", getValue());
-		addJson(object, "id", getID());
-		addJson(object, "idReference", getIDReference());
-		addJson(object, "qualifier", getQualifier());
-		addJson(object, getSecurityAttributes());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, "systemName", getValue());
+		addJson(writer, "id", getID());
+		addJson(writer, "idReference", getIDReference());
+		addJson(writer, "qualifier", getQualifier());
+		addJson(writer, getSecurityAttributes());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, "systemName", suffix);
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix, getValue()));
-		text.append(buildHTMLTextOutput(format, localPrefix + ".id", getID()));
-		text.append(buildHTMLTextOutput(format, localPrefix + ".idReference", getIDReference()));
-		text.append(buildHTMLTextOutput(format, localPrefix + ".qualifier", getQualifier()));
-		text.append(getSecurityAttributes().getHTMLTextOutput(format, localPrefix + "."));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, getValue());
+		addHTMLText(text, format, localPrefix, ".id", getID());
+		addHTMLText(text, format, localPrefix, ".idReference", getIDReference());
+		addHTMLText(text, format, localPrefix, ".qualifier", getQualifier());
+		getSecurityAttributes().writeHTMLText(text, format, localPrefix + ".");
 	}
 
 	/**
@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.summary;
 
+import java.io.IOException;
 import java.io.Serializable;
 
 import nu.xom.Element;
@@ -29,7 +30,7 @@ import buri.ddmsence.ddms.OutputFormat;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:boundingBox.
@@ -139,29 +140,25 @@ public final class BoundingBox extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, getWestBLName(), getWestBL());
-		addJson(object, getEastBLName(), getEastBL());
-		addJson(object, getSouthBLName(), getSouthBL());
-		addJson(object, getNorthBLName(), getNorthBL());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, getWestBLName(), getWestBL());
+		addJson(writer, getEastBLName(), getEastBL());
+		addJson(writer, getSouthBLName(), getSouthBL());
+		addJson(writer, getNorthBLName(), getNorthBL());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix + getWestBLName(), String.valueOf(getWestBL())));
-		text.append(buildHTMLTextOutput(format, localPrefix + getEastBLName(), String.valueOf(getEastBL())));
-		text.append(buildHTMLTextOutput(format, localPrefix + getSouthBLName(), String.valueOf(getSouthBL())));
-		text.append(buildHTMLTextOutput(format, localPrefix + getNorthBLName(), String.valueOf(getNorthBL())));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, getWestBLName(), String.valueOf(getWestBL()));
+		addHTMLText(text, format, localPrefix, getEastBLName(), String.valueOf(getEastBL()));
+		addHTMLText(text, format, localPrefix, getSouthBLName(), String.valueOf(getSouthBL()));
+		addHTMLText(text, format, localPrefix, getNorthBLName(), String.valueOf(getNorthBL()));
 	}
 
 	/**
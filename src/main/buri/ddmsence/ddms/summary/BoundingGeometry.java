@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.summary;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -41,7 +42,7 @@ import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.LazyList;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:boundingGeometry.
@@ -209,37 +210,33 @@ public final class BoundingGeometry extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
 		if (!getDDMSVersion().isAtLeast("5.0")) {
-			addJson(object, "polygon", getGmlPolygons());
-			addJson(object, "point", getGmlPoints());
+			addJson(writer, "polygon", getGmlPolygons());
+			addJson(writer, "point", getGmlPoints());
 		}
 		else {
 			for (ITspiShape shape : getTspiShapes())
-				addJson(object, (AbstractBaseComponent) shape);
+				addJson(writer, (AbstractBaseComponent) shape);
 		}
-		return (object);
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
 		if (!getDDMSVersion().isAtLeast("5.0")) {
-			text.append(buildHTMLTextOutput(format, localPrefix, getGmlPolygons()));
-			text.append(buildHTMLTextOutput(format, localPrefix, getGmlPoints()));
+			addHTMLText(text, format, localPrefix, getGmlPolygons());
+			addHTMLText(text, format, localPrefix, getGmlPoints());
 		}
 		else {
 			for (ITspiShape shape : getTspiShapes())
-				text.append(shape.getHTMLTextOutput(format, localPrefix, ""));
+				shape.writeHTMLText(text, format, localPrefix, "");
 		}
-		return (text.toString());
 	}
 
 	/**
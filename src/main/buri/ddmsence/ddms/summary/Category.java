@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.summary;
 
+import java.io.IOException;
 import java.io.Serializable;
 
 import nu.xom.Element;
@@ -31,7 +32,7 @@ import buri.ddmsence.ddms.security.ism.SecurityAttributes;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:category.
@@ -156,31 +157,27 @@ public final class Category extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, QUALIFIER_NAME, getQualifier());
-		addJson(object, CODE_NAME, getCode());
-		addJson(object, LABEL_NAME, getLabel());
-		addJson(object, getSecurityAttributes());
-		addJson(object, getExtensibleAttributes());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, QUALIFIER_NAME, getQualifier());
+		addJson(writer, CODE_NAME, getCode());
+		addJson(writer, LABEL_NAME, getLabel());
+		addJson(writer, getSecurityAttributes());
+		addJson(writer, getExtensibleAttributes());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix + QUALIFIER_NAME, getQualifier()));
-		text.append(buildHTMLTextOutput(format, localPrefix + CODE_NAME, getCode()));
-		text.append(buildHTMLTextOutput(format, localPrefix + LABEL_NAME, getLabel()));
-		text.append(getSecurityAttributes().getHTMLTextOutput(format, localPrefix));
-		text.append(getExtensibleAttributes().getHTMLTextOutput(format, localPrefix));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, QUALIFIER_NAME, getQualifier());
+		addHTMLText(text, format, localPrefix, CODE_NAME, getCode());
+		addHTMLText(text, format, localPrefix, LABEL_NAME, getLabel());
+		getSecurityAttributes().writeHTMLText(text, format, localPrefix);
+		getExtensibleAttributes().writeHTMLText(text, format, localPrefix);
 	}
 
 	/**
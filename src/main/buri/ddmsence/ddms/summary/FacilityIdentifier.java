@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.summary;
 
+import java.io.IOException;
 import java.io.Serializable;
 
 import nu.xom.Element;
@@ -29,7 +30,7 @@ import buri.ddmsence.ddms.OutputFormat;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:facilityIdentifier.
@@ -104,25 +105,21 @@ public final class FacilityIdentifier extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, BE_NUMBER_NAME, getBeNumber());
-		addJson(object, OSUFFIX_NAME, getOsuffix());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, BE_NUMBER_NAME, getBeNumber());
+		addJson(writer, OSUFFIX_NAME, getOsuffix());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix + BE_NUMBER_NAME, getBeNumber()));
-		text.append(buildHTMLTextOutput(format, localPrefix + OSUFFIX_NAME, getOsuffix()));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, BE_NUMBER_NAME, getBeNumber());
+		addHTMLText(text, format, localPrefix, OSUFFIX_NAME, getOsuffix());
 	}
 
 	/**
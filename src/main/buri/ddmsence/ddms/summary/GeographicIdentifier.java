@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.summary;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -34,7 +35,7 @@ import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.LazyList;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:geographicIdentifier.
@@ -242,34 +243,30 @@ public final class GeographicIdentifier extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, NAME_NAME, getNames());
-		addJson(object, REGION_NAME, getRegions());
-		addJson(object, getCountryCode());
-		addJson(object, getSubDivisionCode());
-		addJson(object, getFacilityIdentifier());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, NAME_NAME, getNames());
+		addJson(writer, REGION_NAME, getRegions());
+		addJson(writer, getCountryCode());
+		addJson(writer, getSubDivisionCode());
+		addJson(writer, getFacilityIdentifier());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix + NAME_NAME, getNames()));
-		text.append(buildHTMLTextOutput(format, localPrefix + REGION_NAME, getRegions()));
+		addHTMLText(text, format, localPrefix, NAME_NAME, getNames());
+		addHTMLText(text, format, localPrefix, REGION_NAME, getRegions());
 		if (getCountryCode() != null)
-			text.append(getCountryCode().getHTMLTextOutput(format, localPrefix, ""));
+			getCountryCode().writeHTMLText(text, format, localPrefix, "");
 		if (getSubDivisionCode() != null)
-			text.append(getSubDivisionCode().getHTMLTextOutput(format, localPrefix, ""));
+			getSubDivisionCode().writeHTMLText(text, format, localPrefix, "");
 		if (hasFacilityIdentifier())
-			text.append(getFacilityIdentifier().getHTMLTextOutput(format, localPrefix, ""));
-		return (text.toString());
+			getFacilityIdentifier().writeHTMLText(text, format, localPrefix, "");
 	}
 
 	/**
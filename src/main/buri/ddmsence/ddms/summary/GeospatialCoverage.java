@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.summary;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -34,7 +35,7 @@ import buri.ddmsence.ddms.security.ism.SecurityAttributes;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:geospatialCoverage.
@@ -259,45 +260,41 @@ public final class GeospatialCoverage extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, getGeographicIdentifier());
-		addJson(object, getBoundingBox());
-		addJson(object, getBoundingGeometry());
-		addJson(object, getPostalAddress());
-		addJson(object, getVerticalExtent());
-		addJson(object, PRECEDENCE_NAME, getPrecedence());
-		addJson(object, ORDER_NAME, getOrder());
-		addJson(object, getSecurityAttributes());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, getGeographicIdentifier());
+		addJson(writer, getBoundingBox());
+		addJson(writer, getBoundingGeometry());
+		addJson(writer, getPostalAddress());
+		addJson(writer, getVerticalExtent());
+		addJson(writer, PRECEDENCE_NAME, getPrecedence());
+		addJson(writer, ORDER_NAME, getOrder());
+		addJson(writer, getSecurityAttributes());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
 		if (!getDDMSVersion().isAtLeast("4.0.1"))
 			localPrefix += GEOSPATIAL_EXTENT_NAME + ".";
-		StringBuffer text = new StringBuffer();
 		if (getGeographicIdentifier() != null)
-			text.append(getGeographicIdentifier().getHTMLTextOutput(format, localPrefix, ""));
+			getGeographicIdentifier().writeHTMLText(text, format, localPrefix, "");
 		if (getBoundingBox() != null)
-			text.append(getBoundingBox().getHTMLTextOutput(format, localPrefix, ""));
+			getBoundingBox().writeHTMLText(text, format, localPrefix, "");
 		if (getBoundingGeometry() != null)
-			text.append(getBoundingGeometry().getHTMLTextOutput(format, localPrefix, ""));
+			getBoundingGeometry().writeHTMLText(text, format, localPrefix, "");
 		if (getPostalAddress() != null)
-			text.append(getPostalAddress().getHTMLTextOutput(format, localPrefix, ""));
+			getPostalAddress().writeHTMLText(text, format, localPrefix, "");
 		if (getVerticalExtent() != null)
-			text.append(getVerticalExtent().getHTMLTextOutput(format, localPrefix, ""));
-		text.append(buildHTMLTextOutput(format, localPrefix + PRECEDENCE_NAME, getPrecedence()));
+			getVerticalExtent().writeHTMLText(text, format, localPrefix, "");
+		addHTMLText(text, format, localPrefix, PRECEDENCE_NAME, getPrecedence());
 		if (getOrder() != null)
-			text.append(buildHTMLTextOutput(format, localPrefix + ORDER_NAME, String.valueOf(getOrder())));
-		text.append(getSecurityAttributes().getHTMLTextOutput(format, localPrefix));
-		return (text.toString());
+			addHTMLText(text, format, localPrefix, ORDER_NAME, String.valueOf(getOrder()));
+		getSecurityAttributes().writeHTMLText(text, format, localPrefix);
 	}
 
 	/**
@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.summary;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -44,7 +45,7 @@ import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.LazyList;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:postalAddress.
@@ -295,45 +296,41 @@ public final class PostalAddress extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
 		if (!getDDMSVersion().isAtLeast("5.0")) {
-			addJson(object, STREET_NAME, getStreets());
-			addJson(object, CITY_NAME, getCity());
-			addJson(object, STATE_NAME, getState());
-			addJson(object, PROVINCE_NAME, getProvince());
-			addJson(object, POSTAL_CODE_NAME, getPostalCode());
-			addJson(object, getCountryCode());
+			addJson(writer, STREET_NAME, getStreets());
+			addJson(writer, CITY_NAME, getCity());
+			addJson(writer, STATE_NAME, getState());
+			addJson(writer, PROVINCE_NAME, getProvince());
+			addJson(writer, POSTAL_CODE_NAME, getPostalCode());
+			addJson(writer, getCountryCode());
 		}
 		else {
 			AbstractBaseComponent tspi = (AbstractBaseComponent) getTspiAddress();
-			addJson(object, "addressType", tspi.getJSONObject().get("addressType").getAsString());
+			addJson(writer, "addressType", tspi.getJSONObject().get("addressType").getAsString());
 		}
-		return (object);
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
 		if (!getDDMSVersion().isAtLeast("5.0")) {
-			text.append(buildHTMLTextOutput(format, localPrefix + STREET_NAME, getStreets()));
-			text.append(buildHTMLTextOutput(format, localPrefix + CITY_NAME, getCity()));
-			text.append(buildHTMLTextOutput(format, localPrefix + STATE_NAME, getState()));
-			text.append(buildHTMLTextOutput(format, localPrefix + PROVINCE_NAME, getProvince()));
-			text.append(buildHTMLTextOutput(format, localPrefix + POSTAL_CODE_NAME, getPostalCode()));
+			addHTMLText(text, format, localPrefix, STREET_NAME, getStreets());
+			addHTMLText(text, format, localPrefix, CITY_NAME, getCity());
+			addHTMLText(text, format, localPrefix, STATE_NAME, getState());
+			addHTMLText(text, format, localPrefix, PROVINCE_NAME, getProvince());
+			addHTMLText(text, format, localPrefix, POSTAL_CODE_NAME, getPostalCode());
 			if (getCountryCode() != null)
-				text.append(getCountryCode().getHTMLTextOutput(format, localPrefix, ""));
+				getCountryCode().writeHTMLText(text, format, localPrefix, "");
 		}
 		else {
-			text.append(getTspiAddress().getHTMLTextOutput(format, localPrefix, ""));
+			getTspiAddress().writeHTMLText(text, format, localPrefix, "");
 		}
-		return (text.toString());
 	}
 
 	/**
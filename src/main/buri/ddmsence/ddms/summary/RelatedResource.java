@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.summary;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -38,7 +39,7 @@ import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.LazyList;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of the ddms:relatedResource component.
@@ -231,35 +232,31 @@ public final class RelatedResource extends AbstractQualifierValue {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, RELATIONSHIP_NAME, getRelationship());
-		addJson(object, DIRECTION_NAME, getDirection());
-		addJson(object, getQualifierName(), getQualifier());
-		addJson(object, getValueName(), getValue());
-		addJson(object, Link.getName(getDDMSVersion()), getLinks());
-		addJson(object, getSecurityAttributes());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, RELATIONSHIP_NAME, getRelationship());
+		addJson(writer, DIRECTION_NAME, getDirection());
+		addJson(writer, getQualifierName(), getQualifier());
+		addJson(writer, getValueName(), getValue());
+		addJson(writer, Link.getName(getDDMSVersion()), getLinks());
+		addJson(writer, getSecurityAttributes());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
 		if (!DDMSVersion.getCurrentVersion().isAtLeast("4.0.1"))
 			localPrefix += "RelatedResource.";
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix + RELATIONSHIP_NAME, getRelationship()));
-		text.append(buildHTMLTextOutput(format, localPrefix + DIRECTION_NAME, getDirection()));
-		text.append(buildHTMLTextOutput(format, localPrefix + getQualifierName(), getQualifier()));
-		text.append(buildHTMLTextOutput(format, localPrefix + getValueName(), getValue()));
-		text.append(buildHTMLTextOutput(format, localPrefix, getLinks()));
-		text.append(getSecurityAttributes().getHTMLTextOutput(format, localPrefix));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, RELATIONSHIP_NAME, getRelationship());
+		addHTMLText(text, format, localPrefix, DIRECTION_NAME, getDirection());
+		addHTMLText(text, format, localPrefix, getQualifierName(), getQualifier());
+		addHTMLText(text, format, localPrefix, getValueName(), getValue());
+		addHTMLText(text, format, localPrefix, getLinks());
+		getSecurityAttributes().writeHTMLText(text, format, localPrefix);
 	}
 
 	/**
@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.summary;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -39,7 +40,7 @@ import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.LazyList;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:subjectCoverage.
@@ -224,33 +225,29 @@ public final class SubjectCoverage extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, Keyword.getName(getDDMSVersion()), getKeywords());
-		addJson(object, Category.getName(getDDMSVersion()), getCategories());
-		addJson(object, ProductionMetric.getName(getDDMSVersion()), getProductionMetrics());
-		addJson(object, NonStateActor.getName(getDDMSVersion()), getNonStateActors());
-		addJson(object, getSecurityAttributes());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, Keyword.getName(getDDMSVersion()), getKeywords());
+		addJson(writer, Category.getName(getDDMSVersion()), getCategories());
+		addJson(writer, ProductionMetric.getName(getDDMSVersion()), getProductionMetrics());
+		addJson(writer, NonStateActor.getName(getDDMSVersion()), getNonStateActors());
+		addJson(writer, getSecurityAttributes());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
 		if (!getDDMSVersion().isAtLeast("4.0.1"))
 			localPrefix += SUBJECT_NAME + ".";
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix, getKeywords()));
-		text.append(buildHTMLTextOutput(format, localPrefix, getCategories()));
-		text.append(buildHTMLTextOutput(format, localPrefix, getProductionMetrics()));
-		text.append(buildHTMLTextOutput(format, localPrefix, getNonStateActors()));
-		text.append(getSecurityAttributes().getHTMLTextOutput(format, localPrefix));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, getKeywords());
+		addHTMLText(text, format, localPrefix, getCategories());
+		addHTMLText(text, format, localPrefix, getProductionMetrics());
+		addHTMLText(text, format, localPrefix, getNonStateActors());
+		getSecurityAttributes().writeHTMLText(text, format, localPrefix);
 	}
 
 	/**
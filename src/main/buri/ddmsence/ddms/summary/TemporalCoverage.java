@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.summary;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -39,7 +40,7 @@ import buri.ddmsence.ddms.security.ism.SecurityAttributes;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:temporalCoverage.
@@ -302,37 +303,33 @@ public final class TemporalCoverage extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, TIME_PERIOD_NAME_NAME, getTimePeriodName());
-		addJson(object, START_NAME, getStartString());
-		addJson(object, END_NAME, getEndString());
-		addJson(object, getApproximableStart());
-		addJson(object, getApproximableEnd());
-		addJson(object, getSecurityAttributes());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, TIME_PERIOD_NAME_NAME, getTimePeriodName());
+		addJson(writer, START_NAME, getStartString());
+		addJson(writer, END_NAME, getEndString());
+		addJson(writer, getApproximableStart());
+		addJson(writer, getApproximableEnd());
+		addJson(writer, getSecurityAttributes());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
 		if (!getDDMSVersion().isAtLeast("4.0.1"))
 			localPrefix += TIME_PERIOD_NAME + ".";
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix + TIME_PERIOD_NAME_NAME, getTimePeriodName()));
-		text.append(buildHTMLTextOutput(format, localPrefix + START_NAME, getStartString()));
-		text.append(buildHTMLTextOutput(format, localPrefix + END_NAME, getEndString()));
+		addHTMLText(text, format, localPrefix, TIME_PERIOD_NAME_NAME, getTimePeriodName());
+		addHTMLText(text, format, localPrefix, START_NAME, getStartString());
+		addHTMLText(text, format, localPrefix, END_NAME, getEndString());
 		if (getApproximableStart() != null)
-			text.append(getApproximableStart().getHTMLTextOutput(format, localPrefix, ""));
+			getApproximableStart().writeHTMLText(text, format, localPrefix, "");
 		if (getApproximableEnd() != null)
-			text.append(getApproximableEnd().getHTMLTextOutput(format, localPrefix, ""));
-		text.append(getSecurityAttributes().getHTMLTextOutput(format, localPrefix));
-		return (text.toString());
+			getApproximableEnd().writeHTMLText(text, format, localPrefix, "");
+		getSecurityAttributes().writeHTMLText(text, format, localPrefix);
 	}
 
 	/**
@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.summary;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
@@ -31,7 +32,7 @@ import buri.ddmsence.ddms.OutputFormat;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:verticalExtent.
@@ -211,29 +212,25 @@ public final class VerticalExtent extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, UOM_NAME, getUnitOfMeasure());
-		addJson(object, DATUM_NAME, getDatum());
-		addJson(object, "minimum", getMinVerticalExtent());
-		addJson(object, "maximum", getMaxVerticalExtent());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, UOM_NAME, getUnitOfMeasure());
+		addJson(writer, DATUM_NAME, getDatum());
+		addJson(writer, "minimum", getMinVerticalExtent());
+		addJson(writer, "maximum", getMaxVerticalExtent());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix + UOM_NAME, getUnitOfMeasure()));
-		text.append(buildHTMLTextOutput(format, localPrefix + DATUM_NAME, getDatum()));
-		text.append(buildHTMLTextOutput(format, localPrefix + "minimum", String.valueOf(getMinVerticalExtent())));
-		text.append(buildHTMLTextOutput(format, localPrefix + "maximum", String.valueOf(getMaxVerticalExtent())));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, UOM_NAME, getUnitOfMeasure());
+		addHTMLText(text, format, localPrefix, DATUM_NAME, getDatum());
+		addHTMLText(text, format, localPrefix, "minimum", String.valueOf(getMinVerticalExtent()));
+		addHTMLText(text, format, localPrefix, "maximum", String.valueOf(getMaxVerticalExtent()));
 	}
 
 	/**
@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.summary;
 
+import java.io.IOException;
 import java.io.Serializable;
 
 import nu.xom.Element;
@@ -31,7 +32,7 @@ import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.PropertyReader;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of ddms:virtualCoverage.
@@ -176,31 +177,27 @@ public final class VirtualCoverage extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, ADDRESS_NAME, getAddress());
-		addJson(object, PROTOCOL_NAME, getProtocol());
-		addJson(object, ACCESS_NAME, getAccess());
-		addJson(object, NETWORK_NAME, getNetwork());
-		addJson(object, getSecurityAttributes());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, ADDRESS_NAME, getAddress());
+		addJson(writer, PROTOCOL_NAME, getProtocol());
+		addJson(writer, ACCESS_NAME, getAccess());
+		addJson(writer, NETWORK_NAME, getNetwork());
+		addJson(writer, getSecurityAttributes());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix + ADDRESS_NAME, getAddress()));
-		text.append(buildHTMLTextOutput(format, localPrefix + PROTOCOL_NAME, getProtocol()));
-		text.append(buildHTMLTextOutput(format, localPrefix + ACCESS_NAME, getAccess()));
-		text.append(buildHTMLTextOutput(format, localPrefix + NETWORK_NAME, getNetwork()));
-		text.append(getSecurityAttributes().getHTMLTextOutput(format, localPrefix));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, ADDRESS_NAME, getAddress());
+		addHTMLText(text, format, localPrefix, PROTOCOL_NAME, getProtocol());
+		addHTMLText(text, format, localPrefix, ACCESS_NAME, getAccess());
+		addHTMLText(text, format, localPrefix, NETWORK_NAME, getNetwork());
+		getSecurityAttributes().writeHTMLText(text, format, localPrefix);
 	}
 
 	/**
@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.summary.gml;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -37,7 +38,7 @@ import buri.ddmsence.util.LazyList;
 import buri.ddmsence.util.PropertyReader;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * An immutable implementation of gml:Polygon.
@@ -199,27 +200,23 @@ public final class Polygon extends AbstractBaseComponent {
 	}
 
 	/**
-	 * @see AbstractBaseComponent#getJSONObject()
+	 * @see AbstractBaseComponent#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, ID_NAME, getId());
-		addJson(object, getSRSAttributes());
-		addJson(object, Position.getName(getDDMSVersion()), getPositions());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, ID_NAME, getId());
+		addJson(writer, getSRSAttributes());
+		addJson(writer, Position.getName(getDDMSVersion()), getPositions());
 	}
 	
 	/**
-	 * @see AbstractBaseComponent#getHTMLTextOutput(OutputFormat, String, String)
+	 * @see AbstractBaseComponent#writeHTMLText(Appendable, OutputFormat, String, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = buildPrefix(prefix, getName(), suffix + ".");
-		StringBuffer text = new StringBuffer();
-		text.append(buildHTMLTextOutput(format, localPrefix + ID_NAME, getId()));
-		text.append(getSRSAttributes().getHTMLTextOutput(format, localPrefix));
-		text.append(buildHTMLTextOutput(format, localPrefix, getPositions()));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, ID_NAME, getId());
+		getSRSAttributes().writeHTMLText(text, format, localPrefix);
+		addHTMLText(text, format, localPrefix, getPositions());
 	}
 
 	/**
@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.summary.gml;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -29,12 +30,11 @@ import buri.ddmsence.AbstractAttributeGroup;
 import buri.ddmsence.ddms.IBuilder;
 import buri.ddmsence.ddms.InvalidDDMSException;
 import buri.ddmsence.ddms.OutputFormat;
-import buri.ddmsence.ddms.Resource;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.LazyList;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * Attribute group for the four SRS attributes used on GML and TSPI-based shapes.
@@ -192,15 +192,13 @@ public final class SRSAttributes extends AbstractAttributeGroup {
 	}
 	
 	/**
-	 * @see AbstractAttributeGroup#getJSONObject()
+	 * @see AbstractAttributeGroup#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, "srsName", getSrsName());
-		addJson(object, "srsDimension", getSrsDimension());
-		addJson(object, "axisLabels", getAxisLabels());
-		addJson(object, "uomLabels", getUomLabels());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, "srsName", getSrsName());
+		addJson(writer, "srsDimension", getSrsDimension());
+		addJson(writer, "axisLabels", getAxisLabels());
+		addJson(writer, "uomLabels", getUomLabels());
 	}
 	
 	/**
@@ -211,19 +209,17 @@ public final class SRSAttributes extends AbstractAttributeGroup {
 	}
 	
 	/**
-	 * @see AbstractAttributeGroup#getHTMLTextOutput(OutputFormat, String)
+	 * @see AbstractAttributeGroup#writeHTMLText(Appendable, OutputFormat, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = Util.getNonNullString(prefix);
-		StringBuffer text = new StringBuffer();
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + "srsName", getSrsName()));
+		addHTMLText(text, format, localPrefix, "srsName", getSrsName());
 		if (getSrsDimension() != null) {
-			text.append(Resource.buildHTMLTextOutput(format, localPrefix + "srsDimension", String.valueOf(getSrsDimension())));
+			addHTMLText(text, format, localPrefix, "srsDimension", String.valueOf(getSrsDimension()));
 		}
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + "axisLabels", getAxisLabelsAsXsList()));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + "uomLabels", getUomLabelsAsXsList()));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, "axisLabels", getAxisLabelsAsXsList());
+		addHTMLText(text, format, localPrefix, "uomLabels", getUomLabelsAsXsList());
 	}
 
 	/**
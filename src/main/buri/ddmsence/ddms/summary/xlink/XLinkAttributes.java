@@ -19,6 +19,7 @@
  */
 package buri.ddmsence.ddms.summary.xlink;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
@@ -28,7 +29,6 @@ import buri.ddmsence.AbstractAttributeGroup;
 import buri.ddmsence.ddms.IBuilder;
 import buri.ddmsence.ddms.InvalidDDMSException;
 import buri.ddmsence.ddms.OutputFormat;
-import buri.ddmsence.ddms.Resource;
 import buri.ddmsence.ddms.resource.RevisionRecall;
 import buri.ddmsence.ddms.resource.TaskID;
 import buri.ddmsence.ddms.summary.Link;
@@ -36,7 +36,7 @@ import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.PropertyReader;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * Attribute group for the XLINK attributes.
@@ -294,19 +294,17 @@ public final class XLinkAttributes extends AbstractAttributeGroup {
 	}
 
 	/**
-	 * @see AbstractAttributeGroup#getJSONObject()
+	 * @see AbstractAttributeGroup#writeJSONProperties(JsonWriter)
 	 */
-	public JsonObject getJSONObject() {
-		JsonObject object = new JsonObject();
-		addJson(object, TYPE_NAME, getType());
-		addJson(object, HREF_NAME, getHref());
-		addJson(object, ROLE_NAME, getRole());
-		addJson(object, TITLE_NAME, getTitle());
-		addJson(object, LABEL_NAME, getLabel());
-		addJson(object, ARC_ROLE_NAME, getArcrole());
-		addJson(object, SHOW_NAME, getShow());
-		addJson(object, ACTUATE_NAME, getActuate());
-		return (object);
+	public void writeJSONProperties(JsonWriter writer) throws IOException {
+		addJson(writer, TYPE_NAME, getType());
+		addJson(writer, HREF_NAME, getHref());
+		addJson(writer, ROLE_NAME, getRole());
+		addJson(writer, TITLE_NAME, getTitle());
+		addJson(writer, LABEL_NAME, getLabel());
+		addJson(writer, ARC_ROLE_NAME, getArcrole());
+		addJson(writer, SHOW_NAME, getShow());
+		addJson(writer, ACTUATE_NAME, getActuate());
 	}
 	
 	/**
@@ -326,21 +324,19 @@ public final class XLinkAttributes extends AbstractAttributeGroup {
 	}
 	
 	/**
-	 * @see AbstractAttributeGroup#getHTMLTextOutput(OutputFormat, String)
+	 * @see AbstractAttributeGroup#writeHTMLText(Appendable, OutputFormat, String)
 	 */
-	public String getHTMLTextOutput(OutputFormat format, String prefix) {
+	public void writeHTMLText(Appendable text, OutputFormat format, String prefix) throws IOException {
 		Util.requireHTMLText(format);
 		String localPrefix = Util.getNonNullString(prefix);
-		StringBuffer text = new StringBuffer();
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + TYPE_NAME, getType()));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + HREF_NAME, getHref()));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + ROLE_NAME, getRole()));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + TITLE_NAME, getTitle()));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + LABEL_NAME, getLabel()));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + ARC_ROLE_NAME, getArcrole()));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + SHOW_NAME, getShow()));
-		text.append(Resource.buildHTMLTextOutput(format, localPrefix + ACTUATE_NAME, getActuate()));
-		return (text.toString());
+		addHTMLText(text, format, localPrefix, TYPE_NAME, getType());
+		addHTMLText(text, format, localPrefix, HREF_NAME, getHref());
+		addHTMLText(text, format, localPrefix, ROLE_NAME, getRole());
+		addHTMLText(text, format, localPrefix, TITLE_NAME, getTitle());
+		addHTMLText(text, format, localPrefix, LABEL_NAME, getLabel());
+		addHTMLText(text, format, localPrefix, ARC_ROLE_NAME, getArcrole());
+		addHTMLText(text, format, localPrefix, SHOW_NAME, getShow());
+		addHTMLText(text, format, localPrefix, ACTUATE_NAME, getActuate());
 	}
 
 	/**
@@ -0,0 +1,211 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+
+import nu.xom.Comment;
+import nu.xom.DocType;
+import nu.xom.Document;
+import nu.xom.Element;
+import nu.xom.Node;
+import nu.xom.Serializer;
+import nu.xom.canonical.Canonicalizer;
+import buri.ddmsence.AbstractBaseComponent;
+
+/**
+ * A XOM Serializer which writes the XML of DDMS components straight to a stream, as UTF-8.
+ *
+ * <p>
+ * Components are written with {@link AbstractBaseComponent#writeXML(ComponentSerializer)}, which passes the
+ * component's own XOM element to this serializer, so no copy of the element is made. Unlike a plain XOM Serializer,
+ * an element can be written without an enclosing Document, and no XML declaration is written. Subclasses can
+ * override the protected Serializer methods to change how elements and attributes are written.
+ * </p>
+ *
+ * <p>
+ * A serializer can be reused to write any number of components to the same stream, in any {@link XMLStyle}. The
+ * CANONICAL style is written with a XOM Canonicalizer rather than the Serializer methods, and is not streaming. An
+ * element which is the root of a parsed Document (such as a Resource read by {@link DDMSReader}) is canonicalized in
+ * place. Any other element is copied first, because XOM temporarily attaches a parentless element to a Document
+ * while canonicalizing it, so writing it needs memory for a second copy of the element tree.
+ * </p>
+ *
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public class ComponentSerializer extends Serializer {
+
+	private final OutputStream _out;
+	private final XMLStyle _style;
+
+	/**
+	 * Constructor for a serializer which writes COMPACT XML
+	 *
+	 * @param out the stream to write to
+	 */
+	public ComponentSerializer(OutputStream out) {
+		this(out, XMLStyle.COMPACT);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param out the stream to write to
+	 * @param style the layout of the XML
+	 */
+	public ComponentSerializer(OutputStream out, XMLStyle style) {
+		super(out);
+		Util.requireValue("style", style);
+		_out = out;
+		_style = style;
+		if (style == XMLStyle.PRETTY) {
+			setIndent(2);
+			setLineSeparator("\n");
+		}
+	}
+
+	/**
+	 * Constructor for a serializer which writes characters rather than bytes. The UTF-8 output of the serializer is
+	 * decoded as it is written, so the writer receives the XML without it being held in memory as a whole.
+	 *
+	 * @param writer the writer to write to
+	 * @param style the layout of the XML
+	 */
+	public ComponentSerializer(Writer writer, XMLStyle style) {
+		this(new WriterOutputStream(writer), style);
+	}
+
+	/**
+	 * Writes an element and all of its children.
+	 *
+	 * @param element the element to write
+	 * @throws IOException if the element could not be written
+	 * @see Serializer#write(Element)
+	 */
+	public void write(Element element) throws IOException {
+		if (getStyle() == XMLStyle.CANONICAL) {
+			Document document = (isDocumentRoot(element) ? element.getDocument() : new Document((Element) element
+				.copy()));
+			new Canonicalizer(_out).write(document);
+		}
+		else
+			super.write(element);
+	}
+
+	/**
+	 * Checks if an element can be canonicalized as the whole of its Document, without a copy. This is true when it is
+	 * the root element, and the rest of the Document is only a document type declaration or comments, which are left
+	 * out of Canonical XML without comments.
+	 *
+	 * @param element the element
+	 * @return true if the element's Document can be canonicalized instead
+	 */
+	private static boolean isDocumentRoot(Element element) {
+		if (!(element.getParent() instanceof Document))
+			return (false);
+		Document document = (Document) element.getParent();
+		for (int i = 0; i < document.getChildCount(); i++) {
+			Node child = document.getChild(i);
+			if (child != element && !(child instanceof DocType) && !(child instanceof Comment))
+				return (false);
+		}
+		return (true);
+	}
+
+	/**
+	 * Accessor for the layout of the XML
+	 */
+	public XMLStyle getStyle() {
+		return (_style);
+	}
+
+	/**
+	 * Adapts a Writer to the OutputStream a XOM Serializer requires, decoding the UTF-8 bytes in fixed-size chunks.
+	 * A character split across two writes is held back until the rest of its bytes arrive.
+	 */
+	private static final class WriterOutputStream extends OutputStream {
+		private final Writer _writer;
+		private final CharsetDecoder _decoder = Charset.forName("UTF-8").newDecoder();
+		private final ByteBuffer _bytes = ByteBuffer.allocate(4096);
+		private final CharBuffer _chars = CharBuffer.allocate(4096);
+
+		/**
+		 * Constructor
+		 *
+		 * @param writer the writer to decode into
+		 */
+		private WriterOutputStream(Writer writer) {
+			Util.requireValue("writer", writer);
+			_writer = writer;
+		}
+
+		/**
+		 * @see OutputStream#write(int)
+		 */
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		/**
+		 * @see OutputStream#write(byte[], int, int)
+		 */
+		public void write(byte[] b, int off, int len) throws IOException {
+			while (len > 0) {
+				int count = Math.min(len, _bytes.remaining());
+				_bytes.put(b, off, count);
+				off += count;
+				len -= count;
+				decode();
+			}
+		}
+
+		/**
+		 * @see OutputStream#flush()
+		 */
+		public void flush() throws IOException {
+			_writer.flush();
+		}
+
+		/**
+		 * Decodes every complete character in the byte buffer and passes it on to the writer.
+		 */
+		private void decode() throws IOException {
+			_bytes.flip();
+			CoderResult result;
+			do {
+				result = _decoder.decode(_bytes, _chars, false);
+				if (result.isError())
+					result.throwException();
+				_writer.write(_chars.array(), 0, _chars.position());
+				_chars.clear();
+			}
+			while (result.isOverflow());
+			_bytes.compact();
+		}
+	}
+}
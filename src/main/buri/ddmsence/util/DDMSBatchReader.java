@@ -0,0 +1,280 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.util;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import buri.ddmsence.ddms.InvalidDDMSException;
+import buri.ddmsence.ddms.Resource;
+
+/**
+ * Reader which loads many DDMS Resources in parallel, such as every record in a directory.
+ *
+ * <p>
+ * Files are parsed and validated concurrently on an executor. By default, a fixed pool with one thread per available
+ * processor is used, but any ExecutorService can be supplied instead. Each batch keeps a pool of DDMSReaders, so a
+ * reader is only ever used by one worker at a time, and all of those readers share the compiled schemas in the
+ * {@link DDMSSchemaCache}. The pool is discarded when the batch finishes, so nothing is left behind on the threads
+ * of a caller's executor.
+ * </p>
+ *
+ * <p>
+ * The DDMS version of each file is detected from the XML namespace of its root element in the same pass that
+ * validates it (see {@link DDMSReader#DDMSReader()}). A file which cannot be read or is invalid does not stop the
+ * batch: its failure is recorded in its {@link Result} and the remaining files are still processed. Results are
+ * returned in the same order as the files were supplied.
+ * </p>
+ *
+ * <p>
+ * Each file is loaded inside a {@link DDMSContext} bound to its worker thread, which starts as a copy of the context
+ * of the thread that called <code>read()</code>. Records of different DDMS versions can therefore be mixed freely in
+ * one batch, and loading them never changes the process-wide DDMSVersion.
+ * </p>
+ *
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public class DDMSBatchReader {
+
+	private final ExecutorService _executor;
+	private final boolean _ownsExecutor;
+
+	private static final FileFilter XML_FILTER = new FileFilter() {
+		public boolean accept(File pathname) {
+			return (pathname.isFile() && pathname.getName().endsWith(".xml"));
+		}
+	};
+
+	/**
+	 * Constructor which uses one thread per available processor.
+	 */
+	public DDMSBatchReader() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructor which uses a fixed number of threads. The threads are daemon threads, and are released when
+	 * {@link #shutdown()} is called.
+	 *
+	 * @param threads the number of files to process at the same time
+	 */
+	public DDMSBatchReader(int threads) {
+		if (threads < 1)
+			throw new IllegalArgumentException("At least 1 thread is required.");
+		_executor = Executors.newFixedThreadPool(threads, new BatchThreadFactory());
+		_ownsExecutor = true;
+	}
+
+	/**
+	 * Constructor which processes files on an existing executor. The executor remains the responsibility of the
+	 * caller, and is not shut down by this reader.
+	 *
+	 * @param executor the executor to run on
+	 */
+	public DDMSBatchReader(ExecutorService executor) {
+		Util.requireValue("executor", executor);
+		_executor = executor;
+		_ownsExecutor = false;
+	}
+
+	/**
+	 * Loads every file ending in ".xml" in a directory. Subdirectories are not searched. Files are processed in
+	 * alphabetical order.
+	 *
+	 * @param directory the directory containing DDMS Resources
+	 * @return one result for each file
+	 * @throws InterruptedException if the calling thread is interrupted while waiting for the batch to complete
+	 */
+	public List<Result> read(File directory) throws InterruptedException {
+		Util.requireValue("directory", directory);
+		File[] files = directory.listFiles(XML_FILTER);
+		if (files == null)
+			throw new IllegalArgumentException(directory + " is not a readable directory.");
+		Arrays.sort(files);
+		return (read(Arrays.asList(files)));
+	}
+
+	/**
+	 * Loads a list of files in parallel, waiting until all of them have been processed. An unexpected failure while
+	 * loading one file, such as a RuntimeException, is recorded in the result of that file like any other failure. If
+	 * the calling thread is interrupted, the files which have not been processed yet are cancelled.
+	 *
+	 * @param files the files containing DDMS Resources
+	 * @return one result for each file, in the same order as the files
+	 * @throws InterruptedException if the calling thread is interrupted while waiting for the batch to complete
+	 */
+	public List<Result> read(List<File> files) throws InterruptedException {
+		Util.requireValue("files", files);
+		final DDMSContext context = DDMSContext.getCurrent();
+		final Queue<DDMSReader> readers = new ConcurrentLinkedQueue<DDMSReader>();
+		List<Future<Result>> futures = new ArrayList<Future<Result>>(files.size());
+		for (final File file : files) {
+			futures.add(_executor.submit(new Callable<Result>() {
+				public Result call() {
+					DDMSContext previous = DDMSContext.bind(context);
+					try {
+						return (load(readers, file));
+					}
+					finally {
+						DDMSContext.bind(previous);
+					}
+				}
+			}));
+		}
+		List<Result> results = new ArrayList<Result>(files.size());
+		try {
+			for (int i = 0; i < futures.size(); i++) {
+				try {
+					results.add(futures.get(i).get());
+				}
+				catch (ExecutionException e) {
+					results.add(new Result(files.get(i), null, new InvalidDDMSException(e.getCause())));
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			for (Future<Result> future : futures)
+				future.cancel(true);
+			throw e;
+		}
+		return (Collections.unmodifiableList(results));
+	}
+
+	/**
+	 * Loads a single file on the current thread, capturing any failure in the result. A reader is borrowed from the
+	 * pool of the batch for the length of the load, or created if every reader in the pool is in use.
+	 *
+	 * @param readers the readers of the batch which are not in use
+	 * @param file the file to load
+	 * @return the result
+	 */
+	private Result load(Queue<DDMSReader> readers, File file) {
+		DDMSReader reader = readers.poll();
+		if (reader == null)
+			reader = new DDMSReader();
+		try {
+			return (new Result(file, reader.getDDMSResource(file), null));
+		}
+		catch (InvalidDDMSException e) {
+			return (new Result(file, null, e));
+		}
+		catch (IOException e) {
+			return (new Result(file, null, new InvalidDDMSException(e)));
+		}
+		finally {
+			readers.offer(reader);
+		}
+	}
+
+	/**
+	 * Releases the threads used by this reader, if it created them. Readers constructed with an existing executor
+	 * leave it running.
+	 */
+	public void shutdown() {
+		if (_ownsExecutor)
+			_executor.shutdown();
+	}
+
+	/**
+	 * Creates daemon worker threads, so an unreleased reader never prevents the JVM from exiting.
+	 */
+	private static class BatchThreadFactory implements ThreadFactory {
+		private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+		private final AtomicInteger _threadNumber = new AtomicInteger(1);
+		private final String _namePrefix = "DDMSBatchReader-" + POOL_NUMBER.getAndIncrement() + "-";
+
+		/**
+		 * @see ThreadFactory#newThread(Runnable)
+		 */
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, _namePrefix + _threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return (thread);
+		}
+	}
+
+	/**
+	 * The outcome of loading a single file in a batch. Exactly one of the resource or the exception will be set.
+	 *
+	 * @author Brian Uri!
+	 * @since 2.5.0
+	 */
+	public static final class Result {
+		private final File _file;
+		private final Resource _resource;
+		private final InvalidDDMSException _exception;
+
+		/**
+		 * Constructor
+		 *
+		 * @param file the file which was loaded
+		 * @param resource the resource, if it loaded successfully
+		 * @param exception the failure, if it did not
+		 */
+		private Result(File file, Resource resource, InvalidDDMSException exception) {
+			_file = file;
+			_resource = resource;
+			_exception = exception;
+		}
+
+		/**
+		 * Returns true if the file contained a valid Resource.
+		 */
+		public boolean isValid() {
+			return (getResource() != null);
+		}
+
+		/**
+		 * Accessor for the file
+		 */
+		public File getFile() {
+			return _file;
+		}
+
+		/**
+		 * Accessor for the resource, which will be null if the file could not be loaded
+		 */
+		public Resource getResource() {
+			return _resource;
+		}
+
+		/**
+		 * Accessor for the exception, which will be null if the file loaded successfully
+		 */
+		public InvalidDDMSException getException() {
+			return _exception;
+		}
+	}
+}
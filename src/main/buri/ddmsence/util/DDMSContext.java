@@ -0,0 +1,177 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable set of the runtime settings used when DDMS components are built and rendered: the DDMS version, the
+ * namespace prefixes, and the output settings.
+ *
+ * <p>
+ * Without a context, those settings are process-wide: DDMSVersion.setCurrentVersion() and PropertyReader.setProperty()
+ * change them for every thread at once. A context can instead be bound to a single thread, and from then on
+ * <code>DDMSVersion.getCurrentVersion()</code>, <code>PropertyReader.getProperty()</code> and the ISM controlled
+ * vocabularies all answer from the context on that thread, without any locking. This makes it safe for several
+ * threads to work on different DDMS versions at the same time.
+ * </p>
+ *
+ * <pre>
+ * DDMSContext previous = DDMSContext.bind(DDMSContext.getCurrent().withVersion(DDMSVersion.getVersionFor("3.1")));
+ * try {
+ *    // Build or load DDMS 3.1 components
+ * }
+ * finally {
+ *    DDMSContext.bind(previous);
+ * }
+ * </pre>
+ *
+ * <p>
+ * Calling DDMSVersion.setCurrentVersion() on a thread which has a bound context replaces that thread's context with
+ * a copy for the new version, and leaves the process-wide version alone.
+ * </p>
+ *
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public final class DDMSContext {
+
+	private final DDMSVersion _version;
+	private final Map<String, String> _properties;
+	private final OutputOptions _outputOptions;
+
+	private static final ThreadLocal<DDMSContext> BOUND_CONTEXT = new ThreadLocal<DDMSContext>();
+
+	/**
+	 * Constructor
+	 *
+	 * @param version the DDMS version
+	 * @param properties the values of the configurable properties
+	 */
+	private DDMSContext(DDMSVersion version, Map<String, String> properties) {
+		_version = version;
+		_properties = Collections.unmodifiableMap(properties);
+		_outputOptions = OutputOptions.fromProperties(properties);
+	}
+
+	/**
+	 * Returns the context for the current thread. If no context is bound, this is a snapshot of the process-wide
+	 * DDMS version and configurable properties.
+	 *
+	 * @return a context, never null
+	 */
+	public static DDMSContext getCurrent() {
+		DDMSContext context = getBound();
+		if (context == null)
+			context = new DDMSContext(DDMSVersion.getGlobalVersion(), PropertyReader.getConfigurableProperties());
+		return (context);
+	}
+
+	/**
+	 * Returns the context bound to the current thread.
+	 *
+	 * @return the context, or null if none is bound
+	 */
+	public static DDMSContext getBound() {
+		return (BOUND_CONTEXT.get());
+	}
+
+	/**
+	 * Binds a context to the current thread, replacing any context which was already bound.
+	 *
+	 * @param context the context to bind, or null to return the thread to the process-wide settings
+	 * @return the context which was previously bound, or null if there was none. This can be passed back to
+	 *         <code>bind()</code> to restore it.
+	 */
+	public static DDMSContext bind(DDMSContext context) {
+		DDMSContext previous = getBound();
+		if (context == null)
+			BOUND_CONTEXT.remove();
+		else
+			BOUND_CONTEXT.set(context);
+		return (previous);
+	}
+
+	/**
+	 * Returns a copy of this context with a different DDMS version.
+	 *
+	 * @param version the DDMS version
+	 * @return a new context, or this context if the version is unchanged
+	 */
+	public DDMSContext withVersion(DDMSVersion version) {
+		Util.requireValue("version", version);
+		if (version == getVersion())
+			return (this);
+		return (new DDMSContext(version, _properties));
+	}
+
+	/**
+	 * Returns a copy of this context with a different value for one of the configurable properties, such as
+	 * "ddms.prefix" or "output.json.prettyPrint".
+	 *
+	 * @param name the key of the property, without the "buri.ddmsence." prefix
+	 * @param value the new value of the property
+	 * @return a new context
+	 * @throws IllegalArgumentException if the property is not a valid configurable property
+	 */
+	public DDMSContext withProperty(String name, String value) {
+		if (!PropertyReader.isConfigurable(name))
+			throw new IllegalArgumentException(name + " is not a configurable property.");
+		Map<String, String> properties = new HashMap<String, String>(_properties);
+		properties.put(name, Util.getNonNullString(value).trim());
+		return (new DDMSContext(getVersion(), properties));
+	}
+
+	/**
+	 * Accessor for the DDMS version
+	 */
+	public DDMSVersion getVersion() {
+		return (_version);
+	}
+
+	/**
+	 * Accessor for one of the configurable properties.
+	 *
+	 * @param name the key of the property, without the "buri.ddmsence." prefix
+	 * @return the value, or null if this context does not define the property
+	 */
+	public String getProperty(String name) {
+		return (_properties.get(name));
+	}
+
+	/**
+	 * Accessor for the output settings, taken from the output properties of this context when it was created
+	 */
+	public OutputOptions getOutputOptions() {
+		return (_outputOptions);
+	}
+
+	/**
+	 * Convenience method to look up an XML prefix
+	 *
+	 * @param key the schema key, such as ddms, ism, or ntk.
+	 * @return the prefix
+	 */
+	public String getPrefix(String key) {
+		return (getProperty(key + ".prefix"));
+	}
+}
@@ -0,0 +1,1960 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import buri.ddmsence.AbstractAccessEntity;
+import buri.ddmsence.AbstractNtkString;
+import buri.ddmsence.AbstractProducerRole;
+import buri.ddmsence.AbstractQualifierValue;
+import buri.ddmsence.AbstractRoleEntity;
+import buri.ddmsence.AbstractSimpleString;
+import buri.ddmsence.AbstractTaskingRole;
+import buri.ddmsence.ddms.ApproximableDate;
+import buri.ddmsence.ddms.InvalidDDMSException;
+import buri.ddmsence.ddms.Resource;
+import buri.ddmsence.ddms.extensible.ExtensibleAttributes;
+import buri.ddmsence.ddms.format.Extent;
+import buri.ddmsence.ddms.format.Format;
+import buri.ddmsence.ddms.metacard.MetacardInfo;
+import buri.ddmsence.ddms.resource.Addressee;
+import buri.ddmsence.ddms.resource.ApplicationSoftware;
+import buri.ddmsence.ddms.resource.Contributor;
+import buri.ddmsence.ddms.resource.Creator;
+import buri.ddmsence.ddms.resource.Dates;
+import buri.ddmsence.ddms.resource.Details;
+import buri.ddmsence.ddms.resource.Identifier;
+import buri.ddmsence.ddms.resource.Language;
+import buri.ddmsence.ddms.resource.Organization;
+import buri.ddmsence.ddms.resource.Person;
+import buri.ddmsence.ddms.resource.PointOfContact;
+import buri.ddmsence.ddms.resource.ProcessingInfo;
+import buri.ddmsence.ddms.resource.Publisher;
+import buri.ddmsence.ddms.resource.RecordKeeper;
+import buri.ddmsence.ddms.resource.RecordsManagementInfo;
+import buri.ddmsence.ddms.resource.RequesterInfo;
+import buri.ddmsence.ddms.resource.ResourceManagement;
+import buri.ddmsence.ddms.resource.RevisionRecall;
+import buri.ddmsence.ddms.resource.Rights;
+import buri.ddmsence.ddms.resource.Service;
+import buri.ddmsence.ddms.resource.Source;
+import buri.ddmsence.ddms.resource.SubOrganization;
+import buri.ddmsence.ddms.resource.Subtitle;
+import buri.ddmsence.ddms.resource.TaskID;
+import buri.ddmsence.ddms.resource.TaskingInfo;
+import buri.ddmsence.ddms.resource.Title;
+import buri.ddmsence.ddms.resource.Type;
+import buri.ddmsence.ddms.resource.Unknown;
+import buri.ddmsence.ddms.security.NoticeList;
+import buri.ddmsence.ddms.security.Security;
+import buri.ddmsence.ddms.security.ism.Notice;
+import buri.ddmsence.ddms.security.ism.NoticeAttributes;
+import buri.ddmsence.ddms.security.ism.NoticeText;
+import buri.ddmsence.ddms.security.ism.SecurityAttributes;
+import buri.ddmsence.ddms.security.ntk.Access;
+import buri.ddmsence.ddms.security.ntk.Group;
+import buri.ddmsence.ddms.security.ntk.GroupValue;
+import buri.ddmsence.ddms.security.ntk.Individual;
+import buri.ddmsence.ddms.security.ntk.IndividualValue;
+import buri.ddmsence.ddms.security.ntk.Profile;
+import buri.ddmsence.ddms.security.ntk.ProfileList;
+import buri.ddmsence.ddms.security.ntk.ProfileValue;
+import buri.ddmsence.ddms.security.ntk.SystemName;
+import buri.ddmsence.ddms.summary.BoundingBox;
+import buri.ddmsence.ddms.summary.BoundingGeometry;
+import buri.ddmsence.ddms.summary.Category;
+import buri.ddmsence.ddms.summary.CountryCode;
+import buri.ddmsence.ddms.summary.Description;
+import buri.ddmsence.ddms.summary.FacilityIdentifier;
+import buri.ddmsence.ddms.summary.GeographicIdentifier;
+import buri.ddmsence.ddms.summary.GeospatialCoverage;
+import buri.ddmsence.ddms.summary.Keyword;
+import buri.ddmsence.ddms.summary.Link;
+import buri.ddmsence.ddms.summary.NonStateActor;
+import buri.ddmsence.ddms.summary.PostalAddress;
+import buri.ddmsence.ddms.summary.ProductionMetric;
+import buri.ddmsence.ddms.summary.RelatedResource;
+import buri.ddmsence.ddms.summary.SubDivisionCode;
+import buri.ddmsence.ddms.summary.SubjectCoverage;
+import buri.ddmsence.ddms.summary.TemporalCoverage;
+import buri.ddmsence.ddms.summary.VerticalExtent;
+import buri.ddmsence.ddms.summary.VirtualCoverage;
+import buri.ddmsence.ddms.summary.gml.Point;
+import buri.ddmsence.ddms.summary.gml.Polygon;
+import buri.ddmsence.ddms.summary.gml.Position;
+import buri.ddmsence.ddms.summary.gml.SRSAttributes;
+import buri.ddmsence.ddms.summary.xlink.XLinkAttributes;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Reader class which loads the JSON form of a DDMS Resource, as produced by <code>toJSON()</code>, back into the
+ * object model.
+ * 
+ * <p>
+ * The JSON is read as a stream with a Gson JsonReader, straight into the Builders of the components, without building
+ * a JSON tree or an XML document first. Each component has its own reader, which maps the JSON names written by the
+ * component's <code>writeJSONProperties()</code> method to the accessors of its Builder, so no reflection is involved.
+ * Names which differ between DDMS versions (e.g. "qualifier" and "codespace" on a ddms:countryCode) are all accepted,
+ * because the DDMS version is only named at the end of the JSON object. Both the default JSON layout and the layout
+ * produced with <code>output.json.inlineAttributes</code> can be read. Properties which are derived from the rest of
+ * the output, such as "entityType" and "ddms.generator", are skipped.
+ * </p>
+ * 
+ * <p>
+ * The Resource is committed with the DDMS version named in the <code>ddms.version</code> property, or the current
+ * version if there is none. By default, the Resource is then validated against the DDMS schemas, just like a Resource
+ * built from scratch. In trusted mode, for JSON which is known to have been written from a valid Resource (such as a
+ * cache of the output of <code>toJSON()</code>), the schema check is skipped, and only the rules of each component
+ * are applied.
+ * </p>
+ * 
+ * <p>
+ * The JSON form does not carry everything which the XML form does. Resources of every supported DDMS version can be
+ * read, but TSPI shapes and addresses in DDMS 5.0 only record their type, and extensible elements and the namespaces
+ * of extensible attributes are not recorded at all, so Resources containing these cannot be rebuilt from JSON. They
+ * fail with an InvalidDDMSException which says so, rather than producing a different Resource.
+ * </p>
+ * 
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public class DDMSJsonReader {
+
+	private boolean _trusted = false;
+
+	private static final String VERSION_NAME = "ddms.version";
+	private static final String GENERATOR_NAME = "ddms.generator";
+	private static final String EXTENSIBLE_LAYER_NAME = "extensible.layer";
+	private static final String ENTITY_TYPE_NAME = "entityType";
+
+	/**
+	 * Constructor
+	 */
+	public DDMSJsonReader() {}
+
+	/**
+	 * Creates a DDMS resource from a string containing its JSON form.
+	 * 
+	 * @param json the JSON form of the Resource
+	 * @return a DDMS Resource
+	 * @throws IOException if the JSON could not be read, or is malformed
+	 * @throws InvalidDDMSException if the Resource could not be built
+	 */
+	public Resource getDDMSResource(String json) throws IOException, InvalidDDMSException {
+		Util.requireValue("json", json);
+		return (getDDMSResource(new StringReader(json)));
+	}
+
+	/**
+	 * Creates a DDMS resource from a reader containing its JSON form. The reader is not closed.
+	 * 
+	 * @param reader the reader wrapped around the JSON form of the Resource
+	 * @return a DDMS Resource
+	 * @throws IOException if the JSON could not be read, or is malformed
+	 * @throws InvalidDDMSException if the Resource could not be built
+	 */
+	public Resource getDDMSResource(Reader reader) throws IOException, InvalidDDMSException {
+		Util.requireValue("reader", reader);
+		return (getDDMSResource(new JsonReader(reader)));
+	}
+
+	/**
+	 * Creates a DDMS resource from the next JSON object in a stream. This allows a stream containing many Resources,
+	 * such as a JSON array of them, to be read one Resource at a time.
+	 * 
+	 * @param reader the JSON stream, positioned before the object of a Resource
+	 * @return a DDMS Resource
+	 * @throws IOException if the JSON could not be read, or is malformed
+	 * @throws InvalidDDMSException if the Resource could not be built
+	 */
+	public Resource getDDMSResource(JsonReader reader) throws IOException, InvalidDDMSException {
+		Util.requireValue("reader", reader);
+		Resource.Builder builder = new Resource.Builder();
+		String version = null;
+		try {
+			reader.beginObject();
+			while (reader.hasNext()) {
+				String name = reader.nextName();
+				if (reader.peek() == JsonToken.NULL || GENERATOR_NAME.equals(name))
+					reader.skipValue();
+				else if (VERSION_NAME.equals(name))
+					version = reader.nextString();
+				else if (EXTENSIBLE_LAYER_NAME.equals(name)) {
+					if (reader.nextBoolean())
+						throw new InvalidDDMSException("The JSON form of a Resource does not record its extensible "
+							+ "elements, so it cannot be rebuilt.");
+				}
+				else if (!RESOURCE.readProperty(reader, builder, name))
+					throw unknownProperty(name, RESOURCE);
+			}
+			reader.endObject();
+		}
+		catch (IllegalStateException e) {
+			// Thrown by the JsonReader when a value has the wrong type, e.g. an object where a string belongs.
+			throw new InvalidDDMSException("The JSON does not match the form of a DDMS Resource: " + e.getMessage());
+		}
+		catch (NumberFormatException e) {
+			throw new InvalidDDMSException("The JSON does not match the form of a DDMS Resource: " + e.getMessage());
+		}
+
+		DDMSVersion ddmsVersion = (version == null ? DDMSVersion.getCurrentVersion()
+			: DDMSVersion.getVersionFor(version));
+		DDMSContext previous = DDMSContext.bind(DDMSContext.getCurrent().withVersion(ddmsVersion));
+		try {
+			Resource resource = (isTrusted() ? builder.commitTrusted() : builder.commit());
+			if (resource == null)
+				throw new InvalidDDMSException("The JSON object does not contain a DDMS Resource.");
+			return (resource);
+		}
+		finally {
+			DDMSContext.bind(previous);
+		}
+	}
+
+	/**
+	 * Accessor for whether this reader is in trusted mode.
+	 */
+	public boolean isTrusted() {
+		return (_trusted);
+	}
+
+	/**
+	 * Switches this reader into or out of trusted mode. In trusted mode, the Resources which are read are not
+	 * validated against the DDMS schemas, although every component is still validated against its own rules. This
+	 * should only be used for JSON which was written from a valid Resource.
+	 * 
+	 * @param trusted true to skip schema validation
+	 */
+	public void setTrusted(boolean trusted) {
+		_trusted = trusted;
+	}
+
+	/**
+	 * Builds the exception for a JSON name which does not belong in a component.
+	 * 
+	 * @param name the JSON name
+	 * @param reader the reader of the component
+	 * @return the exception
+	 */
+	private static InvalidDDMSException unknownProperty(String name, ComponentReader<?> reader) {
+		if (name.indexOf('.') != -1) {
+			return (new InvalidDDMSException("The JSON form of an extensible attribute, " + name + ", does not "
+				+ "record its namespace, so it cannot be rebuilt."));
+		}
+		return (new InvalidDDMSException("The JSON property, " + name + ", does not belong in "
+			+ reader.getComponentName() + "."));
+	}
+
+	/**
+	 * Builds the exception for the JSON form of a TSPI shape or address, which cannot be rebuilt.
+	 * 
+	 * @return the exception
+	 */
+	private static InvalidDDMSException tspiNotRecorded() {
+		return (new InvalidDDMSException("The JSON form of a TSPI shape or address only records its type, so it "
+			+ "cannot be rebuilt."));
+	}
+
+	/**
+	 * Reads a JSON array of strings.
+	 * 
+	 * @param reader the JSON stream, positioned before the array
+	 * @return the strings
+	 */
+	private static List<String> nextStrings(JsonReader reader) throws IOException {
+		List<String> values = new ArrayList<String>();
+		reader.beginArray();
+		while (reader.hasNext())
+			values.add(reader.nextString());
+		reader.endArray();
+		return (values);
+	}
+
+	/**
+	 * Reads a JSON boolean.
+	 * 
+	 * @param reader the JSON stream, positioned before the value
+	 * @return the value
+	 */
+	private static Boolean nextBoolean(JsonReader reader) throws IOException {
+		return (Boolean.valueOf(reader.nextBoolean()));
+	}
+
+	/**
+	 * Reads a JSON number as an Integer.
+	 * 
+	 * @param reader the JSON stream, positioned before the value
+	 * @return the value
+	 */
+	private static Integer nextInteger(JsonReader reader) throws IOException {
+		return (Integer.valueOf(reader.nextInt()));
+	}
+
+	/**
+	 * Reads a JSON number as a Double.
+	 * 
+	 * @param reader the JSON stream, positioned before the value
+	 * @return the value
+	 */
+	private static Double nextDouble(JsonReader reader) throws IOException {
+		return (Double.valueOf(reader.nextDouble()));
+	}
+
+	/**
+	 * Reads the JSON object of one kind of component, or of an attribute group, into its Builder. Each reader knows
+	 * the JSON names which <code>writeJSONProperties()</code> uses for its component, and which Builder accessor each
+	 * one belongs to.
+	 * 
+	 * @param <B> the Builder class
+	 */
+	private static abstract class ComponentReader<B> {
+		private final String _componentName;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param componentName the name of the component for error messages, and the JSON name of an attribute group
+		 */
+		private ComponentReader(String componentName) {
+			_componentName = componentName;
+		}
+
+		/**
+		 * Creates an empty Builder, for an item of a JSON array.
+		 */
+		protected abstract B newBuilder();
+
+		/**
+		 * Reads one property of a JSON object into a Builder.
+		 * 
+		 * @param reader the JSON stream, positioned before the value of the property
+		 * @param builder the Builder to read into
+		 * @param name the JSON name of the property
+		 * @return true if the property was read, false if it does not belong to this component
+		 */
+		protected abstract boolean readProperty(JsonReader reader, B builder, String name) throws IOException,
+			InvalidDDMSException;
+
+		/**
+		 * Reads a JSON object into a Builder.
+		 * 
+		 * @param reader the JSON stream, positioned before the object
+		 * @param builder the Builder to read into
+		 */
+		public void readObject(JsonReader reader, B builder) throws IOException, InvalidDDMSException {
+			reader.beginObject();
+			while (reader.hasNext()) {
+				String name = reader.nextName();
+				if (reader.peek() == JsonToken.NULL || ENTITY_TYPE_NAME.equals(name))
+					reader.skipValue();
+				else if (!readProperty(reader, builder, name))
+					throw unknownProperty(name, this);
+			}
+			reader.endObject();
+		}
+
+		/**
+		 * Reads a JSON array of objects into new Builders.
+		 * 
+		 * @param reader the JSON stream, positioned before the array
+		 * @param builders the list to add the Builders to
+		 */
+		public void readArray(JsonReader reader, List<B> builders) throws IOException, InvalidDDMSException {
+			reader.beginArray();
+			while (reader.hasNext()) {
+				B builder = newBuilder();
+				readObject(reader, builder);
+				builders.add(builder);
+			}
+			reader.endArray();
+		}
+
+		/**
+		 * Reads one property of an attribute group, which is either the group's own JSON object, or one of its
+		 * attributes inlined into the parent's object.
+		 * 
+		 * @param reader the JSON stream, positioned before the value of the property
+		 * @param group the Builder of the attribute group
+		 * @param name the JSON name of the property
+		 * @return true if the property was read, false if it does not belong to the group
+		 */
+		public boolean readGroup(JsonReader reader, B group, String name) throws IOException,
+			InvalidDDMSException {
+			if (getComponentName().equals(name)) {
+				readObject(reader, group);
+				return (true);
+			}
+			return (readProperty(reader, group, name));
+		}
+
+		/**
+		 * Accessor for the name of the component
+		 */
+		public String getComponentName() {
+			return (_componentName);
+		}
+	}
+
+	private static final ComponentReader<SecurityAttributes.Builder> SECURITY_ATTRIBUTES
+		= new ComponentReader<SecurityAttributes.Builder>("securityAttributes") {
+		protected SecurityAttributes.Builder newBuilder() {
+			return (new SecurityAttributes.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, SecurityAttributes.Builder builder, String name)
+			throws IOException {
+			if ("atomicEnergyMarkings".equals(name))
+				builder.setAtomicEnergyMarkings(nextStrings(reader));
+			else if ("classification".equals(name))
+				builder.setClassification(reader.nextString());
+			else if ("classificationReason".equals(name))
+				builder.setClassificationReason(reader.nextString());
+			else if ("classifiedBy".equals(name))
+				builder.setClassifiedBy(reader.nextString());
+			else if ("compilationReason".equals(name))
+				builder.setCompilationReason(reader.nextString());
+			else if ("dateOfExemptedSource".equals(name))
+				builder.setDateOfExemptedSource(reader.nextString());
+			else if ("declassDate".equals(name))
+				builder.setDeclassDate(reader.nextString());
+			else if ("declassEvent".equals(name))
+				builder.setDeclassEvent(reader.nextString());
+			else if ("declassException".equals(name))
+				builder.setDeclassException(reader.nextString());
+			else if ("declassManualReview".equals(name))
+				builder.setDeclassManualReview(nextBoolean(reader));
+			else if ("derivativelyClassifiedBy".equals(name))
+				builder.setDerivativelyClassifiedBy(reader.nextString());
+			else if ("derivedFrom".equals(name))
+				builder.setDerivedFrom(reader.nextString());
+			else if ("displayOnlyTo".equals(name))
+				builder.setDisplayOnlyTo(nextStrings(reader));
+			else if ("disseminationControls".equals(name))
+				builder.setDisseminationControls(nextStrings(reader));
+			else if ("FGIsourceOpen".equals(name))
+				builder.setFGIsourceOpen(nextStrings(reader));
+			else if ("FGIsourceProtected".equals(name))
+				builder.setFGIsourceProtected(nextStrings(reader));
+			else if ("nonICmarkings".equals(name))
+				builder.setNonICmarkings(nextStrings(reader));
+			else if ("nonUSControls".equals(name))
+				builder.setNonUSControls(nextStrings(reader));
+			else if ("ownerProducer".equals(name))
+				builder.setOwnerProducers(nextStrings(reader));
+			else if ("releasableTo".equals(name))
+				builder.setReleasableTo(nextStrings(reader));
+			else if ("SARIdentifier".equals(name))
+				builder.setSARIdentifier(nextStrings(reader));
+			else if ("SCIcontrols".equals(name))
+				builder.setSCIcontrols(nextStrings(reader));
+			else if ("typeOfExemptedSource".equals(name))
+				builder.setTypeOfExemptedSource(reader.nextString());
+			else
+				return (false);
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<NoticeAttributes.Builder> NOTICE_ATTRIBUTES
+		= new ComponentReader<NoticeAttributes.Builder>("noticeAttributes") {
+		protected NoticeAttributes.Builder newBuilder() {
+			return (new NoticeAttributes.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, NoticeAttributes.Builder builder, String name)
+			throws IOException {
+			if ("noticeType".equals(name))
+				builder.setNoticeType(reader.nextString());
+			else if ("noticeReason".equals(name))
+				builder.setNoticeReason(reader.nextString());
+			else if ("noticeDate".equals(name))
+				builder.setNoticeDate(reader.nextString());
+			else if ("unregisteredNoticeType".equals(name))
+				builder.setUnregisteredNoticeType(reader.nextString());
+			else if ("externalNotice".equals(name))
+				builder.setExternalNotice(nextBoolean(reader));
+			else
+				return (false);
+			return (true);
+		}
+	};
+
+	/** Extensible attributes do not record their namespaces, so any attribute fails with a clear error. */
+	private static final ComponentReader<ExtensibleAttributes.Builder> EXTENSIBLE_ATTRIBUTES
+		= new ComponentReader<ExtensibleAttributes.Builder>("extensibleAttributes") {
+		protected ExtensibleAttributes.Builder newBuilder() {
+			return (new ExtensibleAttributes.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, ExtensibleAttributes.Builder builder, String name)
+			throws InvalidDDMSException {
+			if (name.indexOf('.') != -1)
+				throw unknownProperty(name, this);
+			return (false);
+		}
+	};
+
+	private static final ComponentReader<XLinkAttributes.Builder> XLINK_ATTRIBUTES
+		= new ComponentReader<XLinkAttributes.Builder>("xlinkAttributes") {
+		protected XLinkAttributes.Builder newBuilder() {
+			return (new XLinkAttributes.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, XLinkAttributes.Builder builder, String name)
+			throws IOException {
+			if ("type".equals(name))
+				builder.setType(reader.nextString());
+			else if ("href".equals(name))
+				builder.setHref(reader.nextString());
+			else if ("role".equals(name))
+				builder.setRole(reader.nextString());
+			else if ("title".equals(name))
+				builder.setTitle(reader.nextString());
+			else if ("label".equals(name))
+				builder.setLabel(reader.nextString());
+			else if ("arcrole".equals(name))
+				builder.setArcrole(reader.nextString());
+			else if ("show".equals(name))
+				builder.setShow(reader.nextString());
+			else if ("actuate".equals(name))
+				builder.setActuate(reader.nextString());
+			else
+				return (false);
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<SRSAttributes.Builder> SRS_ATTRIBUTES
+		= new ComponentReader<SRSAttributes.Builder>("srsAttributes") {
+		protected SRSAttributes.Builder newBuilder() {
+			return (new SRSAttributes.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, SRSAttributes.Builder builder, String name)
+			throws IOException {
+			if ("srsName".equals(name))
+				builder.setSrsName(reader.nextString());
+			else if ("srsDimension".equals(name))
+				builder.setSrsDimension(nextInteger(reader));
+			else if ("axisLabels".equals(name))
+				builder.setAxisLabels(nextStrings(reader));
+			else if ("uomLabels".equals(name))
+				builder.setUomLabels(nextStrings(reader));
+			else
+				return (false);
+			return (true);
+		}
+	};
+
+	/**
+	 * Reader for the components based on AbstractSimpleString, whose child text is named after the component.
+	 */
+	private static abstract class SimpleStringReader<B extends AbstractSimpleString.Builder> extends
+		ComponentReader<B> {
+		private final String _valueName;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param componentName the name of the component
+		 * @param valueName the JSON name of the child text
+		 */
+		private SimpleStringReader(String componentName, String valueName) {
+			super(componentName);
+			_valueName = valueName;
+		}
+
+		protected boolean readProperty(JsonReader reader, B builder, String name) throws IOException,
+			InvalidDDMSException {
+			if (_valueName.equals(name)) {
+				builder.setValue(reader.nextString());
+				return (true);
+			}
+			return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+		}
+	}
+
+	/**
+	 * Reader for the components based on AbstractQualifierValue. DDMS 5.0 renamed the attributes of some of them
+	 * from "qualifier" and "value" to "codespace" and "code", so both pairs are accepted.
+	 */
+	private static abstract class QualifierValueReader<B extends AbstractQualifierValue.Builder> extends
+		ComponentReader<B> {
+
+		/**
+		 * Constructor
+		 * 
+		 * @param componentName the name of the component
+		 */
+		private QualifierValueReader(String componentName) {
+			super(componentName);
+		}
+
+		protected boolean readProperty(JsonReader reader, B builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("qualifier".equals(name) || "codespace".equals(name))
+				builder.setQualifier(reader.nextString());
+			else if ("value".equals(name) || "code".equals(name))
+				builder.setValue(reader.nextString());
+			else
+				return (false);
+			return (true);
+		}
+	}
+
+	/**
+	 * Reader for the components based on AbstractRoleEntity.
+	 */
+	private static abstract class RoleEntityReader<B extends AbstractRoleEntity.Builder> extends ComponentReader<B> {
+
+		/**
+		 * Constructor
+		 * 
+		 * @param componentName the name of the component
+		 */
+		private RoleEntityReader(String componentName) {
+			super(componentName);
+		}
+
+		protected boolean readProperty(JsonReader reader, B builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("name".equals(name))
+				builder.setNames(nextStrings(reader));
+			else if ("phone".equals(name))
+				builder.setPhones(nextStrings(reader));
+			else if ("email".equals(name))
+				builder.setEmails(nextStrings(reader));
+			else
+				return (EXTENSIBLE_ATTRIBUTES.readGroup(reader, builder.getExtensibleAttributes(), name));
+			return (true);
+		}
+	}
+
+	/**
+	 * Reader for the components based on AbstractNtkString, whose value is named after the component.
+	 */
+	private static abstract class NtkStringReader<B extends AbstractNtkString.Builder> extends ComponentReader<B> {
+		private final String _valueName;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param componentName the name of the component
+		 * @param valueName the JSON name of the value
+		 */
+		private NtkStringReader(String componentName, String valueName) {
+			super(componentName);
+			_valueName = valueName;
+		}
+
+		protected boolean readProperty(JsonReader reader, B builder, String name) throws IOException,
+			InvalidDDMSException {
+			if (_valueName.equals(name))
+				builder.setValue(reader.nextString());
+			else if ("id".equals(name))
+				builder.setID(reader.nextString());
+			else if ("idReference".equals(name))
+				builder.setIDReference(reader.nextString());
+			else if ("qualifier".equals(name))
+				builder.setQualifier(reader.nextString());
+			else
+				return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+			return (true);
+		}
+	}
+
+	/**
+	 * Reader for the components based on AbstractAccessEntity, whose values are a list of NTK strings.
+	 */
+	private static abstract class AccessEntityReader<B extends AbstractAccessEntity.Builder> extends
+		ComponentReader<B> {
+		private final String _valuesName;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param componentName the name of the component
+		 * @param valuesName the JSON name of the list of values
+		 */
+		private AccessEntityReader(String componentName, String valuesName) {
+			super(componentName);
+			_valuesName = valuesName;
+		}
+
+		/**
+		 * Reads the JSON array of values into the Builder.
+		 * 
+		 * @param reader the JSON stream, positioned before the array
+		 * @param builder the Builder to read into
+		 */
+		protected abstract void readValues(JsonReader reader, B builder) throws IOException, InvalidDDMSException;
+
+		protected boolean readProperty(JsonReader reader, B builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("systemName".equals(name))
+				SYSTEM_NAME.readObject(reader, builder.getSystemName());
+			else if (_valuesName.equals(name))
+				readValues(reader, builder);
+			else
+				return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+			return (true);
+		}
+	}
+
+	/**
+	 * Reader for the components based on AbstractProducerRole. The entity is named after its type, which is recorded
+	 * in the Builder.
+	 */
+	private static abstract class ProducerRoleReader<B extends AbstractProducerRole.Builder> extends
+		ComponentReader<B> {
+
+		/**
+		 * Constructor
+		 * 
+		 * @param componentName the name of the component
+		 */
+		private ProducerRoleReader(String componentName) {
+			super(componentName);
+		}
+
+		protected boolean readProperty(JsonReader reader, B builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("organization".equals(name))
+				ORGANIZATION.readObject(reader, builder.getOrganization());
+			else if ("person".equals(name))
+				PERSON.readObject(reader, builder.getPerson());
+			else if ("service".equals(name))
+				SERVICE.readObject(reader, builder.getService());
+			else if ("unknown".equals(name))
+				UNKNOWN.readObject(reader, builder.getUnknown());
+			else if ("pocType".equals(name)) {
+				builder.setPocTypes(nextStrings(reader));
+				return (true);
+			}
+			else
+				return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+			builder.setEntityType(name);
+			return (true);
+		}
+	}
+
+	/**
+	 * Reader for the components based on AbstractTaskingRole. The entity is named after its type, which is recorded
+	 * in the Builder.
+	 */
+	private static abstract class TaskingRoleReader<B extends AbstractTaskingRole.Builder> extends
+		ComponentReader<B> {
+
+		/**
+		 * Constructor
+		 * 
+		 * @param componentName the name of the component
+		 */
+		private TaskingRoleReader(String componentName) {
+			super(componentName);
+		}
+
+		protected boolean readProperty(JsonReader reader, B builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("organization".equals(name))
+				ORGANIZATION.readObject(reader, builder.getOrganization());
+			else if ("person".equals(name))
+				PERSON.readObject(reader, builder.getPerson());
+			else
+				return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+			builder.setEntityType(name);
+			return (true);
+		}
+	}
+
+	private static final ComponentReader<Identifier.Builder> IDENTIFIER
+		= new QualifierValueReader<Identifier.Builder>("Identifier") {
+		protected Identifier.Builder newBuilder() {
+			return (new Identifier.Builder());
+		}
+	};
+
+	private static final ComponentReader<Language.Builder> LANGUAGE
+		= new QualifierValueReader<Language.Builder>("Language") {
+		protected Language.Builder newBuilder() {
+			return (new Language.Builder());
+		}
+	};
+
+	private static final ComponentReader<Extent.Builder> EXTENT = new QualifierValueReader<Extent.Builder>("Extent") {
+		protected Extent.Builder newBuilder() {
+			return (new Extent.Builder());
+		}
+	};
+
+	private static final ComponentReader<CountryCode.Builder> COUNTRY_CODE
+		= new QualifierValueReader<CountryCode.Builder>("CountryCode") {
+		protected CountryCode.Builder newBuilder() {
+			return (new CountryCode.Builder());
+		}
+	};
+
+	private static final ComponentReader<SubDivisionCode.Builder> SUB_DIVISION_CODE
+		= new QualifierValueReader<SubDivisionCode.Builder>("SubDivisionCode") {
+		protected SubDivisionCode.Builder newBuilder() {
+			return (new SubDivisionCode.Builder());
+		}
+	};
+
+	private static final ComponentReader<Source.Builder> SOURCE = new QualifierValueReader<Source.Builder>("Source") {
+		protected Source.Builder newBuilder() {
+			return (new Source.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, Source.Builder builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("schemaQualifier".equals(name))
+				builder.setSchemaQualifier(reader.nextString());
+			else if ("schemaHref".equals(name))
+				builder.setSchemaHref(reader.nextString());
+			else if (!super.readProperty(reader, builder, name))
+				return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<Type.Builder> TYPE = new QualifierValueReader<Type.Builder>("Type") {
+		protected Type.Builder newBuilder() {
+			return (new Type.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, Type.Builder builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("description".equals(name))
+				builder.setDescription(reader.nextString());
+			else if (!super.readProperty(reader, builder, name))
+				return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<Title.Builder> TITLE = new SimpleStringReader<Title.Builder>("Title",
+		"title") {
+		protected Title.Builder newBuilder() {
+			return (new Title.Builder());
+		}
+	};
+
+	private static final ComponentReader<Subtitle.Builder> SUBTITLE = new SimpleStringReader<Subtitle.Builder>(
+		"Subtitle", "subtitle") {
+		protected Subtitle.Builder newBuilder() {
+			return (new Subtitle.Builder());
+		}
+	};
+
+	private static final ComponentReader<Description.Builder> DESCRIPTION
+		= new SimpleStringReader<Description.Builder>("Description", "description") {
+		protected Description.Builder newBuilder() {
+			return (new Description.Builder());
+		}
+	};
+
+	private static final ComponentReader<SubOrganization.Builder> SUB_ORGANIZATION
+		= new SimpleStringReader<SubOrganization.Builder>("SubOrganization", "subOrganization") {
+		protected SubOrganization.Builder newBuilder() {
+			return (new SubOrganization.Builder());
+		}
+	};
+
+	private static final ComponentReader<ApplicationSoftware.Builder> APPLICATION_SOFTWARE
+		= new SimpleStringReader<ApplicationSoftware.Builder>("ApplicationSoftware", "applicationSoftware") {
+		protected ApplicationSoftware.Builder newBuilder() {
+			return (new ApplicationSoftware.Builder());
+		}
+	};
+
+	private static final ComponentReader<Details.Builder> DETAILS = new SimpleStringReader<Details.Builder>(
+		"Details", "details") {
+		protected Details.Builder newBuilder() {
+			return (new Details.Builder());
+		}
+	};
+
+	private static final ComponentReader<ProcessingInfo.Builder> PROCESSING_INFO
+		= new SimpleStringReader<ProcessingInfo.Builder>("ProcessingInfo", "processingInfo") {
+		protected ProcessingInfo.Builder newBuilder() {
+			return (new ProcessingInfo.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, ProcessingInfo.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if ("dateProcessed".equals(name)) {
+				builder.setDateProcessed(reader.nextString());
+				return (true);
+			}
+			return (super.readProperty(reader, builder, name));
+		}
+	};
+
+	private static final ComponentReader<NoticeText.Builder> NOTICE_TEXT
+		= new SimpleStringReader<NoticeText.Builder>("NoticeText", "noticeText") {
+		protected NoticeText.Builder newBuilder() {
+			return (new NoticeText.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, NoticeText.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if ("pocType".equals(name)) {
+				builder.setPocTypes(nextStrings(reader));
+				return (true);
+			}
+			return (super.readProperty(reader, builder, name));
+		}
+	};
+
+	private static final ComponentReader<NonStateActor.Builder> NON_STATE_ACTOR
+		= new SimpleStringReader<NonStateActor.Builder>("NonStateActor", "nonStateActor") {
+		protected NonStateActor.Builder newBuilder() {
+			return (new NonStateActor.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, NonStateActor.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if ("order".equals(name))
+				builder.setOrder(nextInteger(reader));
+			else if ("qualifier".equals(name))
+				builder.setQualifier(reader.nextString());
+			else
+				return (super.readProperty(reader, builder, name));
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<Organization.Builder> ORGANIZATION
+		= new RoleEntityReader<Organization.Builder>("Organization") {
+		protected Organization.Builder newBuilder() {
+			return (new Organization.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, Organization.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if ("subOrganization".equals(name))
+				SUB_ORGANIZATION.readArray(reader, builder.getSubOrganizations());
+			else if ("acronym".equals(name))
+				builder.setAcronym(reader.nextString());
+			else
+				return (super.readProperty(reader, builder, name));
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<Person.Builder> PERSON = new RoleEntityReader<Person.Builder>("Person") {
+		protected Person.Builder newBuilder() {
+			return (new Person.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, Person.Builder builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("surname".equals(name))
+				builder.setSurname(reader.nextString());
+			else if ("userID".equals(name))
+				builder.setUserID(reader.nextString());
+			else if ("affiliation".equals(name))
+				builder.setAffiliations(nextStrings(reader));
+			else
+				return (super.readProperty(reader, builder, name));
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<Service.Builder> SERVICE = new RoleEntityReader<Service.Builder>("Service") {
+		protected Service.Builder newBuilder() {
+			return (new Service.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, Service.Builder builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("affiliation".equals(name)) {
+				builder.setAffiliations(nextStrings(reader));
+				return (true);
+			}
+			return (super.readProperty(reader, builder, name));
+		}
+	};
+
+	private static final ComponentReader<Unknown.Builder> UNKNOWN = new RoleEntityReader<Unknown.Builder>("Unknown") {
+		protected Unknown.Builder newBuilder() {
+			return (new Unknown.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, Unknown.Builder builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("affiliation".equals(name)) {
+				builder.setAffiliations(nextStrings(reader));
+				return (true);
+			}
+			return (super.readProperty(reader, builder, name));
+		}
+	};
+
+	private static final ComponentReader<Creator.Builder> CREATOR = new ProducerRoleReader<Creator.Builder>(
+		"Creator") {
+		protected Creator.Builder newBuilder() {
+			return (new Creator.Builder());
+		}
+	};
+
+	private static final ComponentReader<Publisher.Builder> PUBLISHER = new ProducerRoleReader<Publisher.Builder>(
+		"Publisher") {
+		protected Publisher.Builder newBuilder() {
+			return (new Publisher.Builder());
+		}
+	};
+
+	private static final ComponentReader<Contributor.Builder> CONTRIBUTOR
+		= new ProducerRoleReader<Contributor.Builder>("Contributor") {
+		protected Contributor.Builder newBuilder() {
+			return (new Contributor.Builder());
+		}
+	};
+
+	private static final ComponentReader<PointOfContact.Builder> POINT_OF_CONTACT
+		= new ProducerRoleReader<PointOfContact.Builder>("PointOfContact") {
+		protected PointOfContact.Builder newBuilder() {
+			return (new PointOfContact.Builder());
+		}
+	};
+
+	private static final ComponentReader<RequesterInfo.Builder> REQUESTER_INFO
+		= new TaskingRoleReader<RequesterInfo.Builder>("RequesterInfo") {
+		protected RequesterInfo.Builder newBuilder() {
+			return (new RequesterInfo.Builder());
+		}
+	};
+
+	private static final ComponentReader<Addressee.Builder> ADDRESSEE = new TaskingRoleReader<Addressee.Builder>(
+		"Addressee") {
+		protected Addressee.Builder newBuilder() {
+			return (new Addressee.Builder());
+		}
+	};
+
+	private static final ComponentReader<ApproximableDate.Builder> APPROXIMABLE_DATE
+		= new ComponentReader<ApproximableDate.Builder>("ApproximableDate") {
+		protected ApproximableDate.Builder newBuilder() {
+			return (new ApproximableDate.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, ApproximableDate.Builder builder, String name)
+			throws IOException {
+			if ("description".equals(name))
+				builder.setDescription(reader.nextString());
+			else if ("approximableDate".equals(name))
+				builder.setApproximableDate(reader.nextString());
+			else if ("approximableDate.approximation".equals(name))
+				builder.setApproximation(reader.nextString());
+			else if ("searchableDate.start".equals(name))
+				builder.setSearchableStart(reader.nextString());
+			else if ("searchableDate.end".equals(name))
+				builder.setSearchableEnd(reader.nextString());
+			else
+				return (false);
+			return (true);
+		}
+	};
+
+	/** The acquiredOn dates of a ddms:dates, whose Builders must be given their element name. */
+	private static final ComponentReader<ApproximableDate.Builder> ACQUIRED_ON
+		= new ComponentReader<ApproximableDate.Builder>("ApproximableDate") {
+		protected ApproximableDate.Builder newBuilder() {
+			ApproximableDate.Builder builder = new ApproximableDate.Builder();
+			builder.setName("acquiredOn");
+			return (builder);
+		}
+
+		protected boolean readProperty(JsonReader reader, ApproximableDate.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			return (APPROXIMABLE_DATE.readProperty(reader, builder, name));
+		}
+	};
+
+	private static final ComponentReader<Dates.Builder> DATES = new ComponentReader<Dates.Builder>("Dates") {
+		protected Dates.Builder newBuilder() {
+			return (new Dates.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, Dates.Builder builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("acquiredOn".equals(name))
+				ACQUIRED_ON.readArray(reader, builder.getAcquiredOns());
+			else if ("created".equals(name))
+				builder.setCreated(reader.nextString());
+			else if ("posted".equals(name))
+				builder.setPosted(reader.nextString());
+			else if ("validTil".equals(name))
+				builder.setValidTil(reader.nextString());
+			else if ("infoCutOff".equals(name))
+				builder.setInfoCutOff(reader.nextString());
+			else if ("approvedOn".equals(name))
+				builder.setApprovedOn(reader.nextString());
+			else if ("receivedOn".equals(name))
+				builder.setReceivedOn(reader.nextString());
+			else
+				return (false);
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<Rights.Builder> RIGHTS = new ComponentReader<Rights.Builder>("Rights") {
+		protected Rights.Builder newBuilder() {
+			return (new Rights.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, Rights.Builder builder, String name) throws IOException {
+			if ("privacyAct".equals(name))
+				builder.setPrivacyAct(nextBoolean(reader));
+			else if ("intellectualProperty".equals(name))
+				builder.setIntellectualProperty(nextBoolean(reader));
+			else if ("copyright".equals(name))
+				builder.setCopyright(nextBoolean(reader));
+			else
+				return (false);
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<Format.Builder> FORMAT = new ComponentReader<Format.Builder>("Format") {
+		protected Format.Builder newBuilder() {
+			return (new Format.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, Format.Builder builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("mimeType".equals(name))
+				builder.setMimeType(reader.nextString());
+			else if ("extent".equals(name))
+				EXTENT.readObject(reader, builder.getExtent());
+			else if ("medium".equals(name))
+				builder.setMedium(reader.nextString());
+			else
+				return (false);
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<Keyword.Builder> KEYWORD = new ComponentReader<Keyword.Builder>("Keyword") {
+		protected Keyword.Builder newBuilder() {
+			return (new Keyword.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, Keyword.Builder builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("keyword".equals(name)) {
+				builder.setValue(reader.nextString());
+				return (true);
+			}
+			return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name)
+				|| EXTENSIBLE_ATTRIBUTES.readGroup(reader, builder.getExtensibleAttributes(), name));
+		}
+	};
+
+	private static final ComponentReader<Category.Builder> CATEGORY = new ComponentReader<Category.Builder>(
+		"Category") {
+		protected Category.Builder newBuilder() {
+			return (new Category.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, Category.Builder builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("qualifier".equals(name))
+				builder.setQualifier(reader.nextString());
+			else if ("code".equals(name))
+				builder.setCode(reader.nextString());
+			else if ("label".equals(name))
+				builder.setLabel(reader.nextString());
+			else
+				return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name)
+					|| EXTENSIBLE_ATTRIBUTES.readGroup(reader, builder.getExtensibleAttributes(), name));
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<ProductionMetric.Builder> PRODUCTION_METRIC
+		= new ComponentReader<ProductionMetric.Builder>("ProductionMetric") {
+		protected ProductionMetric.Builder newBuilder() {
+			return (new ProductionMetric.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, ProductionMetric.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if ("subject".equals(name))
+				builder.setSubject(reader.nextString());
+			else if ("coverage".equals(name))
+				builder.setCoverage(reader.nextString());
+			else
+				return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<SubjectCoverage.Builder> SUBJECT_COVERAGE
+		= new ComponentReader<SubjectCoverage.Builder>("SubjectCoverage") {
+		protected SubjectCoverage.Builder newBuilder() {
+			return (new SubjectCoverage.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, SubjectCoverage.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if ("keyword".equals(name))
+				KEYWORD.readArray(reader, builder.getKeywords());
+			else if ("category".equals(name))
+				CATEGORY.readArray(reader, builder.getCategories());
+			else if ("productionMetric".equals(name))
+				PRODUCTION_METRIC.readArray(reader, builder.getProductionMetrics());
+			else if ("nonStateActor".equals(name))
+				NON_STATE_ACTOR.readArray(reader, builder.getNonStateActors());
+			else
+				return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<VirtualCoverage.Builder> VIRTUAL_COVERAGE
+		= new ComponentReader<VirtualCoverage.Builder>("VirtualCoverage") {
+		protected VirtualCoverage.Builder newBuilder() {
+			return (new VirtualCoverage.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, VirtualCoverage.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if ("address".equals(name))
+				builder.setAddress(reader.nextString());
+			else if ("protocol".equals(name))
+				builder.setProtocol(reader.nextString());
+			else if ("access".equals(name))
+				builder.setAccess(reader.nextString());
+			else if ("network".equals(name))
+				builder.setNetwork(reader.nextString());
+			else
+				return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<TemporalCoverage.Builder> TEMPORAL_COVERAGE
+		= new ComponentReader<TemporalCoverage.Builder>("TemporalCoverage") {
+		protected TemporalCoverage.Builder newBuilder() {
+			return (new TemporalCoverage.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, TemporalCoverage.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if ("name".equals(name))
+				builder.setTimePeriodName(reader.nextString());
+			else if ("start".equals(name))
+				builder.setStartString(reader.nextString());
+			else if ("end".equals(name))
+				builder.setEndString(reader.nextString());
+			else if ("approximableStart".equals(name))
+				APPROXIMABLE_DATE.readObject(reader, builder.getApproximableStart());
+			else if ("approximableEnd".equals(name))
+				APPROXIMABLE_DATE.readObject(reader, builder.getApproximableEnd());
+			else
+				return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<FacilityIdentifier.Builder> FACILITY_IDENTIFIER
+		= new ComponentReader<FacilityIdentifier.Builder>("FacilityIdentifier") {
+		protected FacilityIdentifier.Builder newBuilder() {
+			return (new FacilityIdentifier.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, FacilityIdentifier.Builder builder, String name)
+			throws IOException {
+			if ("beNumber".equals(name))
+				builder.setBeNumber(reader.nextString());
+			else if ("osuffix".equals(name))
+				builder.setOsuffix(reader.nextString());
+			else
+				return (false);
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<GeographicIdentifier.Builder> GEOGRAPHIC_IDENTIFIER
+		= new ComponentReader<GeographicIdentifier.Builder>("GeographicIdentifier") {
+		protected GeographicIdentifier.Builder newBuilder() {
+			return (new GeographicIdentifier.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, GeographicIdentifier.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if ("name".equals(name))
+				builder.setNames(nextStrings(reader));
+			else if ("region".equals(name))
+				builder.setRegions(nextStrings(reader));
+			else if ("countryCode".equals(name))
+				COUNTRY_CODE.readObject(reader, builder.getCountryCode());
+			else if ("subDivisionCode".equals(name))
+				SUB_DIVISION_CODE.readObject(reader, builder.getSubDivisionCode());
+			else if ("facilityIdentifier".equals(name))
+				FACILITY_IDENTIFIER.readObject(reader, builder.getFacilityIdentifier());
+			else
+				return (false);
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<BoundingBox.Builder> BOUNDING_BOX = new ComponentReader<BoundingBox.Builder>(
+		"BoundingBox") {
+		protected BoundingBox.Builder newBuilder() {
+			return (new BoundingBox.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, BoundingBox.Builder builder, String name)
+			throws IOException {
+			if ("westBL".equals(name))
+				builder.setWestBL(nextDouble(reader));
+			else if ("eastBL".equals(name))
+				builder.setEastBL(nextDouble(reader));
+			else if ("southBL".equals(name))
+				builder.setSouthBL(nextDouble(reader));
+			else if ("northBL".equals(name))
+				builder.setNorthBL(nextDouble(reader));
+			else
+				return (false);
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<Position.Builder> POSITION = new ComponentReader<Position.Builder>(
+		"Position") {
+		protected Position.Builder newBuilder() {
+			return (new Position.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, Position.Builder builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("coordinates".equals(name)) {
+				reader.beginArray();
+				while (reader.hasNext())
+					builder.getCoordinates().add(new Position.DoubleBuilder(nextDouble(reader)));
+				reader.endArray();
+				return (true);
+			}
+			return (SRS_ATTRIBUTES.readGroup(reader, builder.getSrsAttributes(), name));
+		}
+	};
+
+	private static final ComponentReader<Point.Builder> POINT = new ComponentReader<Point.Builder>("Point") {
+		protected Point.Builder newBuilder() {
+			return (new Point.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, Point.Builder builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("id".equals(name))
+				builder.setId(reader.nextString());
+			else if ("pos".equals(name))
+				POSITION.readObject(reader, builder.getPosition());
+			else
+				return (SRS_ATTRIBUTES.readGroup(reader, builder.getSrsAttributes(), name));
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<Polygon.Builder> POLYGON = new ComponentReader<Polygon.Builder>("Polygon") {
+		protected Polygon.Builder newBuilder() {
+			return (new Polygon.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, Polygon.Builder builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("id".equals(name))
+				builder.setId(reader.nextString());
+			else if ("pos".equals(name))
+				POSITION.readArray(reader, builder.getPositions());
+			else
+				return (SRS_ATTRIBUTES.readGroup(reader, builder.getSrsAttributes(), name));
+			return (true);
+		}
+	};
+
+	/**
+	 * Before DDMS 5.0, the shapes of a ddms:boundingGeometry are arrays of GML points and polygons. In DDMS 5.0, each
+	 * TSPI shape is a single object which only records its type.
+	 */
+	private static final ComponentReader<BoundingGeometry.Builder> BOUNDING_GEOMETRY
+		= new ComponentReader<BoundingGeometry.Builder>("BoundingGeometry") {
+		protected BoundingGeometry.Builder newBuilder() {
+			return (new BoundingGeometry.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, BoundingGeometry.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if (reader.peek() == JsonToken.BEGIN_OBJECT)
+				throw tspiNotRecorded();
+			if ("polygon".equals(name))
+				POLYGON.readArray(reader, builder.getGmlPolygons());
+			else if ("point".equals(name))
+				POINT.readArray(reader, builder.getGmlPoints());
+			else
+				return (false);
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<PostalAddress.Builder> POSTAL_ADDRESS
+		= new ComponentReader<PostalAddress.Builder>("PostalAddress") {
+		protected PostalAddress.Builder newBuilder() {
+			return (new PostalAddress.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, PostalAddress.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if ("street".equals(name))
+				builder.setStreets(nextStrings(reader));
+			else if ("city".equals(name))
+				builder.setCity(reader.nextString());
+			else if ("state".equals(name))
+				builder.setState(reader.nextString());
+			else if ("province".equals(name))
+				builder.setProvince(reader.nextString());
+			else if ("postalCode".equals(name))
+				builder.setPostalCode(reader.nextString());
+			else if ("countryCode".equals(name))
+				COUNTRY_CODE.readObject(reader, builder.getCountryCode());
+			else if ("addressType".equals(name))
+				throw tspiNotRecorded();
+			else
+				return (false);
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<VerticalExtent.Builder> VERTICAL_EXTENT
+		= new ComponentReader<VerticalExtent.Builder>("VerticalExtent") {
+		protected VerticalExtent.Builder newBuilder() {
+			return (new VerticalExtent.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, VerticalExtent.Builder builder, String name)
+			throws IOException {
+			if ("unitOfMeasure".equals(name))
+				builder.setUnitOfMeasure(reader.nextString());
+			else if ("datum".equals(name))
+				builder.setDatum(reader.nextString());
+			else if ("minimum".equals(name))
+				builder.setMinVerticalExtent(nextDouble(reader));
+			else if ("maximum".equals(name))
+				builder.setMaxVerticalExtent(nextDouble(reader));
+			else
+				return (false);
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<GeospatialCoverage.Builder> GEOSPATIAL_COVERAGE
+		= new ComponentReader<GeospatialCoverage.Builder>("GeospatialCoverage") {
+		protected GeospatialCoverage.Builder newBuilder() {
+			return (new GeospatialCoverage.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, GeospatialCoverage.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if ("geographicIdentifier".equals(name))
+				GEOGRAPHIC_IDENTIFIER.readObject(reader, builder.getGeographicIdentifier());
+			else if ("boundingBox".equals(name))
+				BOUNDING_BOX.readObject(reader, builder.getBoundingBox());
+			else if ("boundingGeometry".equals(name))
+				BOUNDING_GEOMETRY.readObject(reader, builder.getBoundingGeometry());
+			else if ("postalAddress".equals(name))
+				POSTAL_ADDRESS.readObject(reader, builder.getPostalAddress());
+			else if ("verticalExtent".equals(name))
+				VERTICAL_EXTENT.readObject(reader, builder.getVerticalExtent());
+			else if ("precedence".equals(name))
+				builder.setPrecedence(reader.nextString());
+			else if ("order".equals(name))
+				builder.setOrder(nextInteger(reader));
+			else
+				return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<Link.Builder> LINK = new ComponentReader<Link.Builder>("Link") {
+		protected Link.Builder newBuilder() {
+			return (new Link.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, Link.Builder builder, String name) throws IOException,
+			InvalidDDMSException {
+			return (XLINK_ATTRIBUTES.readGroup(reader, builder.getXLinkAttributes(), name)
+				|| SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+		}
+	};
+
+	private static final ComponentReader<RelatedResource.Builder> RELATED_RESOURCE
+		= new QualifierValueReader<RelatedResource.Builder>("RelatedResource") {
+		protected RelatedResource.Builder newBuilder() {
+			return (new RelatedResource.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, RelatedResource.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if ("relationship".equals(name))
+				builder.setRelationship(reader.nextString());
+			else if ("direction".equals(name))
+				builder.setDirection(reader.nextString());
+			else if ("link".equals(name))
+				LINK.readArray(reader, builder.getLinks());
+			else if (!super.readProperty(reader, builder, name))
+				return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<RecordKeeper.Builder> RECORD_KEEPER
+		= new ComponentReader<RecordKeeper.Builder>("RecordKeeper") {
+		protected RecordKeeper.Builder newBuilder() {
+			return (new RecordKeeper.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, RecordKeeper.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if ("recordKeeperID".equals(name))
+				builder.setRecordKeeperID(reader.nextString());
+			else if ("organization".equals(name))
+				ORGANIZATION.readObject(reader, builder.getOrganization());
+			else
+				return (false);
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<RecordsManagementInfo.Builder> RECORDS_MANAGEMENT_INFO
+		= new ComponentReader<RecordsManagementInfo.Builder>("RecordsManagementInfo") {
+		protected RecordsManagementInfo.Builder newBuilder() {
+			return (new RecordsManagementInfo.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, RecordsManagementInfo.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if ("recordKeeper".equals(name))
+				RECORD_KEEPER.readObject(reader, builder.getRecordKeeper());
+			else if ("applicationSoftware".equals(name))
+				APPLICATION_SOFTWARE.readObject(reader, builder.getApplicationSoftware());
+			else if ("vitalRecordIndicator".equals(name))
+				builder.setVitalRecordIndicator(nextBoolean(reader));
+			else
+				return (false);
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<RevisionRecall.Builder> REVISION_RECALL
+		= new ComponentReader<RevisionRecall.Builder>("RevisionRecall") {
+		protected RevisionRecall.Builder newBuilder() {
+			return (new RevisionRecall.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, RevisionRecall.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if ("revisionRecall".equals(name))
+				builder.setValue(reader.nextString());
+			else if ("revisionID".equals(name))
+				builder.setRevisionID(nextInteger(reader));
+			else if ("revisionType".equals(name))
+				builder.setRevisionType(reader.nextString());
+			else if ("network".equals(name))
+				builder.setNetwork(reader.nextString());
+			else if ("otherNetwork".equals(name))
+				builder.setOtherNetwork(reader.nextString());
+			else if ("link".equals(name))
+				LINK.readArray(reader, builder.getLinks());
+			else if ("detail".equals(name))
+				DETAILS.readArray(reader, builder.getDetails());
+			else
+				return (XLINK_ATTRIBUTES.readGroup(reader, builder.getXLinkAttributes(), name)
+					|| SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<TaskID.Builder> TASK_ID = new ComponentReader<TaskID.Builder>("TaskID") {
+		protected TaskID.Builder newBuilder() {
+			return (new TaskID.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, TaskID.Builder builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("taskID".equals(name))
+				builder.setValue(reader.nextString());
+			else if ("taskingSystem".equals(name))
+				builder.setTaskingSystem(reader.nextString());
+			else if ("network".equals(name))
+				builder.setNetwork(reader.nextString());
+			else if ("otherNetwork".equals(name))
+				builder.setOtherNetwork(reader.nextString());
+			else
+				return (XLINK_ATTRIBUTES.readGroup(reader, builder.getXLinkAttributes(), name));
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<TaskingInfo.Builder> TASKING_INFO
+		= new ComponentReader<TaskingInfo.Builder>("TaskingInfo") {
+		protected TaskingInfo.Builder newBuilder() {
+			return (new TaskingInfo.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, TaskingInfo.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if ("requesterInfo".equals(name))
+				REQUESTER_INFO.readArray(reader, builder.getRequesterInfos());
+			else if ("addressee".equals(name))
+				ADDRESSEE.readArray(reader, builder.getAddressees());
+			else if ("description".equals(name))
+				DESCRIPTION.readObject(reader, builder.getDescription());
+			else if ("taskID".equals(name))
+				TASK_ID.readObject(reader, builder.getTaskID());
+			else
+				return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<ResourceManagement.Builder> RESOURCE_MANAGEMENT
+		= new ComponentReader<ResourceManagement.Builder>("ResourceManagement") {
+		protected ResourceManagement.Builder newBuilder() {
+			return (new ResourceManagement.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, ResourceManagement.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if ("recordsManagementInfo".equals(name))
+				RECORDS_MANAGEMENT_INFO.readObject(reader, builder.getRecordsManagementInfo());
+			else if ("revisionRecall".equals(name))
+				REVISION_RECALL.readObject(reader, builder.getRevisionRecall());
+			else if ("taskingInfo".equals(name))
+				TASKING_INFO.readArray(reader, builder.getTaskingInfos());
+			else if ("processingInfo".equals(name))
+				PROCESSING_INFO.readArray(reader, builder.getProcessingInfos());
+			else
+				return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<Notice.Builder> NOTICE = new ComponentReader<Notice.Builder>("Notice") {
+		protected Notice.Builder newBuilder() {
+			return (new Notice.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, Notice.Builder builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("noticeText".equals(name)) {
+				NOTICE_TEXT.readArray(reader, builder.getNoticeTexts());
+				return (true);
+			}
+			return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name)
+				|| NOTICE_ATTRIBUTES.readGroup(reader, builder.getNoticeAttributes(), name));
+		}
+	};
+
+	private static final ComponentReader<NoticeList.Builder> NOTICE_LIST = new ComponentReader<NoticeList.Builder>(
+		"NoticeList") {
+		protected NoticeList.Builder newBuilder() {
+			return (new NoticeList.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, NoticeList.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if ("notice".equals(name)) {
+				NOTICE.readArray(reader, builder.getNotices());
+				return (true);
+			}
+			return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+		}
+	};
+
+	private static final ComponentReader<SystemName.Builder> SYSTEM_NAME = new NtkStringReader<SystemName.Builder>(
+		"SystemName", "systemName") {
+		protected SystemName.Builder newBuilder() {
+			return (new SystemName.Builder());
+		}
+	};
+
+	private static final ComponentReader<IndividualValue.Builder> INDIVIDUAL_VALUE
+		= new NtkStringReader<IndividualValue.Builder>("IndividualValue", "individualValue") {
+		protected IndividualValue.Builder newBuilder() {
+			return (new IndividualValue.Builder());
+		}
+	};
+
+	private static final ComponentReader<GroupValue.Builder> GROUP_VALUE = new NtkStringReader<GroupValue.Builder>(
+		"GroupValue", "groupValue") {
+		protected GroupValue.Builder newBuilder() {
+			return (new GroupValue.Builder());
+		}
+	};
+
+	private static final ComponentReader<ProfileValue.Builder> PROFILE_VALUE
+		= new NtkStringReader<ProfileValue.Builder>("ProfileValue", "profileValue") {
+		protected ProfileValue.Builder newBuilder() {
+			return (new ProfileValue.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, ProfileValue.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if ("vocabulary".equals(name)) {
+				builder.setVocabulary(reader.nextString());
+				return (true);
+			}
+			return (super.readProperty(reader, builder, name));
+		}
+	};
+
+	private static final ComponentReader<Individual.Builder> INDIVIDUAL = new AccessEntityReader<Individual.Builder>(
+		"Individual", "individualValue") {
+		protected Individual.Builder newBuilder() {
+			return (new Individual.Builder());
+		}
+
+		protected void readValues(JsonReader reader, Individual.Builder builder) throws IOException,
+			InvalidDDMSException {
+			INDIVIDUAL_VALUE.readArray(reader, builder.getIndividualValues());
+		}
+	};
+
+	private static final ComponentReader<Group.Builder> GROUP = new AccessEntityReader<Group.Builder>("Group",
+		"groupValue") {
+		protected Group.Builder newBuilder() {
+			return (new Group.Builder());
+		}
+
+		protected void readValues(JsonReader reader, Group.Builder builder) throws IOException, InvalidDDMSException {
+			GROUP_VALUE.readArray(reader, builder.getGroupValues());
+		}
+	};
+
+	private static final ComponentReader<Profile.Builder> PROFILE = new AccessEntityReader<Profile.Builder>(
+		"Profile", "profileValue") {
+		protected Profile.Builder newBuilder() {
+			return (new Profile.Builder());
+		}
+
+		protected void readValues(JsonReader reader, Profile.Builder builder) throws IOException,
+			InvalidDDMSException {
+			PROFILE_VALUE.readArray(reader, builder.getProfileValues());
+		}
+	};
+
+	private static final ComponentReader<ProfileList.Builder> PROFILE_LIST
+		= new ComponentReader<ProfileList.Builder>("ProfileList") {
+		protected ProfileList.Builder newBuilder() {
+			return (new ProfileList.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, ProfileList.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if ("profile".equals(name)) {
+				PROFILE.readArray(reader, builder.getProfiles());
+				return (true);
+			}
+			return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+		}
+	};
+
+	/** The individuals and groups of an ntk:Access are each wrapped in an object holding a single array. */
+	private static final ComponentReader<Access.Builder> ACCESS = new ComponentReader<Access.Builder>("Access") {
+		protected Access.Builder newBuilder() {
+			return (new Access.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, Access.Builder builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("individualList".equals(name))
+				readWrapped(reader, "individual", INDIVIDUAL, builder.getIndividuals());
+			else if ("groupList".equals(name))
+				readWrapped(reader, "group", GROUP, builder.getGroups());
+			else if ("profileList".equals(name))
+				PROFILE_LIST.readObject(reader, builder.getProfileList());
+			else if ("externalReference".equals(name))
+				builder.setExternalReference(nextBoolean(reader));
+			else
+				return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+			return (true);
+		}
+
+		/**
+		 * Reads an object which wraps a single array of components.
+		 * 
+		 * @param reader the JSON stream, positioned before the wrapper
+		 * @param arrayName the JSON name of the array
+		 * @param itemReader the reader for the items of the array
+		 * @param builders the list to add the Builders to
+		 */
+		private <B> void readWrapped(JsonReader reader, String arrayName, ComponentReader<B> itemReader,
+			List<B> builders) throws IOException, InvalidDDMSException {
+			reader.beginObject();
+			while (reader.hasNext()) {
+				String name = reader.nextName();
+				if (!arrayName.equals(name))
+					throw unknownProperty(name, this);
+				itemReader.readArray(reader, builders);
+			}
+			reader.endObject();
+		}
+	};
+
+	private static final ComponentReader<Security.Builder> SECURITY = new ComponentReader<Security.Builder>(
+		"Security") {
+		protected Security.Builder newBuilder() {
+			return (new Security.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, Security.Builder builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("excludeFromRollup".equals(name))
+				reader.skipValue();
+			else if ("noticeList".equals(name))
+				NOTICE_LIST.readObject(reader, builder.getNoticeList());
+			else if ("access".equals(name))
+				ACCESS.readObject(reader, builder.getAccess());
+			else
+				return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+			return (true);
+		}
+	};
+
+	private static final ComponentReader<MetacardInfo.Builder> METACARD_INFO
+		= new ComponentReader<MetacardInfo.Builder>("MetacardInfo") {
+		protected MetacardInfo.Builder newBuilder() {
+			return (new MetacardInfo.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, MetacardInfo.Builder builder, String name)
+			throws IOException, InvalidDDMSException {
+			if ("identifier".equals(name))
+				IDENTIFIER.readArray(reader, builder.getIdentifiers());
+			else if ("dates".equals(name))
+				DATES.readObject(reader, builder.getDates());
+			else if ("publisher".equals(name))
+				PUBLISHER.readArray(reader, builder.getPublishers());
+			else if ("contributor".equals(name))
+				CONTRIBUTOR.readArray(reader, builder.getContributors());
+			else if ("creator".equals(name))
+				CREATOR.readArray(reader, builder.getCreators());
+			else if ("pointOfContact".equals(name))
+				POINT_OF_CONTACT.readArray(reader, builder.getPointOfContacts());
+			else if ("description".equals(name))
+				DESCRIPTION.readObject(reader, builder.getDescription());
+			else if ("processingInfo".equals(name))
+				PROCESSING_INFO.readArray(reader, builder.getProcessingInfos());
+			else if ("revisionRecall".equals(name))
+				REVISION_RECALL.readObject(reader, builder.getRevisionRecall());
+			else if ("recordsManagementInfo".equals(name))
+				RECORDS_MANAGEMENT_INFO.readObject(reader, builder.getRecordsManagementInfo());
+			else if ("noticeList".equals(name))
+				NOTICE_LIST.readObject(reader, builder.getNoticeList());
+			else if ("access".equals(name))
+				ACCESS.readObject(reader, builder.getAccess());
+			else
+				return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name));
+			return (true);
+		}
+	};
+
+	/** The top-level properties of a Resource, aside from the version, generator and extensible layer. */
+	private static final ComponentReader<Resource.Builder> RESOURCE = new ComponentReader<Resource.Builder>(
+		"Resource") {
+		protected Resource.Builder newBuilder() {
+			return (new Resource.Builder());
+		}
+
+		protected boolean readProperty(JsonReader reader, Resource.Builder builder, String name) throws IOException,
+			InvalidDDMSException {
+			if ("resourceElement".equals(name))
+				builder.setResourceElement(nextBoolean(reader));
+			else if ("createDate".equals(name))
+				builder.setCreateDate(reader.nextString());
+			else if ("compliesWith".equals(name))
+				builder.setCompliesWiths(nextStrings(reader));
+			else if ("ism.DESVersion".equals(name))
+				builder.setIsmDESVersion(nextInteger(reader));
+			else if ("ntk.DESVersion".equals(name))
+				builder.setNtkDESVersion(nextInteger(reader));
+			else if ("metacardInfo".equals(name))
+				METACARD_INFO.readObject(reader, builder.getMetacardInfo());
+			else if ("identifier".equals(name))
+				IDENTIFIER.readArray(reader, builder.getIdentifiers());
+			else if ("title".equals(name))
+				TITLE.readArray(reader, builder.getTitles());
+			else if ("subtitle".equals(name))
+				SUBTITLE.readArray(reader, builder.getSubtitles());
+			else if ("description".equals(name))
+				DESCRIPTION.readObject(reader, builder.getDescription());
+			else if ("language".equals(name))
+				LANGUAGE.readArray(reader, builder.getLanguages());
+			else if ("dates".equals(name))
+				DATES.readObject(reader, builder.getDates());
+			else if ("rights".equals(name))
+				RIGHTS.readObject(reader, builder.getRights());
+			else if ("source".equals(name))
+				SOURCE.readArray(reader, builder.getSources());
+			else if ("type".equals(name))
+				TYPE.readArray(reader, builder.getTypes());
+			else if ("creator".equals(name))
+				CREATOR.readArray(reader, builder.getCreators());
+			else if ("publisher".equals(name))
+				PUBLISHER.readArray(reader, builder.getPublishers());
+			else if ("contributor".equals(name))
+				CONTRIBUTOR.readArray(reader, builder.getContributors());
+			else if ("pointOfContact".equals(name))
+				POINT_OF_CONTACT.readArray(reader, builder.getPointOfContacts());
+			else if ("format".equals(name))
+				FORMAT.readObject(reader, builder.getFormat());
+			else if ("subjectCoverage".equals(name))
+				SUBJECT_COVERAGE.readArray(reader, builder.getSubjectCoverages());
+			else if ("virtualCoverage".equals(name))
+				VIRTUAL_COVERAGE.readArray(reader, builder.getVirtualCoverages());
+			else if ("temporalCoverage".equals(name))
+				TEMPORAL_COVERAGE.readArray(reader, builder.getTemporalCoverages());
+			else if ("geospatialCoverage".equals(name))
+				GEOSPATIAL_COVERAGE.readArray(reader, builder.getGeospatialCoverages());
+			else if ("relatedResource".equals(name))
+				RELATED_RESOURCE.readArray(reader, builder.getRelatedResources());
+			else if ("resourceManagement".equals(name))
+				RESOURCE_MANAGEMENT.readObject(reader, builder.getResourceManagement());
+			else if ("security".equals(name))
+				SECURITY.readObject(reader, builder.getSecurity());
+			else
+				return (SECURITY_ATTRIBUTES.readGroup(reader, builder.getSecurityAttributes(), name)
+					|| NOTICE_ATTRIBUTES.readGroup(reader, builder.getNoticeAttributes(), name)
+					|| EXTENSIBLE_ATTRIBUTES.readGroup(reader, builder.getExtensibleAttributes(), name));
+			return (true);
+		}
+	};
+}
@@ -28,22 +28,41 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.validation.ValidatorHandler;
+
 import nu.xom.Builder;
 import nu.xom.Document;
 import nu.xom.Element;
+import nu.xom.Nodes;
 import nu.xom.ParsingException;
+import nu.xom.ValidityException;
+import nu.xom.converters.SAXConverter;
 
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
 import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
 import org.xml.sax.helpers.XMLReaderFactory;
 
+import buri.ddmsence.ddms.IDDMSComponent;
 import buri.ddmsence.ddms.InvalidDDMSException;
 import buri.ddmsence.ddms.Resource;
+import buri.ddmsence.ddms.UnsupportedVersionException;
+import buri.ddmsence.ddms.ValidationMessage;
 
 /**
  * Reader class which loads an XML file containing DDMS information and converts it into XOM elements.
@@ -52,37 +71,94 @@ import buri.ddmsence.ddms.Resource;
  * This parsing performs schema validation against a local set of DDMS/ISM schemas.
  * </p>
  * 
+ * <p>
+ * A reader is either created for a specific DDMS version, or created without one, in which case it detects the 
+ * version of each document from the XML namespace of its root element.
+ * </p>
+ * 
  * @author Brian Uri!
  * @since 0.9.b
  */
 public class DDMSReader {
 
-	private XMLReader _reader;
+	private DDMSVersion _version;
+	private Map<DDMSVersion, XMLReader> _readers = new HashMap<DDMSVersion, XMLReader>();
+	private XMLInputFactory _inputFactory = null;
+	private boolean _trusted = false;
+	private boolean _lazy = false;
+	private Projection _projection = null;
+	private XMLReader _trustedReader = null;
 
 	private static final String PROP_XERCES_VALIDATION = "http://xml.org/sax/features/validation";
 	private static final String PROP_XERCES_SCHEMA_VALIDATION = "http://apache.org/xml/features/validation/schema";
 	private static final String PROP_XERCES_EXTERNAL_LOCATION = "http://apache.org/xml/properties/schema/external-schemaLocation";
 
+	/**
+	 * Content handler which ignores the document, for parses that only validate.
+	 */
+	private static final DefaultHandler NO_OP_HANDLER = new DefaultHandler();
+
+	/**
+	 * Error handler which treats any schema error as fatal, and ignores warnings.
+	 */
+	private static final ErrorHandler STRICT_ERROR_HANDLER = new ErrorHandler() {
+		public void warning(SAXParseException exception) {}
+
+		public void error(SAXParseException exception) throws SAXException {
+			throw exception;
+		}
+
+		public void fatalError(SAXParseException exception) throws SAXException {
+			throw exception;
+		}
+	};
+
 	/**
 	 * Constructor
 	 * 
 	 * <p>Schemas are loaded in reverse order, so the latest, greatest copy is always first to be looked for.</p>
 	 * 
+	 * <p>The compiled schemas are shared with every other reader for the same version through the 
+	 * {@link DDMSSchemaCache}, so only the first reader created for a version pays the cost of compiling them.</p>
+	 * 
 	 * Creates a DDMSReader which can process various versions of DDMS and GML
 	 */
 	public DDMSReader(DDMSVersion version) throws SAXException {
-		_reader = XMLReaderFactory.createXMLReader(PropertyReader.getProperty("xml.reader.class"));
+		_version = version;
+		getReader(version);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * <p>Creates a DDMSReader which detects the DDMS version of each document it reads. Only the prolog and root
+	 * start tag are examined to find the version, based on the XML namespace of the root element, and the same 
+	 * stream then continues into a validating parse for that version. A separate XML reader is kept for each version
+	 * encountered.</p>
+	 */
+	public DDMSReader() {
+		_version = null;
+	}
+
+	/**
+	 * Creates a validating XML reader for a DDMS version.
+	 * 
+	 * @param version the DDMS version
+	 * @return the XML reader
+	 */
+	private XMLReader createReader(DDMSVersion version) throws SAXException {
+		XMLReader reader = XMLReaderFactory.createXMLReader(PropertyReader.getProperty("xml.reader.class"));
 		StringBuffer schemas = new StringBuffer();
-		List<String> versions = new ArrayList<String>(DDMSVersion.getSupportedVersions());
-		Collections.reverse(versions);
 		Set<String> processedNamespaces = new HashSet<String>();
 		loadSchema(version.getNamespace(), version.getSchema(), schemas, processedNamespaces);
 		loadSchema(version.getGmlNamespace(), version.getGmlSchema(), schemas, processedNamespaces);
 		loadSchema(version.getNtkNamespace(), version.getNtkSchema(), schemas, processedNamespaces);
 		loadSchema(version.getTspiNamespace(), version.getTspiSchema(), schemas, processedNamespaces);
-		getReader().setFeature(PROP_XERCES_VALIDATION, true);
-		getReader().setFeature(PROP_XERCES_SCHEMA_VALIDATION, true);
-		getReader().setProperty(PROP_XERCES_EXTERNAL_LOCATION, schemas.toString().trim());
+		reader.setFeature(PROP_XERCES_VALIDATION, true);
+		reader.setFeature(PROP_XERCES_SCHEMA_VALIDATION, true);
+		reader.setProperty(PROP_XERCES_EXTERNAL_LOCATION, schemas.toString().trim());
+		reader.setProperty(DDMSSchemaCache.PROP_XERCES_GRAMMAR_POOL, DDMSSchemaCache.getGrammarPool(version));
+		return (reader);
 	}
 
 	/**
@@ -142,17 +218,63 @@ public class DDMSReader {
 		}
 	}
 
+	/**
+	 * Validates an Element which has already been built in memory against the schemas for a DDMS version. The
+	 * element is streamed straight into a validator backed by the shared {@link DDMSSchemaCache}, so no XML string
+	 * is produced and no parser is created. This is the preferred way for the data-driven constructors of a Resource
+	 * to do their final schema check. Errors are reported in the same form as the XML parser would report them.
+	 * 
+	 * @param version the DDMSVersion of the resource
+	 * @param element the XOM element of the resource to check
+	 * @throws InvalidDDMSException if the resource is invalid
+	 */
+	public static void validateWithSchema(DDMSVersion version, Element element) throws InvalidDDMSException {
+		Util.requireValue("version", version);
+		Util.requireValue("element", element);
+		ValidatorHandler validator = newValidatorHandler(version);
+		try {
+			new SAXConverter(validator).convert(new Nodes(element));
+		}
+		catch (SAXParseException e) {
+			throw new InvalidDDMSException(new ValidityException(e.getMessage(), e));
+		}
+		catch (SAXException e) {
+			throw new InvalidDDMSException(e);
+		}
+	}
+
+	/**
+	 * Creates a validator for a DDMS version, backed by the shared {@link DDMSSchemaCache}, which throws the first
+	 * schema error it finds. SAX events can be sent straight to the validator, so a document can be validated as it
+	 * is read.
+	 * 
+	 * @param version the DDMSVersion to validate against
+	 * @return the validator
+	 */
+	static ValidatorHandler newValidatorHandler(DDMSVersion version) {
+		ValidatorHandler validator = DDMSSchemaCache.getSchema(version).newValidatorHandler();
+		validator.setErrorHandler(STRICT_ERROR_HANDLER);
+		return (validator);
+	}
+
 	/**
 	 * Creates a XOM element representing the root XML element in the file.
 	 * 
-	 * <p>The implementation of this method delegates to the Reader-based overloaded method.</p>
+	 * <p>The implementation of this method delegates to the Reader-based overloaded method. The file is closed once
+	 * it has been read.</p>
 	 * 
 	 * @param file the file containing the XML document
 	 * @return a XOM element representing the root node in the document
 	 */
 	public Element getElement(File file) throws IOException, InvalidDDMSException {
 		Util.requireValue("file", file);
-		return (getElement(new FileReader(file)));
+		Reader reader = new FileReader(file);
+		try {
+			return (getElement(reader));
+		}
+		finally {
+			reader.close();
+		}
 	}
 
 	/**
@@ -190,18 +312,154 @@ public class DDMSReader {
 	public Element getElement(Reader reader) throws IOException, InvalidDDMSException {
 		Util.requireValue("reader", reader);
 		try {
-			Builder builder = new Builder(getReader(), true);
+			if (isTrusted())
+				return (new Builder(project(getTrustedReader()), false).build(reader).getRootElement());
+			DDMSVersion version = getVersion();
+			if (version == null) {
+				ReplayReader replayReader = new ReplayReader(reader);
+				version = detectVersion(replayReader);
+				replayReader.replay();
+				reader = replayReader;
+			}
+			Builder builder = new Builder(project(getReader(version)), true);
 			Document doc = builder.build(reader);
 			return (doc.getRootElement());
 		}
 		catch (ParsingException e) {
 			throw new InvalidDDMSException(e);
 		}
+		catch (SAXException e) {
+			throw new InvalidDDMSException(e);
+		}
+	}
+
+	/**
+	 * Validates a document against the DDMS schemas without building any object model. The document is run through
+	 * the validating parser with a content handler that does nothing, so no XOM tree is created. Every schema problem
+	 * is reported, rather than just the first one. Documents are always validated by this method, even if this reader
+	 * is in trusted mode.
+	 * 
+	 * <p>Only the schemas are checked. The component-level rules of DDMSence are defined on the DDMS components
+	 * themselves, so they cannot be checked without building the object model. Use
+	 * {@link #getDDMSResource(InputStream)} on a schema-valid document to check them as well.</p>
+	 * 
+	 * @param inputStream a stream mapping to an XML document
+	 * @return a list of errors and warnings, which will be empty if the document is valid
+	 */
+	public List<ValidationMessage> validate(InputStream inputStream) throws IOException {
+		Util.requireValue("input stream", inputStream);
+		List<ValidationMessage> messages = new ArrayList<ValidationMessage>();
+		Reader reader = new InputStreamReader(inputStream);
+		try {
+			DDMSVersion version = getVersion();
+			if (version == null) {
+				ReplayReader replayReader = new ReplayReader(reader);
+				version = detectVersion(replayReader);
+				replayReader.replay();
+				reader = replayReader;
+			}
+			XMLReader xmlReader = getReader(version);
+			xmlReader.setContentHandler(NO_OP_HANDLER);
+			xmlReader.setErrorHandler(new MessageCollector(messages));
+			xmlReader.parse(new InputSource(reader));
+		}
+		catch (InvalidDDMSException e) {
+			messages.add(ValidationMessage.newError(e.getMessage(), e.getLocator()));
+		}
+		catch (SAXParseException e) {
+			// Fatal errors are passed to the collector before they are thrown.
+		}
+		catch (SAXException e) {
+			messages.add(ValidationMessage.newError(e.getMessage(), null));
+		}
+		return (messages);
+	}
+
+	/**
+	 * Adds the position of a problem in a document to its message.
+	 * 
+	 * @param message the message
+	 * @param line the line number
+	 * @param column the column number
+	 * @return the message with its position
+	 */
+	private static String getPositionedMessage(String message, int line, int column) {
+		return (message + " (line " + line + ", column " + column + ")");
+	}
+
+	/**
+	 * Error handler which records every problem reported by a parser as a ValidationMessage.
+	 */
+	private static class MessageCollector implements ErrorHandler {
+		private final List<ValidationMessage> _messages;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param messages the list to add messages to
+		 */
+		public MessageCollector(List<ValidationMessage> messages) {
+			_messages = messages;
+		}
+
+		/**
+		 * @see ErrorHandler#warning(SAXParseException)
+		 */
+		public void warning(SAXParseException exception) {
+			_messages.add(ValidationMessage.newWarning(getPositionedMessage(exception.getMessage(),
+				exception.getLineNumber(), exception.getColumnNumber()), null));
+		}
+
+		/**
+		 * @see ErrorHandler#error(SAXParseException)
+		 */
+		public void error(SAXParseException exception) {
+			_messages.add(ValidationMessage.newError(getPositionedMessage(exception.getMessage(),
+				exception.getLineNumber(), exception.getColumnNumber()), null));
+		}
+
+		/**
+		 * @see ErrorHandler#fatalError(SAXParseException)
+		 */
+		public void fatalError(SAXParseException exception) throws SAXException {
+			error(exception);
+			throw exception;
+		}
 	}
 
 	/**
-	 * Creates a DDMS resource based on the contents of a file, and also sets the DDMSVersion based on the namespace
-	 * URIs in the file.
+	 * Determines the DDMS version of a document from the XML namespace of its root element, reading no further than
+	 * the root start tag.
+	 * 
+	 * @param reader a reader mapping to an XML document
+	 * @return the DDMS version
+	 * @throws InvalidDDMSException if no root element could be read, or its namespace is not a supported version
+	 */
+	private DDMSVersion detectVersion(Reader reader) throws InvalidDDMSException {
+		try {
+			XMLStreamReader streamReader = getInputFactory().createXMLStreamReader(reader);
+			try {
+				while (streamReader.hasNext()) {
+					if (streamReader.next() == XMLStreamConstants.START_ELEMENT)
+						return (DDMSVersion.getVersionForNamespace(streamReader.getNamespaceURI()));
+				}
+				throw new InvalidDDMSException("No root element was found.");
+			}
+			finally {
+				streamReader.close();
+			}
+		}
+		catch (XMLStreamException e) {
+			throw new InvalidDDMSException(e);
+		}
+		catch (UnsupportedVersionException e) {
+			throw new InvalidDDMSException(e);
+		}
+	}
+
+	/**
+	 * Creates a DDMS resource based on the contents of a file. The DDMS version of the resource comes from the
+	 * namespace URIs in the file, and the current DDMSVersion is left unchanged.
 	 * 
 	 * @param file the file containing the DDMS Resource.
 	 * @return a DDMS Resource
@@ -212,8 +470,8 @@ public class DDMSReader {
 	}
 
 	/**
-	 * Creates a DDMS resource based on the contents of a string representation of an XML document, and also sets the
-	 * DDMSVersion based on the namespace URIs in the document.
+	 * Creates a DDMS resource based on the contents of a string representation of an XML document. The DDMS version of
+	 * the resource comes from the namespace URIs in the document, and the current DDMSVersion is left unchanged.
 	 * 
 	 * @param xml the string representation of the XML DDMS Resource
 	 * @return a DDMS Resource
@@ -224,8 +482,8 @@ public class DDMSReader {
 	}
 
 	/**
-	 * Creates a DDMS resource based on the contents of an input stream, and also sets the DDMSVersion based on the
-	 * namespace URIs in the document.
+	 * Creates a DDMS resource based on the contents of an input stream. The DDMS version of the resource comes from
+	 * the namespace URIs in the document, and the current DDMSVersion is left unchanged.
 	 * 
 	 * @param inputStream the input stream wrapped around an XML DDMS Resource
 	 * @return a DDMS Resource
@@ -236,8 +494,8 @@ public class DDMSReader {
 	}
 
 	/**
-	 * Creates a DDMS resource based on the contents of a reader, and also sets the DDMSVersion based on the namespace
-	 * URIs in the document.
+	 * Creates a DDMS resource based on the contents of a reader. The DDMS version of the resource comes from the
+	 * namespace URIs in the document, and the current DDMSVersion is left unchanged.
 	 * 
 	 * @param reader the reader wrapped around an XML DDMS Resource
 	 * @return a DDMS Resource
@@ -248,26 +506,55 @@ public class DDMSReader {
 	}
 
 	/**
-	 * Shared helper method to build a DDMS Resource from a XOM Element
+	 * Streams DDMS resources out of an input stream which may contain any number of resource records, such as a
+	 * large feed in which many resources are wrapped in a container element. Records are read one at a time, so
+	 * memory use stays flat regardless of the size of the stream. Each record is schema-validated before it is
+	 * returned. If this reader has a fixed DDMS version, only records of that version are returned. Otherwise, the
+	 * version of each record is detected from its XML namespace.
+	 * 
+	 * <p>If an individual record is invalid, the iterator's <code>next()</code> method throws an 
+	 * IllegalStateException whose cause is the InvalidDDMSException. The iterator can still be used to continue
+	 * on to the next record. The stream is not closed when iteration completes.</p>
+	 * 
+	 * @param inputStream the input stream containing zero or more DDMS Resources
+	 * @return an iterator over the resources in the stream
+	 */
+	public Iterator<Resource> stream(InputStream inputStream) {
+		Util.requireValue("input stream", inputStream);
+		return (new ResourceIterator(this, getVersion(), _projection, inputStream));
+	}
+
+	/**
+	 * Shared helper method to build a DDMS Resource from a XOM Element. The Resource is built in a {@link DDMSContext}
+	 * for the version of the element, bound to the current thread, so the process-wide DDMSVersion is never changed.
 	 * 
 	 * @param xomElement
 	 * @return a DDMS Resource
 	 * @throws InvalidDDMSException if the component could not be built
 	 */
 	protected Resource buildResource(Element xomElement) throws InvalidDDMSException {
-		DDMSVersion.setCurrentVersion(DDMSVersion.getVersionForNamespace(xomElement.getNamespaceURI()).getVersion());
-		return (new Resource(xomElement));
+		DDMSVersion version = DDMSVersion.getVersionForNamespace(xomElement.getNamespaceURI());
+		DDMSContext previous = DDMSContext.bind(DDMSContext.getCurrent().withVersion(version));
+		try {
+			return (new Resource(xomElement, isLazy() || getProjection() != null));
+		}
+		finally {
+			DDMSContext.bind(previous);
+		}
 	}
 
 	/**
 	 * Returns the external schema locations for debugging. The returned string will contain a space-delimited set
-	 * of XMLNamespace/SchemaLocation pairs.
+	 * of XMLNamespace/SchemaLocation pairs. A reader which detects versions automatically has no fixed set of 
+	 * schemas, and returns an empty string.
 	 * 
 	 * @return the string containing all schema locations
 	 */
 	public String getExternalSchemaLocations() {
+		if (getVersion() == null)
+			return ("");
 		try {
-			return ((String) getReader().getProperty(PROP_XERCES_EXTERNAL_LOCATION));
+			return ((String) getReader(getVersion()).getProperty(PROP_XERCES_EXTERNAL_LOCATION));
 		}
 		catch (SAXException e) {
 			throw new IllegalStateException(PROP_XERCES_EXTERNAL_LOCATION
@@ -276,9 +563,199 @@ public class DDMSReader {
 	}
 
 	/**
-	 * Accessor for the reader
+	 * Accessor for the DDMS version this reader validates against. Will be null if this reader detects the version
+	 * of each document automatically.
+	 */
+	public DDMSVersion getVersion() {
+		return _version;
+	}
+
+	/**
+	 * Returns the validating XML reader for a DDMS version, creating it the first time the version is encountered.
+	 * 
+	 * @param version the DDMS version
+	 * @return the XML reader
+	 */
+	private XMLReader getReader(DDMSVersion version) throws SAXException {
+		XMLReader reader = _readers.get(version);
+		if (reader == null) {
+			reader = createReader(version);
+			_readers.put(version, reader);
+		}
+		return (reader);
+	}
+
+	/**
+	 * Returns the non-validating XML reader used in trusted mode, creating it on first use.
+	 * 
+	 * @return the XML reader
+	 */
+	private XMLReader getTrustedReader() throws SAXException {
+		if (_trustedReader == null) {
+			_trustedReader = XMLReaderFactory.createXMLReader(PropertyReader.getProperty("xml.reader.class"));
+			_trustedReader.setFeature(PROP_XERCES_VALIDATION, false);
+			_trustedReader.setFeature(PROP_XERCES_SCHEMA_VALIDATION, false);
+		}
+		return (_trustedReader);
+	}
+
+	/**
+	 * Accessor for whether this reader is in trusted mode.
 	 */
-	private XMLReader getReader() {
-		return _reader;
+	public boolean isTrusted() {
+		return _trusted;
+	}
+
+	/**
+	 * Switches this reader into or out of trusted mode. In trusted mode, documents are only checked for well-formed
+	 * XML before they are converted into components, and no schema validation is performed. This is intended for
+	 * records which are known to be valid, such as those which were validated when they were first stored. The DDMS
+	 * components still apply their own validation rules as they are built, because a component can never be 
+	 * constructed in an invalid state.
+	 * 
+	 * <p>Trusted mode applies to {@link #getElement(Reader)}, {@link #getDDMSResource(Reader)}, their overloads, and
+	 * {@link #stream(InputStream)}. It does not affect {@link #validate(InputStream)}.</p>
+	 * 
+	 * @param trusted true to skip schema validation
+	 */
+	public void setTrusted(boolean trusted) {
+		_trusted = trusted;
+	}
+
+	/**
+	 * Accessor for whether this reader builds lazy Resources.
+	 */
+	public boolean isLazy() {
+		return _lazy;
+	}
+
+	/**
+	 * Switches this reader into or out of lazy mode. In lazy mode, each Resource only reads its own attributes when
+	 * it is built, and its child components are built the first time they are accessed. Validation of the Resource
+	 * as a whole is deferred until {@link Resource#materialize()} is called. See 
+	 * {@link Resource#Resource(Element, boolean)} for details.
+	 * 
+	 * <p>Lazy mode applies to {@link #getDDMSResource(Reader)}, its overloads, and {@link #stream(InputStream)}. It is
+	 * most useful together with schema validation, which still guarantees that each document is structurally valid
+	 * before it is returned.</p>
+	 * 
+	 * @param lazy true to defer building child components
+	 */
+	public void setLazy(boolean lazy) {
+		_lazy = lazy;
+	}
+
+	/**
+	 * Accessor for the component types loaded by this reader, which will be null if every component is loaded.
+	 */
+	public Set<Class<? extends IDDMSComponent>> getProjection() {
+		return (_projection == null ? null : _projection.getComponents());
+	}
+
+	/**
+	 * Limits this reader to loading some of the top-level components of each Resource, such as the identifiers,
+	 * titles and security. The top-level child elements which were not selected are dropped as the document is
+	 * parsed, so their subtrees never become XOM nodes or DDMS components. Schema validation, when it applies, still
+	 * covers the whole document.
+	 * 
+	 * <p>Selecting {@link buri.ddmsence.ddms.extensible.ExtensibleElement} keeps every element of the extensible layer, along with the Security
+	 * component which precedes it. Any type which is not a top-level component of a Resource is rejected.</p>
+	 * 
+	 * <p>The Resources built from a projection are partial, so they are always lazy (see 
+	 * {@link Resource#Resource(Element, boolean)}). Accessors for components which were not selected return empty 
+	 * lists or null, and {@link Resource#materialize()} will usually fail, because the whole-resource cardinality
+	 * rules cannot be satisfied. The projection applies to {@link #getElement(Reader)}, 
+	 * {@link #getDDMSResource(Reader)}, their overloads, and {@link #stream(InputStream)}. It does not affect 
+	 * {@link #validate(InputStream)}. When streaming, each record is validated as it is read, and is pruned as it is
+	 * built, so the unselected components never become XOM nodes.</p>
+	 * 
+	 * @param components the component types to load, or null to load every component
+	 * @throws IllegalArgumentException if any of the types is not a top-level component of a Resource
+	 */
+	public void setProjection(Set<Class<? extends IDDMSComponent>> components) {
+		_projection = (components == null ? null : new Projection(components));
+	}
+
+	/**
+	 * Wraps a SAX reader in the filter for the projection of this reader, if there is one.
+	 * 
+	 * @param xmlReader the SAX reader
+	 * @return the reader to parse with
+	 */
+	private XMLReader project(XMLReader xmlReader) {
+		return (_projection == null ? xmlReader : _projection.filter(xmlReader));
+	}
+
+	/**
+	 * Accessor for the StAX factory used to detect versions, which is created on first use.
+	 */
+	private XMLInputFactory getInputFactory() {
+		if (_inputFactory == null) {
+			_inputFactory = XMLInputFactory.newInstance();
+			_inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		}
+		return (_inputFactory);
+	}
+
+	/**
+	 * Reader which records everything read from an underlying reader, and can then replay it from the beginning
+	 * before continuing with the rest of the underlying reader. This allows the start of a document to be examined
+	 * without reading the document a second time.
+	 */
+	private static class ReplayReader extends Reader {
+		private final Reader _source;
+		private char[] _buffer = new char[1024];
+		private int _length = 0;
+		private int _position = 0;
+		private boolean _recording = true;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param source the underlying reader
+		 */
+		public ReplayReader(Reader source) {
+			_source = source;
+		}
+
+		/**
+		 * Stops recording, and rewinds to the first character read.
+		 */
+		public void replay() {
+			_recording = false;
+			_position = 0;
+		}
+
+		/**
+		 * @see Reader#read(char[], int, int)
+		 */
+		public int read(char[] chars, int offset, int length) throws IOException {
+			if (_recording) {
+				int count = _source.read(chars, offset, length);
+				if (count > 0) {
+					if (_length + count > _buffer.length)
+						_buffer = Arrays.copyOf(_buffer, Math.max(_buffer.length * 2, _length + count));
+					System.arraycopy(chars, offset, _buffer, _length, count);
+					_length += count;
+				}
+				return (count);
+			}
+			if (_position < _length) {
+				int count = Math.min(length, _length - _position);
+				System.arraycopy(_buffer, _position, chars, offset, count);
+				_position += count;
+				if (_position == _length)
+					_buffer = null;
+				return (count);
+			}
+			return (_source.read(chars, offset, length));
+		}
+
+		/**
+		 * @see Reader#close()
+		 */
+		public void close() throws IOException {
+			_source.close();
+		}
 	}
 }
\ No newline at end of file
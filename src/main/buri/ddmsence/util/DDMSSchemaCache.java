@@ -0,0 +1,189 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.util;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.validation.Schema;
+
+import org.apache.xerces.jaxp.validation.XMLSchemaFactory;
+import org.apache.xerces.parsers.XMLGrammarPreparser;
+import org.apache.xerces.util.XMLGrammarPoolImpl;
+import org.apache.xerces.xni.XNIException;
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
+import org.apache.xerces.xni.grammars.XMLGrammarPool;
+import org.apache.xerces.xni.parser.XMLInputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Process-wide cache of precompiled DDMS schema grammars.
+ *
+ * <p>
+ * Compiling the DDMS, ISM, GML, NTK, and TSPI schemas is the most expensive part of creating a validating parser.
+ * This cache compiles the schema set for each DDMS version exactly once, the first time it is requested, and stores
+ * the result in a Xerces grammar pool. The pool is locked as soon as it has been warmed, so it is read-only from that
+ * point on and can be shared safely by any number of readers on any number of threads.
+ * </p>
+ *
+ * <p>
+ * A separate pool is maintained for each DDMS version, because some versions share XML namespaces (such as ISM in
+ * DDMS 3.0 and 3.1) while using different schema files.
+ * </p>
+ *
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public final class DDMSSchemaCache {
+
+	private static final Map<DDMSVersion, XMLGrammarPool> GRAMMAR_POOLS = new ConcurrentHashMap<DDMSVersion, XMLGrammarPool>();
+	private static final Map<DDMSVersion, Schema> SCHEMAS = new ConcurrentHashMap<DDMSVersion, Schema>();
+
+	/** The Xerces property used to share a grammar pool with a parser */
+	public static final String PROP_XERCES_GRAMMAR_POOL = "http://apache.org/xml/properties/internal/grammar-pool";
+
+	private static final String FEATURE_NAMESPACES = "http://xml.org/sax/features/namespaces";
+	private static final String FEATURE_SCHEMA_VALIDATION = "http://apache.org/xml/features/validation/schema";
+
+	/**
+	 * Private to prevent instantiation
+	 */
+	private DDMSSchemaCache() {}
+
+	/**
+	 * Returns the locked grammar pool for a DDMS version, compiling the schemas on the first request.
+	 *
+	 * @param version the DDMS version
+	 * @return a read-only grammar pool containing every grammar reachable from the schemas of that version
+	 * @throws IllegalStateException if the local schemas could not be compiled
+	 */
+	public static XMLGrammarPool getGrammarPool(DDMSVersion version) {
+		Util.requireValue("version", version);
+		XMLGrammarPool pool = GRAMMAR_POOLS.get(version);
+		if (pool == null) {
+			synchronized (GRAMMAR_POOLS) {
+				pool = GRAMMAR_POOLS.get(version);
+				if (pool == null) {
+					pool = buildGrammarPool(version);
+					GRAMMAR_POOLS.put(version, pool);
+				}
+			}
+		}
+		return (pool);
+	}
+
+	/**
+	 * Returns a JAXP Schema for a DDMS version, backed by the same locked grammar pool used by DDMSReaders. Schemas
+	 * are immutable and thread-safe, so the same instance is returned on every call. Validators created from it are
+	 * not thread-safe, and should not be shared between threads.
+	 *
+	 * @param version the DDMS version
+	 * @return the compiled Schema
+	 * @throws IllegalStateException if the local schemas could not be compiled
+	 */
+	public static Schema getSchema(DDMSVersion version) {
+		Util.requireValue("version", version);
+		Schema schema = SCHEMAS.get(version);
+		if (schema == null) {
+			synchronized (SCHEMAS) {
+				schema = SCHEMAS.get(version);
+				if (schema == null) {
+					try {
+						schema = new XMLSchemaFactory().newSchema(getGrammarPool(version));
+					}
+					catch (SAXException e) {
+						throw new IllegalStateException("Unable to compile the schemas for DDMS " + version + ": "
+							+ e.getMessage());
+					}
+					SCHEMAS.put(version, schema);
+				}
+			}
+		}
+		return (schema);
+	}
+
+	/**
+	 * Compiles all of the schemas for a DDMS version into a new grammar pool, and then locks the pool.
+	 *
+	 * @param version the DDMS version
+	 * @return the locked pool
+	 */
+	private static XMLGrammarPool buildGrammarPool(DDMSVersion version) {
+		XMLGrammarPoolImpl pool = new XMLGrammarPoolImpl();
+		XMLGrammarPreparser preparser = new XMLGrammarPreparser();
+		preparser.registerPreparser(XMLGrammarDescription.XML_SCHEMA, null);
+		preparser.setProperty(PROP_XERCES_GRAMMAR_POOL, pool);
+		preparser.setFeature(FEATURE_NAMESPACES, true);
+		preparser.setFeature(FEATURE_SCHEMA_VALIDATION, true);
+		try {
+			for (String location : getSchemaLocations(version).values()) {
+				preparser.preparseGrammar(XMLGrammarDescription.XML_SCHEMA, new XMLInputSource(null, location, null));
+			}
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Unable to compile the schemas for DDMS " + version + ": "
+				+ e.getMessage());
+		}
+		catch (XNIException e) {
+			throw new IllegalStateException("Unable to compile the schemas for DDMS " + version + ": "
+				+ e.getMessage());
+		}
+		pool.lockPool();
+		return (pool);
+	}
+
+	/**
+	 * Returns the full paths to the local copies of the top-level schemas for a DDMS version, keyed by XML namespace.
+	 * The DDMS schema is always first, followed by any GML, NTK, and TSPI schemas the version uses.
+	 *
+	 * @param version the DDMS version
+	 * @return an ordered, unmodifiable map of XML namespaces to schema locations
+	 * @throws IllegalArgumentException if a schema could not be found
+	 */
+	public static Map<String, String> getSchemaLocations(DDMSVersion version) {
+		Util.requireValue("version", version);
+		Map<String, String> locations = new LinkedHashMap<String, String>();
+		addSchemaLocation(locations, version.getNamespace(), version.getSchema());
+		addSchemaLocation(locations, version.getGmlNamespace(), version.getGmlSchema());
+		addSchemaLocation(locations, version.getNtkNamespace(), version.getNtkSchema());
+		addSchemaLocation(locations, version.getTspiNamespace(), version.getTspiSchema());
+		return (Collections.unmodifiableMap(locations));
+	}
+
+	/**
+	 * Helper method to add a schema location, if the version uses the namespace and it has not already been added.
+	 *
+	 * @param locations the map of locations to add to
+	 * @param namespace the XML namespace
+	 * @param schemaLocation the relative schema location as specified in the properties file
+	 */
+	private static void addSchemaLocation(Map<String, String> locations, String namespace, String schemaLocation) {
+		if (!locations.containsKey(namespace) && !Util.isEmpty(schemaLocation)) {
+			URL xsd = DDMSSchemaCache.class.getResource(schemaLocation);
+			if (xsd == null)
+				throw new IllegalArgumentException("Unable to load a local copy of the schema for validation.");
+			locations.put(namespace, xsd.toExternalForm().replaceAll(" ", "%20"));
+		}
+	}
+}
@@ -19,11 +19,11 @@
  */
 package buri.ddmsence.util;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.Set;
 
 import buri.ddmsence.ddms.UnsupportedVersionException;
 import buri.ddmsence.ddms.security.ism.ISMVocabulary;
@@ -39,6 +39,10 @@ import buri.ddmsence.ddms.security.ism.ISMVocabulary;
  * <code>buri.ddmsence.ddms.defaultVersion</code> in the properties file. This defaults to 4.1 right now.</p>
  * 
  * <p>
+ * The currentVersion is shared by every thread. Programs which work with several DDMS versions at the same time, on
+ * different threads, should bind a {@link DDMSContext} to each thread instead.</p>
+ * 
+ * <p>
  * The ddmsence.properties file has a property, <code>ddms.supportedVersions</code> which can be a comma-separated list
  * of version
  * numbers. Each of these token values then has a set of properties which identify the namespace and schema locations
@@ -83,6 +87,7 @@ import buri.ddmsence.ddms.security.ism.ISMVocabulary;
  */
 public class DDMSVersion {
 
+	private int _ordinal;
 	private String _version;
 	private String _namespace;
 	private String _schema;
@@ -98,12 +103,28 @@ public class DDMSVersion {
 	private String _virtNamespace;
 	private String _xlinkNamespace;
 
-	private static DDMSVersion _currentVersion;
+	private static volatile DDMSVersion _currentVersion;
 
-	private static final Map<String, DDMSVersion> VERSIONS_TO_DETAILS = new TreeMap<String, DDMSVersion>();
+	private static final List<String> SUPPORTED_VERSIONS = PropertyReader.getListProperty("ddms.supportedVersions");
+	private static final Set<String> SUPPORTED_DDMS_NAMESPACES = new HashSet<String>();
+	private static final Map<String, DDMSVersion> VERSIONS_TO_DETAILS = new HashMap<String, DDMSVersion>();
+	private static final Map<String, DDMSVersion> NAMESPACES_TO_VERSIONS = new HashMap<String, DDMSVersion>();
 	static {
-		for (String version : PropertyReader.getListProperty("ddms.supportedVersions")) {
-			VERSIONS_TO_DETAILS.put(version, new DDMSVersion(version));
+		for (String version : SUPPORTED_VERSIONS) {
+			DDMSVersion details = new DDMSVersion(version);
+			VERSIONS_TO_DETAILS.put(version, details);
+			SUPPORTED_DDMS_NAMESPACES.add(details.getNamespace());
+		}
+		
+		// When several versions share an XML namespace, the newest version claims it.
+		for (int i = SUPPORTED_VERSIONS.size() - 1; i >= 0; i--) {
+			DDMSVersion version = VERSIONS_TO_DETAILS.get(SUPPORTED_VERSIONS.get(i));
+			for (String namespace : new String[] { version.getNamespace(), version.getIsmNamespace(),
+				version.getNtkNamespace(), version.getGmlNamespace(), version.getTspiNamespace(),
+				version.getVirtNamespace(), version.getXlinkNamespace() }) {
+				if (!NAMESPACES_TO_VERSIONS.containsKey(namespace))
+					NAMESPACES_TO_VERSIONS.put(namespace, version);
+			}
 		}
 		_currentVersion = getVersionFor(PropertyReader.getProperty("ddms.defaultVersion"));
 	}
@@ -114,9 +135,9 @@ public class DDMSVersion {
 	 * @param version the number as shown in ddms.supportedVersions.
 	 */
 	private DDMSVersion(String version) {
-		int index = getSupportedVersionsProperty().indexOf(version);
+		_ordinal = SUPPORTED_VERSIONS.indexOf(version);
 		_version = version;
-		_namespace = getSupportedDDMSNamespacesProperty().get(index);
+		_namespace = PropertyReader.getProperty(version + ".ddms.xmlNamespace");
 		_schema = PropertyReader.getProperty(version + ".ddms.xsdLocation");
 		_gmlNamespace = PropertyReader.getProperty(version + ".gml.xmlNamespace");
 		_gmlSchema = PropertyReader.getProperty(version + ".gml.xsdLocation");
@@ -139,43 +160,32 @@ public class DDMSVersion {
 	 * @return true if the version is equal to or greater than the test version
 	 */
 	public boolean isAtLeast(String version) {
-		version = aliasVersion(version);
-		if (!getSupportedVersionsProperty().contains(version))
-			throw new UnsupportedVersionException(version);
-		int index = getSupportedVersionsProperty().indexOf(this.getVersion());
-		int testIndex = getSupportedVersionsProperty().indexOf(version);
-		return (index >= testIndex);
-	}
-
-	/**
-	 * Returns a list of supported DDMS versions
-	 * 
-	 * @return List of string version numbers
-	 */
-	public static List<String> getSupportedVersions() {
-		return Collections.unmodifiableList(getSupportedVersionsProperty());
+		DDMSVersion testVersion = VERSIONS_TO_DETAILS.get(aliasVersion(version));
+		if (testVersion == null)
+			throw new UnsupportedVersionException(aliasVersion(version));
+		return (isAtLeast(testVersion));
 	}
 
 	/**
-	 * Private accessor for the property containing the supported versions list
+	 * Checks if this version is equal to or higher than another version. This is a comparison of the positions of
+	 * the two versions in the list of supported versions.
 	 * 
-	 * @return List of String version numbers
+	 * @param version the version to check
+	 * @return true if this version is equal to or greater than the test version
+	 * @since 2.5.0
 	 */
-	private static List<String> getSupportedVersionsProperty() {
-		return (PropertyReader.getListProperty("ddms.supportedVersions"));
+	public boolean isAtLeast(DDMSVersion version) {
+		Util.requireValue("version", version);
+		return (getOrdinal() >= version.getOrdinal());
 	}
 
 	/**
-	 * Private accessor for the property containing the supported DDMS XML namespace list
+	 * Returns a list of supported DDMS versions
 	 * 
-	 * @return List of String version numbers
+	 * @return List of string version numbers
 	 */
-	private static List<String> getSupportedDDMSNamespacesProperty() {
-		List<String> supportedNamespaces = new ArrayList<String>();
-		for (String version : getSupportedVersionsProperty()) {
-			supportedNamespaces.add(PropertyReader.getProperty(version + ".ddms.xmlNamespace"));
-		}
-		return (supportedNamespaces);
+	public static List<String> getSupportedVersions() {
+		return (SUPPORTED_VERSIONS);
 	}
 
 	/**
@@ -185,7 +195,7 @@ public class DDMSVersion {
 	 * @return true if the namespace is supported
 	 */
 	public static boolean isSupportedDDMSNamespace(String xmlNamespace) {
-		return (getSupportedDDMSNamespacesProperty().contains(xmlNamespace));
+		return (SUPPORTED_DDMS_NAMESPACES.contains(xmlNamespace));
 	}
 
 	/**
@@ -197,9 +207,10 @@ public class DDMSVersion {
 	 */
 	public static DDMSVersion getVersionFor(String version) {
 		version = aliasVersion(version);
-		if (!getSupportedVersionsProperty().contains(version))
+		DDMSVersion details = VERSIONS_TO_DETAILS.get(version);
+		if (details == null)
 			throw new UnsupportedVersionException(version);
-		return (VERSIONS_TO_DETAILS.get(version));
+		return (details);
 	}
 
 	/**
@@ -212,17 +223,10 @@ public class DDMSVersion {
 	 * @throws UnsupportedVersionException if the version number is not supported
 	 */
 	public static DDMSVersion getVersionForNamespace(String namespace) {
-		List<DDMSVersion> versions = new ArrayList<DDMSVersion>(VERSIONS_TO_DETAILS.values());
-		Collections.reverse(versions);
-		for (DDMSVersion version : versions) {
-			if (version.getNamespace().equals(namespace) || version.getIsmNamespace().equals(namespace)
-				|| version.getNtkNamespace().equals(namespace) || version.getGmlNamespace().equals(namespace)
-				|| version.getTspiNamespace().equals(namespace) || version.getVirtNamespace().equals(namespace)
-				|| version.getXlinkNamespace().equals(namespace)) {
-				return (version);
-			}
-		}
-		throw new UnsupportedVersionException("for XML namespace " + namespace);
+		DDMSVersion version = NAMESPACES_TO_VERSIONS.get(namespace);
+		if (version == null)
+			throw new UnsupportedVersionException("for XML namespace " + namespace);
+		return (version);
 	}
 
 	/**
@@ -230,16 +234,24 @@ public class DDMSVersion {
 	 * schema to use. Also updates the ISMVersion on the ISMVocabulary class, which is used to determine
 	 * which set of IC CVEs to validate with.
 	 * 
+	 * <p>If a {@link DDMSContext} is bound to the current thread, only that thread's context is replaced, with a copy 
+	 * for the new version. The process-wide version is unchanged.</p>
+	 * 
 	 * @param version the new version, which must be supported by DDMSence
 	 * @return the version which was just set, as a full-fledged DDMSVersion object
 	 * @throws UnsupportedVersionException if the version is not supported
 	 */
-	public static synchronized DDMSVersion setCurrentVersion(String version) {
-		version = aliasVersion(version);
-		if (!getSupportedVersionsProperty().contains(version))
-			throw new UnsupportedVersionException(version);
-		_currentVersion = getVersionFor(version);
-		ISMVocabulary.setDDMSVersion(getCurrentVersion());
+	public static DDMSVersion setCurrentVersion(String version) {
+		DDMSVersion details = getVersionFor(version);
+		DDMSContext context = DDMSContext.getBound();
+		if (context != null) {
+			DDMSContext.bind(context.withVersion(details));
+			return (getCurrentVersion());
+		}
+		synchronized (DDMSVersion.class) {
+			_currentVersion = details;
+			ISMVocabulary.setDDMSVersion(_currentVersion);
+		}
 		return (getCurrentVersion());
 	}
 
@@ -260,9 +272,18 @@ public class DDMSVersion {
 	}
 
 	/**
-	 * Accessor for the current version. If not set, returns the default from the properties file.
+	 * Accessor for the current version. If a {@link DDMSContext} is bound to the current thread, this is the version
+	 * of that context. Otherwise, it is the process-wide version, which defaults to the value in the properties file.
 	 */
 	public static DDMSVersion getCurrentVersion() {
+		DDMSContext context = DDMSContext.getBound();
+		return (context == null ? _currentVersion : context.getVersion());
+	}
+
+	/**
+	 * Accessor for the process-wide version, ignoring any DDMSContext bound to the current thread.
+	 */
+	static DDMSVersion getGlobalVersion() {
 		return (_currentVersion);
 	}
 
@@ -280,6 +301,15 @@ public class DDMSVersion {
 		return (getVersion());
 	}
 
+	/**
+	 * Accessor for the position of this version in the list of supported versions, where the oldest version is 0.
+	 * 
+	 * @since 2.5.0
+	 */
+	public int getOrdinal() {
+		return _ordinal;
+	}
+
 	/**
 	 * Accessor for the version number
 	 */
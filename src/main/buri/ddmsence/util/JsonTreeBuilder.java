@@ -0,0 +1,245 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * A JSON stream which builds a tree of JSON elements in memory instead of writing text.
+ * 
+ * <p>
+ * Components write their JSON to a JsonWriter, so this stream lets the same code produce the JsonObject returned by
+ * getJSONObject(), without writing the JSON out as text and parsing it again. It relies only on the public Gson API.
+ * </p>
+ * 
+ * <p>I consider this to be an internal class, that unfortunately must be marked as public to allow cross-package
+ * access when generating output.</p>
+ * 
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public final class JsonTreeBuilder extends JsonWriter {
+
+	private final List<JsonElement> _stack = new ArrayList<JsonElement>();
+	private String _pendingName = null;
+	private JsonElement _product = JsonNull.INSTANCE;
+
+	private static final Writer UNWRITABLE_WRITER = new Writer() {
+		public void write(char[] buffer, int offset, int count) {
+			throw new AssertionError();
+		}
+
+		public void flush() {
+			throw new AssertionError();
+		}
+
+		public void close() {
+			throw new AssertionError();
+		}
+	};
+
+	/**
+	 * Constructor
+	 */
+	public JsonTreeBuilder() {
+		super(UNWRITABLE_WRITER);
+	}
+
+	/**
+	 * Returns the element which was written.
+	 * 
+	 * @return the element, or a JSON null if nothing was written
+	 * @throws IllegalStateException if an array or object is still open
+	 */
+	public JsonElement get() {
+		if (!_stack.isEmpty())
+			throw new IllegalStateException("The JSON is incomplete.");
+		return (_product);
+	}
+
+	/**
+	 * Returns the array or object which is currently open.
+	 * 
+	 * @return the element, or null if nothing is open
+	 */
+	private JsonElement peek() {
+		return (_stack.isEmpty() ? null : _stack.get(_stack.size() - 1));
+	}
+
+	/**
+	 * Adds a value to the open array or object, or makes it the result if nothing is open.
+	 * 
+	 * @param value the value
+	 */
+	private void put(JsonElement value) {
+		JsonElement open = peek();
+		if (_pendingName != null) {
+			if (!value.isJsonNull() || getSerializeNulls())
+				((JsonObject) open).add(_pendingName, value);
+			_pendingName = null;
+		}
+		else if (open == null)
+			_product = value;
+		else if (open instanceof JsonArray)
+			((JsonArray) open).add(value);
+		else
+			throw new IllegalStateException("A value inside an object must have a name.");
+	}
+
+	/**
+	 * Closes the open array or object.
+	 * 
+	 * @param type the type of element being closed
+	 */
+	private void close(Class<? extends JsonElement> type) {
+		if (_pendingName != null || !type.isInstance(peek()))
+			throw new IllegalStateException("There is no open " + type.getSimpleName() + " to close.");
+		_stack.remove(_stack.size() - 1);
+	}
+
+	/**
+	 * @see JsonWriter#beginArray()
+	 */
+	public JsonWriter beginArray() throws IOException {
+		JsonArray array = new JsonArray();
+		put(array);
+		_stack.add(array);
+		return (this);
+	}
+
+	/**
+	 * @see JsonWriter#endArray()
+	 */
+	public JsonWriter endArray() throws IOException {
+		close(JsonArray.class);
+		return (this);
+	}
+
+	/**
+	 * @see JsonWriter#beginObject()
+	 */
+	public JsonWriter beginObject() throws IOException {
+		JsonObject object = new JsonObject();
+		put(object);
+		_stack.add(object);
+		return (this);
+	}
+
+	/**
+	 * @see JsonWriter#endObject()
+	 */
+	public JsonWriter endObject() throws IOException {
+		close(JsonObject.class);
+		return (this);
+	}
+
+	/**
+	 * @see JsonWriter#name(String)
+	 */
+	public JsonWriter name(String name) throws IOException {
+		Util.requireValue("name", name);
+		if (_pendingName != null || !(peek() instanceof JsonObject))
+			throw new IllegalStateException("A name must be written inside an object, before its value.");
+		_pendingName = name;
+		return (this);
+	}
+
+	/**
+	 * @see JsonWriter#value(String)
+	 */
+	public JsonWriter value(String value) throws IOException {
+		if (value == null)
+			return (nullValue());
+		put(new JsonPrimitive(value));
+		return (this);
+	}
+
+	/**
+	 * @see JsonWriter#nullValue()
+	 */
+	public JsonWriter nullValue() throws IOException {
+		put(JsonNull.INSTANCE);
+		return (this);
+	}
+
+	/**
+	 * @see JsonWriter#value(boolean)
+	 */
+	public JsonWriter value(boolean value) throws IOException {
+		put(new JsonPrimitive(Boolean.valueOf(value)));
+		return (this);
+	}
+
+	/**
+	 * @see JsonWriter#value(double)
+	 */
+	public JsonWriter value(double value) throws IOException {
+		if (!isLenient() && (Double.isNaN(value) || Double.isInfinite(value)))
+			throw new IllegalArgumentException("JSON forbids NaN and infinities: " + value);
+		put(new JsonPrimitive(Double.valueOf(value)));
+		return (this);
+	}
+
+	/**
+	 * @see JsonWriter#value(long)
+	 */
+	public JsonWriter value(long value) throws IOException {
+		put(new JsonPrimitive(Long.valueOf(value)));
+		return (this);
+	}
+
+	/**
+	 * @see JsonWriter#value(Number)
+	 */
+	public JsonWriter value(Number value) throws IOException {
+		if (value == null)
+			return (nullValue());
+		double test = value.doubleValue();
+		if (!isLenient() && (Double.isNaN(test) || Double.isInfinite(test)))
+			throw new IllegalArgumentException("JSON forbids NaN and infinities: " + value);
+		put(new JsonPrimitive(value));
+		return (this);
+	}
+
+	/**
+	 * Does nothing, since nothing is written.
+	 * 
+	 * @see JsonWriter#flush()
+	 */
+	public void flush() throws IOException {}
+
+	/**
+	 * @see JsonWriter#close()
+	 */
+	public void close() throws IOException {
+		if (!_stack.isEmpty())
+			throw new IOException("The JSON is incomplete.");
+	}
+}
@@ -0,0 +1,250 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.util;
+
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the settings which control HTML, Text and JSON output: the index level, whether attribute
+ * groups are inlined in JSON, and whether JSON is pretty-printed.
+ *
+ * <p>
+ * These settings come from the configurable properties <code>output.indexLevel</code>,
+ * <code>output.json.inlineAttributes</code> and <code>output.json.prettyPrint</code>. Reading a property goes through
+ * a synchronized Properties object, so the process-wide snapshot is kept ready and replaced whenever
+ * {@link PropertyReader#setProperty(String, String)} changes one of these properties, and each {@link DDMSContext}
+ * takes its own snapshot when it is created. {@link #getCurrent()} never reads the properties. In addition, each
+ * rendering method binds the snapshot to the current thread while the component tree is rendered, so nested
+ * components see the same settings even if the properties change part way through. The properties can still be
+ * changed at any time, and take effect from the next rendering.
+ * </p>
+ *
+ * <p>
+ * A snapshot can also be passed to <code>toHTML()</code>, <code>toText()</code>, <code>toJSON()</code> or their
+ * streaming equivalents directly, so several threads can render with different settings at once, without changing
+ * the properties:
+ * </p>
+ *
+ * <pre>
+ * OutputOptions options = OutputOptions.getCurrent().withIndexLevel(2);
+ * String text = resource.toText(options);
+ * </pre>
+ *
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public final class OutputOptions {
+
+	private final int _indexLevel;
+	private final boolean _inlineAttributes;
+	private final boolean _prettyPrint;
+
+	private static final ThreadLocal<OutputOptions> BOUND_OPTIONS = new ThreadLocal<OutputOptions>();
+	private static volatile OutputOptions _processOptions = fromProperties(PropertyReader.getConfigurableProperties());
+
+	/**
+	 * Constructor
+	 *
+	 * @param indexLevel when to show indices on repeated HTML/Text names, from 0 (never) to 2 (always)
+	 * @param inlineAttributes true to write the attributes of attribute groups straight into their parent JSON object
+	 * @param prettyPrint true to indent JSON output
+	 * @throws IllegalArgumentException if the index level is not 0, 1 or 2
+	 */
+	public OutputOptions(int indexLevel, boolean inlineAttributes, boolean prettyPrint) {
+		if (indexLevel < 0 || indexLevel > 2)
+			throw new IllegalArgumentException("The index level must be 0, 1 or 2.");
+		_indexLevel = indexLevel;
+		_inlineAttributes = inlineAttributes;
+		_prettyPrint = prettyPrint;
+	}
+
+	/**
+	 * Returns the settings for the current thread. While a rendering is in progress, this is the snapshot it bound.
+	 * Otherwise, it is the snapshot of the DDMSContext bound to this thread, if any, or of the process-wide
+	 * configurable properties.
+	 *
+	 * @return the settings, never null
+	 */
+	public static OutputOptions getCurrent() {
+		OutputOptions options = getBound();
+		if (options == null) {
+			DDMSContext context = DDMSContext.getBound();
+			options = (context == null ? _processOptions : context.getOutputOptions());
+		}
+		return (options);
+	}
+
+	/**
+	 * Takes a snapshot of the output settings among a set of configurable property values.
+	 *
+	 * @param properties the property keys, without the "buri.ddmsence." prefix, mapped to values
+	 * @return the settings
+	 */
+	static OutputOptions fromProperties(Map<String, String> properties) {
+		return (new OutputOptions(getIndexLevel(properties.get("output.indexLevel")),
+			Boolean.valueOf(properties.get("output.json.inlineAttributes")).booleanValue(),
+			Boolean.valueOf(properties.get("output.json.prettyPrint")).booleanValue()));
+	}
+
+	/**
+	 * Replaces the process-wide snapshot after one of the output properties has changed. The properties are read while
+	 * holding the lock, so that when two threads change them at once, the snapshot left behind is the latest.
+	 */
+	static synchronized void refreshProcessOptions() {
+		_processOptions = fromProperties(PropertyReader.getConfigurableProperties());
+	}
+
+	/**
+	 * Returns the settings bound to the current thread by a rendering in progress.
+	 *
+	 * @return the settings, or null if none are bound
+	 */
+	public static OutputOptions getBound() {
+		return (BOUND_OPTIONS.get());
+	}
+
+	/**
+	 * Binds settings to the current thread for the length of a rendering, replacing any which were already bound.
+	 *
+	 * <p>I consider this to be an internal method, that unfortunately must be marked as public to allow cross-package
+	 * access when generating output.</p>
+	 *
+	 * @param options the settings to bind, or null to unbind them
+	 * @return the settings which were previously bound, or null if there were none. This can be passed back to
+	 *         <code>bind()</code> to restore them.
+	 */
+	public static OutputOptions bind(OutputOptions options) {
+		OutputOptions previous = getBound();
+		if (options == null)
+			BOUND_OPTIONS.remove();
+		else
+			BOUND_OPTIONS.set(options);
+		return (previous);
+	}
+
+	/**
+	 * Converts the value of the <code>output.indexLevel</code> property into an index level. Values other than 1 or
+	 * 2 are treated as 0.
+	 *
+	 * @param value the property value
+	 * @return the index level
+	 */
+	private static int getIndexLevel(String value) {
+		if ("1".equals(value))
+			return (1);
+		if ("2".equals(value))
+			return (2);
+		return (0);
+	}
+
+	/**
+	 * Returns a copy of these settings with a different index level.
+	 *
+	 * @param indexLevel the index level, from 0 to 2
+	 * @return new settings, or these settings if the index level is unchanged
+	 * @throws IllegalArgumentException if the index level is not 0, 1 or 2
+	 */
+	public OutputOptions withIndexLevel(int indexLevel) {
+		if (indexLevel == getIndexLevel())
+			return (this);
+		return (new OutputOptions(indexLevel, isInlineAttributes(), isPrettyPrint()));
+	}
+
+	/**
+	 * Returns a copy of these settings with a different choice of inlined JSON attributes.
+	 *
+	 * @param inlineAttributes true to inline attribute groups
+	 * @return new settings, or these settings if the choice is unchanged
+	 */
+	public OutputOptions withInlineAttributes(boolean inlineAttributes) {
+		if (inlineAttributes == isInlineAttributes())
+			return (this);
+		return (new OutputOptions(getIndexLevel(), inlineAttributes, isPrettyPrint()));
+	}
+
+	/**
+	 * Returns a copy of these settings with a different choice of pretty-printed JSON.
+	 *
+	 * @param prettyPrint true to indent JSON output
+	 * @return new settings, or these settings if the choice is unchanged
+	 */
+	public OutputOptions withPrettyPrint(boolean prettyPrint) {
+		if (prettyPrint == isPrettyPrint())
+			return (this);
+		return (new OutputOptions(getIndexLevel(), isInlineAttributes(), prettyPrint));
+	}
+
+	/**
+	 * Constructs a braced 1-based index to differentiate multiples in HTML/Text output. At index level 0, indices are
+	 * never shown. At 1, indices are shown when needed, but hidden when there is only 1 item to display. At 2, indices
+	 * are always shown.
+	 *
+	 * @param index the 0-based index of an item in a list
+	 * @param total the total number of items in that list
+	 * @return a String containing the index text, if applicable
+	 */
+	public String getIndex(int index, int total) {
+		if (getIndexLevel() == 2 || (getIndexLevel() == 1 && total > 1))
+			return ("[" + (index + 1) + "]");
+		return ("");
+	}
+
+	/**
+	 * @see Object#equals(Object)
+	 */
+	public boolean equals(Object obj) {
+		if (!(obj instanceof OutputOptions))
+			return (false);
+		OutputOptions test = (OutputOptions) obj;
+		return (getIndexLevel() == test.getIndexLevel() && isInlineAttributes() == test.isInlineAttributes()
+			&& isPrettyPrint() == test.isPrettyPrint());
+	}
+
+	/**
+	 * @see Object#hashCode()
+	 */
+	public int hashCode() {
+		int result = getIndexLevel();
+		result = 7 * result + (isInlineAttributes() ? 1 : 0);
+		result = 7 * result + (isPrettyPrint() ? 1 : 0);
+		return (result);
+	}
+
+	/**
+	 * Accessor for when to show indices on repeated HTML/Text names, from 0 (never) to 2 (always)
+	 */
+	public int getIndexLevel() {
+		return (_indexLevel);
+	}
+
+	/**
+	 * Accessor for whether the attributes of attribute groups are written straight into their parent JSON object
+	 */
+	public boolean isInlineAttributes() {
+		return (_inlineAttributes);
+	}
+
+	/**
+	 * Accessor for whether JSON output is indented
+	 */
+	public boolean isPrettyPrint() {
+		return (_prettyPrint);
+	}
+}
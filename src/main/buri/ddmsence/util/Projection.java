@@ -0,0 +1,352 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.SAXNotSupportedException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.ext.LexicalHandler;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+import buri.ddmsence.ddms.IDDMSComponent;
+import buri.ddmsence.ddms.extensible.ExtensibleElement;
+import buri.ddmsence.ddms.format.Format;
+import buri.ddmsence.ddms.metacard.MetacardInfo;
+import buri.ddmsence.ddms.resource.Contributor;
+import buri.ddmsence.ddms.resource.Creator;
+import buri.ddmsence.ddms.resource.Dates;
+import buri.ddmsence.ddms.resource.Identifier;
+import buri.ddmsence.ddms.resource.Language;
+import buri.ddmsence.ddms.resource.PointOfContact;
+import buri.ddmsence.ddms.resource.Publisher;
+import buri.ddmsence.ddms.resource.ResourceManagement;
+import buri.ddmsence.ddms.resource.Rights;
+import buri.ddmsence.ddms.resource.Source;
+import buri.ddmsence.ddms.resource.Subtitle;
+import buri.ddmsence.ddms.resource.Title;
+import buri.ddmsence.ddms.resource.Type;
+import buri.ddmsence.ddms.security.Security;
+import buri.ddmsence.ddms.summary.Description;
+import buri.ddmsence.ddms.summary.GeospatialCoverage;
+import buri.ddmsence.ddms.summary.RelatedResource;
+import buri.ddmsence.ddms.summary.SubjectCoverage;
+import buri.ddmsence.ddms.summary.TemporalCoverage;
+import buri.ddmsence.ddms.summary.VirtualCoverage;
+
+/**
+ * An immutable selection of the top-level components of a Resource which should be loaded by a DDMSReader.
+ *
+ * <p>
+ * Any top-level child element of a Resource which was not selected is dropped while the document is being parsed,
+ * so its subtree is never built as XOM nodes. Selecting {@link ExtensibleElement} keeps every child element outside
+ * of the DDMS namespace, and also keeps the security component, which marks the start of the extensible layer.
+ * </p>
+ *
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+final class Projection {
+
+	private final Set<Class<? extends IDDMSComponent>> _components;
+	private final Map<DDMSVersion, Set<String>> _names = new HashMap<DDMSVersion, Set<String>>();
+	private final boolean _includeExtensible;
+
+	private static final String PROP_LEXICAL_HANDLER = "http://xml.org/sax/properties/lexical-handler";
+
+	/**
+	 * Constructor
+	 *
+	 * @param components the top-level component types to load
+	 * @throws IllegalArgumentException if any of the types is not a top-level component of a Resource
+	 */
+	public Projection(Set<Class<? extends IDDMSComponent>> components) {
+		Util.requireValue("components", components);
+		_components = Collections.unmodifiableSet(new HashSet<Class<? extends IDDMSComponent>>(components));
+		_includeExtensible = _components.contains(ExtensibleElement.class);
+		for (String sVersion : DDMSVersion.getSupportedVersions()) {
+			DDMSVersion version = DDMSVersion.getVersionFor(sVersion);
+			Set<String> names = new HashSet<String>();
+			for (Class<? extends IDDMSComponent> type : _components) {
+				if (type != ExtensibleElement.class)
+					names.add(getElementName(type, version));
+			}
+			if (_includeExtensible)
+				names.add(Security.getName(version));
+			_names.put(version, names);
+		}
+	}
+
+	/**
+	 * Returns the element name of a top-level component in some DDMS version.
+	 *
+	 * @param type the component type
+	 * @param version the DDMS version
+	 * @return the element name
+	 * @throws IllegalArgumentException if the type is not a top-level component of a Resource
+	 */
+	private static String getElementName(Class<?> type, DDMSVersion version) {
+		if (type == MetacardInfo.class)
+			return (MetacardInfo.getName(version));
+		if (type == Identifier.class)
+			return (Identifier.getName(version));
+		if (type == Title.class)
+			return (Title.getName(version));
+		if (type == Subtitle.class)
+			return (Subtitle.getName(version));
+		if (type == Description.class)
+			return (Description.getName(version));
+		if (type == Language.class)
+			return (Language.getName(version));
+		if (type == Dates.class)
+			return (Dates.getName(version));
+		if (type == Rights.class)
+			return (Rights.getName(version));
+		if (type == Source.class)
+			return (Source.getName(version));
+		if (type == Type.class)
+			return (Type.getName(version));
+		if (type == Creator.class)
+			return (Creator.getName(version));
+		if (type == Publisher.class)
+			return (Publisher.getName(version));
+		if (type == Contributor.class)
+			return (Contributor.getName(version));
+		if (type == PointOfContact.class)
+			return (PointOfContact.getName(version));
+		if (type == Format.class)
+			return (Format.getName(version));
+		if (type == SubjectCoverage.class)
+			return (SubjectCoverage.getName(version));
+		if (type == VirtualCoverage.class)
+			return (VirtualCoverage.getName(version));
+		if (type == TemporalCoverage.class)
+			return (TemporalCoverage.getName(version));
+		if (type == GeospatialCoverage.class)
+			return (GeospatialCoverage.getName(version));
+		if (type == RelatedResource.class)
+			return (RelatedResource.getName(version));
+		if (type == ResourceManagement.class)
+			return (ResourceManagement.getName(version));
+		if (type == Security.class)
+			return (Security.getName(version));
+		throw new IllegalArgumentException((type == null ? null : type.getName())
+			+ " is not a top-level component of a Resource.");
+	}
+
+	/**
+	 * Accessor for the selected component types
+	 */
+	public Set<Class<? extends IDDMSComponent>> getComponents() {
+		return (_components);
+	}
+
+	/**
+	 * Checks whether a top-level child element of a Resource should be loaded.
+	 *
+	 * @param version the DDMS version of the Resource
+	 * @param namespace the XML namespace of the child element
+	 * @param localName the local name of the child element
+	 * @return true if the child was selected
+	 */
+	public boolean isSelected(DDMSVersion version, String namespace, String localName) {
+		if (!version.getNamespace().equals(namespace))
+			return (_includeExtensible);
+		return (_names.get(version).contains(localName));
+	}
+
+	/**
+	 * Wraps a SAX reader in a filter which drops every top-level child element of a Resource that was not selected.
+	 * Any validation performed by the wrapped reader still sees the whole document.
+	 *
+	 * @param parent the SAX reader to wrap
+	 * @return the filtering reader
+	 */
+	public XMLReader filter(XMLReader parent) {
+		return (new Filter(parent));
+	}
+
+	/**
+	 * SAX filter which passes through the root element and the selected child elements, and swallows every event
+	 * inside the other children.
+	 */
+	private final class Filter extends XMLFilterImpl implements LexicalHandler {
+		private LexicalHandler _lexicalHandler = null;
+		private DDMSVersion _version = null;
+		private int _depth = 0;
+		private int _skipDepth = -1;
+
+		/**
+		 * Constructor
+		 *
+		 * @param parent the SAX reader to wrap
+		 */
+		public Filter(XMLReader parent) {
+			super(parent);
+		}
+
+		/**
+		 * Intercepts the lexical handler, so that comments inside skipped elements are dropped as well.
+		 *
+		 * @see XMLFilterImpl#setProperty(String, Object)
+		 */
+		public void setProperty(String name, Object value) throws SAXNotRecognizedException,
+			SAXNotSupportedException {
+			if (PROP_LEXICAL_HANDLER.equals(name)) {
+				_lexicalHandler = (LexicalHandler) value;
+				value = this;
+			}
+			super.setProperty(name, value);
+		}
+
+		/**
+		 * @see XMLFilterImpl#startDocument()
+		 */
+		public void startDocument() throws SAXException {
+			_version = null;
+			_depth = 0;
+			_skipDepth = -1;
+			super.startDocument();
+		}
+
+		/**
+		 * @see XMLFilterImpl#startElement(String, String, String, Attributes)
+		 */
+		public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
+			int depth = _depth++;
+			if (isSkipping())
+				return;
+			if (depth == 0 && DDMSVersion.isSupportedDDMSNamespace(uri))
+				_version = DDMSVersion.getVersionForNamespace(uri);
+			else if (depth == 1 && _version != null && !isSelected(_version, uri, localName)) {
+				_skipDepth = depth;
+				return;
+			}
+			super.startElement(uri, localName, qName, atts);
+		}
+
+		/**
+		 * @see XMLFilterImpl#endElement(String, String, String)
+		 */
+		public void endElement(String uri, String localName, String qName) throws SAXException {
+			_depth--;
+			if (isSkipping()) {
+				if (_depth == _skipDepth)
+					_skipDepth = -1;
+				return;
+			}
+			super.endElement(uri, localName, qName);
+		}
+
+		/**
+		 * @see XMLFilterImpl#characters(char[], int, int)
+		 */
+		public void characters(char[] ch, int start, int length) throws SAXException {
+			if (!isSkipping())
+				super.characters(ch, start, length);
+		}
+
+		/**
+		 * @see XMLFilterImpl#ignorableWhitespace(char[], int, int)
+		 */
+		public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+			if (!isSkipping())
+				super.ignorableWhitespace(ch, start, length);
+		}
+
+		/**
+		 * @see XMLFilterImpl#processingInstruction(String, String)
+		 */
+		public void processingInstruction(String target, String data) throws SAXException {
+			if (!isSkipping())
+				super.processingInstruction(target, data);
+		}
+
+		/**
+		 * @see LexicalHandler#comment(char[], int, int)
+		 */
+		public void comment(char[] ch, int start, int length) throws SAXException {
+			if (!isSkipping() && _lexicalHandler != null)
+				_lexicalHandler.comment(ch, start, length);
+		}
+
+		/**
+		 * @see LexicalHandler#startCDATA()
+		 */
+		public void startCDATA() throws SAXException {
+			if (!isSkipping() && _lexicalHandler != null)
+				_lexicalHandler.startCDATA();
+		}
+
+		/**
+		 * @see LexicalHandler#endCDATA()
+		 */
+		public void endCDATA() throws SAXException {
+			if (!isSkipping() && _lexicalHandler != null)
+				_lexicalHandler.endCDATA();
+		}
+
+		/**
+		 * @see LexicalHandler#startDTD(String, String, String)
+		 */
+		public void startDTD(String name, String publicId, String systemId) throws SAXException {
+			if (_lexicalHandler != null)
+				_lexicalHandler.startDTD(name, publicId, systemId);
+		}
+
+		/**
+		 * @see LexicalHandler#endDTD()
+		 */
+		public void endDTD() throws SAXException {
+			if (_lexicalHandler != null)
+				_lexicalHandler.endDTD();
+		}
+
+		/**
+		 * @see LexicalHandler#startEntity(String)
+		 */
+		public void startEntity(String name) throws SAXException {
+			if (!isSkipping() && _lexicalHandler != null)
+				_lexicalHandler.startEntity(name);
+		}
+
+		/**
+		 * @see LexicalHandler#endEntity(String)
+		 */
+		public void endEntity(String name) throws SAXException {
+			if (!isSkipping() && _lexicalHandler != null)
+				_lexicalHandler.endEntity(name);
+		}
+
+		/**
+		 * Returns true while the parser is inside a child element which was not selected.
+		 */
+		private boolean isSkipping() {
+			return (_skipDepth != -1);
+		}
+	}
+}
@@ -23,8 +23,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 
@@ -97,13 +99,17 @@ public class PropertyReader {
 	}
 
 	/**
-	 * Locates a property and returns it. Assumes that the property must exist.
+	 * Locates a property and returns it. Assumes that the property must exist. If a DDMSContext is bound to the
+	 * current thread, configurable properties are read from the context instead.
 	 * 
 	 * @param name the simple name of the property, without "buri.ddmsence."
 	 * @return the property specified
 	 * @throws IllegalArgumentException if the property does not exist.
 	 */
 	public static String getProperty(String name) {
+		DDMSContext context = DDMSContext.getBound();
+		if (context != null && context.getProperty(name) != null)
+			return (context.getProperty(name));
 		String value = INSTANCE.getProperties().getProperty(PROPERTIES_PREFIX + name);
 		if (value == null)
 			throw new IllegalArgumentException(UNDEFINED_PROPERTY + PROPERTIES_PREFIX + name);
@@ -121,6 +127,33 @@ public class PropertyReader {
 		if (!CUSTOM_PROPERTIES.contains(name))
 			throw new IllegalArgumentException(name + " is not a configurable property.");
 		INSTANCE.getProperties().setProperty(PROPERTIES_PREFIX + name, Util.getNonNullString(value).trim());
+		if (name.startsWith("output."))
+			OutputOptions.refreshProcessOptions();
+	}
+
+	/**
+	 * Checks whether a property can be changed at runtime.
+	 * 
+	 * @param name the key of the property, without the "buri.ddmsence." prefix
+	 * @return true if the property is configurable
+	 */
+	static boolean isConfigurable(String name) {
+		return (CUSTOM_PROPERTIES.contains(name));
+	}
+
+	/**
+	 * Returns a snapshot of the process-wide values of the configurable properties which are defined.
+	 * 
+	 * @return a new map of property keys, without the "buri.ddmsence." prefix, to values
+	 */
+	static Map<String, String> getConfigurableProperties() {
+		Map<String, String> properties = new HashMap<String, String>();
+		for (String name : CUSTOM_PROPERTIES) {
+			String value = INSTANCE.getProperties().getProperty(PROPERTIES_PREFIX + name);
+			if (value != null)
+				properties.put(name, value);
+		}
+		return (properties);
 	}
 
 	/**
@@ -0,0 +1,398 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.util;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.validation.ValidatorHandler;
+
+import nu.xom.Attribute;
+import nu.xom.Comment;
+import nu.xom.Element;
+import nu.xom.ProcessingInstruction;
+import nu.xom.Text;
+import nu.xom.ValidityException;
+
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import buri.ddmsence.ddms.InvalidDDMSException;
+import buri.ddmsence.ddms.Resource;
+
+/**
+ * Iterator which cuts DDMS resource records out of an XML stream one at a time.
+ *
+ * <p>
+ * The stream is read with StAX. Resource elements may appear anywhere in the document, at any depth, inside whatever
+ * wrapper elements the producer chooses. Only the subtree of the record currently being returned is ever held in
+ * memory, so heap use does not grow with the size of the stream. Unless the DDMSReader is in trusted mode, each
+ * record is schema-validated against the shared {@link DDMSSchemaCache} as it is read, by passing the StAX events
+ * straight to a validator, and the record is only converted into a Resource if it is valid. If the DDMSReader has a
+ * projection, unselected top-level components are still validated, but are never built. Once a record is known to
+ * be invalid, the rest of it is read without being built.
+ * </p>
+ *
+ * <p>
+ * If a single record is invalid, {@link #next()} throws an IllegalStateException whose cause is the
+ * InvalidDDMSException, and the iterator remains usable, so the caller can skip the record and continue. If the
+ * stream itself cannot be read (for example, it is not well-formed XML), an IllegalStateException is thrown and the
+ * iteration ends.
+ * </p>
+ *
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+final class ResourceIterator implements Iterator<Resource> {
+
+	private final DDMSReader _ddmsReader;
+	private final DDMSVersion _version;
+	private final Projection _projection;
+	private final XMLStreamReader _reader;
+	private final List<Map<String, String>> _namespaceStack = new ArrayList<Map<String, String>>();
+	private Element _nextElement = null;
+	private DDMSVersion _nextVersion = null;
+	private InvalidDDMSException _nextError = null;
+	private ValidatorHandler _validator = null;
+	private boolean _finished = false;
+
+	/**
+	 * Constructor
+	 *
+	 * @param ddmsReader the reader which builds Resources from validated elements
+	 * @param version the DDMS version of the records, or null to accept records of any supported version
+	 * @param projection the top-level components to keep in each record, or null to keep all of them
+	 * @param inputStream the stream to read from. The stream is not closed by this iterator.
+	 * @throws IllegalStateException if the stream cannot be opened for reading
+	 */
+	public ResourceIterator(DDMSReader ddmsReader, DDMSVersion version, Projection projection,
+		InputStream inputStream) {
+		_ddmsReader = ddmsReader;
+		_version = version;
+		_projection = projection;
+		try {
+			XMLInputFactory factory = XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+			factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+			factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+			_reader = factory.createXMLStreamReader(inputStream);
+		}
+		catch (XMLStreamException e) {
+			throw new IllegalStateException("Unable to open the stream: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Advances to the next resource record in the stream and loads it, if one has not already been loaded.
+	 *
+	 * @see Iterator#hasNext()
+	 */
+	public boolean hasNext() {
+		if (_nextElement == null && !_finished) {
+			try {
+				while (_reader.hasNext()) {
+					int event = _reader.next();
+					if (event == XMLStreamConstants.START_ELEMENT) {
+						_nextVersion = getRecordVersion();
+						if (_nextVersion != null) {
+							_nextElement = readRecord();
+							return (true);
+						}
+						_namespaceStack.add(getDeclaredNamespaces());
+					}
+					else if (event == XMLStreamConstants.END_ELEMENT)
+						_namespaceStack.remove(_namespaceStack.size() - 1);
+				}
+				finish();
+			}
+			catch (XMLStreamException e) {
+				finish();
+				throw new IllegalStateException("Unable to read the stream: " + e.getMessage(), e);
+			}
+		}
+		return (_nextElement != null);
+	}
+
+	/**
+	 * Validates and returns the next resource record in the stream.
+	 *
+	 * @see Iterator#next()
+	 * @throws IllegalStateException if the record is invalid. The cause will be an InvalidDDMSException.
+	 */
+	public Resource next() {
+		if (!hasNext())
+			throw new NoSuchElementException("No more resources are available in this stream.");
+		Element element = _nextElement;
+		InvalidDDMSException error = _nextError;
+		_nextElement = null;
+		_nextError = null;
+		try {
+			if (error != null)
+				throw error;
+			return (_ddmsReader.buildResource(element));
+		}
+		catch (InvalidDDMSException e) {
+			throw new IllegalStateException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Records cannot be removed from a stream.
+	 *
+	 * @see Iterator#remove()
+	 */
+	public void remove() {
+		throw new UnsupportedOperationException("Resources cannot be removed from a stream.");
+	}
+
+	/**
+	 * Checks whether the start tag at the current position begins a resource record.
+	 *
+	 * @return the DDMS version of the record, or null if the element is not a resource
+	 */
+	private DDMSVersion getRecordVersion() {
+		String namespace = _reader.getNamespaceURI();
+		DDMSVersion version = _version;
+		if (version == null) {
+			if (!DDMSVersion.isSupportedDDMSNamespace(namespace))
+				return (null);
+			version = DDMSVersion.getVersionForNamespace(namespace);
+		}
+		if (version.getNamespace().equals(namespace) && Resource.getName(version).equals(_reader.getLocalName()))
+			return (version);
+		return (null);
+	}
+
+	/**
+	 * Builds a standalone XOM element for the record starting at the current position, and leaves the stream
+	 * positioned at the end tag of the record. Namespaces declared on any wrapper elements are redeclared on the
+	 * record, so it can be validated and processed on its own. Unless the DDMSReader is in trusted mode, the record is
+	 * validated as it is read, and any schema error is kept until the record is requested.
+	 *
+	 * @return the record element
+	 */
+	private Element readRecord() throws XMLStreamException {
+		_nextError = null;
+		_validator = (_ddmsReader.isTrusted() ? null : DDMSReader.newValidatorHandler(_nextVersion));
+		Element record = buildElement();
+		Map<String, String> inScope = new LinkedHashMap<String, String>();
+		for (Map<String, String> declarations : _namespaceStack)
+			inScope.putAll(declarations);
+		inScope.keySet().removeAll(getDeclaredNamespaces().keySet());
+		for (Map.Entry<String, String> entry : inScope.entrySet()) {
+			String prefix = entry.getKey();
+			if (record.getNamespaceURI(prefix) == null)
+				record.addNamespaceDeclaration(prefix, entry.getValue());
+		}
+		try {
+			if (_validator != null) {
+				_validator.startDocument();
+				for (Map.Entry<String, String> entry : inScope.entrySet())
+					_validator.startPrefixMapping(entry.getKey(), entry.getValue());
+			}
+			validateStartElement();
+			Element current = record;
+			int depth = 1;
+			int skipDepth = 0;
+			while (depth > 0) {
+				int event = _reader.next();
+				switch (event) {
+					case XMLStreamConstants.START_ELEMENT:
+						depth++;
+						validateStartElement();
+						if (skipDepth == 0 && (_nextError != null || (depth == 2 && _projection != null
+							&& !_projection.isSelected(_nextVersion, _reader.getNamespaceURI(), _reader.getLocalName()))))
+							skipDepth = depth;
+						if (skipDepth == 0) {
+							Element child = buildElement();
+							current.appendChild(child);
+							current = child;
+						}
+						break;
+					case XMLStreamConstants.END_ELEMENT:
+						validateEndElement();
+						if (skipDepth == 0) {
+							if (depth > 1)
+								current = (Element) current.getParent();
+						}
+						else if (skipDepth == depth)
+							skipDepth = 0;
+						depth--;
+						break;
+					case XMLStreamConstants.CHARACTERS:
+					case XMLStreamConstants.CDATA:
+					case XMLStreamConstants.SPACE:
+						if (_validator != null)
+							_validator.characters(_reader.getTextCharacters(), _reader.getTextStart(),
+								_reader.getTextLength());
+						if (skipDepth == 0)
+							current.appendChild(new Text(_reader.getText()));
+						break;
+					case XMLStreamConstants.COMMENT:
+						if (skipDepth == 0)
+							current.appendChild(new Comment(_reader.getText()));
+						break;
+					case XMLStreamConstants.PROCESSING_INSTRUCTION:
+						if (skipDepth == 0)
+							current.appendChild(new ProcessingInstruction(_reader.getPITarget(), _reader.getPIData()));
+						break;
+					default:
+						break;
+				}
+			}
+			if (_validator != null) {
+				for (String prefix : inScope.keySet())
+					_validator.endPrefixMapping(prefix);
+				_validator.endDocument();
+			}
+		}
+		catch (SAXException e) {
+			fail(e);
+		}
+		_validator = null;
+		return (record);
+	}
+
+	/**
+	 * Passes the start tag at the current position to the validator, if the record is still being validated.
+	 */
+	private void validateStartElement() {
+		if (_validator == null)
+			return;
+		try {
+			Map<String, String> declarations = getDeclaredNamespaces();
+			for (Map.Entry<String, String> entry : declarations.entrySet())
+				_validator.startPrefixMapping(entry.getKey(), entry.getValue());
+			AttributesImpl attributes = new AttributesImpl();
+			for (int i = 0; i < _reader.getAttributeCount(); i++) {
+				attributes.addAttribute(Util.getNonNullString(_reader.getAttributeNamespace(i)),
+					_reader.getAttributeLocalName(i), getQualifiedName(_reader.getAttributePrefix(i),
+						_reader.getAttributeLocalName(i)), "CDATA", _reader.getAttributeValue(i));
+			}
+			_validator.startElement(Util.getNonNullString(_reader.getNamespaceURI()), _reader.getLocalName(),
+				getQualifiedName(_reader.getPrefix(), _reader.getLocalName()), attributes);
+		}
+		catch (SAXException e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * Passes the end tag at the current position to the validator, if the record is still being validated.
+	 */
+	private void validateEndElement() {
+		if (_validator == null)
+			return;
+		try {
+			_validator.endElement(Util.getNonNullString(_reader.getNamespaceURI()), _reader.getLocalName(),
+				getQualifiedName(_reader.getPrefix(), _reader.getLocalName()));
+			for (int i = 0; i < _reader.getNamespaceCount(); i++)
+				_validator.endPrefixMapping(Util.getNonNullString(_reader.getNamespacePrefix(i)));
+		}
+		catch (SAXException e) {
+			fail(e);
+		}
+	}
+
+	/**
+	 * Records the first schema error in the current record, in the same form as the XML parser would report it, and
+	 * stops validating the rest of the record.
+	 *
+	 * @param e the error from the validator
+	 */
+	private void fail(SAXException e) {
+		if (_nextError == null) {
+			if (e instanceof SAXParseException)
+				_nextError = new InvalidDDMSException(new ValidityException(e.getMessage(), e));
+			else
+				_nextError = new InvalidDDMSException(e);
+		}
+		_validator = null;
+	}
+
+	/**
+	 * Builds an element for the start tag at the current position, including its attributes and namespace
+	 * declarations.
+	 *
+	 * @return the element
+	 */
+	private Element buildElement() {
+		Element element = new Element(getQualifiedName(_reader.getPrefix(), _reader.getLocalName()),
+			Util.getNonNullString(_reader.getNamespaceURI()));
+		for (Map.Entry<String, String> entry : getDeclaredNamespaces().entrySet()) {
+			if (!Util.isEmpty(entry.getValue()))
+				element.addNamespaceDeclaration(entry.getKey(), entry.getValue());
+		}
+		for (int i = 0; i < _reader.getAttributeCount(); i++) {
+			element.addAttribute(new Attribute(getQualifiedName(_reader.getAttributePrefix(i),
+				_reader.getAttributeLocalName(i)), Util.getNonNullString(_reader.getAttributeNamespace(i)),
+				_reader.getAttributeValue(i)));
+		}
+		return (element);
+	}
+
+	/**
+	 * Returns the namespace declarations made on the start tag at the current position.
+	 *
+	 * @return a map of prefixes to XML namespaces, where the default namespace has an empty prefix
+	 */
+	private Map<String, String> getDeclaredNamespaces() {
+		Map<String, String> declarations = new LinkedHashMap<String, String>();
+		for (int i = 0; i < _reader.getNamespaceCount(); i++) {
+			declarations.put(Util.getNonNullString(_reader.getNamespacePrefix(i)),
+				Util.getNonNullString(_reader.getNamespaceURI(i)));
+		}
+		return (declarations);
+	}
+
+	/**
+	 * Combines a prefix and a local name into a qualified name.
+	 *
+	 * @param prefix the prefix, which may be empty
+	 * @param localName the local name
+	 * @return the qualified name
+	 */
+	private static String getQualifiedName(String prefix, String localName) {
+		return (Util.isEmpty(prefix) ? localName : prefix + ":" + localName);
+	}
+
+	/**
+	 * Marks the iteration as complete and releases the underlying StAX reader.
+	 */
+	private void finish() {
+		_finished = true;
+		try {
+			_reader.close();
+		}
+		catch (XMLStreamException e) {
+			// Nothing more can be read from the stream either way.
+		}
+	}
+}
@@ -32,7 +32,6 @@ import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -67,16 +66,21 @@ import buri.ddmsence.ddms.ITspiAddress;
 import buri.ddmsence.ddms.ITspiShape;
 import buri.ddmsence.ddms.InvalidDDMSException;
 import buri.ddmsence.ddms.OutputFormat;
+import buri.ddmsence.ddms.security.ClearanceFilter;
 import buri.ddmsence.ddms.security.ism.Notice;
 import buri.ddmsence.ddms.security.ntk.Access;
 import buri.ddmsence.ddms.summary.TemporalCoverage;
 import buri.ddmsence.ddms.summary.gml.Point;
 import buri.ddmsence.ddms.summary.gml.Polygon;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * A collection of static utility methods.
@@ -91,14 +95,12 @@ public class Util {
 	private static Map<String, XSLTransform> _schematronSvrlTransforms = new HashMap<String, XSLTransform>();
 
 	private static final String PROP_TRANSFORM_FACTORY = "javax.xml.transform.TransformerFactory";
-	private static final LinkedHashMap<String, String> XML_SPECIAL_CHARS = new LinkedHashMap<String, String>();
-	static {
-		XML_SPECIAL_CHARS.put("&", "&amp;");
-		XML_SPECIAL_CHARS.put("\"", "&quot;");
-		XML_SPECIAL_CHARS.put("'", "&apos;");
-		XML_SPECIAL_CHARS.put("<", "&lt;");
-		XML_SPECIAL_CHARS.put(">", "&gt;");
-	}
+	private static final String HTML_NAME_START = "<meta name=\"";
+	private static final String HTML_CONTENT_START = "\" content=\"";
+	private static final String HTML_END = "\" />\n";
+	private static final String TEXT_SEPARATOR = ": ";
+
+	private static final Gson JSON_ELEMENT_WRITER = new GsonBuilder().serializeNulls().create();
 
 	private static final String DDMS_DATE_HOUR_MIN_PATTERN = "[0-9]{4}-[0-9]{2}-[0-9]{2}T[0-9]{2}:[0-9]{2}(Z|[\\-\\+][0-9]{2}:[0-9]{2})?";
 
@@ -170,7 +172,8 @@ public class Util {
 				array.add(new JsonPrimitive((String) value));
 			}
 			else if (value instanceof AbstractBaseComponent) {
-				array.add(((AbstractBaseComponent) value).getJSONObject());
+				if (ClearanceFilter.isWritable(value))
+					array.add(((AbstractBaseComponent) value).getJSONObject());
 			}
 			else {
 				throw new IllegalArgumentException("Unexpected class for JSON property: " + value);
@@ -192,7 +195,7 @@ public class Util {
 		if (value instanceof AbstractAttributeGroup) {
 			AbstractAttributeGroup castValue = (AbstractAttributeGroup) value;
 			if (!castValue.isEmpty()) {
-				if (Boolean.valueOf(PropertyReader.getProperty("output.json.inlineAttributes"))) {
+				if (OutputOptions.getCurrent().isInlineAttributes()) {
 					JsonObject enclosure = castValue.getJSONObject();
 					for (Entry<String, JsonElement> entry : enclosure.entrySet()) {
 						object.add(entry.getKey(), entry.getValue());
@@ -233,6 +236,110 @@ public class Util {
 			throw new IllegalArgumentException("Unexpected class for JSON property: " + value);
 	}
 	
+	/**
+	 * Writes a list of items to a JSON stream as a JSON array. This is the streaming equivalent of getJSONArray().
+	 * 
+	 * @param writer the JSON stream
+	 * @param values the values
+	 * @throws IOException if the array could not be written
+	 */
+	public static void writeJSONArray(JsonWriter writer, List<?> values) throws IOException {
+		writer.beginArray();
+		for (Object value : values) {
+			if (value instanceof Double) {
+				writer.value((Double) value);
+			}
+			else if (value instanceof String) {
+				writer.value((String) value);
+			}
+			else if (value instanceof AbstractBaseComponent) {
+				if (ClearanceFilter.isWritable(value))
+					((AbstractBaseComponent) value).writeJSON(writer);
+			}
+			else {
+				throw new IllegalArgumentException("Unexpected class for JSON property: " + value);
+			}
+		}
+		writer.endArray();
+	}
+
+	/**
+	 * Writes a value to a JSON stream, but only if it is not empty and not null. This is the streaming equivalent of
+	 * addNonEmptyJsonProperty(), and also accepts a list of values, which is written as a JSON array.
+	 * 
+	 * @param writer the JSON stream
+	 * @param name the name of the property, if written
+	 * @param value the value to write
+	 * @throws IOException if the value could not be written
+	 */
+	public static void writeNonEmptyJsonProperty(JsonWriter writer, String name, Object value) throws IOException {
+		if (value == null)
+			return;
+		if (value instanceof AbstractAttributeGroup) {
+			AbstractAttributeGroup castValue = (AbstractAttributeGroup) value;
+			if (!castValue.isEmpty()) {
+				if (OutputOptions.getCurrent().isInlineAttributes()) {
+					castValue.writeJSONProperties(writer);
+				}
+				else {
+					writer.name(name);
+					castValue.writeJSON(writer);
+				}
+			}
+		}
+		else if (value instanceof Boolean) {
+			Boolean castValue = (Boolean) value;
+			writer.name(name).value(castValue.booleanValue());
+		}
+		else if (value instanceof Double || value instanceof Integer) {
+			Number castValue = (Number) value;
+			writer.name(name).value(castValue);
+		}
+		else if (value instanceof List) {
+			List<?> castValue = (List<?>) value;
+			if (hasJsonValues(castValue)) {
+				writer.name(name);
+				writeJSONArray(writer, castValue);
+			}
+		}
+		else if (value instanceof JsonArray || value instanceof JsonObject) {
+			JsonElement castValue = (JsonElement) value;
+			if (!castValue.isJsonArray() || castValue.getAsJsonArray().size() != 0) {
+				writer.name(name);
+				try {
+					JSON_ELEMENT_WRITER.toJson(castValue, writer);
+				}
+				catch (JsonIOException e) {
+					if (e.getCause() instanceof IOException)
+						throw (IOException) e.getCause();
+					throw (e);
+				}
+			}
+		}
+		else if (value instanceof String) {
+			String castValue = (String) value;
+			if (!Util.isEmpty(castValue))
+				writer.name(name).value(castValue);
+		}
+		else
+			throw new IllegalArgumentException("Unexpected class for JSON property: " + value);
+	}
+
+	/**
+	 * Checks whether a list would produce a non-empty JSON array, taking into account any components which are
+	 * withheld by a ClearanceFilter.
+	 * 
+	 * @param values the values
+	 * @return true if at least one value would be written
+	 */
+	private static boolean hasJsonValues(List<?> values) {
+		for (Object value : values) {
+			if (!(value instanceof AbstractBaseComponent) || ClearanceFilter.isWritable(value))
+				return (true);
+		}
+		return (false);
+	}
+
 	/**
 	 * Returns an empty string in place of a null one.
 	 * 
@@ -661,13 +768,100 @@ public class Util {
 	 * @return escaped String
 	 */
 	public static String xmlEscape(String input) {
-		if (input != null) {
-			for (Iterator<String> iterator = XML_SPECIAL_CHARS.keySet().iterator(); iterator.hasNext();) {
-				String pattern = iterator.next();
-				input = Pattern.compile(pattern).matcher(input).replaceAll((String) XML_SPECIAL_CHARS.get(pattern));
+		if (input == null || getXmlEscapeIndex(input, 0) == -1)
+			return input;
+		StringBuilder output = new StringBuilder(input.length() + 16);
+		try {
+			appendXmlEscaped(output, input);
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return (output.toString());
+	}
+
+	/**
+	 * Appends a string with its XML special characters replaced, in a single pass. Runs of ordinary characters are
+	 * appended as whole subsequences. A null string is appended as "null", as Appendable does.
+	 * 
+	 * @param out the destination
+	 * @param input the string to escape
+	 * @throws IOException if the destination could not be written
+	 */
+	public static void appendXmlEscaped(Appendable out, String input) throws IOException {
+		if (input == null) {
+			out.append(input);
+			return;
+		}
+		int start = 0;
+		for (int i = getXmlEscapeIndex(input, 0); i != -1; i = getXmlEscapeIndex(input, start)) {
+			out.append(input, start, i);
+			switch (input.charAt(i)) {
+				case '&':
+					out.append("&amp;");
+					break;
+				case '"':
+					out.append("&quot;");
+					break;
+				case '\'':
+					out.append("&apos;");
+					break;
+				case '<':
+					out.append("&lt;");
+					break;
+				default:
+					out.append("&gt;");
 			}
+			start = i + 1;
+		}
+		out.append(input, start, input.length());
+	}
+
+	/**
+	 * Finds the next XML special character in a string.
+	 * 
+	 * @param input the string
+	 * @param from the index to start at
+	 * @return the index of the character, or -1 if there are no more
+	 */
+	private static int getXmlEscapeIndex(String input, int from) {
+		for (int i = from; i < input.length(); i++) {
+			char c = input.charAt(i);
+			if (c == '&' || c == '"' || c == '\'' || c == '<' || c == '>')
+				return (i);
+		}
+		return (-1);
+	}
+
+	/**
+	 * Writes a meta tag for HTML output or a text line for Text output, but only if the content is not empty. The
+	 * name is written as two parts, so callers do not need to concatenate a prefix onto each name. In HTML, both
+	 * parts of the name and the content are escaped as they are written.
+	 * 
+	 * @param out the destination
+	 * @param format the desired format of this output
+	 * @param prefix the first part of the name, which may be empty
+	 * @param name the second part of the name, which may be empty
+	 * @param content the value of the name-value pairing
+	 * @throws IOException if the destination could not be written
+	 * @throws IllegalArgumentException if the format is not HTML or Text.
+	 */
+	public static void writeHTMLTextProperty(Appendable out, OutputFormat format, String prefix, String name,
+		String content) throws IOException {
+		requireHTMLText(format);
+		if (isEmpty(content))
+			return;
+		if (format == OutputFormat.HTML) {
+			out.append(HTML_NAME_START);
+			appendXmlEscaped(out, prefix);
+			appendXmlEscaped(out, name);
+			out.append(HTML_CONTENT_START);
+			appendXmlEscaped(out, content);
+			out.append(HTML_END);
+		}
+		else {
+			out.append(prefix).append(name).append(TEXT_SEPARATOR).append(content).append('\n');
 		}
-		return input;
 	}
 
 	/**
@@ -0,0 +1,39 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.util;
+
+/**
+ * Enumeration of the layouts available when writing XML with a {@link ComponentSerializer}.
+ * 
+ * <ul>
+ * <li><b>COMPACT</b>: the XML as it is held in memory, with no whitespace added. This is equivalent to the output of
+ *    toXML(), although namespace declarations follow the attributes and empty elements have no space before the
+ *    slash.</li>
+ * <li><b>PRETTY</b>: the XML indented by two spaces per level, with a newline between elements.</li>
+ * <li><b>CANONICAL</b>: Canonical XML 1.0 without comments, suitable for comparison or signing. This style is not
+ *    streaming: components which were not read from a document are copied before they are written.</li>
+ * </ul>
+ * 
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public enum XMLStyle {
+	COMPACT, PRETTY, CANONICAL
+}
@@ -22,7 +22,6 @@ package buri.ddmsence.samples;
 import java.awt.BorderLayout;
 import java.awt.Dimension;
 import java.io.File;
-import java.io.FileFilter;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
@@ -40,6 +39,7 @@ import buri.ddmsence.ddms.summary.SubjectCoverage;
 import buri.ddmsence.ddms.summary.TemporalCoverage;
 import buri.ddmsence.samples.util.AbstractSample;
 import buri.ddmsence.samples.util.Distribution;
+import buri.ddmsence.util.DDMSBatchReader;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.PropertyReader;
 
@@ -136,26 +136,28 @@ public class Escape extends AbstractSample {
 
 	/**
 	 * Searches the sample directory for valid DDMS Resources and builds
-	 * object models for them.
+	 * object models for them. The files are loaded in parallel, and the
+	 * DDMS version of each one is detected as it is parsed.
 	 */
 	private void loadValidResources() {
-		FileFilter filter = new FileFilter() {
-			public boolean accept(File pathname) {
-				return (pathname.getName().endsWith(".xml"));
-			}
-		};
-		File[] fileList = new File(PropertyReader.getProperty("sample.data")).listFiles(filter);
-		for (int i = 0; i < fileList.length; i++) {
-			try {
-				// Try to parse each file.
-				DDMSVersion version = guessVersion(fileList[i]);
-				getResources().add(getReader(version).getDDMSResource(fileList[i]));
-			}
-			catch (Exception e) {
-				// Skip any that cannot be parsed and continue.
-				System.err.println("Skipping file, " + fileList[i].getName() + ": " + e.getMessage());
+		DDMSBatchReader reader = new DDMSBatchReader();
+		try {
+			for (DDMSBatchReader.Result result : reader.read(new File(PropertyReader.getProperty("sample.data")))) {
+				if (result.isValid())
+					getResources().add(result.getResource());
+				else {
+					// Skip any that cannot be parsed and continue.
+					System.err.println("Skipping file, " + result.getFile().getName() + ": "
+						+ result.getException().getMessage());
+				}
 			}
 		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			reader.shutdown();
+		}
 	}
 
 	/**
@@ -21,6 +21,8 @@ package buri.ddmsence;
 
 import static org.junit.Assert.*;
 
+import java.io.File;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -31,6 +33,7 @@ import org.junit.Test;
 import buri.ddmsence.ddms.IDDMSComponent;
 import buri.ddmsence.ddms.InvalidDDMSException;
 import buri.ddmsence.ddms.OutputFormat;
+import buri.ddmsence.ddms.Resource;
 import buri.ddmsence.ddms.ValidationMessage;
 import buri.ddmsence.ddms.format.Extent;
 import buri.ddmsence.ddms.resource.Creator;
@@ -39,11 +42,13 @@ import buri.ddmsence.ddms.resource.Organization;
 import buri.ddmsence.ddms.resource.Rights;
 import buri.ddmsence.ddms.security.Security;
 import buri.ddmsence.ddms.security.SecurityTest;
+import buri.ddmsence.util.DDMSReader;
 import buri.ddmsence.util.DDMSVersion;
 import buri.ddmsence.util.PropertyReader;
 import buri.ddmsence.util.Util;
 
-import com.google.gson.JsonObject;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * <p> Tests related to underlying methods in the base class for DDMS components </p>
@@ -172,6 +177,58 @@ public class BaseComponentTest extends AbstractBaseTestCase {
 		assertEquals("{\"excludeFromRollup\":true,\"classification\":\"U\",\"ownerProducer\":[\"USA\"]}", security.toJSON());
 	}
 	
+	@Test
+	public void testWriteJSON() throws Exception {
+		DDMSVersion.setCurrentVersion("4.1");
+		Resource resource = new DDMSReader().getDDMSResource(new File(PropertyReader.getProperty("test.unit.data"),
+			"4.1/resource.xml"));
+		for (String inline : new String[] { "false", "true" }) {
+			PropertyReader.setProperty("output.json.inlineAttributes", inline);
+			for (String pretty : new String[] { "false", "true" }) {
+				PropertyReader.setProperty("output.json.prettyPrint", pretty);
+				GsonBuilder builder = new GsonBuilder();
+				if (Boolean.valueOf(pretty))
+					builder.setPrettyPrinting();
+				String expected = builder.create().toJson(resource.getJSONObject());
+				assertEquals(expected, resource.toJSON());
+				StringWriter writer = new StringWriter();
+				resource.writeJSON(writer);
+				assertEquals(expected, writer.toString());
+			}
+		}
+	}
+
+	@Test
+	public void testWriteJSONStream() throws Exception {
+		Extent extent = new Extent("a", "<z>");
+		StringWriter writer = new StringWriter();
+		JsonWriter jsonWriter = new JsonWriter(writer);
+		jsonWriter.beginArray();
+		extent.writeJSON(jsonWriter);
+		extent.writeJSON(jsonWriter);
+		jsonWriter.endArray();
+		jsonWriter.flush();
+		assertEquals("[{\"qualifier\":\"a\",\"value\":\"<z>\"},{\"qualifier\":\"a\",\"value\":\"<z>\"}]",
+			writer.toString());
+		assertEquals("{\"qualifier\":\"a\",\"value\":\"\\u003cz\\u003e\"}", extent.toJSON());
+	}
+	
+	@Test
+	public void testWriteHTMLText() throws Exception {
+		DDMSVersion.setCurrentVersion("4.1");
+		Resource resource = new DDMSReader().getDDMSResource(new File(PropertyReader.getProperty("test.unit.data"),
+			"4.1/resource.xml"));
+		for (String indexLevel : new String[] { "0", "1", "2" }) {
+			PropertyReader.setProperty("output.indexLevel", indexLevel);
+			StringWriter writer = new StringWriter();
+			resource.writeHTML(writer);
+			assertEquals(resource.toHTML(), writer.toString());
+			StringBuilder builder = new StringBuilder();
+			resource.writeText(builder);
+			assertEquals(resource.toText(), builder.toString());
+		}
+	}
+
 	@Test
 	public void testSelfEquality() throws InvalidDDMSException {
 		Rights rights = new Rights(true, true, true);
@@ -203,11 +260,9 @@ public class BaseComponentTest extends AbstractBaseTestCase {
 	@Test
 	public void testNullChecks() throws InvalidDDMSException {
 		AbstractBaseComponent component = new AbstractBaseComponent() {
-			public JsonObject getJSONObject() {
-				return null;
+			public void writeJSONProperties(JsonWriter writer) {
 			}
-			public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
-				return null;
+			public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) {
 			}
 		};
 		assertEquals("", component.getName());
@@ -219,12 +274,10 @@ public class BaseComponentTest extends AbstractBaseTestCase {
 	@Test
 	public void testAttributeWarnings() throws InvalidDDMSException {
 		AbstractBaseComponent component = new AbstractBaseComponent() {
-			public JsonObject getJSONObject() {
-				return null;
+			public void writeJSONProperties(JsonWriter writer) {
 			}
 			
-			public String getHTMLTextOutput(OutputFormat format, String prefix, String suffix) {
-				return null;
+			public void writeHTMLText(Appendable text, OutputFormat format, String prefix, String suffix) {
 			}
 
 			protected String getLocatorSuffix() {
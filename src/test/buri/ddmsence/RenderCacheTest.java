@@ -0,0 +1,225 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.lang.ref.WeakReference;
+
+import org.junit.After;
+import org.junit.Test;
+
+import buri.ddmsence.ddms.Resource;
+import buri.ddmsence.ddms.resource.Title;
+import buri.ddmsence.ddms.resource.TitleTest;
+import buri.ddmsence.util.DDMSContext;
+import buri.ddmsence.util.DDMSReader;
+import buri.ddmsence.util.DDMSVersion;
+import buri.ddmsence.util.PropertyReader;
+
+/**
+ * <p> Tests related to the memoized rendering of components </p>
+ *
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public class RenderCacheTest extends AbstractBaseTestCase {
+
+	/**
+	 * Constructor
+	 */
+	public RenderCacheTest() {
+		super(null);
+	}
+
+	/**
+	 * Disables the cache again.
+	 */
+	@After
+	public void disableCache() {
+		RenderCache.setMaxBytes(0);
+		RenderCache.clear();
+	}
+
+	/**
+	 * Loads the unit test resource for DDMS 4.1.
+	 */
+	private Resource getResource() throws Exception {
+		DDMSVersion.setCurrentVersion("4.1");
+		return (new DDMSReader().getDDMSResource(new File(PropertyReader.getProperty("test.unit.data"),
+			"4.1/resource.xml")));
+	}
+
+	@Test
+	public void testDisabledByDefault() throws Exception {
+		assertFalse(RenderCache.isEnabled());
+		Resource resource = getResource();
+		resource.toXML();
+		resource.toJSON();
+		assertEquals(0, RenderCache.getSize());
+		assertEquals(0, RenderCache.getMissCount());
+	}
+
+	@Test
+	public void testRepeatedRendering() throws Exception {
+		Resource resource = getResource();
+		String xml = resource.toXML();
+		String json = resource.toJSON();
+		String html = resource.toHTML();
+		String text = resource.toText();
+		RenderCache.setMaxBytes(10000000);
+		for (int i = 0; i < 2; i++) {
+			assertEquals(xml, resource.toXML());
+			assertEquals(json, resource.toJSON());
+			assertEquals(html, resource.toHTML());
+			assertEquals(text, resource.toText());
+		}
+		assertEquals(4, RenderCache.getMissCount());
+		assertEquals(4, RenderCache.getHitCount());
+		assertEquals(4, RenderCache.getSize());
+		assertEquals(RenderCache.estimateBytes(xml) + RenderCache.estimateBytes(json) + RenderCache.estimateBytes(html)
+			+ RenderCache.estimateBytes(text), RenderCache.getByteCount());
+		String cached = resource.toXML();
+		assertSame(cached, resource.toXML());
+
+		RenderCache.clear();
+		assertEquals(0, RenderCache.getSize());
+		assertEquals(0, RenderCache.getByteCount());
+		assertEquals(0, RenderCache.getHitCount());
+		assertNotSame(cached, resource.toXML());
+	}
+
+	@Test
+	public void testSettingsArePartOfKey() throws Exception {
+		RenderCache.setMaxBytes(10000000);
+		Resource resource = getResource();
+		String json = resource.toJSON();
+		String text = resource.toText();
+		PropertyReader.setProperty("output.json.prettyPrint", "true");
+		PropertyReader.setProperty("output.indexLevel", "2");
+		assertFalse(json.equals(resource.toJSON()));
+		assertFalse(text.equals(resource.toText()));
+		PropertyReader.setProperty("output.json.prettyPrint", "false");
+		PropertyReader.setProperty("output.indexLevel", "0");
+
+		DDMSContext previous = DDMSContext.bind(DDMSContext.getCurrent().withProperty("output.json.inlineAttributes",
+			"true"));
+		try {
+			assertFalse(json.equals(resource.toJSON()));
+		}
+		finally {
+			DDMSContext.bind(previous);
+		}
+		assertEquals(json, resource.toJSON());
+		assertEquals(5, RenderCache.getSize());
+	}
+
+	@Test
+	public void testComponentsMatchedByIdentity() {
+		RenderCache.setMaxBytes(10000000);
+		DDMSVersion.setCurrentVersion("4.1");
+		Title first = TitleTest.getFixture();
+		Title second = TitleTest.getFixture();
+		assertEquals(first, second);
+		first.toXML();
+		second.toXML();
+		assertEquals(0, RenderCache.getHitCount());
+		assertEquals(2, RenderCache.getSize());
+	}
+
+	@Test
+	public void testBudget() throws Exception {
+		Resource resource = getResource();
+		long bytes = RenderCache.estimateBytes(resource.toXML());
+		RenderCache.setMaxBytes(bytes);
+		resource.toXML();
+		assertEquals(bytes, RenderCache.getByteCount());
+
+		// A rendering which has not been used again is discarded
+		Title title = resource.getTitles().get(0);
+		title.toXML();
+		assertEquals(1, RenderCache.getSize());
+		assertEquals(RenderCache.estimateBytes(title.toXML()), RenderCache.getByteCount());
+
+		// A rendering larger than the budget is never cached
+		RenderCache.setMaxBytes(RenderCache.estimateBytes(title.toXML()));
+		resource.toXML();
+		assertEquals(1, RenderCache.getSize());
+		assertEquals(RenderCache.estimateBytes(title.toXML()), RenderCache.getByteCount());
+
+		RenderCache.setMaxBytes(0);
+		assertFalse(RenderCache.isEnabled());
+		assertEquals(0, RenderCache.getSize());
+	}
+
+	@Test
+	public void testRecentlyUsedKept() {
+		DDMSVersion.setCurrentVersion("4.1");
+		Title first = TitleTest.getFixture();
+		Title second = TitleTest.getFixture();
+		Title third = TitleTest.getFixture();
+		RenderCache.setMaxBytes(2 * RenderCache.estimateBytes(first.toXML()));
+		first.toXML();
+		second.toXML();
+		assertEquals(2, RenderCache.getSize());
+
+		// The first rendering was used again, so the second one is discarded instead
+		first.toXML();
+		third.toXML();
+		assertEquals(2, RenderCache.getSize());
+		assertEquals(1, RenderCache.getHitCount());
+		first.toXML();
+		third.toXML();
+		assertEquals(3, RenderCache.getHitCount());
+		second.toXML();
+		assertEquals(3, RenderCache.getHitCount());
+	}
+
+	@Test
+	public void testComponentsNotRetained() throws Exception {
+		RenderCache.setMaxBytes(10000000);
+		DDMSVersion.setCurrentVersion("4.1");
+		Title title = TitleTest.getFixture();
+		title.toXML();
+		WeakReference<Title> reference = new WeakReference<Title>(title);
+		title = null;
+		for (int i = 0; i < 50 && reference.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertNull(reference.get());
+		assertEquals(1, RenderCache.getSize());
+		RenderCache.clear();
+		assertEquals(0, RenderCache.getSize());
+		assertEquals(0, RenderCache.getByteCount());
+	}
+
+	@Test
+	public void testNegativeBudget() {
+		try {
+			RenderCache.setMaxBytes(-1);
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "The budget must not be negative.");
+		}
+	}
+}
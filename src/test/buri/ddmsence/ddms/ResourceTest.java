@@ -1112,6 +1112,76 @@ public class ResourceTest extends AbstractBaseTestCase {
 		}
 	}
 
+	@Test
+	public void testLazy() throws InvalidDDMSException {
+		for (String sVersion : getSupportedVersions()) {
+			DDMSVersion.setCurrentVersion(sVersion);
+			Resource eager = getInstance(getValidElement(sVersion), SUCCESS);
+			assertTrue(eager.isMaterialized());
+			eager.materialize();
+
+			Resource lazy = new Resource(getValidElement(sVersion), true);
+			assertFalse(lazy.isMaterialized());
+			assertEquals(eager.getIdentifiers(), lazy.getIdentifiers());
+			assertEquals(eager.getTitles(), lazy.getTitles());
+			assertEquals(eager.getSecurity(), lazy.getSecurity());
+			assertFalse(lazy.isMaterialized());
+			assertEquals(eager.getTopLevelComponents(), lazy.getTopLevelComponents());
+			assertFalse(lazy.isMaterialized());
+			lazy.materialize();
+			assertTrue(lazy.isMaterialized());
+			assertEquals(eager, lazy);
+			assertEquals(eager.hashCode(), lazy.hashCode());
+			assertEquals(eager.getValidationWarnings(), lazy.getValidationWarnings());
+			assertEquals(eager.toJSON(), new Resource(getValidElement(sVersion), true).toJSON());
+			assertEquals(eager.toText(), new Resource(getValidElement(sVersion), true).toText());
+		}
+	}
+
+	@Test
+	public void testLazyDefersValidation() throws InvalidDDMSException {
+		for (String sVersion : getSupportedVersions()) {
+			DDMSVersion version = DDMSVersion.setCurrentVersion(sVersion);
+			Element element = new Element(getValidElement(sVersion));
+			Element title = element.getFirstChildElement(Title.getName(version), version.getNamespace());
+			element.removeChild(title);
+			getInstance(element, "At least 1 title");
+
+			Resource lazy = new Resource(element, true);
+			assertTrue(lazy.getTitles().isEmpty());
+			assertFalse(lazy.getIdentifiers().isEmpty());
+			try {
+				lazy.materialize();
+				fail("Allowed invalid data.");
+			}
+			catch (InvalidDDMSException e) {
+				expectMessage(e, "At least 1 title");
+			}
+			assertFalse(lazy.isMaterialized());
+		}
+	}
+
+	@Test
+	public void testLazyInvalidChild() throws InvalidDDMSException {
+		for (String sVersion : getSupportedVersions()) {
+			DDMSVersion version = DDMSVersion.setCurrentVersion(sVersion);
+			Element element = new Element(getValidElement(sVersion));
+			Element identifier = element.getFirstChildElement(Identifier.getName(version), version.getNamespace());
+			identifier.removeAttribute(identifier.getAttribute("qualifier", version.getNamespace()));
+
+			Resource lazy = new Resource(element, true);
+			assertFalse(lazy.getTitles().isEmpty());
+			try {
+				lazy.getIdentifiers();
+				fail("Allowed invalid data.");
+			}
+			catch (IllegalStateException e) {
+				assertTrue(e.getCause() instanceof InvalidDDMSException);
+				expectMessage(e, "qualifier attribute must exist.");
+			}
+		}
+	}
+
 	@Test
 	public void testBuilderIsEmpty() throws InvalidDDMSException {
 		for (String sVersion : getSupportedVersions()) {
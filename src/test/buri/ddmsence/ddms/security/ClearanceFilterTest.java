@@ -0,0 +1,297 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.ddms.security;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileReader;
+import java.io.Reader;
+import java.io.StringWriter;
+
+import nu.xom.Builder;
+import nu.xom.Element;
+
+import org.junit.Test;
+
+import buri.ddmsence.AbstractBaseTestCase;
+import buri.ddmsence.ddms.Resource;
+import buri.ddmsence.ddms.security.ntk.NtkSubject;
+import buri.ddmsence.util.DDMSReader;
+import buri.ddmsence.util.DDMSVersion;
+import buri.ddmsence.util.PropertyReader;
+
+/**
+ * <p> Tests related to clearance-filtered output of Resources </p>
+ *
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public class ClearanceFilterTest extends AbstractBaseTestCase {
+
+	private static final String RESOURCE_MARKINGS = "\tism:classification=\"U\" ism:ownerProducer=\"USA\">";
+	private static final String TITLE_MARKINGS = "<ddms:title ism:classification=\"U\" ism:ownerProducer=\"USA\">";
+	private static final String SUBTITLE_MARKINGS = "<ddms:subtitle ism:classification=\"U\" ism:ownerProducer=\"USA\">";
+	private static final String SECURITY = "<ddms:security ism:excludeFromRollup=\"true\" ism:classification=\"U\" "
+		+ "ism:ownerProducer=\"USA\" />";
+	private static final String ACCESS = "<ntk:Access ism:classification=\"U\" ism:ownerProducer=\"USA\">"
+		+ "<ntk:AccessIndividualList><ntk:AccessIndividual ism:classification=\"U\" ism:ownerProducer=\"USA\">"
+		+ "<ntk:AccessSystemName ism:classification=\"U\" ism:ownerProducer=\"USA\">DIAS</ntk:AccessSystemName>"
+		+ "<ntk:AccessIndividualValue ism:classification=\"U\" ism:ownerProducer=\"USA\">user_1</ntk:AccessIndividualValue>"
+		+ "</ntk:AccessIndividual></ntk:AccessIndividualList></ntk:Access>";
+
+	/**
+	 * Constructor
+	 */
+	public ClearanceFilterTest() {
+		super(null);
+	}
+
+	/**
+	 * Loads the DDMS 4.1 test resource, marked Secret, with a Secret title and a Confidential subtitle.
+	 *
+	 * @param withAccess true to add an ntk:Access element to the security component
+	 */
+	private Resource getResource(boolean withAccess) throws Exception {
+		DDMSVersion.setCurrentVersion("4.1");
+		String xml = readFile(new File(PropertyReader.getProperty("test.unit.data"), "4.1/resource.xml"));
+		xml = xml.replace(RESOURCE_MARKINGS, "\tism:classification=\"S\" ism:ownerProducer=\"USA\">");
+		xml = xml.replace(TITLE_MARKINGS, "<ddms:title ism:classification=\"S\" ism:ownerProducer=\"USA\" "
+			+ "ism:SCIcontrols=\"SI\">");
+		xml = xml.replace(SUBTITLE_MARKINGS, "<ddms:subtitle ism:classification=\"C\" ism:ownerProducer=\"USA\">");
+		xml = xml.replace(SECURITY, "<ddms:security ism:excludeFromRollup=\"true\" ism:classification=\"S\" "
+			+ "ism:ownerProducer=\"USA\" ism:SCIcontrols=\"SI\">" + (withAccess ? ACCESS : "") + "</ddms:security>");
+		return (new DDMSReader().getDDMSResource(xml));
+	}
+
+	/**
+	 * Loads the test resource of a DDMS version, with every marked component (including the banner) raised to
+	 * TS/SI.
+	 *
+	 * @param version the DDMS version
+	 */
+	private Resource getTopSecretResource(String version) throws Exception {
+		DDMSVersion.setCurrentVersion(version);
+		String xml = readFile(new File(PropertyReader.getProperty("test.unit.data"), version + "/resource.xml"));
+		xml = xml.replace("ism:classification=\"U\"", "ism:classification=\"TS\" ism:SCIcontrols=\"SI\"");
+		return (new DDMSReader().getDDMSResource(xml));
+	}
+
+	/**
+	 * Reads a file into a string.
+	 */
+	private String readFile(File file) throws Exception {
+		Reader reader = new FileReader(file);
+		StringBuffer contents = new StringBuffer();
+		try {
+			char[] buffer = new char[4096];
+			int count;
+			while ((count = reader.read(buffer)) != -1)
+				contents.append(buffer, 0, count);
+		}
+		finally {
+			reader.close();
+		}
+		return (contents.toString());
+	}
+
+	@Test
+	public void testBannerAboveClearance() throws Exception {
+		for (String version : new String[] { "2.0", "3.1", "4.1" }) {
+			Resource resource = getTopSecretResource(version);
+			ClearanceFilter filter = new ClearanceFilter("S");
+			assertFalse(version, filter.isVisible(resource));
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			assertFalse(version, filter.writeXML(resource, out));
+			assertEquals(version, 0, out.size());
+			StringWriter writer = new StringWriter();
+			assertFalse(version, filter.writeJSON(resource, writer));
+			assertEquals(version, 0, writer.toString().length());
+		}
+		assertFalse(new ClearanceFilter("C").writeXML(getResource(false), new ByteArrayOutputStream()));
+	}
+
+	@Test
+	public void testXML() throws Exception {
+		Resource resource = getResource(false);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertTrue(new ClearanceFilter("S").writeXML(resource, out));
+		Element root = new Builder().build(new ByteArrayInputStream(out.toByteArray())).getRootElement();
+		String ism = DDMSVersion.getCurrentVersion().getIsmNamespace();
+		String ddms = DDMSVersion.getCurrentVersion().getNamespace();
+		assertNotNull(root.getFirstChildElement("title", ddms));
+		assertNotNull(root.getFirstChildElement("identifier", ddms));
+		assertEquals("Version 0.1", root.getFirstChildElement("subtitle", ddms).getValue());
+		assertEquals("S", root.getAttributeValue("classification", ism));
+		assertEquals("SI", root.getAttributeValue("SCIcontrols", ism));
+		assertEquals("true", root.getAttributeValue("resourceElement", ism));
+		Element security = root.getFirstChildElement("security", ddms);
+		assertEquals("S", security.getAttributeValue("classification", ism));
+		assertEquals("true", security.getAttributeValue("excludeFromRollup", ism));
+	}
+
+	@Test
+	public void testPortionAboveClearance() throws Exception {
+		DDMSVersion.setCurrentVersion("4.1");
+		String xml = readFile(new File(PropertyReader.getProperty("test.unit.data"), "4.1/resource.xml"));
+		xml = xml.replace(RESOURCE_MARKINGS, "\tism:classification=\"S\" ism:ownerProducer=\"USA\" "
+			+ "ism:classificationReason=\"reason\">");
+		xml = xml.replace(TITLE_MARKINGS, "<ddms:title ism:classification=\"TS\" ism:ownerProducer=\"USA\" "
+			+ "ism:SCIcontrols=\"SI\">");
+		xml = xml.replace(SECURITY, "<ddms:security ism:excludeFromRollup=\"true\" ism:classification=\"S\" "
+			+ "ism:ownerProducer=\"USA\" />");
+		Resource resource = new DDMSReader().getDDMSResource(xml);
+		String ism = DDMSVersion.getCurrentVersion().getIsmNamespace();
+		String ddms = DDMSVersion.getCurrentVersion().getNamespace();
+
+		// The title is hidden, and the banner still explains its own classification
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertTrue(new ClearanceFilter("S").writeXML(resource, out));
+		Element root = new Builder().build(new ByteArrayInputStream(out.toByteArray())).getRootElement();
+		assertNull(root.getFirstChildElement("title", ddms));
+		assertEquals("S", root.getAttributeValue("classification", ism));
+		assertNull(root.getAttributeValue("SCIcontrols", ism));
+		assertEquals("reason", root.getAttributeValue("classificationReason", ism));
+		StringWriter writer = new StringWriter();
+		assertTrue(new ClearanceFilter("S").writeJSON(resource, writer));
+		assertFalse(writer.toString().contains("\"title\""));
+		assertTrue(writer.toString().contains("\"classificationReason\":\"reason\""));
+
+		// The title raises the banner, which no longer matches its classification reason
+		out = new ByteArrayOutputStream();
+		assertTrue(new ClearanceFilter("TS").writeXML(resource, out));
+		root = new Builder().build(new ByteArrayInputStream(out.toByteArray())).getRootElement();
+		assertNotNull(root.getFirstChildElement("title", ddms));
+		assertEquals("TS", root.getAttributeValue("classification", ism));
+		assertEquals("SI", root.getAttributeValue("SCIcontrols", ism));
+		assertNull(root.getAttributeValue("classificationReason", ism));
+		writer = new StringWriter();
+		assertTrue(new ClearanceFilter("TS").writeJSON(resource, writer));
+		assertTrue(writer.toString().contains("\"classification\":\"TS\""));
+		assertFalse(writer.toString().contains("\"classificationReason\""));
+	}
+
+	@Test
+	public void testJSON() throws Exception {
+		Resource resource = getResource(false);
+		StringWriter writer = new StringWriter();
+		assertTrue(new ClearanceFilter("S").writeJSON(resource, writer));
+		String json = writer.toString();
+		assertTrue(json.contains("\"title\""));
+		assertTrue(json.contains("\"subtitle\""));
+		assertTrue(json.contains("\"classification\":\"S\""));
+
+		// Banner markings are rewritten when attributes are inlined too
+		PropertyReader.setProperty("output.json.inlineAttributes", "true");
+		writer = new StringWriter();
+		assertTrue(new ClearanceFilter("S").writeJSON(resource, writer));
+		assertTrue(writer.toString().contains("\"classification\":\"S\""));
+	}
+
+	@Test
+	public void testUnfilteredJSON() throws Exception {
+		// At a clearance which sees everything, the view of a consistently marked Resource is its usual JSON.
+		for (String version : new String[] { "2.0", "3.0", "3.1", "4.1" }) {
+			DDMSVersion.setCurrentVersion(version);
+			Resource resource = new DDMSReader().getDDMSResource(new File(PropertyReader.getProperty(
+				"test.unit.data"), version + "/resource.xml"));
+			StringWriter writer = new StringWriter();
+			assertTrue(version, new ClearanceFilter("U").writeJSON(resource, writer));
+			assertEquals(version, resource.toJSON(), writer.toString());
+		}
+	}
+
+	@Test
+	public void testNoBanner() throws Exception {
+		// DDMS 5.0 has no banner markings, so unmarked components have no classification to inherit.
+		DDMSVersion.setCurrentVersion("5.0");
+		Resource resource = new DDMSReader().getDDMSResource(new File(PropertyReader.getProperty("test.unit.data"),
+			"5.0/resource.xml"));
+		ClearanceFilter filter = new ClearanceFilter("TS");
+		assertTrue(filter.isVisible(resource));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertTrue(filter.writeXML(resource, out));
+		Element root = new Builder().build(new ByteArrayInputStream(out.toByteArray())).getRootElement();
+		String ddms = DDMSVersion.getCurrentVersion().getNamespace();
+		assertNotNull(root.getFirstChildElement("title", ddms));
+		assertNull(root.getFirstChildElement("identifier", ddms));
+		StringWriter writer = new StringWriter();
+		assertTrue(filter.writeJSON(resource, writer));
+		assertTrue(writer.toString().contains("\"title\""));
+		assertFalse(writer.toString().contains("\"language\""));
+		assertFalse(writer.toString().contains("\"creator\""));
+
+		resource = getTopSecretResource("5.0");
+		out = new ByteArrayOutputStream();
+		assertTrue(new ClearanceFilter("S").writeXML(resource, out));
+		String xml = new String(out.toByteArray(), "UTF-8");
+		assertFalse(xml.contains("\"TS\""));
+		assertFalse(xml.contains("testIdentifier"));
+		assertFalse(xml.contains("DDMSence"));
+	}
+
+	@Test
+	public void testOtherVersion() throws Exception {
+		DDMSVersion.setCurrentVersion("3.1");
+		String xml = readFile(new File(PropertyReader.getProperty("test.unit.data"), "3.1/resource.xml"));
+		xml = xml.replaceFirst("ism:classification=\"U\"", "ism:classification=\"S\"");
+		xml = xml.replace("<ddms:title ism:classification=\"U\"", "<ddms:title ism:classification=\"S\" "
+			+ "ism:SCIcontrols=\"SI\"");
+		Resource resource = new DDMSReader().getDDMSResource(xml);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertFalse(new ClearanceFilter("C").writeXML(resource, out));
+		assertEquals(0, out.size());
+
+		out = new ByteArrayOutputStream();
+		assertTrue(new ClearanceFilter("S").writeXML(resource, out));
+		Element root = new Builder().build(new ByteArrayInputStream(out.toByteArray())).getRootElement();
+		String ism = DDMSVersion.getCurrentVersion().getIsmNamespace();
+		assertEquals("S", root.getAttributeValue("classification", ism));
+		assertEquals("SI", root.getAttributeValue("SCIcontrols", ism));
+	}
+
+	@Test
+	public void testNeedToKnow() throws Exception {
+		Resource resource = getResource(true);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertFalse(new ClearanceFilter("S", NtkSubject.EMPTY.withIndividual("DIAS", "user_2")).writeXML(resource,
+			out));
+		assertEquals(0, out.size());
+		assertFalse(new ClearanceFilter("S", NtkSubject.EMPTY).writeJSON(resource, new StringWriter()));
+		assertTrue(new ClearanceFilter("S", NtkSubject.EMPTY.withIndividual("DIAS", "user_1")).writeXML(resource,
+			out));
+		assertTrue(out.size() > 0);
+		assertTrue(new ClearanceFilter("S").isGranted(resource));
+	}
+
+	@Test
+	public void testInvalidClearance() {
+		try {
+			new ClearanceFilter("unknown");
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "unknown is not a recognized classification.");
+		}
+	}
+}
@@ -0,0 +1,208 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.ddms.security.ism;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import buri.ddmsence.AbstractBaseTestCase;
+import buri.ddmsence.ddms.InvalidDDMSException;
+import buri.ddmsence.util.DDMSVersion;
+
+/**
+ * <p> Tests related to the memoized validation of ISM attribute groups </p>
+ *
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public class AttributeValidationCacheTest extends AbstractBaseTestCase {
+
+	/**
+	 * Constructor
+	 */
+	public AttributeValidationCacheTest() {
+		super(null);
+	}
+
+	@Test
+	public void testRepeatedAttributes() throws InvalidDDMSException {
+		DDMSVersion.setCurrentVersion("4.1");
+		AttributeValidationCache.clear();
+		SecurityAttributes first = SecurityAttributesTest.getFullFixture();
+		assertEquals(0, AttributeValidationCache.getHitCount());
+		assertEquals(1, AttributeValidationCache.getMissCount());
+		SecurityAttributes second = SecurityAttributesTest.getFullFixture();
+		assertEquals(1, AttributeValidationCache.getHitCount());
+		assertEquals(1, AttributeValidationCache.getSize());
+		assertEquals(first, second);
+		assertEquals(first.getValidationWarnings().size(), second.getValidationWarnings().size());
+	}
+
+	@Test
+	public void testVersionIsPartOfKey() throws InvalidDDMSException {
+		AttributeValidationCache.clear();
+		DDMSVersion.setCurrentVersion("4.1");
+		SecurityAttributesTest.getFixture();
+		DDMSVersion.setCurrentVersion("3.1");
+		SecurityAttributesTest.getFixture();
+		assertEquals(0, AttributeValidationCache.getHitCount());
+		assertEquals(2, AttributeValidationCache.getSize());
+	}
+
+	@Test
+	public void testReplayedError() {
+		DDMSVersion.setCurrentVersion("4.1");
+		AttributeValidationCache.clear();
+		List<String> owners = new ArrayList<String>();
+		owners.add("USA");
+		InvalidDDMSException first = null;
+		for (int i = 0; i < 2; i++) {
+			try {
+				new SecurityAttributes("unknown", owners, null);
+				fail("Allowed invalid data.");
+			}
+			catch (InvalidDDMSException e) {
+				expectMessage(e, "unknown is not a valid enumeration token for this attribute");
+				if (first == null) {
+					first = e;
+					first.setLocator("ddms:title");
+				}
+				else {
+					assertNotSame(first, e);
+					assertEquals(first.getMessage(), e.getMessage());
+					assertEquals("", e.getLocator());
+				}
+			}
+		}
+		assertEquals(1, AttributeValidationCache.getHitCount());
+	}
+
+	@Test
+	public void testConcurrentReplayedErrors() throws Exception {
+		DDMSVersion.setCurrentVersion("4.1");
+		AttributeValidationCache.clear();
+		final List<String> owners = new ArrayList<String>();
+		owners.add("USA");
+		final Set<InvalidDDMSException> errors = Collections.synchronizedSet(Collections
+			.newSetFromMap(new IdentityHashMap<InvalidDDMSException, Boolean>()));
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				public void run() {
+					DDMSVersion.setCurrentVersion("4.1");
+					for (int j = 0; j < 100; j++) {
+						try {
+							new SecurityAttributes("unknown", owners, null);
+						}
+						catch (InvalidDDMSException e) {
+							errors.add(e);
+						}
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		assertEquals(400, errors.size());
+		assertEquals(1, AttributeValidationCache.getSize());
+	}
+
+	@Test
+	public void testRecordedKeyIsCopied() throws InvalidDDMSException {
+		DDMSVersion.setCurrentVersion("4.1");
+		AttributeValidationCache.clear();
+		List<String> owners = new ArrayList<String>();
+		owners.add("USA");
+		new SecurityAttributes("U", owners, null);
+		owners.set(0, "AUS");
+		owners = new ArrayList<String>();
+		owners.add("USA");
+		new SecurityAttributes("U", owners, null);
+		assertEquals(1, AttributeValidationCache.getHitCount());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEviction() throws InvalidDDMSException {
+		DDMSVersion.setCurrentVersion("4.1");
+		AttributeValidationCache.clear();
+		List<String> owners = new ArrayList<String>();
+		owners.add("USA");
+		Map<String, String> others = new HashMap<String, String>();
+		new SecurityAttributes("U", owners, others);
+		for (int i = 1; i < AttributeValidationCache.MAX_ENTRIES; i++) {
+			others.put(SecurityAttributes.CLASSIFIED_BY_NAME, "Person " + i);
+			new SecurityAttributes("U", owners, others);
+		}
+		assertEquals(AttributeValidationCache.MAX_ENTRIES, AttributeValidationCache.getSize());
+
+		// Touching the oldest outcome makes Person 1 the least recently used.
+		new SecurityAttributes("U", owners, null);
+		others.put(SecurityAttributes.CLASSIFIED_BY_NAME, "Person " + AttributeValidationCache.MAX_ENTRIES);
+		new SecurityAttributes("U", owners, others);
+		assertEquals(AttributeValidationCache.MAX_ENTRIES, AttributeValidationCache.getSize());
+		assertEquals(1, AttributeValidationCache.getHitCount());
+
+		new SecurityAttributes("U", owners, null);
+		assertEquals(2, AttributeValidationCache.getHitCount());
+		others.put(SecurityAttributes.CLASSIFIED_BY_NAME, "Person 1");
+		new SecurityAttributes("U", owners, others);
+		assertEquals(2, AttributeValidationCache.getHitCount());
+	}
+
+	@Test
+	public void testEmptyAttributesNotCached() throws InvalidDDMSException {
+		DDMSVersion.setCurrentVersion("4.1");
+		AttributeValidationCache.clear();
+		new SecurityAttributes(null, null, null);
+		new NoticeAttributes(null, null, null, null);
+		assertEquals(0, AttributeValidationCache.getSize());
+		assertEquals(0, AttributeValidationCache.getMissCount());
+	}
+
+	@Test
+	public void testNoticeAttributes() {
+		DDMSVersion.setCurrentVersion("4.1");
+		AttributeValidationCache.clear();
+		assertEquals(NoticeAttributesTest.getFixture(), NoticeAttributesTest.getFixture());
+		assertEquals(1, AttributeValidationCache.getHitCount());
+		assertEquals(1, AttributeValidationCache.getSize());
+	}
+
+	@Test
+	public void testClear() throws InvalidDDMSException {
+		DDMSVersion.setCurrentVersion("4.1");
+		SecurityAttributesTest.getFixture();
+		SecurityAttributesTest.getFixture();
+		AttributeValidationCache.clear();
+		assertEquals(0, AttributeValidationCache.getSize());
+		assertEquals(0, AttributeValidationCache.getHitCount());
+		assertEquals(0, AttributeValidationCache.getMissCount());
+	}
+}
@@ -0,0 +1,213 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.ddms.security.ism;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import buri.ddmsence.AbstractBaseTestCase;
+import buri.ddmsence.ddms.InvalidDDMSException;
+import buri.ddmsence.util.DDMSVersion;
+import buri.ddmsence.util.PropertyReader;
+import buri.ddmsence.util.Util;
+
+/**
+ * <p> Tests related to watched directories of ISM Controlled Vocabularies </p>
+ * 
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public class CVEDirectoryWatcherTest extends AbstractBaseTestCase {
+
+	private File _directory;
+
+	/**
+	 * Constructor
+	 */
+	public CVEDirectoryWatcherTest() {
+		super(null);
+	}
+
+	/**
+	 * Creates an empty directory for CVE files
+	 */
+	@Before
+	public void createDirectory() throws IOException {
+		_directory = File.createTempFile("cve", "");
+		_directory.delete();
+		_directory.mkdir();
+		DDMSVersion.setCurrentVersion("5.0");
+	}
+
+	/**
+	 * Removes the directory
+	 */
+	@After
+	public void removeDirectory() {
+		for (File file : _directory.listFiles())
+			file.delete();
+		_directory.delete();
+	}
+
+	/**
+	 * Writes a CVE file into the directory
+	 * 
+	 * @param contents the contents of the file
+	 * @param lastModified the modification time to give the file
+	 */
+	private void writeDissem(String contents, long lastModified) throws IOException {
+		File file = new File(_directory, ISMVocabulary.CVE_DISSEMINATION_CONTROLS);
+		Writer writer = new FileWriter(file);
+		try {
+			writer.write(contents);
+		}
+		finally {
+			writer.close();
+		}
+		file.setLastModified(lastModified);
+	}
+
+	/**
+	 * Builds a minimal CVE file containing some tokens
+	 */
+	private String getCVE(String... tokens) {
+		StringBuffer xml = new StringBuffer();
+		xml.append("<CVE xmlns=\"").append(PropertyReader.getProperty("5.0.ism.cve.xmlNamespace")).append(
+			"\"><Enumeration>");
+		for (String token : tokens)
+			xml.append("<Term><Value>").append(token).append("</Value></Term>");
+		xml.append("</Enumeration></CVE>");
+		return (xml.toString());
+	}
+
+	@Test
+	public void testCheckForChanges() throws IOException {
+		writeDissem(getCVE("ALPHA"), 100000L);
+		CVEDirectoryWatcher watcher = ISMVocabulary.watchDirectory(DDMSVersion.getVersionFor("5.0"), _directory, 0);
+		try {
+			assertEquals(_directory, watcher.getDirectory());
+			assertEquals("5.0", watcher.getVersion().getVersion());
+			assertTrue(ISMVocabulary.enumContains(ISMVocabulary.CVE_DISSEMINATION_CONTROLS, "ALPHA"));
+			assertFalse(ISMVocabulary.enumContains(ISMVocabulary.CVE_DISSEMINATION_CONTROLS, "FOUO"));
+			assertFalse(watcher.checkForChanges());
+
+			writeDissem(getCVE("ALPHA", "BETA"), 200000L);
+			assertTrue(watcher.checkForChanges());
+			assertTrue(ISMVocabulary.enumContains(ISMVocabulary.CVE_DISSEMINATION_CONTROLS, "BETA"));
+			assertNull(watcher.getLastError());
+			assertFalse(watcher.checkForChanges());
+
+			writeDissem("<CVE", 300000L);
+			try {
+				watcher.checkForChanges();
+				fail("Allowed invalid data.");
+			}
+			catch (IOException e) {
+				expectMessage(e, "Could not load");
+			}
+			assertNotNull(watcher.getLastError());
+			assertTrue(ISMVocabulary.enumContains(ISMVocabulary.CVE_DISSEMINATION_CONTROLS, "BETA"));
+		}
+		finally {
+			watcher.stop();
+		}
+		assertTrue(ISMVocabulary.enumContains(ISMVocabulary.CVE_DISSEMINATION_CONTROLS, "FOUO"));
+		assertFalse(ISMVocabulary.enumContains(ISMVocabulary.CVE_DISSEMINATION_CONTROLS, "ALPHA"));
+	}
+
+	@Test
+	public void testEncodedMarkingsFollowReload() throws IOException, InvalidDDMSException {
+		DDMSVersion version = DDMSVersion.getVersionFor("5.0");
+		Map<String, String> others = new HashMap<String, String>();
+		others.put(SecurityAttributes.DISSEMINATION_CONTROLS_NAME, "FOUO NF");
+		SecurityAttributes attributes = new SecurityAttributes("U", Util.getXsListAsList("USA"), others);
+		writeDissem(getCVE("NF", "ZULU"), 100000L);
+		CVEDirectoryWatcher watcher = ISMVocabulary.watchDirectory(version, _directory, 0);
+		try {
+			EncodedMarkings before = attributes.getEncodedMarkings(version);
+			writeDissem(getCVE("AAA", "FOUO", "NF"), 200000L);
+			assertTrue(watcher.checkForChanges());
+			EncodedMarkings after = attributes.getEncodedMarkings(version);
+
+			assertEquals(Util.getXsListAsList("NF FOUO"), before.getTokens(SecurityAttributes.DISSEMINATION_CONTROLS_NAME));
+			assertEquals(Util.getXsListAsList("FOUO NF"), after.getTokens(SecurityAttributes.DISSEMINATION_CONTROLS_NAME));
+			assertTrue(before.contains(SecurityAttributes.DISSEMINATION_CONTROLS_NAME, "NF"));
+			assertFalse(before.equals(after));
+			assertTrue(before.containsAll(after));
+			assertTrue(after.containsAll(before));
+			assertEquals(after, after.union(before));
+		}
+		finally {
+			watcher.stop();
+		}
+	}
+
+	@Test
+	public void testPolling() throws Exception {
+		writeDissem(getCVE("ALPHA"), 100000L);
+		CVEDirectoryWatcher watcher = ISMVocabulary.watchDirectory(DDMSVersion.getVersionFor("5.0"), _directory, 10);
+		try {
+			writeDissem(getCVE("ALPHA", "BETA"), 200000L);
+			long deadline = System.currentTimeMillis() + 5000;
+			while (!ISMVocabulary.enumContains(ISMVocabulary.CVE_DISSEMINATION_CONTROLS, "BETA")
+				&& System.currentTimeMillis() < deadline)
+				Thread.sleep(10);
+			assertTrue(ISMVocabulary.enumContains(ISMVocabulary.CVE_DISSEMINATION_CONTROLS, "BETA"));
+		}
+		finally {
+			watcher.stop();
+		}
+	}
+
+	@Test
+	public void testOtherVersionsUnaffected() throws IOException {
+		writeDissem(getCVE("ALPHA"), 100000L);
+		CVEDirectoryWatcher watcher = ISMVocabulary.watchDirectory(DDMSVersion.getVersionFor("5.0"), _directory, 0);
+		try {
+			DDMSVersion.setCurrentVersion("4.1");
+			assertTrue(ISMVocabulary.enumContains(ISMVocabulary.CVE_DISSEMINATION_CONTROLS, "FOUO"));
+		}
+		finally {
+			watcher.stop();
+		}
+	}
+
+	@Test
+	public void testEmptyDirectory() {
+		try {
+			ISMVocabulary.watchDirectory(DDMSVersion.getVersionFor("5.0"), _directory, 0);
+			fail("Allowed invalid data.");
+		}
+		catch (IOException e) {
+			expectMessage(e, "No controlled vocabularies could be found");
+		}
+		assertTrue(ISMVocabulary.enumContains(ISMVocabulary.CVE_DISSEMINATION_CONTROLS, "FOUO"));
+	}
+}
@@ -0,0 +1,116 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.ddms.security.ism;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import buri.ddmsence.AbstractBaseTestCase;
+import buri.ddmsence.util.PropertyReader;
+
+/**
+ * <p> Tests related to the compiled snapshots of the ISM Controlled Vocabularies </p>
+ * 
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public class ControlledVocabularyTest extends AbstractBaseTestCase {
+
+	/**
+	 * Constructor
+	 */
+	public ControlledVocabularyTest() {
+		super(null);
+	}
+
+	/**
+	 * Parses the CVE files for a version
+	 */
+	private ControlledVocabulary loadXML(String version) {
+		return (ControlledVocabulary.load(PropertyReader.getProperty(version + ".ism.cve.xmlNamespace"),
+			PropertyReader.getProperty(version + ".ism.cveLocation"), ISMVocabulary.getEnumerationKeys()));
+	}
+
+	/**
+	 * Asserts that two vocabularies contain the same tokens and patterns
+	 */
+	private void assertSameVocabulary(ControlledVocabulary expected, ControlledVocabulary actual) {
+		for (String key : ISMVocabulary.getEnumerationKeys()) {
+			assertEquals(expected.getTokens(key), actual.getTokens(key));
+			Pattern pattern = expected.getPattern(key);
+			if (pattern == null)
+				assertNull(actual.getPattern(key));
+			else
+				assertEquals(pattern.pattern(), actual.getPattern(key).pattern());
+		}
+	}
+
+	@Test
+	public void testSnapshotRoundTrip() throws IOException {
+		for (String sVersion : getSupportedVersions()) {
+			ControlledVocabulary vocabulary = loadXML(sVersion);
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			vocabulary.write(output);
+			ControlledVocabulary copy = ControlledVocabulary.read(new ByteArrayInputStream(output.toByteArray()));
+			assertSameVocabulary(vocabulary, copy);
+			assertTrue(copy.contains(ISMVocabulary.CVE_SAR_IDENTIFIER, "SAR-ABC"));
+		}
+	}
+
+	@Test
+	public void testLoadSnapshot() {
+		for (String sVersion : getSupportedVersions()) {
+			ControlledVocabulary snapshot = ControlledVocabulary.loadSnapshot(PropertyReader.getProperty(sVersion
+				+ ".ism.cveLocation"), ISMVocabulary.getEnumerationKeys());
+			// Snapshots only exist when the build has compiled them.
+			if (snapshot != null)
+				assertSameVocabulary(loadXML(sVersion), snapshot);
+		}
+		assertNull(ControlledVocabulary.loadSnapshot("/doesNotExist/", ISMVocabulary.getEnumerationKeys()));
+	}
+
+	@Test
+	public void testReadInvalid() {
+		try {
+			ControlledVocabulary.read(new ByteArrayInputStream("<Enumeration />".getBytes()));
+			fail("Allowed invalid data.");
+		}
+		catch (IOException e) {
+			expectMessage(e, "The stream is not a controlled vocabulary snapshot.");
+		}
+	}
+
+	@Test
+	public void testContainsBadKey() {
+		try {
+			loadXML("5.0").contains("unknownKey", "value");
+			fail("Allowed invalid key.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "No controlled vocabulary could be found");
+		}
+	}
+}
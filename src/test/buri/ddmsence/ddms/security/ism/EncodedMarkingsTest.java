@@ -0,0 +1,194 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.ddms.security.ism;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import buri.ddmsence.AbstractBaseTestCase;
+import buri.ddmsence.ddms.InvalidDDMSException;
+import buri.ddmsence.util.DDMSVersion;
+import buri.ddmsence.util.Util;
+
+/**
+ * <p> Tests related to the encoded form of security markings </p>
+ * 
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public class EncodedMarkingsTest extends AbstractBaseTestCase {
+
+	/**
+	 * Constructor
+	 */
+	public EncodedMarkingsTest() {
+		super(null);
+	}
+
+	/**
+	 * Builds attributes with a classification, ownerProducers, and other markings.
+	 */
+	private SecurityAttributes getAttributes(String classification, String owners, String dissems, String releasableTo)
+		throws InvalidDDMSException {
+		Map<String, String> others = new HashMap<String, String>();
+		if (dissems != null)
+			others.put(SecurityAttributes.DISSEMINATION_CONTROLS_NAME, dissems);
+		if (releasableTo != null)
+			others.put(SecurityAttributes.RELEASABLE_TO_NAME, releasableTo);
+		return (new SecurityAttributes(classification, Util.getXsListAsList(owners), others));
+	}
+
+	@Test
+	public void testRoundTrip() {
+		for (String sVersion : getSupportedVersions()) {
+			DDMSVersion.setCurrentVersion(sVersion);
+			SecurityAttributes attributes = SecurityAttributesTest.getFullFixture();
+			EncodedMarkings markings = attributes.getEncodedMarkings(DDMSVersion.getCurrentVersion());
+			assertEquals(attributes.getClassification(), markings.getClassification());
+			assertEquals(attributes.getOwnerProducers(), markings.getTokens(SecurityAttributes.OWNER_PRODUCER_NAME));
+			assertEquals(attributes.getSCIcontrols(), markings.getTokens(SecurityAttributes.SCI_CONTROLS_NAME));
+			assertEquals(attributes.getSARIdentifier(), markings.getTokens(SecurityAttributes.SAR_IDENTIFIER_NAME));
+			assertEquals(attributes.getDisseminationControls(), markings.getTokens(
+				SecurityAttributes.DISSEMINATION_CONTROLS_NAME));
+			assertEquals(markings, SecurityAttributesTest.getFullFixture().getEncodedMarkings(DDMSVersion.getCurrentVersion()));
+			assertEquals(markings.hashCode(), SecurityAttributesTest.getFullFixture().getEncodedMarkings(DDMSVersion.getCurrentVersion()).hashCode());
+		}
+	}
+
+	@Test
+	public void testOrderIgnored() throws InvalidDDMSException {
+		DDMSVersion.setCurrentVersion("5.0");
+		EncodedMarkings first = getAttributes("S", "USA AUS", "FOUO NF", null).getEncodedMarkings(DDMSVersion.getCurrentVersion());
+		EncodedMarkings second = getAttributes("S", "AUS USA", "NF FOUO", null).getEncodedMarkings(DDMSVersion.getCurrentVersion());
+		assertEquals(first, second);
+		assertEquals(first.hashCode(), second.hashCode());
+		assertFalse(first.equals(getAttributes("C", "AUS USA", "NF FOUO", null).getEncodedMarkings(DDMSVersion.getCurrentVersion())));
+		assertFalse(first.equals(getAttributes("S", "AUS USA", "NF", null).getEncodedMarkings(DDMSVersion.getCurrentVersion())));
+	}
+
+	@Test
+	public void testSetOperations() throws InvalidDDMSException {
+		DDMSVersion.setCurrentVersion("5.0");
+		EncodedMarkings first = getAttributes("S", "USA", "FOUO", "USA AUS GBR").getEncodedMarkings(DDMSVersion.getCurrentVersion());
+		EncodedMarkings second = getAttributes("C", "USA", "NF", "USA GBR").getEncodedMarkings(DDMSVersion.getCurrentVersion());
+
+		EncodedMarkings union = first.union(second);
+		assertEquals("S", union.getClassification());
+		List<String> dissems = new ArrayList<String>(union.getTokens(SecurityAttributes.DISSEMINATION_CONTROLS_NAME));
+		assertEquals(2, dissems.size());
+		assertTrue(union.contains(SecurityAttributes.DISSEMINATION_CONTROLS_NAME, "FOUO"));
+		assertTrue(union.contains(SecurityAttributes.DISSEMINATION_CONTROLS_NAME, "NF"));
+		assertTrue(union.containsAll(first));
+		assertTrue(union.containsAll(second));
+		assertFalse(first.containsAll(second));
+
+		EncodedMarkings intersection = first.intersect(second);
+		assertEquals(Util.getXsListAsList("GBR USA"), intersection.getTokens(SecurityAttributes.RELEASABLE_TO_NAME));
+		assertTrue(intersection.getTokens(SecurityAttributes.DISSEMINATION_CONTROLS_NAME).isEmpty());
+		assertTrue(first.containsAll(intersection));
+		assertFalse(intersection.contains(SecurityAttributes.RELEASABLE_TO_NAME, "AUS"));
+		assertFalse(intersection.contains(SecurityAttributes.RELEASABLE_TO_NAME, "unknown"));
+
+		EncodedMarkings rollup = second.rollUp(first);
+		assertEquals("S", rollup.getClassification());
+		assertEquals(ISMVocabulary.getClassificationRank("S"), rollup.getClassificationRank());
+		assertEquals(ISMVocabulary.getClassificationRank("C"), second.getClassificationRank());
+	}
+
+	@Test
+	public void testPatternTokens() throws InvalidDDMSException {
+		DDMSVersion.setCurrentVersion("5.0");
+		Map<String, String> others = new HashMap<String, String>();
+		others.put(SecurityAttributes.SAR_IDENTIFIER_NAME, "SAR-ABC SAR-XYZ");
+		EncodedMarkings markings = new SecurityAttributes("S", Util.getXsListAsList("USA"), others)
+			.getEncodedMarkings(DDMSVersion.getCurrentVersion());
+		assertTrue(markings.contains(SecurityAttributes.SAR_IDENTIFIER_NAME, "SAR-ABC"));
+		assertTrue(markings.contains(SecurityAttributes.SAR_IDENTIFIER_NAME, "SAR-XYZ"));
+		assertFalse(markings.contains(SecurityAttributes.SAR_IDENTIFIER_NAME, "SAR-DEF"));
+		assertEquals(2, markings.getTokens(SecurityAttributes.SAR_IDENTIFIER_NAME).size());
+	}
+
+	@Test
+	public void testUnlistedTokensKeptOnEncoding() throws InvalidDDMSException {
+		DDMSVersion.setCurrentVersion("5.0");
+		DDMSVersion version = DDMSVersion.getCurrentVersion();
+		Map<String, String> others = new HashMap<String, String>();
+		others.put(SecurityAttributes.SAR_IDENTIFIER_NAME, "SAR-XYZ SAR-ABC");
+		EncodedMarkings first = new SecurityAttributes("S", Util.getXsListAsList("USA"), others)
+			.getEncodedMarkings(version);
+		others.put(SecurityAttributes.SAR_IDENTIFIER_NAME, "SAR-ABC SAR-DEF");
+		EncodedMarkings second = new SecurityAttributes("S", Util.getXsListAsList("USA"), others)
+			.getEncodedMarkings(version);
+		assertEquals(Util.getXsListAsList("SAR-ABC SAR-XYZ"), first.getTokens(SecurityAttributes.SAR_IDENTIFIER_NAME));
+		assertFalse(first.equals(second));
+		assertEquals(Util.getXsListAsList("SAR-ABC SAR-DEF SAR-XYZ"), first.union(second).getTokens(
+			SecurityAttributes.SAR_IDENTIFIER_NAME));
+		assertEquals(Util.getXsListAsList("SAR-ABC"), first.intersect(second).getTokens(
+			SecurityAttributes.SAR_IDENTIFIER_NAME));
+		assertTrue(first.union(second).containsAll(second));
+		assertFalse(first.containsAll(second));
+		assertEquals(first, first.union(first.intersect(second)));
+		assertEquals(first.hashCode(), first.union(first.intersect(second)).hashCode());
+	}
+
+	@Test
+	public void testExplicitVersion() throws InvalidDDMSException {
+		DDMSVersion.setCurrentVersion("3.1");
+		SecurityAttributes attributes = getAttributes("S", "USA", null, null);
+		DDMSVersion.setCurrentVersion("5.0");
+		assertEquals(DDMSVersion.getVersionFor("3.1"), attributes.getEncodedMarkings(DDMSVersion.getVersionFor("3.1"))
+			.getVersion());
+		try {
+			attributes.getEncodedMarkings(DDMSVersion.getVersionFor("2.0"));
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "The DDMS version of the parent component is incompatible");
+		}
+	}
+
+	@Test
+	public void testInvalidArguments() throws InvalidDDMSException {
+		DDMSVersion.setCurrentVersion("5.0");
+		EncodedMarkings markings = getAttributes("S", "USA", null, null).getEncodedMarkings(DDMSVersion.getCurrentVersion());
+		try {
+			markings.getTokens(SecurityAttributes.CLASSIFIED_BY_NAME);
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "classifiedBy is not an encoded attribute.");
+		}
+		DDMSVersion.setCurrentVersion("2.0");
+		EncodedMarkings older = getAttributes("S", "USA", null, null).getEncodedMarkings(DDMSVersion.getCurrentVersion());
+		try {
+			markings.union(older);
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "Encoded markings from different DDMS versions cannot be combined.");
+		}
+	}
+}
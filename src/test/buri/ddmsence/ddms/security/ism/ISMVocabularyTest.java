@@ -21,9 +21,18 @@ package buri.ddmsence.ddms.security.ism;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.Test;
 
 import buri.ddmsence.AbstractBaseTestCase;
+import buri.ddmsence.util.DDMSContext;
 import buri.ddmsence.util.DDMSVersion;
 
 /**
@@ -142,6 +151,51 @@ public class ISMVocabularyTest extends AbstractBaseTestCase {
 		}
 	}
 
+	@Test
+	public void testTokensAreShared() {
+		DDMSVersion.setCurrentVersion("5.0");
+		Set<String> tokens = ISMVocabulary.getEnumerationTokens(ISMVocabulary.CVE_DISSEMINATION_CONTROLS);
+		assertSame(tokens, ISMVocabulary.getEnumerationTokens(ISMVocabulary.CVE_DISSEMINATION_CONTROLS));
+		try {
+			tokens.add("unknown");
+			fail("Allowed modification.");
+		}
+		catch (UnsupportedOperationException e) {
+			// Good
+		}
+	}
+
+	@Test
+	public void testConcurrentLookups() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+			for (int i = 0; i < 100; i++) {
+				final DDMSVersion version = DDMSVersion.getVersionFor(getSupportedVersions().get(
+					i % getSupportedVersions().size()));
+				futures.add(executor.submit(new Callable<Boolean>() {
+					public Boolean call() throws Exception {
+						DDMSContext.bind(DDMSContext.getCurrent().withVersion(version));
+						try {
+							boolean valid = ISMVocabulary.enumContains(ISMVocabulary.CVE_SAR_IDENTIFIER, "SAR-ABC")
+								&& ISMVocabulary.enumContains(ISMVocabulary.CVE_SCI_CONTROLS, "SI-G-ABCD")
+								&& !ISMVocabulary.enumContains(ISMVocabulary.CVE_SCI_CONTROLS, "SI-G-ABCDE");
+							return (Boolean.valueOf(valid));
+						}
+						finally {
+							DDMSContext.bind(null);
+						}
+					}
+				}));
+			}
+			for (Future<Boolean> future : futures)
+				assertTrue(future.get().booleanValue());
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
 	@Test
 	public void testIsUSMarking() {
 		ISMVocabulary.setDDMSVersion(DDMSVersion.getVersionFor("2.0"));
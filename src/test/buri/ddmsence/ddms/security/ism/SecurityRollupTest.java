@@ -0,0 +1,178 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.ddms.security.ism;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.Reader;
+
+import org.junit.Test;
+
+import buri.ddmsence.AbstractBaseTestCase;
+import buri.ddmsence.ddms.InvalidDDMSException;
+import buri.ddmsence.ddms.Resource;
+import buri.ddmsence.util.DDMSReader;
+import buri.ddmsence.util.DDMSVersion;
+import buri.ddmsence.util.PropertyReader;
+import buri.ddmsence.util.Util;
+
+/**
+ * <p> Tests related to the roll-up of security markings </p>
+ * 
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public class SecurityRollupTest extends AbstractBaseTestCase {
+
+	private static final String RESOURCE_MARKINGS = "\tism:classification=\"U\" ism:ownerProducer=\"USA\">";
+	private static final String TITLE_MARKINGS = "<ddms:title ism:classification=\"U\" ism:ownerProducer=\"USA\">";
+	private static final String SUBTITLE_MARKINGS = "<ddms:subtitle ism:classification=\"U\" ism:ownerProducer=\"USA\">";
+
+	/**
+	 * Constructor
+	 */
+	public SecurityRollupTest() {
+		super(null);
+	}
+
+	/**
+	 * Loads the DDMS 4.1 test resource, with new markings on the resource, title and subtitle.
+	 */
+	private Resource getResource(String resource, String title, String subtitle) throws Exception {
+		DDMSVersion.setCurrentVersion("4.1");
+		String xml = readFile(new File(PropertyReader.getProperty("test.unit.data"), "4.1/resource.xml"));
+		xml = xml.replace(RESOURCE_MARKINGS, "\t" + resource + ">");
+		xml = xml.replace(TITLE_MARKINGS, "<ddms:title " + title + ">");
+		xml = xml.replace(SUBTITLE_MARKINGS, "<ddms:subtitle " + subtitle + ">");
+		return (new DDMSReader().getDDMSResource(xml));
+	}
+
+	/**
+	 * Reads a file into a string.
+	 */
+	private String readFile(File file) throws Exception {
+		Reader reader = new FileReader(file);
+		StringBuffer contents = new StringBuffer();
+		try {
+			char[] buffer = new char[4096];
+			int count;
+			while ((count = reader.read(buffer)) != -1)
+				contents.append(buffer, 0, count);
+		}
+		finally {
+			reader.close();
+		}
+		return (contents.toString());
+	}
+
+	@Test
+	public void testRollup() throws Exception {
+		Resource resource = getResource("ism:classification=\"S\" ism:ownerProducer=\"USA\" "
+			+ "ism:releasableTo=\"USA AUS GBR\"", "ism:classification=\"S\" ism:ownerProducer=\"USA\" "
+			+ "ism:releasableTo=\"USA AUS GBR\" ism:disseminationControls=\"REL\"",
+			"ism:classification=\"C\" ism:ownerProducer=\"GBR\" ism:releasableTo=\"USA GBR\" ism:SCIcontrols=\"SI\"");
+		SecurityRollup rollup = resource.getSecurityRollup();
+		assertSame(rollup, resource.getSecurityRollup());
+		assertEquals("S", rollup.getClassification());
+		assertEquals(Util.getXsListAsList("GBR USA"), rollup.getTokens(SecurityAttributes.RELEASABLE_TO_NAME));
+		assertEquals(Util.getXsListAsList("GBR USA"), rollup.getTokens(SecurityAttributes.OWNER_PRODUCER_NAME));
+		assertEquals(Util.getXsListAsList("REL"), rollup.getTokens(SecurityAttributes.DISSEMINATION_CONTROLS_NAME));
+		assertEquals(Util.getXsListAsList("SI"), rollup.getTokens(SecurityAttributes.SCI_CONTROLS_NAME));
+		assertTrue(rollup.isConsistent());
+		rollup.requireConsistent();
+		assertEquals(rollup.getMarkings(), SecurityRollup.rollUp(resource, true).getMarkings());
+	}
+
+	@Test
+	public void testPortionHigherThanResource() throws Exception {
+		Resource resource = getResource("ism:classification=\"C\" ism:ownerProducer=\"USA\"",
+			"ism:classification=\"TS\" ism:ownerProducer=\"USA\"", "ism:classification=\"U\" ism:ownerProducer=\"USA\"");
+		SecurityRollup rollup = resource.getSecurityRollup();
+		assertEquals("TS", rollup.getClassification());
+		assertFalse(rollup.isConsistent());
+		assertEquals(1, rollup.getInconsistencies().size());
+		try {
+			SecurityRollup.rollUp(resource, true);
+			fail("Allowed invalid data.");
+		}
+		catch (InvalidDDMSException e) {
+			expectMessage(e, "A portion is classified TS, which is higher than the resource classification of C.");
+		}
+	}
+
+	@Test
+	public void testNoforn() throws Exception {
+		Resource resource = getResource("ism:classification=\"S\" ism:ownerProducer=\"USA\" "
+			+ "ism:releasableTo=\"USA AUS\"", "ism:classification=\"S\" ism:ownerProducer=\"USA\" "
+			+ "ism:releasableTo=\"USA AUS\"", "ism:classification=\"S\" ism:ownerProducer=\"USA\" "
+			+ "ism:releasableTo=\"USA AUS\" ism:disseminationControls=\"NF\"");
+		SecurityRollup rollup = resource.getSecurityRollup();
+		assertFalse(rollup.isConsistent());
+		try {
+			rollup.requireConsistent();
+			fail("Allowed invalid data.");
+		}
+		catch (InvalidDDMSException e) {
+			expectMessage(e, "The rolled-up markings are NOFORN, but are also releasable to [AUS, USA].");
+		}
+	}
+
+	@Test
+	public void testClassifiedPortionWithoutReleasability() throws Exception {
+		Resource resource = getResource("ism:classification=\"TS\" ism:ownerProducer=\"USA\" "
+			+ "ism:releasableTo=\"USA GBR\"", "ism:classification=\"TS\" ism:ownerProducer=\"USA\"",
+			"ism:classification=\"S\" ism:ownerProducer=\"USA\" ism:releasableTo=\"USA GBR\"");
+		SecurityRollup rollup = resource.getSecurityRollup();
+		assertEquals("TS", rollup.getClassification());
+		assertTrue(rollup.getTokens(SecurityAttributes.RELEASABLE_TO_NAME).isEmpty());
+
+		// The order of the portions does not matter.
+		EncodedMarkings unmarked = resource.getTitles().get(0).getSecurityAttributes().getEncodedMarkings(
+			DDMSVersion.getVersionFor("4.1"));
+		EncodedMarkings marked = resource.getSubtitles().get(0).getSecurityAttributes().getEncodedMarkings(
+			DDMSVersion.getVersionFor("4.1"));
+		assertEquals(unmarked.rollUp(marked), marked.rollUp(unmarked));
+		assertTrue(marked.rollUp(unmarked).getTokens(SecurityAttributes.RELEASABLE_TO_NAME).isEmpty());
+	}
+
+	@Test
+	public void testUnclassifiedPortionWithoutReleasability() throws Exception {
+		Resource resource = getResource("ism:classification=\"S\" ism:ownerProducer=\"USA\" "
+			+ "ism:releasableTo=\"USA GBR\"", "ism:classification=\"U\" ism:ownerProducer=\"USA\"",
+			"ism:classification=\"S\" ism:ownerProducer=\"USA\" ism:releasableTo=\"USA GBR\"");
+		SecurityRollup rollup = resource.getSecurityRollup();
+		assertEquals("S", rollup.getClassification());
+		assertEquals(Util.getXsListAsList("GBR USA"), rollup.getTokens(SecurityAttributes.RELEASABLE_TO_NAME));
+	}
+
+	@Test
+	public void testClassificationRanks() {
+		assertEquals(-1, ISMVocabulary.getClassificationRank(null));
+		assertEquals(-1, ISMVocabulary.getClassificationRank("unknown"));
+		assertTrue(ISMVocabulary.getClassificationRank("U") < ISMVocabulary.getClassificationRank("R"));
+		assertTrue(ISMVocabulary.getClassificationRank("R") < ISMVocabulary.getClassificationRank("C"));
+		assertTrue(ISMVocabulary.getClassificationRank("C") < ISMVocabulary.getClassificationRank("S"));
+		assertTrue(ISMVocabulary.getClassificationRank("S") < ISMVocabulary.getClassificationRank("TS"));
+		assertEquals(ISMVocabulary.getClassificationRank("C"), ISMVocabulary.getClassificationRank("NC"));
+		assertEquals(ISMVocabulary.getClassificationRank("TS"), ISMVocabulary.getClassificationRank("CTS"));
+	}
+}
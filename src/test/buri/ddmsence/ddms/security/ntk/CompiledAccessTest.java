@@ -0,0 +1,103 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.ddms.security.ntk;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import buri.ddmsence.AbstractBaseTestCase;
+import buri.ddmsence.ddms.security.ism.SecurityAttributesTest;
+import buri.ddmsence.util.DDMSVersion;
+
+/**
+ * <p> Tests related to need-to-know decisions against compiled ntk:Access elements </p>
+ *
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public class CompiledAccessTest extends AbstractBaseTestCase {
+
+	/**
+	 * Constructor
+	 */
+	public CompiledAccessTest() {
+		super(null);
+	}
+
+	/**
+	 * Returns an Access with the fixture individual, group and profile list.
+	 */
+	private Access getAccess() throws Exception {
+		DDMSVersion.setCurrentVersion("4.1");
+		return (new Access(IndividualTest.getFixtureList(), GroupTest.getFixtureList(), ProfileListTest.getFixture(),
+			null, SecurityAttributesTest.getFixture()));
+	}
+
+	@Test
+	public void testCaching() throws Exception {
+		Access access = getAccess();
+		assertSame(access.getCompiledAccess(), access.getCompiledAccess());
+		assertFalse(access.getCompiledAccess().isEmpty());
+	}
+
+	@Test
+	public void testIndividual() throws Exception {
+		CompiledAccess compiled = getAccess().getCompiledAccess();
+		assertTrue(compiled.isGranted(NtkSubject.EMPTY.withIndividual("DIAS", "user_2321889:Doe_John_H")));
+		assertFalse(compiled.isGranted(NtkSubject.EMPTY.withIndividual("DIAS", "user_1")));
+		assertFalse(compiled.isGranted(NtkSubject.EMPTY.withIndividual("OTHER", "user_2321889:Doe_John_H")));
+	}
+
+	@Test
+	public void testGroup() throws Exception {
+		CompiledAccess compiled = getAccess().getCompiledAccess();
+		assertTrue(compiled.isGranted(NtkSubject.EMPTY.withGroup("OTHER", "a").withGroup("DIAS", "WISE/RODCA")));
+		assertFalse(compiled.isGranted(NtkSubject.EMPTY.withGroup("DIAS", "WISE")));
+		assertFalse(compiled.isGranted(NtkSubject.EMPTY.withIndividual("DIAS", "WISE/RODCA")));
+	}
+
+	@Test
+	public void testProfile() throws Exception {
+		CompiledAccess compiled = getAccess().getCompiledAccess();
+		assertTrue(compiled.isGranted(NtkSubject.EMPTY.withProfile("DIAS", "vocabulary", "profile")));
+		assertFalse(compiled.isGranted(NtkSubject.EMPTY.withProfile("DIAS", null, "profile")));
+		assertFalse(compiled.isGranted(NtkSubject.EMPTY.withProfile("DIAS", "other", "profile")));
+	}
+
+	@Test
+	public void testEmptyAccess() throws Exception {
+		DDMSVersion.setCurrentVersion("4.1");
+		Access access = new Access(null, null, null, null, SecurityAttributesTest.getFixture());
+		CompiledAccess compiled = access.getCompiledAccess();
+		assertTrue(compiled.isEmpty());
+		assertFalse(compiled.isGranted(NtkSubject.EMPTY.withIndividual("DIAS", "user_2321889:Doe_John_H")));
+		assertFalse(compiled.isGranted(NtkSubject.EMPTY));
+	}
+
+	@Test
+	public void testSubjectIsImmutable() {
+		NtkSubject subject = NtkSubject.EMPTY.withGroup("DIAS", "WISE/RODCA");
+		assertEquals(0, NtkSubject.EMPTY.getGroupCount());
+		assertEquals(1, subject.getGroupCount());
+		assertEquals(2, subject.withGroup("DIAS", "other").getGroupCount());
+		assertEquals(1, subject.getGroupCount());
+	}
+}
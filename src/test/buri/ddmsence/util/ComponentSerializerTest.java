@@ -0,0 +1,145 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.util;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.StringWriter;
+
+import nu.xom.Builder;
+import nu.xom.Document;
+import nu.xom.canonical.Canonicalizer;
+
+import org.junit.Test;
+
+import buri.ddmsence.AbstractBaseTestCase;
+import buri.ddmsence.ddms.Resource;
+
+/**
+ * A collection of tests related to streaming XML output through the ComponentSerializer
+ * 
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public class ComponentSerializerTest extends AbstractBaseTestCase {
+
+	public ComponentSerializerTest() {
+		super(null);
+	}
+
+	/**
+	 * Loads the test resource for the current version.
+	 */
+	private Resource getResource() throws Exception {
+		File file = new File(PropertyReader.getProperty("test.unit.data"), DDMSVersion.getCurrentVersion().getVersion()
+			+ "/resource.xml");
+		return (new DDMSReader().getDDMSResource(file));
+	}
+
+	@Test
+	public void testCompact() throws Exception {
+		for (String sVersion : getSupportedVersions()) {
+			DDMSVersion.setCurrentVersion(sVersion);
+			if ("4.0.1".equals(sVersion))
+				continue;
+			Resource resource = getResource();
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			resource.writeXML(out, XMLStyle.COMPACT);
+			String xml = new String(out.toByteArray(), "UTF-8");
+			assertEquals(resource, new DDMSReader().getDDMSResource(xml));
+			assertEquals(resource.toXML().split("\n").length, xml.split("\n").length);
+
+			StringWriter writer = new StringWriter();
+			resource.writeXML(writer, XMLStyle.COMPACT);
+			assertEquals(xml, writer.toString());
+		}
+	}
+
+	@Test
+	public void testPretty() throws Exception {
+		DDMSVersion.setCurrentVersion("4.1");
+		Resource resource = getResource();
+		StringWriter writer = new StringWriter();
+		resource.writeXML(writer, XMLStyle.PRETTY);
+		String xml = writer.toString();
+		assertTrue(xml.contains("\n  <ddms:"));
+		Resource reread = new DDMSReader().getDDMSResource(xml);
+		assertEquals(resource, reread);
+	}
+
+	@Test
+	public void testCanonical() throws Exception {
+		DDMSVersion.setCurrentVersion("4.1");
+		Resource resource = getResource();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		resource.writeXML(out, XMLStyle.CANONICAL);
+
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		new Canonicalizer(expected).write(new Builder().build(new ByteArrayInputStream(resource.toXML().getBytes(
+			"UTF-8"))));
+		assertArrayEquals(expected.toByteArray(), out.toByteArray());
+		assertNull(resource.getXOMElementCopy().getDocument());
+
+		ByteArrayOutputStream detached = new ByteArrayOutputStream();
+		new Resource(resource.getXOMElementCopy()).writeXML(detached, XMLStyle.CANONICAL);
+		assertArrayEquals(expected.toByteArray(), detached.toByteArray());
+	}
+
+	@Test
+	public void testReuse() throws Exception {
+		DDMSVersion.setCurrentVersion("4.1");
+		Resource resource = getResource();
+		StringWriter writer = new StringWriter();
+		ComponentSerializer serializer = new ComponentSerializer(writer, XMLStyle.COMPACT);
+		resource.writeXML(serializer);
+		String xml = writer.toString();
+		resource.writeXML(serializer);
+		assertEquals(xml + xml, writer.toString());
+	}
+
+	@Test
+	public void testMultibyteCharacters() throws Exception {
+		DDMSVersion.setCurrentVersion("4.1");
+		StringBuffer value = new StringBuffer();
+		for (int i = 0; i < 3000; i++)
+			value.append("\u00e9\u4e2d");
+		Document document = new Document(new nu.xom.Element("test"));
+		document.getRootElement().appendChild(value.toString());
+		StringWriter writer = new StringWriter();
+		ComponentSerializer serializer = new ComponentSerializer(writer, XMLStyle.COMPACT);
+		serializer.write(document.getRootElement());
+		serializer.flush();
+		assertEquals("<test>" + value + "</test>", writer.toString());
+	}
+
+	@Test
+	public void testMissingStyle() {
+		try {
+			new ComponentSerializer(new ByteArrayOutputStream(), null);
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "style must exist.");
+		}
+	}
+}
@@ -0,0 +1,247 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.util;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import buri.ddmsence.AbstractBaseTestCase;
+
+/**
+ * A collection of DDMSBatchReader tests.
+ *
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public class DDMSBatchReaderTest extends AbstractBaseTestCase {
+
+	public DDMSBatchReaderTest() {
+		super(null);
+	}
+
+	/**
+	 * Returns many copies of the unit test resource for a single version, followed by a file which does not exist.
+	 */
+	private static List<File> getFiles(String sVersion) {
+		List<File> files = new ArrayList<File>();
+		for (int i = 0; i < 20; i++)
+			files.add(new File(PropertyReader.getProperty("test.unit.data"), sVersion + "/resource.xml"));
+		files.add(new File("doesnotexist.xml"));
+		return (files);
+	}
+
+	@Test
+	public void testReadFiles() throws InterruptedException {
+		DDMSBatchReader reader = new DDMSBatchReader(4);
+		try {
+			for (String sVersion : getSupportedVersions()) {
+				List<File> files = getFiles(sVersion);
+				List<DDMSBatchReader.Result> results = reader.read(files);
+				assertEquals(files.size(), results.size());
+				for (int i = 0; i < files.size() - 1; i++) {
+					DDMSBatchReader.Result result = results.get(i);
+					assertEquals(files.get(i), result.getFile());
+					assertTrue(result.isValid());
+					assertNull(result.getException());
+					assertEquals(DDMSVersion.getVersionFor(sVersion).getNamespace(), result.getResource().getNamespace());
+				}
+				DDMSBatchReader.Result missing = results.get(files.size() - 1);
+				assertFalse(missing.isValid());
+				assertNull(missing.getResource());
+				assertNotNull(missing.getException());
+			}
+		}
+		finally {
+			reader.shutdown();
+		}
+	}
+
+	@Test
+	public void testReadMixedVersions() throws InterruptedException {
+		DDMSVersion.setCurrentVersion("3.1");
+		List<File> files = new ArrayList<File>();
+		for (int i = 0; i < 10; i++) {
+			for (String sVersion : getSupportedVersions())
+				files.add(new File(PropertyReader.getProperty("test.unit.data"), sVersion + "/resource.xml"));
+		}
+		DDMSBatchReader reader = new DDMSBatchReader(4);
+		try {
+			List<DDMSBatchReader.Result> results = reader.read(files);
+			for (int i = 0; i < files.size(); i++) {
+				String sVersion = files.get(i).getParentFile().getName();
+				assertTrue(results.get(i).isValid());
+				assertEquals(DDMSVersion.getVersionFor(sVersion).getNamespace(), results.get(i).getResource()
+					.getNamespace());
+			}
+		}
+		finally {
+			reader.shutdown();
+		}
+		assertEquals("3.1", DDMSVersion.getCurrentVersion().getVersion());
+	}
+
+	@Test
+	public void testReadDirectory() throws InterruptedException {
+		DDMSBatchReader reader = new DDMSBatchReader(1);
+		try {
+			List<DDMSBatchReader.Result> results = reader.read(new File(PropertyReader.getProperty("sample.data")));
+			assertEquals(8, results.size());
+			int invalid = 0;
+			for (DDMSBatchReader.Result result : results) {
+				if (!result.isValid()) {
+					invalid++;
+					assertEquals("3.0-invalidResourceExample.xml", result.getFile().getName());
+				}
+			}
+			assertEquals(1, invalid);
+		}
+		finally {
+			reader.shutdown();
+		}
+	}
+
+	@Test
+	public void testUnsupportedVersion() throws InterruptedException {
+		List<File> files = new ArrayList<File>();
+		files.add(new File(PropertyReader.getProperty("test.unit.data"), "5.0/testSchematronXslt1.sch"));
+		DDMSBatchReader reader = new DDMSBatchReader(1);
+		try {
+			DDMSBatchReader.Result result = reader.read(files).get(0);
+			assertFalse(result.isValid());
+			expectMessage(result.getException(), "buri.ddmsence.ddms.UnsupportedVersionException");
+		}
+		finally {
+			reader.shutdown();
+		}
+	}
+
+	@Test
+	public void testUnexpectedFailure() throws InterruptedException {
+		List<File> files = getFiles("5.0");
+		files.add(0, null);
+		DDMSBatchReader reader = new DDMSBatchReader(2);
+		try {
+			List<DDMSBatchReader.Result> results = reader.read(files);
+			assertEquals(22, results.size());
+			assertFalse(results.get(0).isValid());
+			assertNull(results.get(0).getFile());
+			assertTrue(results.get(0).getException().getCause() instanceof IllegalArgumentException);
+			assertTrue(results.get(1).isValid());
+		}
+		finally {
+			reader.shutdown();
+		}
+	}
+
+	@Test
+	public void testInterruptCancelsBatch() throws InterruptedException {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+			new LinkedBlockingQueue<Runnable>());
+		final CountDownLatch blocker = new CountDownLatch(1);
+		try {
+			executor.execute(new Runnable() {
+				public void run() {
+					try {
+						blocker.await();
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			});
+			DDMSBatchReader reader = new DDMSBatchReader(executor);
+			Thread.currentThread().interrupt();
+			try {
+				reader.read(getFiles("5.0"));
+				fail("Allowed interrupted batch.");
+			}
+			catch (InterruptedException e) {
+				// Expected
+			}
+			executor.purge();
+			assertTrue(executor.getQueue().isEmpty());
+		}
+		finally {
+			blocker.countDown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testExternalExecutor() throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			DDMSBatchReader reader = new DDMSBatchReader(executor);
+			assertEquals(21, reader.read(getFiles("5.0")).size());
+			reader.shutdown();
+			assertFalse(executor.isShutdown());
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testInvalidArguments() throws InterruptedException {
+		try {
+			new DDMSBatchReader(0);
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "At least 1 thread");
+		}
+		try {
+			new DDMSBatchReader((ExecutorService) null);
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "executor must exist.");
+		}
+		DDMSBatchReader reader = new DDMSBatchReader(1);
+		try {
+			reader.read((List<File>) null);
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "files must exist.");
+		}
+		try {
+			reader.read(new File("doesnotexist"));
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "doesnotexist is not a readable directory.");
+		}
+		finally {
+			reader.shutdown();
+		}
+	}
+}
@@ -0,0 +1,172 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.util;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import buri.ddmsence.AbstractBaseTestCase;
+import buri.ddmsence.ddms.resource.Identifier;
+import buri.ddmsence.ddms.security.ism.ISMVocabulary;
+
+/**
+ * A collection of DDMSContext tests.
+ *
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public class DDMSContextTest extends AbstractBaseTestCase {
+
+	public DDMSContextTest() {
+		super(null);
+	}
+
+	@Test
+	public void testGetCurrentUnbound() {
+		DDMSVersion.setCurrentVersion("3.1");
+		assertNull(DDMSContext.getBound());
+		DDMSContext context = DDMSContext.getCurrent();
+		assertEquals(DDMSVersion.getVersionFor("3.1"), context.getVersion());
+		assertEquals(PropertyReader.getPrefix("ddms"), context.getPrefix("ddms"));
+		assertEquals(PropertyReader.getProperty("output.indexLevel"), context.getProperty("output.indexLevel"));
+		assertNull(context.getProperty("ddms.supportedVersions"));
+	}
+
+	@Test
+	public void testBind() {
+		DDMSVersion.setCurrentVersion("3.1");
+		DDMSContext context = DDMSContext.getCurrent().withVersion(DDMSVersion.getVersionFor("5.0"));
+		assertNull(DDMSContext.bind(context));
+		try {
+			assertSame(context, DDMSContext.getBound());
+			assertSame(context, DDMSContext.getCurrent());
+			assertEquals("5.0", DDMSVersion.getCurrentVersion().getVersion());
+		}
+		finally {
+			assertSame(context, DDMSContext.bind(null));
+		}
+		assertNull(DDMSContext.getBound());
+		assertEquals("3.1", DDMSVersion.getCurrentVersion().getVersion());
+	}
+
+	@Test
+	public void testSetCurrentVersionWhileBound() {
+		DDMSVersion.setCurrentVersion("3.1");
+		DDMSContext.bind(DDMSContext.getCurrent());
+		try {
+			DDMSVersion.setCurrentVersion("4.1");
+			assertEquals("4.1", DDMSVersion.getCurrentVersion().getVersion());
+			assertEquals("4.1", DDMSContext.getBound().getVersion().getVersion());
+		}
+		finally {
+			DDMSContext.bind(null);
+		}
+		assertEquals("3.1", DDMSVersion.getCurrentVersion().getVersion());
+	}
+
+	@Test
+	public void testWithProperty() {
+		DDMSContext context = DDMSContext.getCurrent();
+		DDMSContext changed = context.withProperty("ddms.prefix", " ddmsTest ");
+		assertNotSame(context, changed);
+		assertEquals("ddmsTest", changed.getPrefix("ddms"));
+		assertEquals(PropertyReader.getPrefix("ddms"), context.getPrefix("ddms"));
+		assertSame(context, context.withVersion(context.getVersion()));
+
+		DDMSContext.bind(changed);
+		try {
+			assertEquals("ddmsTest", PropertyReader.getPrefix("ddms"));
+			assertEquals("5.0", PropertyReader.getListProperty("ddms.supportedVersions").get(4));
+		}
+		finally {
+			DDMSContext.bind(null);
+		}
+		assertEquals("ddms", PropertyReader.getPrefix("ddms"));
+	}
+
+	@Test
+	public void testInvalidArguments() {
+		try {
+			DDMSContext.getCurrent().withProperty("ddms.supportedVersions", "5.0");
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "ddms.supportedVersions is not a configurable property.");
+		}
+		try {
+			DDMSContext.getCurrent().withVersion(null);
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "version must exist.");
+		}
+	}
+
+	@Test
+	public void testMixedVersionThreads() throws Exception {
+		final Map<DDMSVersion, Set<String>> expectedDissems = new HashMap<DDMSVersion, Set<String>>();
+		for (String sVersion : getSupportedVersions()) {
+			DDMSVersion.setCurrentVersion(sVersion);
+			expectedDissems.put(DDMSVersion.getCurrentVersion(), ISMVocabulary.getEnumerationTokens(
+				ISMVocabulary.CVE_DISSEMINATION_CONTROLS));
+		}
+		DDMSVersion.setCurrentVersion("5.0");
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+			for (int i = 0; i < 200; i++) {
+				final DDMSVersion version = DDMSVersion.getVersionFor(getSupportedVersions().get(
+					i % getSupportedVersions().size()));
+				futures.add(executor.submit(new Callable<Boolean>() {
+					public Boolean call() throws Exception {
+						DDMSContext.bind(DDMSContext.getCurrent().withVersion(version));
+						try {
+							Identifier identifier = new Identifier("URI", "urn:buri:ddmsence:testIdentifier");
+							Set<String> dissems = ISMVocabulary.getEnumerationTokens(
+								ISMVocabulary.CVE_DISSEMINATION_CONTROLS);
+							return (Boolean.valueOf(version.getNamespace().equals(identifier.getNamespace())
+								&& expectedDissems.get(version).equals(dissems)));
+						}
+						finally {
+							DDMSContext.bind(null);
+						}
+					}
+				}));
+			}
+			for (Future<Boolean> future : futures)
+				assertTrue(future.get().booleanValue());
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertEquals("5.0", DDMSVersion.getCurrentVersion().getVersion());
+	}
+}
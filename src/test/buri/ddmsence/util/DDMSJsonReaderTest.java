@@ -0,0 +1,207 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.util;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import buri.ddmsence.AbstractBaseTestCase;
+import buri.ddmsence.ddms.ApproximableDate;
+import buri.ddmsence.ddms.InvalidDDMSException;
+import buri.ddmsence.ddms.Resource;
+
+import com.google.gson.stream.JsonReader;
+
+/**
+ * A collection of DDMSJsonReader tests.
+ *
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public class DDMSJsonReaderTest extends AbstractBaseTestCase {
+
+	public DDMSJsonReaderTest() {
+		super(null);
+	}
+
+	/**
+	 * Loads the unit test resource for a version, or returns null if there is none.
+	 */
+	private static Resource getResource(String sVersion) throws Exception {
+		File file = new File(PropertyReader.getProperty("test.unit.data"), sVersion + "/resource.xml");
+		if (!file.exists())
+			return (null);
+		return (new DDMSReader(DDMSVersion.getVersionFor(sVersion)).getDDMSResource(file));
+	}
+
+	/**
+	 * Loads the unit test resource for a version, without the components whose JSON form cannot be read back. The
+	 * geospatial coverage of the DDMS 5.0 resource uses TSPI shapes and addresses, so it is removed.
+	 */
+	private static Resource getReadableResource(String sVersion) throws Exception {
+		Resource resource = getResource(sVersion);
+		if (resource == null || !"5.0".equals(sVersion))
+			return (resource);
+		DDMSVersion.setCurrentVersion(sVersion);
+		Resource.Builder builder = new Resource.Builder(resource);
+		builder.getGeospatialCoverages().clear();
+		return (builder.commit());
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		for (String inline : new String[] { "false", "true" }) {
+			PropertyReader.setProperty("output.json.inlineAttributes", inline);
+			for (String sVersion : getSupportedVersions()) {
+				Resource resource = getReadableResource(sVersion);
+				if (resource == null)
+					continue;
+				Resource copy = new DDMSJsonReader().getDDMSResource(resource.toJSON());
+				assertEquals(resource, copy);
+				assertEquals(resource.toJSON(), copy.toJSON());
+			}
+		}
+	}
+
+	@Test
+	public void testTrusted() throws Exception {
+		DDMSJsonReader reader = new DDMSJsonReader();
+		assertFalse(reader.isTrusted());
+		reader.setTrusted(true);
+		assertTrue(reader.isTrusted());
+		for (String sVersion : getSupportedVersions()) {
+			Resource resource = getReadableResource(sVersion);
+			if (resource == null)
+				continue;
+			assertEquals(resource, reader.getDDMSResource(resource.toJSON()));
+		}
+	}
+
+	@Test
+	public void testAcquiredOn() throws Exception {
+		DDMSVersion.setCurrentVersion("4.1");
+		Resource.Builder builder = new Resource.Builder(getResource("4.1"));
+		ApproximableDate.Builder acquiredOn = new ApproximableDate.Builder();
+		acquiredOn.setName("acquiredOn");
+		acquiredOn.setDescription("description");
+		acquiredOn.setApproximableDate("2012");
+		acquiredOn.setApproximation("1st qtr");
+		acquiredOn.setSearchableStart("2012-01");
+		acquiredOn.setSearchableEnd("2012-03-31");
+		builder.getDates().getAcquiredOns().add(acquiredOn);
+		Resource resource = builder.commit();
+		Resource copy = new DDMSJsonReader().getDDMSResource(resource.toJSON());
+		assertEquals(resource, copy);
+		assertEquals(1, copy.getDates().getAcquiredOns().size());
+	}
+
+	@Test
+	public void testVersionFromJson() throws Exception {
+		String json = getResource("3.1").toJSON();
+		DDMSVersion.setCurrentVersion("4.1");
+		Resource copy = new DDMSJsonReader().getDDMSResource(json);
+		assertEquals(DDMSVersion.getVersionFor("3.1").getNamespace(), copy.getNamespace());
+		assertEquals("4.1", DDMSVersion.getCurrentVersion().getVersion());
+	}
+
+	@Test
+	public void testManyResources() throws Exception {
+		String json = getResource("4.1").toJSON();
+		JsonReader reader = new JsonReader(new StringReader("[" + json + "," + json + "]"));
+		DDMSJsonReader jsonReader = new DDMSJsonReader();
+		reader.beginArray();
+		Resource first = jsonReader.getDDMSResource(reader);
+		Resource second = jsonReader.getDDMSResource(reader);
+		assertFalse(reader.hasNext());
+		reader.endArray();
+		assertEquals(first, second);
+	}
+
+	@Test
+	public void testTspi() throws Exception {
+		try {
+			new DDMSJsonReader().getDDMSResource(getResource("5.0").toJSON());
+			fail("Allowed invalid data.");
+		}
+		catch (InvalidDDMSException e) {
+			expectMessage(e, "The JSON form of a TSPI shape or address only records its type");
+		}
+	}
+
+	@Test
+	public void testExtensibleLayer() throws Exception {
+		try {
+			new DDMSJsonReader().getDDMSResource("{\"extensible.layer\":true}");
+			fail("Allowed invalid data.");
+		}
+		catch (InvalidDDMSException e) {
+			expectMessage(e, "The JSON form of a Resource does not record its extensible elements");
+		}
+	}
+
+	@Test
+	public void testUnknownProperty() throws Exception {
+		String json = getResource("4.1").toJSON().replaceFirst("\"title\"", "\"unknownName\"");
+		try {
+			new DDMSJsonReader().getDDMSResource(json);
+			fail("Allowed invalid data.");
+		}
+		catch (InvalidDDMSException e) {
+			expectMessage(e, "The JSON property, unknownName, does not belong in Resource.");
+		}
+	}
+
+	@Test
+	public void testWrongType() throws Exception {
+		try {
+			new DDMSJsonReader().getDDMSResource("{\"title\":[true]}");
+			fail("Allowed invalid data.");
+		}
+		catch (InvalidDDMSException e) {
+			expectMessage(e, "The JSON does not match the form of a DDMS Resource");
+		}
+	}
+
+	@Test
+	public void testNoResource() throws Exception {
+		try {
+			new DDMSJsonReader().getDDMSResource("{}");
+			fail("Allowed invalid data.");
+		}
+		catch (InvalidDDMSException e) {
+			expectMessage(e, "The JSON object does not contain a DDMS Resource.");
+		}
+	}
+
+	@Test
+	public void testMissingJson() throws Exception {
+		try {
+			new DDMSJsonReader().getDDMSResource((String) null);
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "json must exist.");
+		}
+	}
+}
@@ -0,0 +1,222 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.util;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import buri.ddmsence.ddms.InvalidDDMSException;
+
+/**
+ * Command-line benchmark comparing the read modes of DDMSReader, and reading the JSON form with DDMSJsonReader.
+ *
+ * <p>
+ * This is not a unit test, and is not run by the test suite. It loads the unit test resource for each DDMS version
+ * many times in each mode, after a warm-up period, and reports throughput and latency. The JSON modes read the
+ * output of <code>toJSON()</code> for the same resource, with and without schema validation. A mode which cannot
+ * load a version's resource is skipped, and the reason is reported. Run it from the project directory, with an
+ * optional iteration count:
+ * </p>
+ *
+ * <pre>java buri.ddmsence.util.DDMSReaderBenchmark [iterations]</pre>
+ *
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public class DDMSReaderBenchmark {
+
+	private static final int DEFAULT_ITERATIONS = 2000;
+
+	/**
+	 * A way of loading a document which can be timed.
+	 */
+	private static interface Mode {
+		/**
+		 * Returns the name of the mode
+		 */
+		public String getName();
+
+		/**
+		 * Converts the XML of a document into the input this mode loads.
+		 *
+		 * @throws InvalidDDMSException if the mode cannot load the document
+		 */
+		public String prepare(String xml) throws Exception;
+
+		/**
+		 * Loads the document once.
+		 */
+		public void load(String input) throws Exception;
+	}
+
+	/**
+	 * Entry point
+	 *
+	 * @param args the number of timed iterations per mode and version
+	 */
+	public static void main(String[] args) throws Exception {
+		int iterations = (args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ITERATIONS);
+		List<Mode> modes = new ArrayList<Mode>();
+		final DDMSReader validatingReader = new DDMSReader();
+		modes.add(new Mode() {
+			public String getName() {
+				return ("validating");
+			}
+
+			public String prepare(String xml) {
+				return (xml);
+			}
+
+			public void load(String xml) throws Exception {
+				validatingReader.getDDMSResource(xml);
+			}
+		});
+		final DDMSReader trustedReader = new DDMSReader();
+		trustedReader.setTrusted(true);
+		modes.add(new Mode() {
+			public String getName() {
+				return ("trusted");
+			}
+
+			public String prepare(String xml) {
+				return (xml);
+			}
+
+			public void load(String xml) throws Exception {
+				trustedReader.getDDMSResource(xml);
+			}
+		});
+		final DDMSReader lazyReader = new DDMSReader();
+		lazyReader.setTrusted(true);
+		lazyReader.setLazy(true);
+		modes.add(new Mode() {
+			public String getName() {
+				return ("trusted+lazy");
+			}
+
+			public String prepare(String xml) {
+				return (xml);
+			}
+
+			public void load(String xml) throws Exception {
+				lazyReader.getDDMSResource(xml).getTitles();
+			}
+		});
+
+		modes.add(new JsonMode("json", false, validatingReader));
+		modes.add(new JsonMode("json+trusted", true, validatingReader));
+
+		System.out.println("DDMSReader benchmark, " + iterations + " iterations per mode");
+		System.out.println(String.format("%-8s %-12s %12s %12s %12s", "Version", "Mode", "docs/sec", "mean (us)",
+			"p99 (us)"));
+		for (String sVersion : DDMSVersion.getSupportedVersions()) {
+			String xml = readFile(new File(PropertyReader.getProperty("test.unit.data"), sVersion + "/resource.xml"));
+			for (Mode mode : modes) {
+				String input;
+				try {
+					input = mode.prepare(xml);
+				}
+				catch (InvalidDDMSException e) {
+					System.out.println(String.format("%-8s %-12s skipped: %s", sVersion, mode.getName(),
+						e.getMessage()));
+					continue;
+				}
+				for (int i = 0; i < iterations / 4; i++)
+					mode.load(input);
+				List<Long> latencies = new ArrayList<Long>(iterations);
+				long start = System.nanoTime();
+				for (int i = 0; i < iterations; i++) {
+					long before = System.nanoTime();
+					mode.load(input);
+					latencies.add(Long.valueOf(System.nanoTime() - before));
+				}
+				long elapsed = System.nanoTime() - start;
+				Collections.sort(latencies);
+				double throughput = iterations / (elapsed / 1000000000.0);
+				double mean = (elapsed / 1000.0) / iterations;
+				double p99 = latencies.get((int) (iterations * 0.99)).longValue() / 1000.0;
+				System.out.println(String.format("%-8s %-12s %12.0f %12.1f %12.1f", sVersion, mode.getName(),
+					throughput, mean, p99));
+			}
+		}
+	}
+
+	/**
+	 * A mode which loads the JSON form of a document with DDMSJsonReader.
+	 */
+	private static class JsonMode implements Mode {
+		private final String _name;
+		private final DDMSJsonReader _jsonReader = new DDMSJsonReader();
+		private final DDMSReader _xmlReader;
+
+		/**
+		 * Constructor
+		 *
+		 * @param name the name of the mode
+		 * @param trusted whether the JSON reader skips schema validation
+		 * @param xmlReader the reader used to build the JSON form from the XML
+		 */
+		public JsonMode(String name, boolean trusted, DDMSReader xmlReader) {
+			_name = name;
+			_jsonReader.setTrusted(trusted);
+			_xmlReader = xmlReader;
+		}
+
+		public String getName() {
+			return (_name);
+		}
+
+		public String prepare(String xml) throws Exception {
+			String json = _xmlReader.getDDMSResource(xml).toJSON();
+			_jsonReader.getDDMSResource(json);
+			return (json);
+		}
+
+		public void load(String json) throws Exception {
+			_jsonReader.getDDMSResource(json);
+		}
+	}
+
+	/**
+	 * Reads a file into a string.
+	 *
+	 * @param file the file
+	 * @return the contents
+	 */
+	private static String readFile(File file) throws IOException {
+		StringBuffer contents = new StringBuffer();
+		Reader reader = new FileReader(file);
+		try {
+			char[] buffer = new char[4096];
+			int count;
+			while ((count = reader.read(buffer)) != -1)
+				contents.append(buffer, 0, count);
+		}
+		finally {
+			reader.close();
+		}
+		return (contents.toString());
+	}
+}
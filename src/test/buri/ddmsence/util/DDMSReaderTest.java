@@ -21,6 +21,7 @@ package buri.ddmsence.util;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileReader;
@@ -28,12 +29,25 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.LineNumberReader;
 import java.io.Reader;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import nu.xom.Element;
 
 import org.junit.Test;
 import org.xml.sax.SAXException;
 
 import buri.ddmsence.AbstractBaseTestCase;
+import buri.ddmsence.ddms.IDDMSComponent;
 import buri.ddmsence.ddms.InvalidDDMSException;
+import buri.ddmsence.ddms.Resource;
+import buri.ddmsence.ddms.ValidationMessage;
+import buri.ddmsence.ddms.resource.Identifier;
+import buri.ddmsence.ddms.resource.Title;
+import buri.ddmsence.ddms.security.Security;
 
 /**
  * A collection of DDMSReader tests.
@@ -254,6 +268,480 @@ public class DDMSReaderTest extends AbstractBaseTestCase {
 		}
 	}
 	
+	@Test
+	public void testValidateWithSchemaElement() throws InvalidDDMSException, IOException {
+		for (String sVersion : getSupportedVersions()) {
+			Element element = getReader(sVersion).getElement(
+				new File(PropertyReader.getProperty("test.unit.data"), sVersion + "/resource.xml"));
+			DDMSReader.validateWithSchema(DDMSVersion.getVersionFor(sVersion), element);
+		}
+	}
+
+	@Test
+	public void testValidateWithSchemaElementInvalid() throws InvalidDDMSException, IOException {
+		Element element = getReader("3.0").getElement(
+			new File(PropertyReader.getProperty("test.unit.data"), "3.0/resource.xml"));
+		element.removeChild(element.getFirstChildElement("title", element.getNamespaceURI()));
+		try {
+			DDMSReader.validateWithSchema(DDMSVersion.getVersionFor("3.0"), element);
+			fail("Allowed invalid data.");
+		}
+		catch (InvalidDDMSException e) {
+			expectMessage(e, "nu.xom.ValidityException: cvc-complex-type");
+		}
+	}
+
+	@Test
+	public void testValidateWithSchemaElementNull() throws InvalidDDMSException {
+		try {
+			DDMSReader.validateWithSchema(DDMSVersion.getVersionFor("3.0"), (Element) null);
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "element must exist.");
+		}
+	}
+
+	@Test
+	public void testStream() throws Exception {
+		for (String sVersion : getSupportedVersions()) {
+			DDMSVersion version = DDMSVersion.getVersionFor(sVersion);
+			String record = getStreamRecord(sVersion);
+			StringBuffer feed = new StringBuffer();
+			feed.append("<feed xmlns:ism=\"").append(version.getIsmNamespace()).append("\"><batch>");
+			feed.append(record).append(record).append("</batch><batch>").append(record).append("</batch></feed>");
+			Iterator<Resource> iterator = getReader(sVersion).stream(toStream(feed.toString()));
+			int count = 0;
+			while (iterator.hasNext()) {
+				Resource resource = iterator.next();
+				assertEquals(version.getNamespace(), resource.getNamespace());
+				count++;
+			}
+			assertEquals(3, count);
+			try {
+				iterator.next();
+				fail("Allowed invalid data.");
+			}
+			catch (NoSuchElementException e) {
+				expectMessage(e, "No more resources");
+			}
+		}
+	}
+
+	@Test
+	public void testStreamSkipsInvalidRecord() throws Exception {
+		DDMSVersion version = DDMSVersion.getVersionFor("3.0");
+		String record = getStreamRecord("3.0");
+		String invalidRecord = record.replaceFirst("<ddms:title[^>]*>[^<]*</ddms:title>", "");
+		StringBuffer feed = new StringBuffer();
+		feed.append("<feed xmlns:ism=\"").append(version.getIsmNamespace()).append("\">");
+		feed.append(record).append(invalidRecord).append(record).append("</feed>");
+		Iterator<Resource> iterator = getReader("3.0").stream(toStream(feed.toString()));
+		assertNotNull(iterator.next());
+		try {
+			iterator.next();
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalStateException e) {
+			assertTrue(e.getCause() instanceof InvalidDDMSException);
+			expectMessage(e, "nu.xom.ValidityException: cvc-complex-type");
+		}
+		assertNotNull(iterator.next());
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void testStreamEmpty() throws Exception {
+		assertFalse(getReader("5.0").stream(toStream("<feed />")).hasNext());
+	}
+
+	@Test
+	public void testStreamMalformed() throws Exception {
+		String feed = "<feed xmlns:ism=\"" + DDMSVersion.getVersionFor("3.0").getIsmNamespace() + "\">"
+			+ getStreamRecord("3.0");
+		Iterator<Resource> iterator = getReader("3.0").stream(toStream(feed));
+		assertNotNull(iterator.next());
+		try {
+			iterator.hasNext();
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalStateException e) {
+			expectMessage(e, "Unable to read the stream");
+		}
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void testStreamNullInputStream() {
+		try {
+			getReader("5.0").stream(null);
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "input stream must exist.");
+		}
+	}
+
+	@Test
+	public void testAutoDetectVersion() throws Exception {
+		DDMSReader reader = new DDMSReader();
+		assertNull(reader.getVersion());
+		assertEquals("", reader.getExternalSchemaLocations());
+		DDMSVersion current = DDMSVersion.getCurrentVersion();
+		for (String sVersion : getSupportedVersions()) {
+			File file = new File(PropertyReader.getProperty("test.unit.data"), sVersion + "/resource.xml");
+			Resource resource = reader.getDDMSResource(file);
+			assertEquals(DDMSVersion.getVersionFor(sVersion).getNamespace(), resource.getNamespace());
+			assertEquals(current, DDMSVersion.getCurrentVersion());
+			resource = reader.getDDMSResource(new FileInputStream(file));
+			assertEquals(DDMSVersion.getVersionFor(sVersion).getNamespace(), resource.getNamespace());
+		}
+	}
+
+	@Test
+	public void testAutoDetectVersionStillValidates() throws Exception {
+		String record = getStreamRecord("3.0").replaceFirst("<ddms:title[^>]*>[^<]*</ddms:title>", "");
+		record = record.replaceFirst("xmlns:ddms=", "xmlns:ism=\"urn:us:gov:ic:ism\" xmlns:ddms=");
+		try {
+			new DDMSReader().getElement(record);
+			fail("Allowed invalid data.");
+		}
+		catch (InvalidDDMSException e) {
+			expectMessage(e, "nu.xom.ValidityException: cvc-complex-type");
+		}
+	}
+
+	@Test
+	public void testAutoDetectVersionUnsupported() throws Exception {
+		try {
+			new DDMSReader().getElement("<?xml version=\"1.0\"?>\n<!-- comment --><unknown xmlns=\"urn:unknown\" />");
+			fail("Allowed invalid data.");
+		}
+		catch (InvalidDDMSException e) {
+			expectMessage(e, "buri.ddmsence.ddms.UnsupportedVersionException");
+		}
+		try {
+			new DDMSReader().getElement("not XML");
+			fail("Allowed invalid data.");
+		}
+		catch (InvalidDDMSException e) {
+			expectMessage(e, "javax.xml.stream.XMLStreamException");
+		}
+	}
+
+	@Test
+	public void testAutoDetectStream() throws Exception {
+		StringBuffer feed = new StringBuffer("<feed>");
+		for (String sVersion : getSupportedVersions()) {
+			DDMSVersion version = DDMSVersion.getVersionFor(sVersion);
+			feed.append("<batch xmlns:ism=\"").append(version.getIsmNamespace()).append("\">");
+			feed.append(getStreamRecord(sVersion)).append("</batch>");
+		}
+		feed.append("</feed>");
+		Iterator<Resource> iterator = new DDMSReader().stream(toStream(feed.toString()));
+		for (String sVersion : getSupportedVersions()) {
+			assertEquals(DDMSVersion.getVersionFor(sVersion).getNamespace(), iterator.next().getNamespace());
+		}
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void testValidateValid() throws Exception {
+		for (String sVersion : getSupportedVersions()) {
+			File file = new File(PropertyReader.getProperty("test.unit.data"), sVersion + "/resource.xml");
+			DDMSReader reader = getReader(sVersion);
+			assertTrue(reader.validate(new FileInputStream(file)).isEmpty());
+			assertNotNull(reader.getDDMSResource(file));
+			assertTrue(new DDMSReader().validate(new FileInputStream(file)).isEmpty());
+		}
+	}
+
+	@Test
+	public void testValidateSchemaErrors() throws Exception {
+		String record = getStreamRecord("3.0").replaceFirst("<ddms:title[^>]*>[^<]*</ddms:title>", "");
+		record = record.replaceFirst("xmlns:ddms=", "xmlns:ism=\"urn:us:gov:ic:ism\" xmlns:ddms=");
+		record = record.replaceFirst("<ddms:subtitle ", "<ddms:subtitle ddms:unknown=\"a\" ");
+		List<ValidationMessage> messages = getReader("3.0").validate(toStream(record));
+		assertEquals(2, messages.size());
+		for (ValidationMessage message : messages) {
+			assertEquals(ValidationMessage.ERROR_TYPE, message.getType());
+			assertTrue(message.getText().startsWith("cvc-"));
+			assertTrue(message.getText().contains("(line "));
+		}
+	}
+
+	@Test
+	public void testValidateMalformed() throws Exception {
+		List<ValidationMessage> messages = getReader("3.0").validate(toStream(getStreamRecord("3.0").substring(0, 200)));
+		assertEquals(1, messages.size());
+		assertEquals(ValidationMessage.ERROR_TYPE, messages.get(0).getType());
+		messages = new DDMSReader().validate(toStream("<unknown xmlns=\"urn:unknown\" />"));
+		assertEquals(1, messages.size());
+		assertTrue(messages.get(0).getText().startsWith("buri.ddmsence.ddms.UnsupportedVersionException"));
+	}
+
+	@Test
+	public void testValidateSkipsComponentRules() throws Exception {
+		String record = getStreamRecord("3.0").replaceFirst("xmlns:ddms=", "xmlns:ism=\"urn:us:gov:ic:ism\" xmlns:ddms=");
+		String warningRecord = record.replaceFirst("Version 0.1", "");
+		assertTrue(getReader("3.0").validate(toStream(warningRecord)).isEmpty());
+		List<ValidationMessage> messages = getReader("3.0").getDDMSResource(warningRecord).getValidationWarnings();
+		assertEquals(1, messages.size());
+		assertWarningEquality("A ddms:subtitle element was found with no subtitle value.",
+			"ddms:Resource/ddms:subtitle", messages.get(0));
+
+		String invalidRecord = record.replaceFirst("ism:ownerProducer=\"USA\">DDMSence",
+			"ism:ownerProducer=\"XYZ\">DDMSence");
+		assertTrue(getReader("3.0").validate(toStream(invalidRecord)).isEmpty());
+		try {
+			getReader("3.0").getDDMSResource(invalidRecord);
+			fail("Allowed invalid data.");
+		}
+		catch (InvalidDDMSException e) {
+			assertTrue(e.getMessage().contains("XYZ"));
+		}
+	}
+
+	@Test
+	public void testValidateSchemaInvalidSample() throws Exception {
+		File file = new File(PropertyReader.getProperty("sample.data"), "3.0-invalidResourceExample.xml");
+		assertEquals(2, new DDMSReader().validate(new FileInputStream(file)).size());
+	}
+
+	@Test
+	public void testValidateNullInputStream() throws Exception {
+		try {
+			getReader("5.0").validate(null);
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "input stream must exist.");
+		}
+	}
+
+	@Test
+	public void testTrusted() throws Exception {
+		for (String sVersion : getSupportedVersions()) {
+			File file = new File(PropertyReader.getProperty("test.unit.data"), sVersion + "/resource.xml");
+			DDMSReader reader = getReader(sVersion);
+			assertFalse(reader.isTrusted());
+			reader.setTrusted(true);
+			assertTrue(reader.isTrusted());
+			assertEquals(getReader(sVersion).getDDMSResource(file), reader.getDDMSResource(file));
+		}
+	}
+
+	@Test
+	public void testTrustedSkipsSchema() throws Exception {
+		String record = getStreamRecord("3.0").replaceFirst("xmlns:ddms=", "xmlns:ism=\"urn:us:gov:ic:ism\" xmlns:ddms=");
+		record = record.replaceFirst("<ddms:subtitle ", "<ddms:subtitle ddms:unknown=\"a\" ");
+		try {
+			getReader("3.0").getDDMSResource(record);
+			fail("Allowed invalid data.");
+		}
+		catch (InvalidDDMSException e) {
+			expectMessage(e, "nu.xom.ValidityException: cvc-complex-type");
+		}
+		DDMSReader reader = new DDMSReader();
+		reader.setTrusted(true);
+		assertNotNull(reader.getDDMSResource(record));
+		assertTrue(reader.stream(toStream(record)).hasNext());
+		assertNotNull(reader.stream(toStream(record)).next());
+		assertFalse(reader.validate(toStream(record)).isEmpty());
+	}
+
+	@Test
+	public void testTrustedKeepsComponentRules() throws Exception {
+		DDMSReader reader = new DDMSReader();
+		reader.setTrusted(true);
+		try {
+			reader.getDDMSResource(new File(PropertyReader.getProperty("sample.data"), "3.0-invalidResourceExample.xml"));
+			fail("Allowed invalid data.");
+		}
+		catch (InvalidDDMSException e) {
+			expectMessage(e, "SuperSecret is not a valid enumeration token");
+		}
+		try {
+			reader.getElement("<ddms:Resource");
+			fail("Allowed invalid data.");
+		}
+		catch (InvalidDDMSException e) {
+			expectMessage(e, "nu.xom.ParsingException");
+		}
+	}
+
+	@Test
+	public void testLazy() throws Exception {
+		for (String sVersion : getSupportedVersions()) {
+			File file = new File(PropertyReader.getProperty("test.unit.data"), sVersion + "/resource.xml");
+			DDMSReader reader = new DDMSReader();
+			assertFalse(reader.isLazy());
+			reader.setLazy(true);
+			assertTrue(reader.isLazy());
+			Resource resource = reader.getDDMSResource(file);
+			assertFalse(resource.isMaterialized());
+			assertEquals(getReader(sVersion).getDDMSResource(file), resource);
+			InputStream in = new FileInputStream(file);
+			try {
+				assertFalse(reader.stream(in).next().isMaterialized());
+			}
+			finally {
+				in.close();
+			}
+		}
+	}
+
+	@Test
+	public void testLazyValidate() throws Exception {
+		DDMSReader reader = new DDMSReader();
+		reader.setLazy(true);
+		InputStream in = new FileInputStream(new File(PropertyReader.getProperty("sample.data"),
+			"3.0-invalidResourceExample.xml"));
+		try {
+			assertEquals(2, reader.validate(in).size());
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Returns a projection of identifiers, titles and security.
+	 */
+	private static Set<Class<? extends IDDMSComponent>> getTestProjection() {
+		Set<Class<? extends IDDMSComponent>> components = new HashSet<Class<? extends IDDMSComponent>>();
+		components.add(Identifier.class);
+		components.add(Title.class);
+		components.add(Security.class);
+		return (components);
+	}
+
+	/**
+	 * Checks that a projected resource only contains the components in the test projection.
+	 */
+	private static void assertProjected(Resource full, Resource projected) {
+		assertEquals(full.getIdentifiers(), projected.getIdentifiers());
+		assertEquals(full.getTitles(), projected.getTitles());
+		assertEquals(full.getSecurity(), projected.getSecurity());
+		assertFalse(full.getGeospatialCoverages().isEmpty());
+		assertTrue(projected.getGeospatialCoverages().isEmpty());
+		assertTrue(projected.getSubjectCoverages().isEmpty());
+		assertEquals(-1, projected.toXML().indexOf("geospatialCoverage"));
+	}
+
+	@Test
+	public void testProjection() throws Exception {
+		for (String sVersion : getSupportedVersions()) {
+			File file = new File(PropertyReader.getProperty("test.unit.data"), sVersion + "/resource.xml");
+			Resource full = getReader(sVersion).getDDMSResource(file);
+			DDMSReader reader = new DDMSReader();
+			assertNull(reader.getProjection());
+			reader.setProjection(getTestProjection());
+			assertEquals(getTestProjection(), reader.getProjection());
+			assertProjected(full, reader.getDDMSResource(file));
+			reader.setTrusted(true);
+			assertProjected(full, reader.getDDMSResource(file));
+			reader.setProjection(null);
+			assertEquals(full, reader.getDDMSResource(file));
+		}
+	}
+
+	@Test
+	public void testProjectionStream() throws Exception {
+		for (String sVersion : getSupportedVersions()) {
+			File file = new File(PropertyReader.getProperty("test.unit.data"), sVersion + "/resource.xml");
+			Resource full = getReader(sVersion).getDDMSResource(file);
+			DDMSReader reader = new DDMSReader();
+			reader.setProjection(getTestProjection());
+			for (boolean trusted : new boolean[] { false, true }) {
+				reader.setTrusted(trusted);
+				InputStream in = new FileInputStream(file);
+				try {
+					assertProjected(full, reader.stream(in).next());
+				}
+				finally {
+					in.close();
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testProjectionStillValidates() throws Exception {
+		DDMSReader reader = new DDMSReader();
+		reader.setProjection(getTestProjection());
+		String record = getStreamRecord("3.0").replaceFirst("xmlns:ddms=", "xmlns:ism=\"urn:us:gov:ic:ism\" xmlns:ddms=");
+		record = record.replaceFirst("<ddms:subtitle ", "<ddms:subtitle ddms:unknown=\"a\" ");
+		try {
+			reader.getDDMSResource(record);
+			fail("Allowed invalid data.");
+		}
+		catch (InvalidDDMSException e) {
+			expectMessage(e, "nu.xom.ValidityException: cvc-complex-type");
+		}
+	}
+
+	@Test
+	public void testProjectionStreamStillValidates() throws Exception {
+		DDMSVersion version = DDMSVersion.getVersionFor("3.0");
+		String record = getStreamRecord("3.0");
+		String invalidRecord = record.replaceFirst("<ddms:subtitle ", "<ddms:subtitle ddms:unknown=\"a\" ");
+		StringBuffer feed = new StringBuffer();
+		feed.append("<feed xmlns:ism=\"").append(version.getIsmNamespace()).append("\">");
+		feed.append(invalidRecord).append(record).append("</feed>");
+		DDMSReader reader = getReader("3.0");
+		reader.setProjection(getTestProjection());
+		Iterator<Resource> iterator = reader.stream(toStream(feed.toString()));
+		try {
+			iterator.next();
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalStateException e) {
+			assertTrue(e.getCause() instanceof InvalidDDMSException);
+			expectMessage(e, "nu.xom.ValidityException: cvc-complex-type");
+		}
+		assertTrue(iterator.next().getSubtitles().isEmpty());
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void testProjectionInvalidType() {
+		Set<Class<? extends IDDMSComponent>> components = getTestProjection();
+		components.add(Resource.class);
+		try {
+			new DDMSReader().setProjection(components);
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "buri.ddmsence.ddms.Resource is not a top-level component of a Resource.");
+		}
+	}
+
+	/**
+	 * Returns the unit test resource for a version without its XML declaration or ISM namespace declaration, so that
+	 * it can be embedded in a larger stream which declares the ISM namespace on a wrapper element.
+	 */
+	private String getStreamRecord(String sVersion) throws IOException {
+		DDMSVersion version = DDMSVersion.getVersionFor(sVersion);
+		StringBuffer record = new StringBuffer();
+		LineNumberReader reader = new LineNumberReader(new FileReader(new File(
+			PropertyReader.getProperty("test.unit.data"), sVersion + "/resource.xml")));
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (!line.startsWith("<?xml"))
+				record.append(line).append("\n");
+		}
+		reader.close();
+		return (record.toString().replace(" xmlns:ism=\"" + version.getIsmNamespace() + "\"", ""));
+	}
+
+	/**
+	 * Wraps a string in an input stream.
+	 */
+	private static InputStream toStream(String xml) throws IOException {
+		return (new ByteArrayInputStream(xml.getBytes("UTF-8")));
+	}
+
 	/**
 	 * Accessor for the reader
 	 */
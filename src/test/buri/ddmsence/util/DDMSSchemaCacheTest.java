@@ -0,0 +1,100 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.util;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Map;
+
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
+import org.apache.xerces.xni.grammars.XMLGrammarPool;
+import org.junit.Test;
+
+import buri.ddmsence.AbstractBaseTestCase;
+
+/**
+ * A collection of DDMSSchemaCache tests.
+ *
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public class DDMSSchemaCacheTest extends AbstractBaseTestCase {
+
+	public DDMSSchemaCacheTest() {
+		super(null);
+	}
+
+	@Test
+	public void testGrammarPoolShared() {
+		for (String sVersion : getSupportedVersions()) {
+			DDMSVersion version = DDMSVersion.getVersionFor(sVersion);
+			XMLGrammarPool pool = DDMSSchemaCache.getGrammarPool(version);
+			assertSame(pool, DDMSSchemaCache.getGrammarPool(version));
+			assertTrue(pool.retrieveInitialGrammarSet(XMLGrammarDescription.XML_SCHEMA).length > 0);
+		}
+	}
+
+	@Test
+	public void testGrammarPoolPerVersion() {
+		assertNotSame(DDMSSchemaCache.getGrammarPool(DDMSVersion.getVersionFor("3.0")),
+			DDMSSchemaCache.getGrammarPool(DDMSVersion.getVersionFor("3.1")));
+	}
+
+	@Test
+	public void testGrammarPoolNullVersion() {
+		try {
+			DDMSSchemaCache.getGrammarPool(null);
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "version must exist.");
+		}
+	}
+
+	@Test
+	public void testSchemaShared() {
+		for (String sVersion : getSupportedVersions()) {
+			DDMSVersion version = DDMSVersion.getVersionFor(sVersion);
+			assertSame(DDMSSchemaCache.getSchema(version), DDMSSchemaCache.getSchema(version));
+		}
+	}
+
+	@Test
+	public void testSchemaLocations() {
+		Map<String, String> locations = DDMSSchemaCache.getSchemaLocations(DDMSVersion.getVersionFor("3.0"));
+		assertEquals(2, locations.size());
+		assertEquals("http://metadata.dod.mil/mdr/ns/DDMS/3.0/", locations.keySet().iterator().next());
+		locations = DDMSSchemaCache.getSchemaLocations(DDMSVersion.getVersionFor("5.0"));
+		assertEquals(4, locations.size());
+		for (String location : locations.values())
+			assertTrue(location.endsWith(".xsd"));
+	}
+
+	@Test
+	public void testSharedPoolStillValidates() throws Exception {
+		for (String sVersion : getSupportedVersions()) {
+			DDMSVersion version = DDMSVersion.getVersionFor(sVersion);
+			File file = new File(PropertyReader.getProperty("test.unit.data") + sVersion + "/resource.xml");
+			assertNotNull(new DDMSReader(version).getDDMSResource(file));
+			assertNotNull(new DDMSReader(version).getDDMSResource(file));
+		}
+	}
+}
@@ -21,6 +21,8 @@ package buri.ddmsence.util;
 
 import static org.junit.Assert.*;
 
+import java.util.List;
+
 import org.junit.Test;
 
 import buri.ddmsence.AbstractBaseTestCase;
@@ -248,4 +250,25 @@ public class DDMSVersionTest extends AbstractBaseTestCase {
 			expectMessage(e, "DDMS Version dog is not yet supported.");
 		}
 	}
+
+	@Test
+	public void testIsAtLeastVersion() {
+		List<String> versions = DDMSVersion.getSupportedVersions();
+		for (int i = 0; i < versions.size(); i++) {
+			DDMSVersion version = DDMSVersion.getVersionFor(versions.get(i));
+			assertEquals(i, version.getOrdinal());
+			for (String sTest : versions) {
+				DDMSVersion test = DDMSVersion.getVersionFor(sTest);
+				assertEquals(version.isAtLeast(sTest), version.isAtLeast(test));
+			}
+		}
+		assertTrue(DDMSVersion.getVersionFor("4.0.1").isAtLeast(DDMSVersion.getVersionFor("4.1")));
+		try {
+			DDMSVersion.getCurrentVersion().isAtLeast((DDMSVersion) null);
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "version must exist.");
+		}
+	}
 }
@@ -0,0 +1,104 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.util;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import buri.ddmsence.AbstractBaseTestCase;
+import buri.ddmsence.ddms.Resource;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * <p> Tests related to building JSON trees from a JSON stream </p>
+ *
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public class JsonTreeBuilderTest extends AbstractBaseTestCase {
+
+	/**
+	 * Constructor
+	 */
+	public JsonTreeBuilderTest() {
+		super(null);
+	}
+
+	@Test
+	public void testBuildsTree() throws IOException {
+		JsonTreeBuilder builder = new JsonTreeBuilder();
+		assertEquals(JsonNull.INSTANCE, builder.get());
+		builder.beginObject();
+		builder.name("string").value("value");
+		builder.name("boolean").value(true);
+		builder.name("long").value(3L);
+		builder.name("double").value(1.5);
+		builder.name("array").beginArray().value("a").nullValue().beginObject().endObject().endArray();
+		builder.endObject();
+		builder.close();
+		JsonElement expected = new JsonParser().parse(
+			"{\"string\":\"value\",\"boolean\":true,\"long\":3,\"double\":1.5,\"array\":[\"a\",null,{}]}");
+		assertEquals(expected, builder.get());
+	}
+
+	@Test
+	public void testMatchesText() throws Exception {
+		for (String sVersion : getSupportedVersions()) {
+			DDMSVersion.setCurrentVersion(sVersion);
+			File file = new File(PropertyReader.getProperty("test.unit.data"), sVersion + "/resource.xml");
+			Resource resource = new DDMSReader().getDDMSResource(file);
+			assertEquals(new JsonParser().parse(resource.toJSON()), resource.getJSONObject());
+		}
+	}
+
+	@Test
+	public void testInvalidUse() throws IOException {
+		JsonWriter builder = new JsonTreeBuilder().beginObject();
+		try {
+			builder.value("unnamed");
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalStateException e) {
+			expectMessage(e, "A value inside an object must have a name.");
+		}
+		try {
+			builder.endArray();
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalStateException e) {
+			expectMessage(e, "There is no open JsonArray to close.");
+		}
+		try {
+			builder.close();
+			fail("Allowed invalid data.");
+		}
+		catch (IOException e) {
+			expectMessage(e, "The JSON is incomplete.");
+		}
+	}
+}
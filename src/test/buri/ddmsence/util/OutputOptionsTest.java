@@ -0,0 +1,207 @@
+/* Copyright 2010 - 2014 by Brian Uri!
+
+   This file is part of DDMSence.
+
+   This library is free software; you can redistribute it and/or modify
+   it under the terms of version 3.0 of the GNU Lesser General Public
+   License as published by the Free Software Foundation.
+
+   This library is distributed in the hope that it will be useful,
+   but WITHOUT ANY WARRANTY; without even the implied warranty of
+   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+   GNU Lesser General Public License for more details.
+
+   You should have received a copy of the GNU Lesser General Public
+   License along with DDMSence. If not, see <http://www.gnu.org/licenses/>.
+
+   You can contact the author at ddmsence@urizone.net. The DDMSence
+   home page is located at http://ddmsence.urizone.net/
+ */
+package buri.ddmsence.util;
+
+import static org.junit.Assert.*;
+
+import java.io.StringWriter;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.google.gson.stream.JsonWriter;
+
+import buri.ddmsence.AbstractBaseTestCase;
+import buri.ddmsence.ddms.summary.SubjectCoverage;
+import buri.ddmsence.ddms.summary.SubjectCoverageTest;
+
+/**
+ * <p> Tests related to snapshots of the output settings </p>
+ *
+ * @author Brian Uri!
+ * @since 2.5.0
+ */
+public class OutputOptionsTest extends AbstractBaseTestCase {
+
+	/**
+	 * Constructor
+	 */
+	public OutputOptionsTest() {
+		super(null);
+	}
+
+	@Test
+	public void testGetCurrent() {
+		assertEquals(new OutputOptions(0, false, false), OutputOptions.getCurrent());
+		PropertyReader.setProperty("output.indexLevel", "2");
+		PropertyReader.setProperty("output.json.inlineAttributes", "true");
+		PropertyReader.setProperty("output.json.prettyPrint", "true");
+		assertEquals(new OutputOptions(2, true, true), OutputOptions.getCurrent());
+	}
+
+	@Test
+	public void testSnapshotKept() {
+		OutputOptions options = OutputOptions.getCurrent();
+		assertSame(options, OutputOptions.getCurrent());
+		PropertyReader.setProperty("output.indexLevel", "1");
+		assertNotSame(options, OutputOptions.getCurrent());
+		assertEquals(1, OutputOptions.getCurrent().getIndexLevel());
+		assertSame(OutputOptions.getCurrent(), OutputOptions.getCurrent());
+
+		DDMSContext context = DDMSContext.getCurrent().withProperty("output.indexLevel", "2");
+		DDMSContext previous = DDMSContext.bind(context);
+		try {
+			assertSame(context.getOutputOptions(), OutputOptions.getCurrent());
+			assertEquals(2, OutputOptions.getCurrent().getIndexLevel());
+		}
+		finally {
+			DDMSContext.bind(previous);
+		}
+		assertEquals(1, OutputOptions.getCurrent().getIndexLevel());
+	}
+
+	@Test
+	public void testStreamingJSONBindsOptions() throws Exception {
+		SubjectCoverage component = SubjectCoverageTest.getFixture();
+		PropertyReader.setProperty("output.json.inlineAttributes", "true");
+		String json = component.toJSON();
+		StringWriter writer = new StringWriter();
+		component.writeJSON(new JsonWriter(writer));
+		assertEquals(json, writer.toString());
+		assertNull(OutputOptions.getBound());
+	}
+
+	@Test
+	public void testBoundOptions() {
+		OutputOptions options = new OutputOptions(1, true, false);
+		assertNull(OutputOptions.bind(options));
+		try {
+			PropertyReader.setProperty("output.indexLevel", "2");
+			assertSame(options, OutputOptions.getCurrent());
+		}
+		finally {
+			assertSame(options, OutputOptions.bind(null));
+		}
+		assertNull(OutputOptions.getBound());
+		assertEquals(2, OutputOptions.getCurrent().getIndexLevel());
+	}
+
+	@Test
+	public void testWithMethods() {
+		OutputOptions options = new OutputOptions(0, false, false);
+		assertSame(options, options.withIndexLevel(0));
+		assertEquals(new OutputOptions(2, false, false), options.withIndexLevel(2));
+		assertEquals(new OutputOptions(0, true, false), options.withInlineAttributes(true));
+		assertEquals(new OutputOptions(0, false, true), options.withPrettyPrint(true));
+		assertEquals(new OutputOptions(0, false, false), options);
+		assertFalse(options.hashCode() == options.withPrettyPrint(true).hashCode());
+	}
+
+	@Test
+	public void testGetIndex() {
+		assertEquals("", new OutputOptions(0, false, false).getIndex(0, 2));
+		assertEquals("", new OutputOptions(1, false, false).getIndex(0, 1));
+		assertEquals("[2]", new OutputOptions(1, false, false).getIndex(1, 2));
+		assertEquals("[1]", new OutputOptions(2, false, false).getIndex(0, 1));
+	}
+
+	@Test
+	public void testInvalidIndexLevel() {
+		try {
+			new OutputOptions(3, false, false);
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "The index level must be 0, 1 or 2.");
+		}
+	}
+
+	@Test
+	public void testUnknownPropertyValue() {
+		PropertyReader.setProperty("output.indexLevel", "unknown");
+		assertEquals(0, OutputOptions.getCurrent().getIndexLevel());
+	}
+
+	@Test
+	public void testMatchesProperties() throws Exception {
+		SubjectCoverage component = SubjectCoverageTest.getFixture();
+		OutputOptions options = new OutputOptions(2, true, true);
+		PropertyReader.setProperty("output.indexLevel", "2");
+		PropertyReader.setProperty("output.json.inlineAttributes", "true");
+		PropertyReader.setProperty("output.json.prettyPrint", "true");
+		String text = component.toText();
+		String html = component.toHTML();
+		String json = component.toJSON();
+		PropertyReader.setProperty("output.indexLevel", "0");
+		PropertyReader.setProperty("output.json.inlineAttributes", "false");
+		PropertyReader.setProperty("output.json.prettyPrint", "false");
+		assertFalse(text.equals(component.toText()));
+		assertFalse(json.equals(component.toJSON()));
+		assertEquals(text, component.toText(options));
+		assertEquals(html, component.toHTML(options));
+		assertEquals(json, component.toJSON(options));
+		StringWriter writer = new StringWriter();
+		component.writeJSON(writer, options);
+		assertEquals(json, writer.toString());
+		StringBuilder builder = new StringBuilder();
+		component.writeText(builder, options);
+		assertEquals(text, builder.toString());
+		assertNull(OutputOptions.getBound());
+	}
+
+	@Test
+	public void testConcurrentRendering() throws Exception {
+		final SubjectCoverage component = SubjectCoverageTest.getFixture();
+		final OutputOptions indexed = new OutputOptions(2, false, false);
+		final OutputOptions plain = new OutputOptions(0, false, false);
+		final String indexedText = component.toText(indexed);
+		final String plainText = component.toText(plain);
+		assertFalse(indexedText.equals(plainText));
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Boolean> first = executor.submit(new Callable<Boolean>() {
+				public Boolean call() {
+					for (int i = 0; i < 200; i++) {
+						if (!indexedText.equals(component.toText(indexed)))
+							return (Boolean.FALSE);
+					}
+					return (Boolean.TRUE);
+				}
+			});
+			Future<Boolean> second = executor.submit(new Callable<Boolean>() {
+				public Boolean call() {
+					for (int i = 0; i < 200; i++) {
+						if (!plainText.equals(component.toText(plain)))
+							return (Boolean.FALSE);
+					}
+					return (Boolean.TRUE);
+				}
+			});
+			assertTrue(first.get().booleanValue());
+			assertTrue(second.get().booleanValue());
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+}
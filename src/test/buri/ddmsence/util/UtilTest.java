@@ -1050,6 +1050,32 @@ public class UtilTest extends AbstractBaseTestCase {
 		assertEquals(null, Util.xmlEscape(null));
 	}
 
+	@Test
+	public void testAppendXmlEscaped() throws IOException {
+		StringBuilder output = new StringBuilder();
+		Util.appendXmlEscaped(output, "a&b<c>d\"e'f");
+		Util.appendXmlEscaped(output, "plain");
+		assertEquals("a&amp;b&lt;c&gt;d&quot;e&apos;fplain", output.toString());
+		String plain = "nothing to escape";
+		assertSame(plain, Util.xmlEscape(plain));
+	}
+
+	@Test
+	public void testWriteHTMLTextProperty() throws IOException {
+		StringBuilder output = new StringBuilder();
+		Util.writeHTMLTextProperty(output, OutputFormat.HTML, "a.", "<b>", "c&d");
+		Util.writeHTMLTextProperty(output, OutputFormat.TEXT, "a.", "<b>", "c&d");
+		Util.writeHTMLTextProperty(output, OutputFormat.TEXT, "a.", "b", "");
+		assertEquals("<meta name=\"a.&lt;b&gt;\" content=\"c&amp;d\" />\na.<b>: c&d\n", output.toString());
+		try {
+			Util.writeHTMLTextProperty(output, OutputFormat.JSON, "a.", "b", "c");
+			fail("Allowed invalid data.");
+		}
+		catch (IllegalArgumentException e) {
+			expectMessage(e, "This method can only be used for HTML or Text output.");
+		}
+	}
+
 	@Test
 	public void testCapitalizeEmpty() {
 		assertEquals(null, Util.capitalize(null));